@@ -0,0 +1,29 @@
+package com.app.novelvoice.config;
+
+import com.app.novelvoice.netty.cluster.ClusterBus;
+import com.app.novelvoice.netty.cluster.LoopbackClusterBus;
+import com.app.novelvoice.netty.cluster.TcpPeerClusterBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * 聊天集群配置类
+ * 根据 netty.cluster.mode 选择集群总线实现
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Bean(destroyMethod = "stop")
+    public ClusterBus clusterBus(ClusterProperties properties) {
+        String nodeId = properties.getNodeId();
+        if (nodeId == null || nodeId.trim().isEmpty()) {
+            nodeId = "node-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        if ("tcp".equalsIgnoreCase(properties.getMode())) {
+            return new TcpPeerClusterBus(nodeId.trim(), properties);
+        }
+        return new LoopbackClusterBus(nodeId.trim());
+    }
+}
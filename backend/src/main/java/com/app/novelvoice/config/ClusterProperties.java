@@ -0,0 +1,64 @@
+package com.app.novelvoice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 聊天集群配置
+ * 对应 application.yml 中的 netty.cluster 配置段
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "netty.cluster")
+public class ClusterProperties {
+
+    /**
+     * 集群总线实现：loopback(进程内), tcp(TCP 节点直连网格)
+     */
+    private String mode = "loopback";
+
+    /**
+     * 当前节点ID，为空时启动时随机生成
+     */
+    private String nodeId;
+
+    /**
+     * 节点序号（0-31），用于生成全局唯一的消息序号，集群内各节点必须互不相同；
+     * 配置了 peers 时必须显式配置，单节点部署小于 0 时由节点ID哈希得出
+     */
+    private int nodeIndex = -1;
+
+    /**
+     * tcp 模式下节点间通信监听端口
+     */
+    private int bindPort = 9101;
+
+    /**
+     * tcp 模式下的其它节点，格式：节点ID@主机:端口，如 node-b@127.0.0.1:9102
+     */
+    private List<String> peers = new ArrayList<>();
+
+    /**
+     * 单个转发批次最多包含的消息数
+     */
+    private int batchSize = 256;
+
+    /**
+     * 转发批次的最长攒批时间（毫秒）
+     */
+    private long flushIntervalMs = 5;
+
+    /**
+     * 每个节点链路最多积压的待发送消息数，超出后丢弃并计数
+     */
+    private int maxPending = 100000;
+
+    /**
+     * 节点链路断开后的重连间隔（毫秒）
+     */
+    private long reconnectIntervalMs = 3000;
+}
@@ -0,0 +1,511 @@
+package com.app.novelvoice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Netty WebSocket 服务配置
+ * 对应 application.yml 中的 netty.websocket 配置段
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "netty.websocket")
+public class NettyProperties {
+
+    /**
+     * WebSocket 监听端口
+     */
+    private int port = 8081;
+
+    /**
+     * WebSocket 路径
+     */
+    private String path = "/ws";
+
+    /**
+     * 单个 WebSocket 帧最大长度（字节）
+     */
+    private int maxFrameSize = 65536;
+
+    /**
+     * 握手阶段 HTTP 报文聚合上限（字节）
+     */
+    private int maxHttpContentLength = 65536;
+
+    /**
+     * 是否优先使用原生传输（Linux 下为 epoll，不可用时自动回退 NIO）
+     */
+    private boolean nativeTransport = true;
+
+    /**
+     * boss 线程数（负责 accept）
+     */
+    private int bossThreads = 1;
+
+    /**
+     * worker 线程数，0 表示使用 Netty 默认值（CPU 核数 * 2）
+     */
+    private int workerThreads = 0;
+
+    /**
+     * 全连接队列长度 SO_BACKLOG
+     */
+    private int soBacklog = 1024;
+
+    /**
+     * 是否禁用 Nagle 算法
+     */
+    private boolean tcpNoDelay = true;
+
+    /**
+     * 是否开启 TCP keepalive
+     */
+    private boolean soKeepAlive = true;
+
+    /**
+     * 写缓冲区低水位（字节），低于此值 Channel 恢复可写
+     */
+    private int writeBufferLowWaterMark = 32 * 1024;
+
+    /**
+     * 写缓冲区高水位（字节），超过此值 Channel 变为不可写
+     */
+    private int writeBufferHighWaterMark = 64 * 1024;
+
+    /**
+     * 是否使用池化 ByteBuf 分配器
+     */
+    private boolean pooledAllocator = true;
+
+    /**
+     * 消息持久化（异步批量写入）配置
+     */
+    private Persist persist = new Persist();
+
+    /**
+     * 慢消费者（写缓冲区超过高水位）处理配置
+     */
+    private SlowConsumer slowConsumer = new SlowConsumer();
+
+    /**
+     * 心跳检测配置
+     */
+    private Heartbeat heartbeat = new Heartbeat();
+
+    /**
+     * 在线状态配置
+     */
+    private Presence presence = new Presence();
+
+    /**
+     * 断线补发缓冲配置
+     */
+    private Replay replay = new Replay();
+
+    /**
+     * permessage-deflate 压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 握手鉴权配置
+     */
+    private Auth auth = new Auth();
+
+    /**
+     * 用户资料缓存配置
+     */
+    private ProfileCache profileCache = new ProfileCache();
+
+    /**
+     * 入站消息限流配置
+     */
+    private RateLimit rateLimit = new RateLimit();
+
+    /**
+     * 离线收件箱配置
+     */
+    private OfflineInbox offlineInbox = new OfflineInbox();
+
+    /**
+     * 会话列表缓存配置
+     */
+    private ConversationList conversationList = new ConversationList();
+
+    @Data
+    public static class Persist {
+        /**
+         * 待写入队列容量（条）
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * 单批次最大写入条数
+         */
+        private int batchSize = 200;
+
+        /**
+         * 攒批时间窗口（毫秒），窗口到期即使未满一批也会写入
+         */
+        private long flushIntervalMs = 50;
+
+        /**
+         * 队列满时的处理策略：DROP(丢弃并计数), HANDOFF(交给溢出写线程逐条写入，溢出队列也满时丢弃并计数)。
+         * 两种策略都不会在提交消息的事件循环上访问数据库
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * 溢出写线程的队列容量（条），用于 HANDOFF 策略和停机期间到达的消息
+         */
+        private int overflowCapacity = 10000;
+
+        /**
+         * 停机时等待队列排空的最长时间（毫秒）
+         */
+        private long shutdownTimeoutMs = 10000;
+
+        /**
+         * 私聊会话ID缓存的最大条数（两人 -> 会话ID，会话ID不会变化，无需过期）
+         */
+        private int conversationCacheSize = 100000;
+
+        /**
+         * 启动后是否在后台为缺少会话ID的历史私聊消息补填 conversation_id（一次性迁移，升级时在一个节点上开启，
+         * 进度记录在 migration_progress，完成后再启动直接跳过）
+         */
+        private boolean backfillEnabled = false;
+
+        /**
+         * 补填时每批处理的消息数
+         */
+        private int backfillBatchSize = 500;
+
+        /**
+         * 补填时两批之间的停顿（毫秒），降低对线上库的压力
+         */
+        private long backfillPauseMs = 50;
+    }
+
+    @Data
+    public static class SlowConsumer {
+        /**
+         * Channel 不可写时低优先级消息（群聊广播）的处理策略
+         */
+        private SlowConsumerPolicy policy = SlowConsumerPolicy.BACKLOG;
+
+        /**
+         * 每个连接最多积压的消息数。BACKLOG 策略下广播超出后丢弃最旧的广播；
+         * 私聊、补发和离线推送在任何策略下都积压，超出且没有广播可丢弃时断开连接
+         */
+        private int backlogSize = 256;
+
+        /**
+         * DISCONNECT 策略下连续不可写超过该时长（毫秒）即断开连接
+         */
+        private long unwritableTimeoutMs = 30000;
+    }
+
+    @Data
+    public static class Heartbeat {
+        /**
+         * 读空闲时长（秒）：超过该时长未收到任何数据即发送 Ping，再空闲一个周期仍无数据则断开；0 表示关闭
+         */
+        private int readerIdleSeconds = 60;
+    }
+
+    @Data
+    public static class Presence {
+        /**
+         * 上下线变更写回 online_users 表的周期（毫秒）
+         */
+        private long flushIntervalMs = 1000;
+
+        /**
+         * 单条 SQL 最多写入的用户数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 刷新本节点在线记录活跃时间的周期（秒）
+         */
+        private int touchIntervalSeconds = 60;
+
+        /**
+         * 活跃时间超过该时长（秒）的记录视为节点已宕机残留，启动时和每次刷新时予以清理；
+         * 必须大于 touchIntervalSeconds。未配置节点ID的节点异常退出后，其记录最多保留该时长
+         */
+        private int staleSeconds = 300;
+    }
+
+    @Data
+    public static class Replay {
+        /**
+         * 每个聊天室/私聊会话在内存中保留的最近消息数
+         */
+        private int bufferSize = 256;
+
+        /**
+         * 单次补发的最大消息数，超出后客户端需以新的序号再次请求
+         */
+        private int maxReplay = 500;
+
+        /**
+         * 节点间时钟偏差上限（毫秒）。RESUME 回看该时长对应的序号窗口重发，客户端按序号去重，
+         * 偏差不超过该值时跨节点转发的消息不会因序号较小而漏补
+         */
+        private long clockSkewMs = 2000;
+
+        /**
+         * 缓冲区空闲超过该时长（秒）未写入即回收
+         */
+        private int idleSeconds = 600;
+
+        /**
+         * 握手完成后是否主动推送大厅最近消息（客户端无需再调 HTTP 历史接口）
+         */
+        private boolean pushOnConnect = true;
+
+        /**
+         * 首次连接、加入聊天室（seq 为 0）时推送的最近消息数
+         */
+        private int pushSize = 50;
+
+        /**
+         * 推送和补发时单个批量帧最多携带的消息数
+         */
+        private int batchMaxMessages = 100;
+
+        /**
+         * 推送和补发时单个批量帧的字节上限，超出后另起一帧
+         */
+        private int batchMaxBytes = 64 * 1024;
+    }
+
+    @Data
+    public static class Compression {
+        /**
+         * 是否允许客户端协商 permessage-deflate
+         */
+        private boolean enabled = false;
+
+        /**
+         * 小于该字节数的帧不压缩，省去短消息的压缩开销
+         */
+        private int minFrameSize = 1024;
+
+        /**
+         * 压缩级别（0-9），越高压缩率越好、CPU 开销越大
+         */
+        private int level = 6;
+
+        /**
+         * 是否接受客户端要求的 server_no_context_takeover。
+         * 保留上下文时每个连接常驻一个压缩器，压缩率更高但内存占用更大
+         */
+        private boolean allowServerNoContextTakeover = true;
+
+        /**
+         * 是否要求客户端不保留压缩上下文（client_no_context_takeover），可降低服务端解压的内存占用
+         */
+        private boolean clientNoContextTakeover = false;
+    }
+
+    @Data
+    public static class Auth {
+        /**
+         * 是否要求握手携带登录 token。关闭后退回按首条消息的 senderId 绑定用户，仅用于本地调试和压测
+         */
+        private boolean enabled = true;
+
+        /**
+         * 握手 URL 中 token 的查询参数名；也可用 Authorization: Bearer 请求头传递
+         */
+        private String tokenParam = "token";
+
+        /**
+         * token 缓存的最大条数
+         */
+        private int cacheSize = 10000;
+
+        /**
+         * token 缓存有效期（秒），过期后重新查库
+         */
+        private int cacheTtlSeconds = 300;
+
+        /**
+         * 缓存未命中时查库的线程数（查库不在事件循环上执行）
+         */
+        private int lookupThreads = 2;
+    }
+
+    @Data
+    public static class ProfileCache {
+        /**
+         * 最多缓存的用户数，超出后淘汰最久未访问的用户（分段近似 LRU）
+         */
+        private int maxSize = 50000;
+
+        /**
+         * 资料有效期（秒）。过期后仍先返回旧值并在后台刷新；多节点部署时其它节点改资料最迟在这个时间后生效
+         */
+        private int ttlSeconds = 600;
+    }
+
+    @Data
+    public static class ConversationList {
+        /**
+         * 最多缓存多少个用户的会话列表，超出后随机淘汰
+         */
+        private int maxUsers = 10000;
+
+        /**
+         * 会话列表快照有效期（秒）。本节点写入的消息和已读操作会就地更新快照；
+         * 多节点部署时其它节点写入的消息、对方改资料最迟在这个时间后生效
+         */
+        private int ttlSeconds = 60;
+    }
+
+    @Data
+    public static class OfflineInbox {
+        /**
+         * 是否为离线用户暂存私聊消息并在上线时批量推送
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单个用户在内存中暂存的消息数，超出后溢出到数据库（只记录水位，消息本身已在消息表中）
+         */
+        private int maxPerUser = 200;
+
+        /**
+         * 所有用户合计在内存中暂存的消息数，超出后当前用户溢出到数据库
+         */
+        private int maxTotal = 100000;
+
+        /**
+         * 所有用户合计在内存中暂存的消息字节数（按编码后大小），超出后当前用户溢出到数据库
+         */
+        private long maxTotalBytes = 64L * 1024 * 1024;
+
+        /**
+         * 从数据库取回溢出消息前等待本节点写入队列落库的最长时间（毫秒），超时后按此间隔重试
+         */
+        private long flushWaitMs = 2000;
+
+        /**
+         * 单次推送的最大消息数，超出部分在客户端确认后继续推送
+         */
+        private int pushLimit = 500;
+    }
+
+    @Data
+    public static class RateLimit {
+        /**
+         * 是否对客户端发来的消息限流
+         */
+        private boolean enabled = true;
+
+        /**
+         * 超出限额时的处理策略
+         */
+        private RateLimitPolicy policy = RateLimitPolicy.REJECT;
+
+        /**
+         * 单个连接每秒消息数，0 表示不限
+         */
+        private int connectionMessagesPerSecond = 20;
+
+        /**
+         * 单个连接允许的消息突发数
+         */
+        private int connectionMessageBurst = 40;
+
+        /**
+         * 单个连接每秒字节数，0 表示不限
+         */
+        private int connectionBytesPerSecond = 64 * 1024;
+
+        /**
+         * 单个连接允许的突发字节数，应不小于 maxFrameSize，否则最大的帧永远无法通过
+         */
+        private int connectionByteBurst = 256 * 1024;
+
+        /**
+         * 单个用户（所有设备合计）每秒消息数，0 表示不限
+         */
+        private int userMessagesPerSecond = 30;
+
+        /**
+         * 单个用户允许的消息突发数
+         */
+        private int userMessageBurst = 60;
+
+        /**
+         * 单个用户每秒字节数，0 表示不限
+         */
+        private int userBytesPerSecond = 128 * 1024;
+
+        /**
+         * 单个用户允许的突发字节数
+         */
+        private int userByteBurst = 512 * 1024;
+
+        /**
+         * DELAY 策略下最多推迟读取的时长（毫秒），需要等待更久的消息仍被拒绝
+         */
+        private long maxDelayMs = 1000;
+
+        /**
+         * 同一连接两次限流通知的最小间隔（毫秒），避免刷屏的客户端换来同样多的通知
+         */
+        private long noticeIntervalMs = 1000;
+    }
+
+    /**
+     * 限流策略
+     */
+    public enum RateLimitPolicy {
+        /**
+         * 丢弃超限消息并通知客户端
+         */
+        REJECT,
+        /**
+         * 放行当前消息，暂停读取该连接直到令牌补足（TCP 背压到客户端）；等待超过 maxDelayMs 的仍被拒绝
+         */
+        DELAY
+    }
+
+    /**
+     * 慢消费者处理策略
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * 不可写期间直接丢弃低优先级消息
+         */
+        DROP,
+        /**
+         * 写入有界的连接级积压队列，恢复可写后按序补发
+         */
+        BACKLOG,
+        /**
+         * 不可写期间丢弃低优先级消息，持续不可写超时后断开连接
+         */
+        DISCONNECT
+    }
+
+    /**
+     * 持久化队列溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 交给有界的溢出写线程逐条写入（多容纳 overflowCapacity 条，仍满时丢弃并计数）
+         */
+        HANDOFF,
+        /**
+         * 直接丢弃并计数（保护事件循环，允许丢失持久化）
+         */
+        DROP
+    }
+}
@@ -21,11 +21,14 @@ public class ChatController {
     private ChatService chatService;
 
     /**
-     * 获取群聊历史消息
+     * 分页获取群聊历史消息（不传游标返回最新一页，从新到旧；beforeId 传当前最早一条的ID向前翻页）
      */
     @GetMapping("/history")
-    public List<MessageVO> getHistory() {
-        return chatService.getHistoryMessages();
+    public List<MessageVO> getHistory(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return chatService.getHistoryMessages(beforeId, afterId, Math.min(Math.max(limit, 1), 200));
     }
     
     /**
@@ -37,14 +40,16 @@ public class ChatController {
     }
     
     /**
-     * 获取私聊消息历史
+     * 分页获取私聊消息历史（游标含义同群聊历史）
      */
     @GetMapping("/private/{userId}/{targetUserId}")
     public List<MessageVO> getPrivateMessages(
             @PathVariable Long userId,
             @PathVariable Long targetUserId,
-            @RequestParam(defaultValue = "100") int limit) {
-        return chatService.getPrivateMessages(userId, targetUserId, limit);
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return chatService.getPrivateMessages(userId, targetUserId, beforeId, afterId, Math.min(Math.max(limit, 1), 200));
     }
     
     /**
@@ -63,6 +68,24 @@ public class ChatController {
         chatService.markAsRead(userId, senderId);
     }
     
+    /**
+     * 获取未读私聊消息总数
+     */
+    @GetMapping("/unread/{userId}")
+    public int getUnreadCount(@PathVariable Long userId) {
+        return chatService.getUnreadCount(userId);
+    }
+    
+    /**
+     * 分页获取在线用户列表（afterId 传上一页最后一个用户ID）
+     */
+    @GetMapping("/online")
+    public List<UserVO> getOnlineUsers(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return chatService.getOnlineUsers(afterId, Math.min(Math.max(limit, 1), 200));
+    }
+    
     /**
      * 获取所有用户列表（用于私聊选择）
      */
@@ -0,0 +1,104 @@
+package com.app.novelvoice.controller;
+
+import com.app.novelvoice.netty.ChatMetrics;
+import com.app.novelvoice.netty.ChatRoomManager;
+import com.app.novelvoice.netty.ConversationBackfillJob;
+import com.app.novelvoice.netty.ConversationListCache;
+import com.app.novelvoice.netty.MessageReplayBuffer;
+import com.app.novelvoice.netty.MessageWriteBehindQueue;
+import com.app.novelvoice.netty.NettyServer;
+import com.app.novelvoice.netty.OfflineInbox;
+import com.app.novelvoice.netty.PresenceManager;
+import com.app.novelvoice.netty.RateLimiter;
+import com.app.novelvoice.netty.SlowConsumerHandler;
+import com.app.novelvoice.netty.TokenCache;
+import com.app.novelvoice.netty.UserProfileCache;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 聊天服务监控接口
+ */
+@RestController
+@RequestMapping("/api/chat/metrics")
+public class ChatMetricsController {
+
+    @Autowired
+    private ChatMetrics chatMetrics;
+
+    @Autowired
+    private NettyServer nettyServer;
+
+    @Autowired
+    private MessageWriteBehindQueue messageWriteBehindQueue;
+
+    @Autowired
+    private ChatRoomManager chatRoomManager;
+
+    @Autowired
+    private PresenceManager presenceManager;
+
+    @Autowired
+    private MessageReplayBuffer messageReplayBuffer;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ConversationListCache conversationListCache;
+
+    @Autowired
+    private ConversationBackfillJob conversationBackfillJob;
+
+    @Autowired
+    private OfflineInbox offlineInbox;
+
+    /**
+     * 获取 WebSocket 服务运行指标
+     */
+    @GetMapping
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("traffic", chatMetrics.getTrafficMetrics());
+        metrics.put("latency", chatMetrics.getLatencyMetrics());
+        metrics.put("eventLoops", nettyServer.getEventLoopMetrics());
+        metrics.put("allocator", nettyServer.getAllocatorMetrics());
+        metrics.put("persist", messageWriteBehindQueue.getMetrics());
+        metrics.put("slowConsumer", SlowConsumerHandler.getMetrics());
+        metrics.put("rooms", chatRoomManager.getRoomCount());
+        metrics.put("presence", presenceManager.getMetrics());
+        metrics.put("replay", messageReplayBuffer.getMetrics());
+        metrics.put("cluster", clusterRouter.getMetrics());
+        metrics.put("auth", tokenCache.getMetrics());
+        metrics.put("profileCache", userProfileCache.getMetrics());
+        metrics.put("rateLimit", rateLimiter.getMetrics());
+        metrics.put("offlineInbox", offlineInbox.getMetrics());
+        metrics.put("conversationList", conversationListCache.getMetrics());
+        metrics.put("conversationBackfill", conversationBackfillJob.getMetrics());
+        return metrics;
+    }
+
+    /**
+     * 清空延迟直方图，开始新的观察窗口
+     */
+    @PostMapping("/latency/reset")
+    public void resetLatency() {
+        chatMetrics.resetLatency();
+    }
+}
@@ -26,6 +26,16 @@ public class Message extends BaseEntity {
      * 会话ID（私聊时使用）
      */
     private Long conversationId;
+
+    /**
+     * 聊天室ID（房间消息时使用，NULL表示大厅/私聊）
+     */
+    private Long roomId;
+
+    /**
+     * 服务端分配的消息序号（同一会话/聊天室内单调递增，用于断线补发）
+     */
+    private Long seq;
     
     /**
      * 消息内容
@@ -0,0 +1,29 @@
+package com.app.novelvoice.entity;
+
+import lombok.Data;
+
+/**
+ * 后台数据迁移进度实体类
+ */
+@Data
+public class MigrationProgress {
+    /**
+     * 迁移任务名
+     */
+    private String name;
+
+    /**
+     * 游标第一列（如接收者ID）
+     */
+    private Long cursorKey;
+
+    /**
+     * 游标第二列（消息ID）
+     */
+    private Long cursorId;
+
+    /**
+     * 是否已完成
+     */
+    private Boolean finished;
+}
@@ -0,0 +1,34 @@
+package com.app.novelvoice.entity;
+
+import lombok.Data;
+
+/**
+ * 私聊未读计数实体类（每个接收者、发送者一行）
+ */
+@Data
+public class UnreadCounter {
+    /**
+     * 接收者ID
+     */
+    private Long userId;
+
+    /**
+     * 发送者ID
+     */
+    private Long peerId;
+
+    /**
+     * 会话ID
+     */
+    private Long conversationId;
+
+    /**
+     * 未读消息数（写入时为增量）
+     */
+    private Integer unreadCount;
+
+    /**
+     * 已读水位：该发送者发来的ID不大于此值的消息均已读
+     */
+    private Long readMessageId;
+}
@@ -1,9 +1,11 @@
 package com.app.novelvoice.mapper;
 
 import com.app.novelvoice.entity.Conversation;
+import com.app.novelvoice.vo.ConversationVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -17,6 +19,19 @@ public interface ConversationMapper {
      */
     int insert(Conversation conversation);
     
+    /**
+     * 插入会话，两人会话已存在时不插入；两种情况都把会话ID回填到 conversation.id
+     * （user1Id 必须小于 user2Id）
+     */
+    int insertOrGetId(Conversation conversation);
+
+    /**
+     * 更新会话最后消息（单条语句，只会前移，乱序到达的旧消息不会覆盖新消息）
+     */
+    int updateLastMessage(@Param("id") Long id,
+                          @Param("lastMessageId") Long lastMessageId,
+                          @Param("lastMessageTime") Date lastMessageTime);
+
     /**
      * 更新会话
      */
@@ -28,12 +43,12 @@ public interface ConversationMapper {
     Conversation selectById(@Param("id") Long id);
     
     /**
-     * 根据两个用户ID查询会话
+     * 按唯一键查询两人的会话ID，不存在时返回 null（user1Id 必须小于等于 user2Id）
      */
-    Conversation selectByUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+    Long selectIdByUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
     
     /**
-     * 查询用户的所有会话
+     * 查询用户的会话列表：一条联表查询带出对方资料、最后消息预览和未读数
      */
-    List<Conversation> selectByUserId(@Param("userId") Long userId);
+    List<ConversationVO> selectListByUserId(@Param("userId") Long userId);
 }
@@ -18,42 +18,63 @@ public interface MessageMapper {
     int insert(Message message);
 
     /**
-     * 查询所有群聊消息
+     * 批量插入消息（多行 INSERT）
      */
-    List<Message> selectAll();
-    
+    int insertBatch(List<Message> messages);
+
     /**
-     * 查询群聊历史消息（带数量限制）
+     * 按消息ID键集分页查询大厅历史：只给 beforeId（或都不给）时返回早于它的最近 limit 条，从新到旧；
+     * 给 afterId 时返回晚于它的 limit 条，从旧到新
      */
-    List<Message> selectRecent(@Param("limit") int limit);
-    
+    List<Message> selectLobbyPage(@Param("beforeId") Long beforeId,
+                                  @Param("afterId") Long afterId,
+                                  @Param("limit") int limit);
+
     /**
-     * 查询私聊消息（根据会话ID）
+     * 按消息ID键集分页查询某个私聊会话的历史（游标含义同 {@link #selectLobbyPage}）
      */
-    List<Message> selectByConversationId(@Param("conversationId") Long conversationId, @Param("limit") int limit);
-    
+    List<Message> selectConversationPage(@Param("conversationId") Long conversationId,
+                                         @Param("beforeId") Long beforeId,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
     /**
-     * 查询两个用户之间的私聊消息
+     * 按 (receiver_id, id) 游标查询缺少会话ID的私聊消息，按接收者、ID升序（只含 id、sender_id、receiver_id、create_time）
      */
-    List<Message> selectByUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id, @Param("limit") int limit);
-    
+    List<Message> selectWithoutConversation(@Param("afterReceiverId") long afterReceiverId,
+                                            @Param("afterId") long afterId,
+                                            @Param("limit") int limit);
+
     /**
-     * 标记消息为已读
+     * 为一组仍缺少会话ID的消息补填会话ID
      */
-    int markAsRead(@Param("userId") Long userId, @Param("senderId") Long senderId);
+    int updateConversationId(@Param("conversationId") Long conversationId, @Param("ids") List<Long> ids);
     
     /**
-     * 标记会话中的所有消息为已读
+     * 按序号键集查询断线期间的消息（afterSeq, maxSeq]，按序号升序
+     * roomId 不为空查聊天室，user1Id/user2Id 不为空查两人私聊，否则查大厅
      */
-    int markConversationAsRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
-    
+    List<Message> selectAfterSeq(@Param("roomId") Long roomId,
+                                 @Param("user1Id") Long user1Id,
+                                 @Param("user2Id") Long user2Id,
+                                 @Param("afterSeq") long afterSeq,
+                                 @Param("maxSeq") long maxSeq,
+                                 @Param("limit") int limit);
+
     /**
-     * 查询未读消息数量
+     * 查询最近的 limit 条消息（用于连接、加入聊天室时的历史推送），聊天室和私聊按序号降序、没有序号的旧消息排在最后；
+     * 大厅按消息ID降序
+     * roomId 不为空查聊天室，user1Id/user2Id 不为空查两人私聊，否则查大厅
      */
-    int countUnread(@Param("userId") Long userId);
-    
+    List<Message> selectLatest(@Param("roomId") Long roomId,
+                               @Param("user1Id") Long user1Id,
+                               @Param("user2Id") Long user2Id,
+                               @Param("limit") int limit);
+
     /**
-     * 查询与某用户的未读消息数量
+     * 查询发给某个用户、序号不小于 fromSeq 的私聊消息，按序号升序（离线收件箱溢出后的投递）
      */
-    int countUnreadBySender(@Param("userId") Long userId, @Param("senderId") Long senderId);
+    List<Message> selectToUserFromSeq(@Param("userId") long userId,
+                                      @Param("fromSeq") long fromSeq,
+                                      @Param("limit") int limit);
 }
@@ -0,0 +1,22 @@
+package com.app.novelvoice.mapper;
+
+import com.app.novelvoice.entity.MigrationProgress;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 后台数据迁移进度 Mapper 接口
+ */
+@Mapper
+public interface MigrationProgressMapper {
+
+    /**
+     * 查询迁移进度，从未运行时返回 null
+     */
+    MigrationProgress selectByName(@Param("name") String name);
+
+    /**
+     * 保存游标；完成标记一经置上不再清除
+     */
+    int save(MigrationProgress progress);
+}
@@ -0,0 +1,31 @@
+package com.app.novelvoice.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 离线收件箱溢出水位 Mapper 接口
+ */
+@Mapper
+public interface OfflineInboxMapper {
+
+    /**
+     * 记录溢出水位（已存在则取较小的序号）
+     */
+    int upsert(@Param("userId") long userId, @Param("fromSeq") long fromSeq);
+
+    /**
+     * 查询用户的溢出水位，没有溢出时返回 null
+     */
+    Long selectFromSeq(@Param("userId") long userId);
+
+    /**
+     * 客户端确认收到 ackSeq 及之前的消息后前移水位
+     */
+    int advance(@Param("userId") long userId, @Param("ackSeq") long ackSeq);
+
+    /**
+     * 删除水位不晚于 maxFromSeq 的记录（已全部投递）
+     */
+    int delete(@Param("userId") long userId, @Param("maxFromSeq") long maxFromSeq);
+}
@@ -0,0 +1,39 @@
+package com.app.novelvoice.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 在线用户 Mapper 接口
+ * 每个 (用户, 节点) 一行：同一用户在多个节点上在线时各节点分别登记和删除自己的记录
+ */
+@Mapper
+public interface OnlineUserMapper {
+
+    /**
+     * 批量登记用户在本节点上线（已存在则更新活跃时间）
+     */
+    int upsertBatch(@Param("userIds") List<Long> userIds, @Param("nodeId") String nodeId);
+
+    /**
+     * 批量删除本节点上已下线的用户
+     */
+    int deleteBatch(@Param("userIds") List<Long> userIds, @Param("nodeId") String nodeId);
+
+    /**
+     * 删除节点的全部在线记录（停机时清理；配置了固定节点ID时启动也按此清理上次运行的残留）
+     */
+    int deleteByNode(@Param("nodeId") String nodeId);
+
+    /**
+     * 刷新节点全部在线记录的活跃时间
+     */
+    int touchByNode(@Param("nodeId") String nodeId);
+
+    /**
+     * 清理活跃时间早于指定秒数的记录（宕机节点、以及上次运行使用随机节点ID的残留）
+     */
+    int deleteStale(@Param("staleSeconds") int staleSeconds);
+}
@@ -0,0 +1,34 @@
+package com.app.novelvoice.mapper;
+
+import com.app.novelvoice.entity.UnreadCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 私聊未读计数 Mapper 接口
+ */
+@Mapper
+public interface UnreadCounterMapper {
+
+    /**
+     * 批量累加未读数（unreadCount 为增量，不存在时插入）
+     */
+    int incrementBatch(@Param("list") List<UnreadCounter> list);
+
+    /**
+     * 标记已读：未读数清零，已读水位前移到会话最后一条消息
+     */
+    int markRead(@Param("userId") Long userId, @Param("peerId") Long peerId);
+
+    /**
+     * 查询两人互相的未读计数（最多两行）
+     */
+    List<UnreadCounter> selectPair(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+
+    /**
+     * 查询用户的未读消息总数
+     */
+    int sumUnread(@Param("userId") Long userId);
+}
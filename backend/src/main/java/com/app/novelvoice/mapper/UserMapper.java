@@ -25,6 +25,11 @@ public interface UserMapper {
      * 查询所有用户列表（用于私聊用户选择）
      */
     List<User> selectAll();
+
+    /**
+     * 根据ID批量查询用户（IN 查询，返回顺序不保证）
+     */
+    List<User> selectByIds(@Param("ids") List<Long> ids);
     
     /**
      * 更新用户Token
@@ -0,0 +1,59 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.netty.proto.ChatBatch;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+
+import java.util.List;
+
+/**
+ * 批量帧写出
+ * 多条消息合并为一个 kind 为 BATCH 的帧，消息放在 batch.messages 中，客户端按顺序逐条处理，
+ * 省去每条消息单独成帧的帧头和编码开销。按条数和字节数分帧；一帧只剩一条消息时直接发送原消息，不加信封。
+ * 补发和离线推送不可丢失，经 {@link SlowConsumerHandler#writeReliable(Channel, Object)} 写出，慢连接上进入积压队列。
+ */
+public final class ChatBatchWriter {
+
+    /**
+     * repeated 字段中每条消息的标签和长度前缀的最大字节数
+     */
+    private static final int FIELD_OVERHEAD = 6;
+
+    private ChatBatchWriter() {
+    }
+
+    /**
+     * 写出一组消息（必须在 Channel 所属事件循环内调用，调用方负责 flush）
+     *
+     * @return 写出的帧数
+     */
+    public static int write(Channel channel, List<ChatMessage> messages, int maxMessages, int maxBytes) {
+        int frames = 0;
+        int from = 0;
+        int bytes = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            int size = messages.get(i).getSerializedSize() + FIELD_OVERHEAD;
+            if (i > from && (i - from >= maxMessages || bytes + size > maxBytes)) {
+                writeFrame(channel, messages.subList(from, i));
+                frames++;
+                from = i;
+                bytes = 0;
+            }
+            bytes += size;
+        }
+        if (from < messages.size()) {
+            writeFrame(channel, messages.subList(from, messages.size()));
+            frames++;
+        }
+        return frames;
+    }
+
+    private static void writeFrame(Channel channel, List<ChatMessage> chunk) {
+        ChatMessage frame = chunk.size() == 1 ? chunk.get(0) : ChatMessage.newBuilder()
+                .setKind(MessageKind.BATCH)
+                .setBatch(ChatBatch.newBuilder().addAllMessages(chunk))
+                .build();
+        SlowConsumerHandler.writeReliable(channel, frame);
+    }
+}
@@ -1,73 +1,203 @@
 package com.app.novelvoice.netty;
 
+import com.app.novelvoice.config.NettyProperties;
 import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
 import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
 import com.app.novelvoice.service.ChatService;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameEncoder;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
 /**
  * 聊天消息处理器
- * 处理 WebSocket 消息的接收和转发
+ * 处理 WebSocket 消息的接收和转发；多节点部署时本地投递后再经集群路由转发到其它节点
  */
+@Slf4j
 @Component
 @ChannelHandler.Sharable
-public class ChatHandler extends SimpleChannelInboundHandler<ChatMessage> {
+public class ChatHandler extends SimpleChannelInboundHandler<ChatMessage> implements ClusterRouter.LocalDelivery {
 
     /**
      * 所有连接的 Channel 组（用于群聊广播）
      */
     private static final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     
+    @Autowired
+    private ChatService chatService;
+
     /**
-     * 用户ID -> Channel 映射（用于私聊定向发送）
+     * 用户ID -> Channel 会话注册表（用于私聊定向发送，支持多端）
      */
-    private static final Map<Long, Channel> userChannelMap = new ConcurrentHashMap<>();
+    @Autowired
+    private SessionRegistry sessionRegistry;
 
     @Autowired
-    private ChatService chatService;
+    private ChatRoomManager chatRoomManager;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private PresenceManager presenceManager;
+
+    @Autowired
+    private SequenceGenerator sequenceGenerator;
+
+    @Autowired
+    private MessageReplayBuffer messageReplayBuffer;
+
+    @Autowired
+    private ChatMetrics chatMetrics;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private OfflineInbox offlineInbox;
+
+    @PostConstruct
+    public void init() {
+        clusterRouter.setLocalDelivery(this);
+    }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
-        channels.add(ctx.channel());
-        System.out.println("新用户连接: " + ctx.channel().id().asShortText());
+        log.debug("新用户连接: {}", ctx.channel().id().asShortText());
     }
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         channels.remove(ctx.channel());
         
-        // 从映射中移除
-        userChannelMap.entrySet().removeIf(entry -> entry.getValue().equals(ctx.channel()));
+        // 根据 Channel 上绑定的用户ID直接移除，无需遍历
+        sessionRegistry.unbind(ctx.channel());
+        chatRoomManager.leaveAll(ctx.channel());
         
-        System.out.println("用户断开连接: " + ctx.channel().id().asShortText());
+        log.debug("用户断开连接: {}", ctx.channel().id().asShortText());
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof WebSocketServerProtocolHandler.HandshakeComplete) {
+            chatMetrics.handshakeCompleted();
+            // 握手鉴权得到的用户在握手完成后才绑定，保证此后写给该连接的都是 WebSocket 帧
+            Long userId = ctx.channel().attr(WebSocketAuthHandler.AUTH_USER_ID).getAndSet(null);
+            if (userId != null) {
+                sessionRegistry.bind(userId, ctx.channel());
+                // token 缓存命中时资料可能已被淘汰，提前在后台加载
+                userProfileCache.getIfPresent(userId);
+            }
+            // 握手完成并绑定用户后才加入大厅广播组，握手前和鉴权未完成的连接收不到大厅消息
+            channels.add(ctx.channel());
+            if (nettyProperties.getReplay().isPushOnConnect()) {
+                // 主动推送大厅最近消息（批量帧），客户端无需再调 HTTP 历史接口
+                messageReplayBuffer.replayRoom(ctx.channel(), 0, 0, false);
+            }
+        } else if (evt instanceof IdleStateEvent) {
+            // 握手完成后管道中才有 WebSocket 帧编码器，握手前空闲直接断开
+            if (((IdleStateEvent) evt).isFirst() && ctx.pipeline().get(WebSocketFrameEncoder.class) != null) {
+                // 第一次读空闲：发送 Ping 探测，客户端回复 Pong 即视为存活
+                ctx.writeAndFlush(new PingWebSocketFrame());
+            } else {
+                // 探测后仍无任何数据：判定为死连接，关闭后由 channelInactive 完成下线
+                ctx.close();
+            }
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
     }
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, ChatMessage protoMsg) throws Exception {
-        long senderId = protoMsg.getSenderId();
+        long start = System.nanoTime();
+        try {
+            handleMessage(ctx, protoMsg);
+        } finally {
+            chatMetrics.getReadLatency().recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    private void handleMessage(ChannelHandlerContext ctx, ChatMessage protoMsg) {
+        // 发送者以握手时绑定的会话为准，忽略帧里的 senderId，防止冒充
+        Long sessionUserId = SessionRegistry.getUserId(ctx.channel());
+        if (sessionUserId == null) {
+            if (nettyProperties.getAuth().isEnabled() || protoMsg.getSenderId() <= 0) {
+                return;
+            }
+            // 未开启鉴权（本地调试、压测）：沿用首条消息的 senderId 绑定
+            sessionUserId = protoMsg.getSenderId();
+            sessionRegistry.bind(sessionUserId, ctx.channel());
+        }
+        long senderId = sessionUserId;
         long receiverId = protoMsg.getReceiverId();
-        
-        // 绑定用户ID和Channel
-        if (senderId > 0 && !userChannelMap.containsKey(senderId)) {
-            userChannelMap.put(senderId, ctx.channel());
+        long roomId = protoMsg.getRoomId();
+
+        // 聊天室控制消息：加入/离开后回执给发送方，不持久化
+        if (protoMsg.getKind() == MessageKind.JOIN_ROOM || protoMsg.getKind() == MessageKind.LEAVE_ROOM) {
+            handleRoomControl(ctx, protoMsg);
+            return;
+        }
+        // 断线重连：只补发客户端已收到的最大序号之后的消息
+        if (protoMsg.getKind() == MessageKind.RESUME) {
+            handleResume(ctx, protoMsg);
+            return;
+        }
+        // 离线收件箱推送的确认
+        if (protoMsg.getKind() == MessageKind.INBOX) {
+            offlineInbox.acknowledge(senderId, protoMsg.getSeq());
+            return;
+        }
+        // 限流通知、批量帧只由服务端发出
+        if (protoMsg.getKind() == MessageKind.RATE_LIMITED || protoMsg.getKind() == MessageKind.BATCH) {
+            return;
+        }
+        if (receiverId <= 0 && roomId > 0 && !chatRoomManager.isMember(roomId, ctx.channel())) {
+            // 未加入的聊天室不允许发言
+            return;
         }
         
+        // 分配服务端序号，转发和补发都使用带序号的消息
+        long seq = sequenceGenerator.next();
+        ChatMessage.Builder builder = protoMsg.toBuilder().setSenderId(senderId).setSeq(seq);
+        // 发送者资料以服务端缓存为准，客户端无需再逐个查询；缓存未就绪时不透传客户端自填的值
+        UserProfileCache.Profile profile = userProfileCache.getIfPresent(senderId);
+        if (profile != null) {
+            builder.setSenderNickname(profile.getNickname()).setSenderAvatar(profile.getAvatar());
+        } else {
+            builder.clearSenderNickname().clearSenderAvatar();
+        }
+        protoMsg = builder.build();
+
         // 转换 Proto 消息为实体进行持久化
         Message msg = new Message();
         msg.setSenderId(senderId);
         msg.setReceiverId(receiverId > 0 ? receiverId : null);
+        msg.setRoomId(receiverId <= 0 && roomId > 0 ? roomId : null);
+        msg.setSeq(seq);
         msg.setContent(protoMsg.getContent());
         msg.setType(protoMsg.getType());
         msg.setFileUrl(protoMsg.getFileUrl());
@@ -77,35 +207,110 @@ public class ChatHandler extends SimpleChannelInboundHandler<ChatMessage> {
         msg.setCreateTime(new Date());
 
         // 持久化消息到数据库
-        chatService.saveMessage(msg);
+        long persistStart = System.nanoTime();
+        boolean persisted = chatService.saveMessage(msg);
+        long fanoutStart = System.nanoTime();
+        chatMetrics.getPersistLatency().recordNanos(fanoutStart - persistStart);
 
         // 根据消息类型转发
         if (receiverId > 0) {
-            // 私聊消息：发送给发送者和接收者
-            sendToUser(senderId, protoMsg);
-            sendToUser(receiverId, protoMsg);
+            // 私聊消息：发送给发送者和接收者的所有设备
+            messageReplayBuffer.appendPrivate(protoMsg);
+            sendToUsers(ctx.alloc(), protoMsg, senderId, receiverId);
+            clusterRouter.relayPrivate(protoMsg, senderId, receiverId);
+            if (sessionRegistry.getChannels(receiverId).length == 0 && !clusterRouter.isOnlineRemotely(receiverId)) {
+                // 接收者不在线：暂存到离线收件箱，上线后批量推送
+                offlineInbox.offer(receiverId, protoMsg, persisted);
+            }
+        } else if (roomId > 0) {
+            // 聊天室消息：只发给房间成员，扇出在房间所属事件循环上执行
+            messageReplayBuffer.appendRoom(roomId, protoMsg);
+            chatRoomManager.broadcast(roomId, protoMsg, ctx.alloc());
+            clusterRouter.relayRoom(protoMsg);
+        } else {
+            // 大厅消息：只编码一次，按事件循环合并后广播给所有连接的客户端
+            messageReplayBuffer.appendRoom(0, protoMsg);
+            MessageFanout.broadcast(channels, protoMsg, ctx.alloc(), true);
+            clusterRouter.relayLobby(protoMsg);
+        }
+        chatMetrics.getFanoutLatency().recordNanos(System.nanoTime() - fanoutStart);
+    }
+
+    /**
+     * 处理加入/离开聊天室
+     * 加入时回执之后紧接着推送聊天室历史：seq 为 0 推送最近消息，否则补发该序号之后的缺口
+     */
+    private void handleRoomControl(ChannelHandlerContext ctx, ChatMessage protoMsg) {
+        long roomId = protoMsg.getRoomId();
+        if (roomId <= 0) {
+            return;
+        }
+        if (protoMsg.getKind() == MessageKind.JOIN_ROOM) {
+            chatRoomManager.join(roomId, ctx.channel());
+            ctx.writeAndFlush(protoMsg);
+            messageReplayBuffer.replayRoom(ctx.channel(), roomId, protoMsg.getSeq(), false);
         } else {
-            // 群聊消息：广播给所有连接的客户端
-            for (Channel channel : channels) {
-                channel.writeAndFlush(protoMsg);
+            chatRoomManager.leave(roomId, ctx.channel());
+            ctx.writeAndFlush(protoMsg);
+        }
+    }
+
+    /**
+     * 处理断线重连补发：receiverId 指定私聊对象，否则按 roomId 补发聊天室（0 为大厅）
+     */
+    private void handleResume(ChannelHandlerContext ctx, ChatMessage protoMsg) {
+        long lastSeq = protoMsg.getSeq();
+        // type 为 RESUME_MORE 表示接着上一页继续，不再回看时钟偏差窗口
+        boolean continuation = protoMsg.getType() == MessageReplayBuffer.RESUME_MORE;
+        if (protoMsg.getReceiverId() > 0) {
+            Long userId = SessionRegistry.getUserId(ctx.channel());
+            if (userId != null) {
+                messageReplayBuffer.replayPrivate(ctx.channel(), userId, protoMsg.getReceiverId(), lastSeq, continuation);
             }
+        } else if (protoMsg.getRoomId() <= 0 || chatRoomManager.isMember(protoMsg.getRoomId(), ctx.channel())) {
+            messageReplayBuffer.replayRoom(ctx.channel(), protoMsg.getRoomId(), lastSeq, continuation);
         }
     }
     
     /**
-     * 向指定用户发送消息
+     * 向指定用户的所有在线设备发送消息（只编码一次）
      */
-    private void sendToUser(long userId, ChatMessage message) {
-        Channel channel = userChannelMap.get(userId);
-        if (channel != null && channel.isActive()) {
-            channel.writeAndFlush(message);
+    private void sendToUsers(ByteBufAllocator alloc, ChatMessage message, long... userIds) {
+        List<Channel> targets = new ArrayList<>();
+        for (long userId : userIds) {
+            Collections.addAll(targets, sessionRegistry.getChannels(userId));
+        }
+        if (!targets.isEmpty()) {
+            MessageFanout.broadcast(targets, message, alloc, false);
         }
     }
 
+    // ==================== 其它节点转入的消息，只做本地投递 ====================
+
+    @Override
+    public void deliverToUsers(ChatMessage message, long... userIds) {
+        sequenceGenerator.observe(message.getSeq());
+        messageReplayBuffer.appendPrivate(message);
+        sendToUsers(ByteBufAllocator.DEFAULT, message, userIds);
+    }
+
+    @Override
+    public void deliverToLobby(ChatMessage message) {
+        sequenceGenerator.observe(message.getSeq());
+        messageReplayBuffer.appendRoom(0, message);
+        MessageFanout.broadcast(channels, message, ByteBufAllocator.DEFAULT, true);
+    }
+
+    @Override
+    public void deliverToRoom(long roomId, ChatMessage message) {
+        sequenceGenerator.observe(message.getSeq());
+        messageReplayBuffer.appendRoom(roomId, message);
+        chatRoomManager.broadcast(roomId, message, ByteBufAllocator.DEFAULT);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-        System.err.println("WebSocket 异常: " + cause.getMessage());
-        cause.printStackTrace();
+        log.warn("WebSocket 异常: {}", ctx.channel().id().asShortText(), cause);
         ctx.close();
     }
     
@@ -119,8 +324,7 @@ public class ChatHandler extends SimpleChannelInboundHandler<ChatMessage> {
     /**
      * 检查用户是否在线
      */
-    public static boolean isUserOnline(long userId) {
-        Channel channel = userChannelMap.get(userId);
-        return channel != null && channel.isActive();
+    public boolean isUserOnline(long userId) {
+        return presenceManager.isOnline(userId);
     }
 }
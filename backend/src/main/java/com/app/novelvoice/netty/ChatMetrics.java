@@ -0,0 +1,218 @@
+package com.app.novelvoice.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 聊天服务运行指标
+ * 计数器全部是 LongAdder，事件循环上只做一次自增；每秒采样一次计算速率。
+ * 字节数由管道最前端的 {@link #byteCounter()} 统计（含 HTTP/WebSocket 帧头，即线路字节），
+ * 消息数由 WebSocket 协议处理器之后的 {@link #frameCounter()} 按数据帧统计。
+ */
+@Component
+public class ChatMetrics {
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder handshakes = new LongAdder();
+    private final LongAdder inboundMessages = new LongAdder();
+    private final LongAdder outboundMessages = new LongAdder();
+    private final LongAdder inboundBytes = new LongAdder();
+    private final LongAdder outboundBytes = new LongAdder();
+
+    /**
+     * channelRead0 整体耗时及其中持久化、扇出两部分的耗时
+     */
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final LatencyHistogram persistLatency = new LatencyHistogram();
+    private final LatencyHistogram fanoutLatency = new LatencyHistogram();
+
+    private final ChannelHandler byteCounter = new ByteCounter();
+    private final ChannelHandler frameCounter = new FrameCounter();
+
+    private ScheduledExecutorService sampler;
+
+    /**
+     * 上一次采样的累计值与最近一秒的速率，下标依次为：握手、入站消息、出站消息、入站字节、出站字节
+     */
+    private final long[] lastTotals = new long[5];
+    private volatile long[] ratesPerSecond = new long[5];
+
+    @PostConstruct
+    public void start() {
+        sampler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("chat-metrics", true));
+        sampler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    private void sample() {
+        long[] totals = {handshakes.sum(), inboundMessages.sum(), outboundMessages.sum(),
+                inboundBytes.sum(), outboundBytes.sum()};
+        long[] rates = new long[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            rates[i] = totals[i] - lastTotals[i];
+            lastTotals[i] = totals[i];
+        }
+        ratesPerSecond = rates;
+    }
+
+    /**
+     * 管道最前端的字节计数处理器（所有连接共用）
+     */
+    public ChannelHandler byteCounter() {
+        return byteCounter;
+    }
+
+    /**
+     * WebSocket 协议处理器之后的数据帧计数处理器（所有连接共用）
+     */
+    public ChannelHandler frameCounter() {
+        return frameCounter;
+    }
+
+    public void handshakeCompleted() {
+        handshakes.increment();
+    }
+
+    public LatencyHistogram getReadLatency() {
+        return readLatency;
+    }
+
+    public LatencyHistogram getPersistLatency() {
+        return persistLatency;
+    }
+
+    public LatencyHistogram getFanoutLatency() {
+        return fanoutLatency;
+    }
+
+    /**
+     * 清空延迟直方图，便于观察某一时间段的分布
+     */
+    public void resetLatency() {
+        readLatency.reset();
+        persistLatency.reset();
+        fanoutLatency.reset();
+    }
+
+    /**
+     * 连接、流量与速率
+     */
+    public Map<String, Object> getTrafficMetrics() {
+        long[] rates = ratesPerSecond;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("activeConnections", activeConnections.get());
+        metrics.put("connectionsOpened", connectionsOpened.sum());
+        metrics.put("handshakes", handshakes.sum());
+        metrics.put("handshakesPerSecond", rates[0]);
+        metrics.put("inboundMessages", inboundMessages.sum());
+        metrics.put("inboundMessagesPerSecond", rates[1]);
+        metrics.put("outboundMessages", outboundMessages.sum());
+        metrics.put("outboundMessagesPerSecond", rates[2]);
+        metrics.put("inboundBytes", inboundBytes.sum());
+        metrics.put("inboundBytesPerSecond", rates[3]);
+        metrics.put("outboundBytes", outboundBytes.sum());
+        metrics.put("outboundBytesPerSecond", rates[4]);
+        return metrics;
+    }
+
+    /**
+     * channelRead0 延迟分布
+     */
+    public Map<String, Object> getLatencyMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("channelRead", readLatency.snapshot());
+        metrics.put("persist", persistLatency.snapshot());
+        metrics.put("fanout", fanoutLatency.snapshot());
+        return metrics;
+    }
+
+    private static int sizeOf(Object msg) {
+        if (msg instanceof ByteBuf) {
+            return ((ByteBuf) msg).readableBytes();
+        }
+        if (msg instanceof ByteBufHolder) {
+            return ((ByteBufHolder) msg).content().readableBytes();
+        }
+        return 0;
+    }
+
+    private static boolean isDataFrame(Object msg) {
+        return msg instanceof BinaryWebSocketFrame || msg instanceof TextWebSocketFrame
+                || msg instanceof ContinuationWebSocketFrame;
+    }
+
+    @ChannelHandler.Sharable
+    private final class ByteCounter extends ChannelDuplexHandler {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            activeConnections.incrementAndGet();
+            connectionsOpened.increment();
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            activeConnections.decrementAndGet();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            inboundBytes.add(sizeOf(msg));
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            outboundBytes.add(sizeOf(msg));
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private final class FrameCounter extends ChannelDuplexHandler {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (isDataFrame(msg)) {
+                inboundMessages.increment();
+            }
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (isDataFrame(msg)) {
+                outboundMessages.increment();
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+}
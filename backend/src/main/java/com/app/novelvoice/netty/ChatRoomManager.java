@@ -0,0 +1,159 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 聊天室管理（按小说划分的讨论室）
+ * 每个聊天室归属一个事件循环（创建者连接所在的事件循环），成员集合只在该事件循环内读写，
+ * 因而无需加锁；房间内的扇出也在该事件循环上发起，不同房间分散到不同事件循环，
+ * 不再集中在全局单线程执行器上。
+ */
+@Slf4j
+@Component
+public class ChatRoomManager {
+
+    /**
+     * Channel 已加入的聊天室ID（只在 Channel 自己的事件循环内访问）
+     */
+    private static final AttributeKey<Set<Long>> JOINED_ROOMS = AttributeKey.valueOf("chat.joinedRooms");
+
+    private final Map<Long, ChatRoom> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * 加入聊天室（在 Channel 的事件循环内调用）
+     */
+    public void join(long roomId, Channel channel) {
+        Set<Long> joined = channel.attr(JOINED_ROOMS).get();
+        if (joined == null) {
+            joined = new HashSet<>();
+            channel.attr(JOINED_ROOMS).set(joined);
+        }
+        if (joined.add(roomId)) {
+            addMember(roomId, channel);
+        }
+    }
+
+    /**
+     * 离开聊天室（在 Channel 的事件循环内调用）
+     */
+    public void leave(long roomId, Channel channel) {
+        Set<Long> joined = channel.attr(JOINED_ROOMS).get();
+        if (joined != null && joined.remove(roomId)) {
+            removeMember(roomId, channel);
+        }
+    }
+
+    /**
+     * 连接断开时退出所有已加入的聊天室
+     */
+    public void leaveAll(Channel channel) {
+        Set<Long> joined = channel.attr(JOINED_ROOMS).getAndSet(null);
+        if (joined == null) {
+            return;
+        }
+        for (Long roomId : joined) {
+            removeMember(roomId, channel);
+        }
+    }
+
+    /**
+     * 判断 Channel 是否已加入聊天室（在 Channel 的事件循环内调用）
+     */
+    public boolean isMember(long roomId, Channel channel) {
+        Set<Long> joined = channel.attr(JOINED_ROOMS).get();
+        return joined != null && joined.contains(roomId);
+    }
+
+    /**
+     * 向聊天室广播消息，扇出在房间所属事件循环上执行
+     */
+    public void broadcast(long roomId, ChatMessage message, ByteBufAllocator alloc) {
+        ChatRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        BinaryWebSocketFrame frame = WebSocketProtobufCodec.encodeFrame(alloc, message);
+        execute(room, () -> {
+            // 房间事件循环内拷贝成员快照，避免扇出期间成员变动
+            MessageFanout.broadcast(new ArrayList<>(room.members), frame, true);
+        }, frame);
+    }
+
+    /**
+     * 当前聊天室数量
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    private void addMember(long roomId, Channel channel) {
+        ChatRoom room = rooms.computeIfAbsent(roomId, id -> new ChatRoom(id, channel.eventLoop()));
+        execute(room, () -> {
+            if (room.closed) {
+                // 房间在排队期间已被回收，重新创建后加入
+                addMember(roomId, channel);
+                return;
+            }
+            room.members.add(channel);
+        }, null);
+    }
+
+    private void removeMember(long roomId, Channel channel) {
+        ChatRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        execute(room, () -> {
+            room.members.remove(channel);
+            if (room.members.isEmpty() && !room.closed) {
+                // 空房间回收，释放内存
+                room.closed = true;
+                rooms.remove(roomId, room);
+            }
+        }, null);
+    }
+
+    private void execute(ChatRoom room, Runnable task, BinaryWebSocketFrame frameToRelease) {
+        if (room.loop.inEventLoop()) {
+            task.run();
+            return;
+        }
+        try {
+            room.loop.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (frameToRelease != null) {
+                frameToRelease.release();
+            }
+            log.warn("聊天室 {} 所属事件循环已关闭", room.id);
+        }
+    }
+
+    /**
+     * 聊天室：成员集合只在所属事件循环内访问
+     */
+    private static final class ChatRoom {
+        private final long id;
+        private final EventLoop loop;
+        private final Set<Channel> members = new HashSet<>();
+        private boolean closed;
+
+        private ChatRoom(long id, EventLoop loop) {
+            this.id = id;
+            this.loop = loop;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.entity.MigrationProgress;
+import com.app.novelvoice.mapper.ConversationMapper;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.MigrationProgressMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 历史私聊消息会话ID补填任务（一次性迁移，默认关闭，升级时在一个节点上开启）
+ * 私聊历史按 conversation_id 查询，早期写入的私聊消息没有会话ID。启动后在后台线程上按 (receiver_id, id)
+ * 游标分批扫描私聊区间中缺少会话ID的消息，按两人解析（必要时创建）会话，每个会话一条 UPDATE 补填，并前移会话最后消息。
+ * 每批之后把游标写入 migration_progress，重启后从断点继续；扫完后写入完成标记，此后启动直接跳过。
+ * 只补填仍为空的行，多个节点同时开启也是幂等的。
+ */
+@Slf4j
+@Component
+public class ConversationBackfillJob {
+
+    private static final String NAME = "message_conversation_id";
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private ConversationIdCache conversationIdCache;
+
+    @Autowired
+    private MigrationProgressMapper migrationProgressMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private volatile boolean finished;
+
+    private volatile long lastReceiverId;
+
+    private volatile long lastId;
+
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder updated = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!nettyProperties.getPersist().isBackfillEnabled()) {
+            finished = true;
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "conversation-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        NettyProperties.Persist config = nettyProperties.getPersist();
+        try {
+            MigrationProgress progress = migrationProgressMapper.selectByName(NAME);
+            if (progress != null) {
+                if (Boolean.TRUE.equals(progress.getFinished())) {
+                    finished = true;
+                    return;
+                }
+                lastReceiverId = progress.getCursorKey();
+                lastId = progress.getCursorId();
+                log.info("私聊消息会话ID补填从断点继续, receiverId={}, id={}", lastReceiverId, lastId);
+            }
+            while (running) {
+                List<Message> rows = messageMapper.selectWithoutConversation(lastReceiverId, lastId, config.getBackfillBatchSize());
+                if (!rows.isEmpty()) {
+                    backfill(rows);
+                    Message last = rows.get(rows.size() - 1);
+                    lastReceiverId = last.getReceiverId();
+                    lastId = last.getId();
+                    scanned.add(rows.size());
+                    batches.increment();
+                }
+                boolean done = rows.size() < config.getBackfillBatchSize();
+                saveProgress(done);
+                if (done) {
+                    finished = true;
+                    log.info("私聊消息会话ID补填完成，本次补填 {} 条", updated.sum());
+                    break;
+                }
+                Thread.sleep(config.getBackfillPauseMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("私聊消息会话ID补填中止, receiverId={}, id={} {}", lastReceiverId, lastId, e.getMessage());
+        }
+    }
+
+    private void saveProgress(boolean done) {
+        MigrationProgress progress = new MigrationProgress();
+        progress.setName(NAME);
+        progress.setCursorKey(lastReceiverId);
+        progress.setCursorId(lastId);
+        progress.setFinished(done);
+        migrationProgressMapper.save(progress);
+    }
+
+    /**
+     * 一批消息按会话分组，每个会话一条 UPDATE
+     */
+    private void backfill(List<Message> rows) {
+        Map<Long, List<Long>> idsByConversation = new HashMap<>();
+        Map<Long, Message> latest = new HashMap<>();
+        for (Message row : rows) {
+            long conversationId = conversationIdCache.resolve(row.getSenderId(), row.getReceiverId());
+            idsByConversation.computeIfAbsent(conversationId, k -> new ArrayList<>()).add(row.getId());
+            latest.merge(conversationId, row, (a, b) -> b.getId() > a.getId() ? b : a);
+        }
+        for (Map.Entry<Long, List<Long>> entry : idsByConversation.entrySet()) {
+            updated.add(messageMapper.updateConversationId(entry.getKey(), entry.getValue()));
+            Message last = latest.get(entry.getKey());
+            conversationMapper.updateLastMessage(entry.getKey(), last.getId(), last.getCreateTime());
+        }
+    }
+
+    /**
+     * 获取补填进度指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("finished", finished);
+        metrics.put("lastReceiverId", lastReceiverId);
+        metrics.put("lastId", lastId);
+        metrics.put("batches", batches.sum());
+        metrics.put("scanned", scanned.sum());
+        metrics.put("updated", updated.sum());
+        return metrics;
+    }
+}
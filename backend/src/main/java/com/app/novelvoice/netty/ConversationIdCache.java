@@ -0,0 +1,130 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Conversation;
+import com.app.novelvoice.mapper.ConversationMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 私聊会话ID缓存
+ * 两人（按ID排序后拼成一个 long）-> 会话ID。会话一经创建ID不再变化，因此只按容量淘汰、不设过期。
+ * 未命中时用一条 INSERT ... ON DUPLICATE KEY UPDATE 查找或创建会话，并发创建由唯一键兜底。
+ * {@link #resolve(long, long)}、{@link #find(long, long)} 可能查库，只在消息写线程或 HTTP 请求线程上调用，不能在事件循环上调用。
+ */
+@Component
+public class ConversationIdCache {
+
+    private static final long MAX_PACKED_ID = 0xFFFFFFFFL;
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    private final Map<Long, Long> conversationIds = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 两人的会话键：较小的ID在高 32 位，较大的在低 32 位；ID 超出 32 位时返回 -1（不缓存）
+     */
+    public static long pairKey(long userId1, long userId2) {
+        long low = Math.min(userId1, userId2);
+        long high = Math.max(userId1, userId2);
+        if (low <= 0 || high > MAX_PACKED_ID) {
+            return -1;
+        }
+        return (low << 32) | high;
+    }
+
+    /**
+     * 只查缓存，未命中返回 null（可在事件循环上调用）
+     */
+    public Long getIfPresent(long userId1, long userId2) {
+        long key = pairKey(userId1, userId2);
+        return key < 0 ? null : conversationIds.get(key);
+    }
+
+    /**
+     * 获取两人的会话ID，会话不存在时创建（可能查库）
+     */
+    public long resolve(long userId1, long userId2) {
+        long key = pairKey(userId1, userId2);
+        if (key >= 0) {
+            Long cached = conversationIds.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        Conversation conversation = new Conversation();
+        conversation.setUser1Id(Math.min(userId1, userId2));
+        conversation.setUser2Id(Math.max(userId1, userId2));
+        conversation.setCreateTime(new Date());
+        conversationMapper.insertOrGetId(conversation);
+        long conversationId = conversation.getId();
+        if (key >= 0) {
+            conversationIds.put(key, conversationId);
+            evictIfFull();
+        }
+        return conversationId;
+    }
+
+    /**
+     * 查找两人的会话ID，会话不存在时返回 null 且不创建（查询历史用，可能查库）
+     */
+    public Long find(long userId1, long userId2) {
+        long key = pairKey(userId1, userId2);
+        if (key >= 0) {
+            Long cached = conversationIds.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        Long conversationId = conversationMapper.selectIdByUsers(Math.min(userId1, userId2), Math.max(userId1, userId2));
+        if (conversationId != null && key >= 0) {
+            conversationIds.put(key, conversationId);
+            evictIfFull();
+        }
+        return conversationId;
+    }
+
+    /**
+     * 超出上限时按哈希顺序淘汰（近似随机）
+     */
+    private void evictIfFull() {
+        int maxSize = nettyProperties.getPersist().getConversationCacheSize();
+        if (conversationIds.size() <= maxSize) {
+            return;
+        }
+        Iterator<Long> it = conversationIds.keySet().iterator();
+        while (conversationIds.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 获取缓存统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", conversationIds.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        return metrics;
+    }
+}
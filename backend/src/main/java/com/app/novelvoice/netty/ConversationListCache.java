@@ -0,0 +1,225 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.mapper.ConversationMapper;
+import com.app.novelvoice.vo.ConversationVO;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 会话列表缓存
+ * 每个用户一份会话列表快照（按对方用户ID索引），未命中时用一条联表查询加载（对方资料、最后消息预览、未读数）。
+ * 本节点写入私聊消息后就地更新双方快照中的最后消息，并给接收方的未读数加一；标记已读时把未读数清零。
+ * 快照中没有对应会话（新会话）时直接失效，下次读取重新加载。
+ * 加载期间发生的更新会让这次加载的结果不进缓存，避免查询早于更新时把旧数据缓存下来。
+ */
+@Component
+public class ConversationListCache {
+
+    /**
+     * 最后消息预览的最大字符数，与 ConversationMapper.selectListByUserId 中的截取长度一致
+     */
+    public static final int PREVIEW_LENGTH = 100;
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 获取用户的会话列表（按最后消息时间倒序，返回副本），未命中或已过期时查库（不能在事件循环上调用）
+     */
+    public List<ConversationVO> get(long userId) {
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null) {
+            synchronized (snapshot) {
+                if (snapshot.entries != null && snapshot.expiresAt >= System.currentTimeMillis()) {
+                    hits.increment();
+                    return snapshot.copy();
+                }
+            }
+        }
+        misses.increment();
+        Snapshot loading = new Snapshot();
+        snapshots.put(userId, loading);
+        List<ConversationVO> rows = conversationMapper.selectListByUserId(userId);
+        synchronized (loading) {
+            if (loading.stale) {
+                snapshots.remove(userId, loading);
+            } else {
+                loading.fill(rows, System.currentTimeMillis()
+                        + TimeUnit.SECONDS.toMillis(nettyProperties.getConversationList().getTtlSeconds()));
+            }
+        }
+        evictIfFull();
+        return rows;
+    }
+
+    /**
+     * 私聊消息落库后调用（消息写线程或 HTTP 请求线程）
+     */
+    public void messageSaved(Message message) {
+        if (message.getReceiverId() == null || message.getConversationId() == null) {
+            return;
+        }
+        update(message.getSenderId(), message.getReceiverId(), message, false);
+        if (!message.getReceiverId().equals(message.getSenderId())) {
+            update(message.getReceiverId(), message.getSenderId(), message, true);
+        }
+    }
+
+    /**
+     * 用户把某个发送者的消息全部标记为已读后调用
+     */
+    public void markedAsRead(long userId, long senderId) {
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            return;
+        }
+        synchronized (snapshot) {
+            if (snapshot.entries == null) {
+                snapshot.stale = true;
+                return;
+            }
+            ConversationVO entry = snapshot.entries.get(senderId);
+            if (entry != null) {
+                entry.setUnreadCount(0);
+                updates.increment();
+            }
+        }
+    }
+
+    private void update(long userId, long targetUserId, Message message, boolean incoming) {
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            return;
+        }
+        synchronized (snapshot) {
+            if (snapshot.entries == null) {
+                snapshot.stale = true;
+                return;
+            }
+            ConversationVO entry = snapshot.entries.get(targetUserId);
+            if (entry == null) {
+                // 新会话缺少对方资料，整份重新加载
+                snapshots.remove(userId, snapshot);
+                invalidations.increment();
+                return;
+            }
+            if (entry.getLastMessageTime() == null || message.getCreateTime() == null
+                    || !message.getCreateTime().before(entry.getLastMessageTime())) {
+                entry.setLastMessageContent(preview(message.getContent()));
+                entry.setLastMessageType(message.getType());
+                entry.setLastMessageTime(message.getCreateTime());
+            }
+            if (incoming) {
+                entry.setUnreadCount((entry.getUnreadCount() != null ? entry.getUnreadCount() : 0) + 1);
+            }
+            updates.increment();
+        }
+    }
+
+    /**
+     * 使某个用户的会话列表失效
+     */
+    public void invalidate(long userId) {
+        if (snapshots.remove(userId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private static String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH);
+    }
+
+    /**
+     * 超出上限时按哈希顺序淘汰（近似随机）
+     */
+    private void evictIfFull() {
+        int maxUsers = nettyProperties.getConversationList().getMaxUsers();
+        if (snapshots.size() <= maxUsers) {
+            return;
+        }
+        Iterator<Long> it = snapshots.keySet().iterator();
+        while (snapshots.size() > maxUsers && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 获取缓存统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("users", snapshots.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("updates", updates.sum());
+        metrics.put("invalidations", invalidations.sum());
+        return metrics;
+    }
+
+    /**
+     * 单个用户的会话列表快照，访问时对自身加锁
+     */
+    private static final class Snapshot {
+        /**
+         * 对方用户ID -> 会话，加载完成前为 null
+         */
+        private Map<Long, ConversationVO> entries;
+        private long expiresAt;
+        /**
+         * 加载期间收到了更新，加载结果不可缓存
+         */
+        private boolean stale;
+
+        private void fill(List<ConversationVO> rows, long expiresAt) {
+            entries = new HashMap<>(rows.size() * 2);
+            for (ConversationVO row : rows) {
+                entries.put(row.getTargetUserId(), copyOf(row));
+            }
+            this.expiresAt = expiresAt;
+        }
+
+        private List<ConversationVO> copy() {
+            List<ConversationVO> list = new ArrayList<>(entries.size());
+            for (ConversationVO entry : entries.values()) {
+                list.add(copyOf(entry));
+            }
+            list.sort(Comparator.comparing(ConversationVO::getLastMessageTime,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+            return list;
+        }
+
+        private static ConversationVO copyOf(ConversationVO source) {
+            ConversationVO vo = new ConversationVO();
+            BeanUtils.copyProperties(source, vo);
+            return vo;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 消息扇出工具
+ * 群发时只序列化一次：编码为一个池化的 BinaryWebSocketFrame，
+ * 再给每个接收方写入引用计数的 duplicate，并按事件循环合并任务与 flush。
+ * 低优先级消息（群聊广播）经过 {@link SlowConsumerHandler}，对不可写的慢连接执行背压策略；
+ * 其它消息（私聊）同样经过它排队，慢连接上不丢弃，积压满时断开连接。
+ */
+@Slf4j
+public final class MessageFanout {
+
+    private MessageFanout() {
+    }
+
+    /**
+     * 将消息广播给一组 Channel
+     *
+     * @param lowPriority 是否为低优先级消息（慢连接上可被丢弃或积压），否则慢连接上总是积压
+     */
+    public static void broadcast(Iterable<Channel> channels, ChatMessage message, ByteBufAllocator alloc,
+                                 boolean lowPriority) {
+        broadcast(channels, WebSocketProtobufCodec.encodeFrame(alloc, message), lowPriority);
+    }
+
+    /**
+     * 将已编码的帧广播给一组 Channel，调用后 frame 的引用由本方法负责释放
+     */
+    public static void broadcast(Iterable<Channel> channels, BinaryWebSocketFrame frame, boolean lowPriority) {
+        try {
+            // 按所属事件循环分组，每个事件循环只提交一个任务
+            Map<EventLoop, List<Channel>> byLoop = new IdentityHashMap<>();
+            for (Channel channel : channels) {
+                if (channel.isActive()) {
+                    byLoop.computeIfAbsent(channel.eventLoop(), k -> new ArrayList<>()).add(channel);
+                }
+            }
+            for (Map.Entry<EventLoop, List<Channel>> entry : byLoop.entrySet()) {
+                EventLoop loop = entry.getKey();
+                List<Channel> targets = entry.getValue();
+                frame.retain();
+                if (loop.inEventLoop()) {
+                    writeAndFlushAll(targets, frame, lowPriority);
+                } else {
+                    try {
+                        loop.execute(() -> writeAndFlushAll(targets, frame, lowPriority));
+                    } catch (RejectedExecutionException e) {
+                        frame.release();
+                        log.warn("事件循环已关闭，跳过 {} 个连接的广播", targets.size());
+                    }
+                }
+            }
+        } finally {
+            frame.release();
+        }
+    }
+
+    /**
+     * 在事件循环内先写入全部连接，再统一 flush
+     */
+    private static void writeAndFlushAll(List<Channel> targets, BinaryWebSocketFrame frame, boolean lowPriority) {
+        try {
+            for (Channel channel : targets) {
+                if (lowPriority) {
+                    SlowConsumerHandler.writeLowPriority(channel, frame.retainedDuplicate());
+                } else {
+                    SlowConsumerHandler.writeReliable(channel, frame.retainedDuplicate());
+                }
+            }
+            for (Channel channel : targets) {
+                channel.flush();
+            }
+        } finally {
+            frame.release();
+        }
+    }
+}
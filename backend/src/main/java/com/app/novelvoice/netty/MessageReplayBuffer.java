@@ -0,0 +1,480 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 断线补发缓冲
+ * 每个聊天室（大厅视为 0 号聊天室）和每对私聊用户各有一个定长环形缓冲，保存最近的消息。
+ * 客户端重连后发送 RESUME（seq 为已收到的最大序号），服务端只补发缺口：
+ * 缺口仍在缓冲区内时直接从内存补发；早于缓冲区的部分在独立线程上按序号键集查询数据库。
+ * 补发结束后回一条 RESUME 回执，seq 为已补发的最大序号，type 为 1 表示还有更多，客户端应继续请求。
+ * seq 为 0（首次连接、加入聊天室）时只推送最近 pushSize 条；缓冲区尚未装满最近 pushSize 条（如重启后只有几条实时消息）时
+ * 从数据库取最近消息，按序号合并到缓冲区已有消息之前。升级前写入的旧消息没有序号，以 seq 0 推送，排在最前。
+ * 从数据库取回的消息与实时消息一样由服务端填写发送者昵称和头像（{@link #toProtos(List)}）。
+ * 补发消息连同回执按批量帧（{@link ChatBatchWriter}）写出，客户端一次往返即可渲染。
+ * 补发期间到达的实时消息可能与补发消息交错，客户端按序号去重即可。
+ * <p>
+ * 顺序保证：序号由各节点分别分配（见 {@link SequenceGenerator}），单节点内严格递增，跨节点只是大致按时间有序，
+ * 其它节点转发来的消息可能比本节点已发出的消息序号更小却更晚到达。因此 RESUME 不从 lastSeq 严格向后补，
+ * 而是回看 replay.clock-skew-ms 对应的序号窗口，把窗口内的消息一并重发，客户端按序号去重；
+ * 节点间时钟偏差不超过该值时补发不会遗漏。补发结果按序号升序排列，不保证与实时到达的顺序一致。
+ * 回看部分不计入单次上限，回执的 seq 只随窗口之后的消息前进；收到 RESUME_MORE 回执后客户端以该 seq、
+ * type 为 RESUME_MORE 继续请求，续页不再回看。
+ */
+@Slf4j
+@Component
+public class MessageReplayBuffer {
+
+    /**
+     * RESUME 回执的 type：已追平
+     */
+    public static final int RESUME_DONE = 0;
+
+    /**
+     * RESUME 回执的 type：还有未补发的消息
+     */
+    public static final int RESUME_MORE = 1;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    /**
+     * 聊天室ID（0 为大厅） -> 缓冲
+     */
+    private final Map<Long, Ring> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * 私聊用户对 -> 缓冲
+     */
+    private final Map<Long, Ring> conversations = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private final LongAdder memoryReplays = new LongAdder();
+    private final LongAdder databaseReplays = new LongAdder();
+    private final LongAdder replayedMessages = new LongAdder();
+    private final LongAdder batchFrames = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newScheduledThreadPool(2, new DefaultThreadFactory("chat-replay", true));
+        long idleSeconds = nettyProperties.getReplay().getIdleSeconds();
+        executor.scheduleWithFixedDelay(this::evictIdle, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 私聊用户对的键：较小的用户ID在高 32 位；ID 超出 32 位时返回 -1，该用户对不使用缓冲区，补发直接查库
+     */
+    public static long pairKey(long userA, long userB) {
+        return ConversationIdCache.pairKey(userA, userB);
+    }
+
+    /**
+     * 记录大厅或聊天室消息（roomId 为 0 表示大厅）
+     */
+    public void appendRoom(long roomId, ChatMessage message) {
+        rooms.computeIfAbsent(roomId, k -> newRing()).append(message);
+    }
+
+    /**
+     * 记录私聊消息
+     */
+    public void appendPrivate(ChatMessage message) {
+        long key = pairKey(message.getSenderId(), message.getReceiverId());
+        if (key < 0) {
+            return;
+        }
+        conversations.computeIfAbsent(key, k -> newRing()).append(message);
+    }
+
+    /**
+     * 向重连的客户端补发大厅或聊天室的缺口
+     */
+    public void replayRoom(Channel channel, long roomId, long lastSeq, boolean continuation) {
+        ChatMessage ack = ChatMessage.newBuilder().setKind(MessageKind.RESUME).setRoomId(roomId).build();
+        replay(channel, rooms, roomId, lastSeq, continuation, ack, roomId > 0 ? roomId : null, null, null);
+    }
+
+    /**
+     * 向重连的客户端补发与某个用户之间私聊的缺口
+     */
+    public void replayPrivate(Channel channel, long userId, long peerId, long lastSeq, boolean continuation) {
+        ChatMessage ack = ChatMessage.newBuilder().setKind(MessageKind.RESUME).setReceiverId(peerId).build();
+        replay(channel, conversations, pairKey(userId, peerId), lastSeq, continuation, ack, null, userId, peerId);
+    }
+
+    /**
+     * @param continuation 接着上一页继续补发，不回看时钟偏差窗口
+     */
+    private void replay(Channel channel, Map<Long, Ring> rings, long key, long lastSeq, boolean continuation,
+                        ChatMessage ack, Long roomId, Long user1Id, Long user2Id) {
+        Ring ring = key >= 0 ? rings.get(key) : null;
+        if (lastSeq <= 0) {
+            pushRecent(channel, rings, key, ring, ack, roomId, user1Id, user2Id);
+            return;
+        }
+        int maxReplay = nettyProperties.getReplay().getMaxReplay();
+        // 回看时钟偏差窗口：其它节点转发来的消息可能序号更小却更晚到达
+        long fromSeq = continuation ? lastSeq
+                : Math.max(0, lastSeq - SequenceGenerator.span(nettyProperties.getReplay().getClockSkewMs()));
+        Snapshot snapshot = ring != null ? ring.after(fromSeq) : new Snapshot(new ArrayList<>(0), Long.MAX_VALUE);
+        if (fromSeq >= snapshot.floorSeq) {
+            // 缺口在缓冲区内则无需访问数据库
+            memoryReplays.increment();
+            send(channel, snapshot.messages, lastSeq, maxReplay, ack);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                databaseReplays.increment();
+                List<ChatMessage> messages = new ArrayList<>();
+                boolean full = false;
+                try {
+                    long overlapTo = Math.min(lastSeq, snapshot.floorSeq);
+                    if (fromSeq < overlapTo) {
+                        messages.addAll(toProtos(messageMapper.selectAfterSeq(roomId, user1Id, user2Id,
+                                fromSeq, overlapTo, maxReplay)));
+                    }
+                    if (lastSeq < snapshot.floorSeq) {
+                        List<Message> rows = messageMapper.selectAfterSeq(roomId, user1Id, user2Id,
+                                lastSeq, snapshot.floorSeq, maxReplay);
+                        full = rows.size() == maxReplay;
+                        messages.addAll(toProtos(rows));
+                    }
+                } catch (Exception e) {
+                    log.warn("补发查询失败: {}", e.getMessage());
+                }
+                if (!full) {
+                    // 数据库部分不足一次上限，接上缓冲区内的消息（重叠部分在 send 中去重）
+                    messages.addAll(snapshot.messages);
+                }
+                send(channel, messages, lastSeq, maxReplay, ack);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("补发线程池已关闭");
+        }
+    }
+
+    /**
+     * 推送最近 pushSize 条消息：缓冲区存在时直接取尾部，否则在独立线程上查库并回填缓冲区
+     */
+    private void pushRecent(Channel channel, Map<Long, Ring> rings, long key, Ring ring, ChatMessage ack,
+                            Long roomId, Long user1Id, Long user2Id) {
+        int pushSize = nettyProperties.getReplay().getPushSize();
+        if (ring != null && ring.isComplete()) {
+            memoryReplays.increment();
+            send(channel, tail(ring.after(-1).messages, pushSize), 0, Integer.MAX_VALUE, ack);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                databaseReplays.increment();
+                List<ChatMessage> messages;
+                List<Message> rows;
+                try {
+                    rows = messageMapper.selectLatest(roomId, user1Id, user2Id, pushSize);
+                } catch (Exception e) {
+                    log.warn("最近消息查询失败: {}", e.getMessage());
+                    send(channel, new ArrayList<>(0), 0, Integer.MAX_VALUE, ack);
+                    return;
+                }
+                // 查询为降序，推送按序号升序（没有序号的旧消息在前）
+                List<Message> ascending = new ArrayList<>(rows);
+                Collections.reverse(ascending);
+                messages = toProtos(ascending);
+                messages.sort(Comparator.comparingLong(ChatMessage::getSeq));
+                Ring target = key < 0 ? null
+                        : messages.isEmpty() ? rings.get(key) : rings.computeIfAbsent(key, k -> newRing());
+                if (target != null) {
+                    // 查询期间实时消息可能已建立缓冲区：合并而不是丢弃查询结果
+                    target.seed(messages, rows.size() < pushSize, pushSize);
+                    messages = tail(target.after(-1).messages, pushSize);
+                }
+                send(channel, messages, 0, Integer.MAX_VALUE, ack);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("补发线程池已关闭");
+        }
+    }
+
+    /**
+     * 在 Channel 的事件循环上按批量帧写出补发消息和回执，最后统一 flush 一次。
+     * 消息按序号升序、去重后写出；序号不大于 lastSeq 的（回看窗口内的）不计入 maxReplay，回执 seq 不回退到 lastSeq 之前
+     */
+    private void send(Channel channel, List<ChatMessage> messages, long lastSeq, int maxReplay, ChatMessage ack) {
+        List<ChatMessage> sorted = new ArrayList<>(messages);
+        sorted.sort(Comparator.comparingLong(ChatMessage::getSeq));
+        List<ChatMessage> frames = new ArrayList<>(sorted.size() + 1);
+        int fresh = 0;
+        boolean more = false;
+        long prevSeq = -1;
+        long lastSent = lastSeq;
+        for (ChatMessage message : sorted) {
+            if (message.getSeq() != 0 && message.getSeq() == prevSeq) {
+                // 数据库与缓冲区重叠的部分
+                continue;
+            }
+            prevSeq = message.getSeq();
+            if (message.getSeq() > lastSeq) {
+                if (fresh == maxReplay) {
+                    more = true;
+                    break;
+                }
+                fresh++;
+                lastSent = message.getSeq();
+            }
+            frames.add(message);
+        }
+        replayedMessages.add(frames.size());
+        frames.add(ack.toBuilder()
+                .setSeq(lastSent)
+                .setType(more || fresh == maxReplay ? RESUME_MORE : RESUME_DONE)
+                .build());
+        NettyProperties.Replay config = nettyProperties.getReplay();
+        channel.eventLoop().execute(() -> {
+            batchFrames.add(ChatBatchWriter.write(channel, frames,
+                    config.getBatchMaxMessages(), config.getBatchMaxBytes()));
+            channel.flush();
+        });
+    }
+
+    private static List<ChatMessage> tail(List<ChatMessage> messages, int size) {
+        return messages.subList(Math.max(0, messages.size() - size), messages.size());
+    }
+
+    private Ring newRing() {
+        return new Ring(nettyProperties.getReplay().getBufferSize());
+    }
+
+    private void evictIdle() {
+        long deadline = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(nettyProperties.getReplay().getIdleSeconds());
+        rooms.values().removeIf(ring -> ring.lastAppendMillis < deadline);
+        conversations.values().removeIf(ring -> ring.lastAppendMillis < deadline);
+    }
+
+    /**
+     * 数据库中的消息转为推送用的消息，按发送者批量读取资料缓存填写昵称和头像（会查库，不能在事件循环上调用）
+     */
+    List<ChatMessage> toProtos(List<Message> rows) {
+        List<ChatMessage> messages = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return messages;
+        }
+        Map<Long, UserProfileCache.Profile> senders = Collections.emptyMap();
+        try {
+            Set<Long> senderIds = new HashSet<>();
+            for (Message row : rows) {
+                senderIds.add(row.getSenderId());
+            }
+            senders = userProfileCache.getAll(senderIds);
+        } catch (Exception e) {
+            log.warn("加载发送者资料失败: {}", e.getMessage());
+        }
+        for (Message row : rows) {
+            ChatMessage message = toProto(row);
+            UserProfileCache.Profile sender = senders.get(row.getSenderId());
+            if (sender != null) {
+                message = message.toBuilder()
+                        .setSenderNickname(sender.getNickname())
+                        .setSenderAvatar(sender.getAvatar())
+                        .build();
+            }
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    static ChatMessage toProto(Message row) {
+        ChatMessage.Builder builder = ChatMessage.newBuilder()
+                .setSenderId(row.getSenderId())
+                .setType(row.getType() != null ? row.getType() : 0)
+                .setSeq(row.getSeq() != null ? row.getSeq() : 0);
+        if (row.getReceiverId() != null) {
+            builder.setReceiverId(row.getReceiverId());
+        }
+        if (row.getRoomId() != null) {
+            builder.setRoomId(row.getRoomId());
+        }
+        if (row.getContent() != null) {
+            builder.setContent(row.getContent());
+        }
+        if (row.getCreateTime() != null) {
+            builder.setTimestamp(row.getCreateTime().toInstant().toString());
+        }
+        if (row.getFileUrl() != null) {
+            builder.setFileUrl(row.getFileUrl());
+        }
+        if (row.getFileName() != null) {
+            builder.setFileName(row.getFileName());
+        }
+        if (row.getFileSize() != null) {
+            builder.setFileSize(row.getFileSize());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 获取补发统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("roomBuffers", rooms.size());
+        metrics.put("conversationBuffers", conversations.size());
+        metrics.put("memoryReplays", memoryReplays.sum());
+        metrics.put("databaseReplays", databaseReplays.sum());
+        metrics.put("replayedMessages", replayedMessages.sum());
+        metrics.put("batchFrames", batchFrames.sum());
+        return metrics;
+    }
+
+    /**
+     * 定长环形缓冲，写入与读取都很短，直接用对象锁
+     */
+    private static final class Ring {
+        private final ChatMessage[] slots;
+        private int next;
+        private int size;
+        /**
+         * 序号大于该值的消息都在缓冲区内；更早的只能回查数据库
+         */
+        private long floorSeq = Long.MAX_VALUE;
+        /**
+         * 已包含最近 pushSize 条（或全部历史），历史推送可直接从内存取
+         */
+        private boolean complete;
+        private volatile long lastAppendMillis = System.currentTimeMillis();
+
+        private Ring(int capacity) {
+            this.slots = new ChatMessage[capacity];
+        }
+
+        private synchronized void append(ChatMessage message) {
+            if (size == slots.length) {
+                // 缓冲区已满，覆盖最旧的一条
+                floorSeq = Math.max(floorSeq, slots[next].getSeq());
+            } else {
+                size++;
+                if (floorSeq == Long.MAX_VALUE) {
+                    floorSeq = message.getSeq() - 1;
+                }
+            }
+            slots[next] = message;
+            next = (next + 1) % slots.length;
+            lastAppendMillis = System.currentTimeMillis();
+        }
+
+        private synchronized boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * 把数据库查到的最近消息（按序号升序）合并到已有消息之前，按序号去重，超出容量时保留最新的
+         *
+         * @param wholeHistory 查询结果不足一页，已是全部历史
+         */
+        private synchronized void seed(List<ChatMessage> recent, boolean wholeHistory, int pushSize) {
+            Map<Long, ChatMessage> bySeq = new LinkedHashMap<>();
+            List<ChatMessage> merged = new ArrayList<>(recent.size() + size);
+            for (ChatMessage message : recent) {
+                if (message.getSeq() == 0) {
+                    // 升级前的旧消息没有序号，不参与去重
+                    merged.add(message);
+                } else {
+                    bySeq.put(message.getSeq(), message);
+                }
+            }
+            int start = (next - size + slots.length) % slots.length;
+            for (int i = 0; i < size; i++) {
+                ChatMessage message = slots[(start + i) % slots.length];
+                bySeq.putIfAbsent(message.getSeq(), message);
+            }
+            List<ChatMessage> sequenced = new ArrayList<>(bySeq.values());
+            sequenced.sort(Comparator.comparingLong(ChatMessage::getSeq));
+            merged.addAll(sequenced);
+            if (wholeHistory || (!merged.isEmpty() && merged.get(0).getSeq() == 0)) {
+                // 已包含全部历史，或已回溯到没有序号的旧消息：任何正序号之后的消息都在缓冲区内
+                floorSeq = 0;
+            } else if (!merged.isEmpty()) {
+                floorSeq = Math.min(floorSeq, merged.get(0).getSeq() - 1);
+            }
+            int from = Math.max(0, merged.size() - slots.length);
+            if (from > 0) {
+                floorSeq = Math.max(floorSeq, merged.get(from - 1).getSeq());
+            }
+            Arrays.fill(slots, null);
+            size = merged.size() - from;
+            for (int i = 0; i < size; i++) {
+                slots[i] = merged.get(from + i);
+            }
+            next = size % slots.length;
+            complete = wholeHistory || size >= Math.min(pushSize, slots.length);
+        }
+
+        /**
+         * 取出序号大于 lastSeq 的消息（按序号升序）
+         */
+        private synchronized Snapshot after(long lastSeq) {
+            List<ChatMessage> messages = new ArrayList<>();
+            int start = (next - size + slots.length) % slots.length;
+            for (int i = 0; i < size; i++) {
+                ChatMessage message = slots[(start + i) % slots.length];
+                if (message.getSeq() > lastSeq) {
+                    messages.add(message);
+                }
+            }
+            // 其它节点转发来的消息可能与本节点消息交错到达
+            messages.sort(Comparator.comparingLong(ChatMessage::getSeq));
+            return new Snapshot(messages, floorSeq);
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<ChatMessage> messages;
+        private final long floorSeq;
+
+        private Snapshot(List<ChatMessage> messages, long floorSeq) {
+            this.messages = messages;
+            this.floorSeq = floorSeq;
+        }
+    }
+}
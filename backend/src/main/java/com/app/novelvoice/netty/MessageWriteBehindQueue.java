@@ -0,0 +1,435 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.entity.UnreadCounter;
+import com.app.novelvoice.mapper.ConversationMapper;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.UnreadCounterMapper;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 聊天消息异步批量写入队列（write-behind）
+ * Netty 事件循环线程只负责入队，由独立的写线程按"满一批或时间窗口到期"攒批，
+ * 通过多行 INSERT 一次性落库，避免在 NIO 线程上等待 MySQL 往返。
+ * 私聊消息的会话ID也在写线程上解析（{@link ConversationIdCache}）。消息插入、每个会话一条语句前移最后消息、
+ * 整批按接收者、发送者聚合后一条语句累加未读计数在同一个事务中提交，任一步失败整批回滚后降级为逐条写入，
+ * 未读计数不会与消息脱节；提交后再就地更新双方的会话列表快照（{@link ConversationListCache}）。
+ * HTTP 接口发送的私聊消息通过 {@link #writeThrough(Message)} 走同一路径同步写入。
+ */
+@Slf4j
+@Component
+public class MessageWriteBehindQueue {
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private ConversationIdCache conversationIdCache;
+
+    @Autowired
+    private ConversationListCache conversationListCache;
+
+    @Autowired
+    private UnreadCounterMapper unreadCounterMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<Message> queue;
+
+    private Thread writerThread;
+
+    /**
+     * 溢出写线程：HANDOFF 策略下队列满时、以及停机期间到达的消息在这里逐条写入，队列有界
+     */
+    private ThreadPoolExecutor overflowWriter;
+
+    /**
+     * 落库屏障：入队和交给溢出写线程都在提交锁内计数，计数顺序与两个队列的先进先出顺序一致；
+     * 写线程每处理完一批、溢出写线程每处理完一条累加已处理数，已处理数追上某一时刻的提交数，
+     * 即表示那一刻之前提交的消息都已处理完（写入成功或已记为失败）
+     */
+    private final Object submitLock = new Object();
+    private final Object settleLock = new Object();
+    private long queuedTickets;
+    private long handedOffTickets;
+    private long queueSettled;
+    private long overflowSettled;
+
+    private volatile boolean running;
+
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    /**
+     * 统计指标
+     */
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder persistedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder handedOffCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedMessageCount = new LongAdder();
+    private final LongAdder conversationUpdateCount = new LongAdder();
+    private final LongAdder unreadUpdateCount = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    @PostConstruct
+    public void start() {
+        NettyProperties.Persist config = nettyProperties.getPersist();
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        overflowWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getOverflowCapacity()),
+                new DefaultThreadFactory("chat-message-overflow", true));
+        running = true;
+        writerThread = new Thread(this::runLoop, "chat-message-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 提交一条待持久化消息，不阻塞调用线程，也不在调用线程上访问数据库（调用方通常是事件循环）
+     *
+     * @return true 表示已入队或已交给溢出写线程，false 表示被丢弃
+     */
+    public boolean submit(Message message) {
+        submittedCount.increment();
+        synchronized (submitLock) {
+            if (running && queue.offer(message)) {
+                queuedTickets++;
+                return true;
+            }
+            // 已停机时写线程不再取队列，停机期间到达的消息同样交给溢出写线程
+            if ((!running || nettyProperties.getPersist().getOverflowPolicy() == NettyProperties.OverflowPolicy.HANDOFF)
+                    && handOff(message)) {
+                handedOffTickets++;
+                return true;
+            }
+        }
+        droppedCount.increment();
+        if (droppedCount.sum() % 1000 == 1) {
+            log.warn("消息持久化队列已满，累计丢弃 {} 条", droppedCount.sum());
+        }
+        return false;
+    }
+
+    private boolean handOff(Message message) {
+        try {
+            overflowWriter.execute(() -> {
+                try {
+                    persistDirectly(message);
+                } finally {
+                    settle(1, true);
+                }
+            });
+            handedOffCount.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 等待调用时刻之前通过 {@link #submit(Message)} 提交的消息全部处理完（写入成功或已记为失败），不能在事件循环上调用
+     *
+     * @return false 表示超时
+     */
+    public boolean awaitPersisted(long timeoutMs) throws InterruptedException {
+        long queued;
+        long handedOff;
+        synchronized (submitLock) {
+            queued = queuedTickets;
+            handedOff = handedOffTickets;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (settleLock) {
+            while (queueSettled < queued || overflowSettled < handedOff) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                settleLock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private void settle(int count, boolean overflow) {
+        synchronized (settleLock) {
+            if (overflow) {
+                overflowSettled += count;
+            } else {
+                queueSettled += count;
+            }
+            settleLock.notifyAll();
+        }
+    }
+
+    /**
+     * 同步写入一条消息（HTTP 请求线程调用，返回时消息ID、会话ID已回填），不能在事件循环上调用
+     */
+    public void writeThrough(Message message) {
+        submittedCount.increment();
+        resolveConversation(message);
+        write(Collections.singletonList(message), false);
+        conversationListCache.messageSaved(message);
+    }
+
+    /**
+     * 写线程主循环：先阻塞等待第一条消息，再在时间窗口内尽量攒满一批
+     */
+    private void runLoop() {
+        NettyProperties.Persist config = nettyProperties.getPersist();
+        int batchSize = config.getBatchSize();
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        List<Message> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Message first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Message next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 被中断视为停机信号，继续排空剩余消息后退出
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                settle(batch.size(), false);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 批量写入一批消息，失败时降级为逐条写入，避免一条坏数据拖垮整批
+     */
+    private void flush(List<Message> batch) {
+        int size = batch.size();
+        batch.forEach(this::resolveConversation);
+        try {
+            write(batch, true);
+        } catch (Exception e) {
+            log.error("批量写入消息失败，降级为逐条写入, batchSize={}", size, e);
+            for (Message message : batch) {
+                persistDirectly(message);
+            }
+            return;
+        }
+        batch.forEach(conversationListCache::messageSaved);
+        // 只统计整批写入成功的批次
+        batchCount.increment();
+        batchedMessageCount.add(size);
+        lastBatchSize.set(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    private void persistDirectly(Message message) {
+        try {
+            resolveConversation(message);
+            write(Collections.singletonList(message), false);
+            conversationListCache.messageSaved(message);
+        } catch (Exception e) {
+            failedCount.increment();
+            log.error("消息写入失败, senderId={}", message.getSenderId(), e);
+        }
+    }
+
+    /**
+     * 在一个事务中插入消息、前移会话最后消息并累加未读计数，任一步失败整体回滚并抛出异常
+     */
+    private void write(List<Message> messages, boolean batch) {
+        int[] counts = transactionTemplate.execute(status -> {
+            if (batch) {
+                messageMapper.insertBatch(messages);
+            } else {
+                messageMapper.insert(messages.get(0));
+            }
+            return new int[]{updateConversations(messages), incrementUnread(messages)};
+        });
+        persistedCount.add(messages.size());
+        conversationUpdateCount.add(counts[0]);
+        unreadUpdateCount.add(counts[1]);
+    }
+
+    /**
+     * 私聊消息补上会话ID；查找失败时仍按无会话写入，不影响消息本身落库
+     */
+    private void resolveConversation(Message message) {
+        if (message.getReceiverId() == null || message.getConversationId() != null) {
+            return;
+        }
+        try {
+            message.setConversationId(conversationIdCache.resolve(message.getSenderId(), message.getReceiverId()));
+        } catch (Exception e) {
+            log.warn("解析私聊会话失败: {} -> {} {}", message.getSenderId(), message.getReceiverId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 一批消息中每个会话只取ID最大的一条更新最后消息
+     *
+     * @return 更新的会话数
+     */
+    private int updateConversations(List<Message> batch) {
+        Map<Long, Message> latest = new HashMap<>();
+        for (Message message : batch) {
+            if (message.getConversationId() != null && message.getId() != null) {
+                latest.merge(message.getConversationId(), message,
+                        (a, b) -> b.getId() > a.getId() ? b : a);
+            }
+        }
+        for (Message message : latest.values()) {
+            conversationMapper.updateLastMessage(message.getConversationId(), message.getId(), message.getCreateTime());
+        }
+        return latest.size();
+    }
+
+    /**
+     * 私聊消息给接收者的未读计数加一：一批按接收者、发送者聚合后一条语句写入。
+     * 在前移会话最后消息之后执行，与标记已读并发时宁可多计一条也不漏计
+     *
+     * @return 更新的计数行数
+     */
+    private int incrementUnread(List<Message> messages) {
+        Map<List<Long>, UnreadCounter> deltas = new LinkedHashMap<>();
+        for (Message message : messages) {
+            if (message.getConversationId() == null || message.getId() == null
+                    || message.getReceiverId().equals(message.getSenderId())) {
+                continue;
+            }
+            UnreadCounter delta = deltas.computeIfAbsent(
+                    Arrays.asList(message.getReceiverId(), message.getSenderId()), k -> {
+                        UnreadCounter counter = new UnreadCounter();
+                        counter.setUserId(message.getReceiverId());
+                        counter.setPeerId(message.getSenderId());
+                        counter.setConversationId(message.getConversationId());
+                        counter.setUnreadCount(0);
+                        return counter;
+                    });
+            delta.setUnreadCount(delta.getUnreadCount() + 1);
+        }
+        if (!deltas.isEmpty()) {
+            unreadCounterMapper.incrementBatch(new ArrayList<>(deltas.values()));
+        }
+        return deltas.size();
+    }
+
+    /**
+     * 停止接收并等待队列排空，可重复调用
+     */
+    @PreDestroy
+    public void drainAndStop() {
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        running = false;
+        long timeoutMs = nettyProperties.getPersist().getShutdownTimeoutMs();
+        try {
+            writerThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writerThread.isAlive() && !queue.isEmpty()) {
+            // 写线程退出与最后一次入队之间存在竞态，残留消息在当前线程补写
+            List<Message> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            for (Message message : rest) {
+                persistDirectly(message);
+                settle(1, false);
+            }
+        }
+        overflowWriter.shutdown();
+        try {
+            overflowWriter.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive() || !queue.isEmpty() || !overflowWriter.isTerminated()) {
+            log.warn("消息持久化队列未能在 {}ms 内排空，剩余 {} 条，溢出队列剩余 {} 条",
+                    timeoutMs, queue.size(), overflowWriter.getQueue().size());
+        } else {
+            log.info("消息持久化队列已排空，累计写入 {} 条", persistedCount.sum());
+        }
+    }
+
+    /**
+     * 当前队列积压条数
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 获取统计指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        long batches = batchCount.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue.size());
+        metrics.put("queueCapacity", nettyProperties.getPersist().getQueueCapacity());
+        metrics.put("submitted", submittedCount.sum());
+        metrics.put("persisted", persistedCount.sum());
+        metrics.put("dropped", droppedCount.sum());
+        metrics.put("handedOff", handedOffCount.sum());
+        metrics.put("overflowQueueDepth", overflowWriter.getQueue().size());
+        metrics.put("failed", failedCount.sum());
+        metrics.put("batches", batches);
+        metrics.put("lastBatchSize", lastBatchSize.get());
+        metrics.put("maxBatchSize", maxBatchSize.get());
+        metrics.put("avgBatchSize", batches == 0 ? 0 : (double) batchedMessageCount.sum() / batches);
+        metrics.put("conversationUpdates", conversationUpdateCount.sum());
+        metrics.put("unreadUpdates", unreadUpdateCount.sum());
+        metrics.put("conversationCache", conversationIdCache.getMetrics());
+        return metrics;
+    }
+}
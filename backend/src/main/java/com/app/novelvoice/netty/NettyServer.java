@@ -1,45 +1,146 @@
 package com.app.novelvoice.netty;
 
+import com.app.novelvoice.config.NettyProperties;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Netty WebSocket 服务器
+ * 线程模型、传输方式和 TCP 参数均由 netty.websocket 配置驱动
+ */
+@Slf4j
 @Component
 public class NettyServer {
 
     @Autowired
     private WebSocketChannelInitializer channelInitializer;
 
+    @Autowired
+    private MessageWriteBehindQueue messageWriteBehindQueue;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
+    private volatile ByteBufAllocator allocator;
+    private volatile String transport;
 
     @PostConstruct
     public void start() {
         new Thread(() -> {
-            bossGroup = new NioEventLoopGroup(1);
-            workerGroup = new NioEventLoopGroup();
+            boolean useEpoll = nettyProperties.isNativeTransport() && Epoll.isAvailable();
+            Class<? extends ServerChannel> channelClass;
+            if (useEpoll) {
+                bossGroup = new EpollEventLoopGroup(nettyProperties.getBossThreads(), new DefaultThreadFactory("netty-boss"));
+                workerGroup = new EpollEventLoopGroup(nettyProperties.getWorkerThreads(), new DefaultThreadFactory("netty-worker"));
+                channelClass = EpollServerSocketChannel.class;
+            } else {
+                bossGroup = new NioEventLoopGroup(nettyProperties.getBossThreads(), new DefaultThreadFactory("netty-boss"));
+                workerGroup = new NioEventLoopGroup(nettyProperties.getWorkerThreads(), new DefaultThreadFactory("netty-worker"));
+                channelClass = NioServerSocketChannel.class;
+            }
+            allocator = nettyProperties.isPooledAllocator()
+                    ? PooledByteBufAllocator.DEFAULT : UnpooledByteBufAllocator.DEFAULT;
+            transport = useEpoll ? "epoll" : "nio";
             try {
                 ServerBootstrap b = new ServerBootstrap();
                 b.group(bossGroup, workerGroup)
-                        .channel(NioServerSocketChannel.class)
+                        .channel(channelClass)
+                        .option(ChannelOption.SO_BACKLOG, nettyProperties.getSoBacklog())
+                        .option(ChannelOption.ALLOCATOR, allocator)
+                        .childOption(ChannelOption.TCP_NODELAY, nettyProperties.isTcpNoDelay())
+                        .childOption(ChannelOption.SO_KEEPALIVE, nettyProperties.isSoKeepAlive())
+                        .childOption(ChannelOption.ALLOCATOR, allocator)
+                        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                                nettyProperties.getWriteBufferLowWaterMark(), nettyProperties.getWriteBufferHighWaterMark()))
                         .childHandler(channelInitializer);
 
-                ChannelFuture f = b.bind(8081).sync(); // Listen on 8081 for WebSocket
-                System.out.println("Netty WebSocket server started on port 8081");
+                ChannelFuture f = b.bind(nettyProperties.getPort()).sync();
+                log.info("Netty WebSocket server started on port {}, path {}, transport {}",
+                        nettyProperties.getPort(), nettyProperties.getPath(), useEpoll ? "epoll" : "nio");
                 f.channel().closeFuture().sync();
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Netty WebSocket server failed to start on port {}", nettyProperties.getPort(), e);
             } finally {
                 stop();
             }
-        }).start();
+        }, "netty-server").start();
+    }
+
+    /**
+     * 每个 worker 事件循环的待执行任务数（持续偏高说明事件循环已饱和）
+     */
+    public List<Map<String, Object>> getEventLoopMetrics() {
+        List<Map<String, Object>> loops = new ArrayList<>();
+        EventLoopGroup group = workerGroup;
+        if (group == null) {
+            return loops;
+        }
+        int index = 0;
+        for (EventExecutor executor : group) {
+            Map<String, Object> loop = new LinkedHashMap<>();
+            loop.put("index", index++);
+            if (executor instanceof SingleThreadEventExecutor) {
+                loop.put("pendingTasks", ((SingleThreadEventExecutor) executor).pendingTasks());
+            }
+            loop.put("shuttingDown", executor.isShuttingDown());
+            loops.add(loop);
+        }
+        return loops;
+    }
+
+    /**
+     * ByteBuf 分配器使用情况
+     */
+    public Map<String, Object> getAllocatorMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        ByteBufAllocator current = allocator;
+        metrics.put("transport", transport);
+        if (current instanceof PooledByteBufAllocator) {
+            PooledByteBufAllocatorMetric metric = ((PooledByteBufAllocator) current).metric();
+            metrics.put("type", "pooled");
+            metrics.put("usedDirectMemory", metric.usedDirectMemory());
+            metrics.put("usedHeapMemory", metric.usedHeapMemory());
+            metrics.put("directArenas", metric.numDirectArenas());
+            metrics.put("heapArenas", metric.numHeapArenas());
+            metrics.put("threadLocalCaches", metric.numThreadLocalCaches());
+            metrics.put("chunkSize", metric.chunkSize());
+        } else if (current instanceof ByteBufAllocatorMetricProvider) {
+            metrics.put("type", "unpooled");
+            metrics.put("usedDirectMemory", ((ByteBufAllocatorMetricProvider) current).metric().usedDirectMemory());
+            metrics.put("usedHeapMemory", ((ByteBufAllocatorMetricProvider) current).metric().usedHeapMemory());
+        }
+        return metrics;
     }
 
     @PreDestroy
@@ -47,6 +148,8 @@ public class NettyServer {
         if (bossGroup != null)
             bossGroup.shutdownGracefully();
         if (workerGroup != null)
-            workerGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully().syncUninterruptibly();
+        // 事件循环全部退出后不会再有新消息入队，此时排空持久化队列
+        messageWriteBehindQueue.drainAndStop();
     }
 }
@@ -0,0 +1,492 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.OfflineInboxMapper;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 离线收件箱
+ * 私聊接收者不在线时，消息在内存中按用户暂存（保存的是已编码好的消息，推送时无需回查数据库，
+ * 写入队列满而未能落库的消息也能送达）；单个用户的条数或全部用户的条数、字节数超出上限时
+ * 该用户溢出到数据库：只在 offline_inbox 表记录最早一条未投递消息的序号，此后已交给写入队列的消息不再进内存，
+ * 上线时按 (receiver_id, seq) 从消息表取回；未能落库的消息始终留在内存中。
+ * 从数据库取回之前先等本节点写入队列处理完此刻之前提交的消息（{@link MessageWriteBehindQueue#awaitPersisted(long)}），
+ * 避免读到缺口后确认水位越过尚未落库的消息；等待超时则稍后重试。
+ * 用户第一个设备上线后在独立线程上合并内存和数据库两部分，按批量帧一次推送给该用户的所有设备，
+ * 末尾附 INBOX 回执；客户端以回执的 seq 回复 INBOX 确认后清除已投递部分，回执 type 为 1 时继续推送下一批。
+ * 用户在其它节点上线时，本节点内存中暂存的消息直接转发给那个节点。
+ * 停机时内存中尚未投递的收件箱全部溢出到数据库，重启后用户上线照常取回。
+ */
+@Slf4j
+@Component
+public class OfflineInbox implements SessionRegistry.Listener {
+
+    /**
+     * 停机时等待已提交任务（如溢出水位写入）完成的最长时间
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private OfflineInboxMapper offlineInboxMapper;
+
+    @Autowired
+    private MessageReplayBuffer messageReplayBuffer;
+
+    @Autowired
+    private MessageWriteBehindQueue messageWriteBehindQueue;
+
+    private final Map<Long, Inbox> inboxes = new ConcurrentHashMap<>();
+
+    /**
+     * 内存中暂存的消息总数
+     */
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+
+    /**
+     * 内存中暂存的消息编码后的总字节数
+     */
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder spills = new LongAdder();
+    private final LongAdder spilledMessages = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder pushedMessages = new LongAdder();
+    private final LongAdder acks = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder flushWaits = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("offline-inbox", true));
+        sessionRegistry.addListener(this);
+        clusterRouter.addRemotePresenceListener(new SessionRegistry.Listener() {
+            @Override
+            public void userOnline(long userId) {
+                forwardToRemote(userId);
+            }
+
+            @Override
+            public void userOffline(long userId) {
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor.shutdownNow();
+        }
+        spillAll();
+    }
+
+    /**
+     * 把内存中的未投递消息全部溢出到数据库（只记录每个用户最早一条的序号），未能落库的消息无法保留
+     */
+    private void spillAll() {
+        int users = 0;
+        for (Map.Entry<Long, Inbox> entry : inboxes.entrySet()) {
+            Inbox inbox = entry.getValue();
+            long fromSeq;
+            synchronized (inbox) {
+                fromSeq = spill(inbox);
+                lost.add(inbox.entries.size());
+            }
+            if (fromSeq == 0) {
+                continue;
+            }
+            try {
+                offlineInboxMapper.upsert(entry.getKey(), fromSeq);
+                users++;
+            } catch (Exception e) {
+                log.warn("停机溢出离线收件箱失败: userId={} {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (users > 0) {
+            log.info("停机前已将 {} 个用户的离线收件箱溢出到数据库", users);
+        }
+    }
+
+    /**
+     * 暂存发给离线用户的私聊消息（可在事件循环上调用）
+     *
+     * @param persisted 消息是否已交给写入队列；false 表示持久化被丢弃，只能从内存投递
+     */
+    public void offer(long userId, ChatMessage message, boolean persisted) {
+        NettyProperties.OfflineInbox config = nettyProperties.getOfflineInbox();
+        if (!config.isEnabled()) {
+            return;
+        }
+        offered.increment();
+        Inbox inbox = inboxes.computeIfAbsent(userId, k -> new Inbox());
+        long spillFromSeq = 0;
+        synchronized (inbox) {
+            if (inbox.spilled && persisted) {
+                // 数据库水位已覆盖此后的消息
+                spilledMessages.increment();
+            } else {
+                Entry entry = new Entry(message, persisted);
+                inbox.entries.addLast(entry);
+                int total = queuedMessages.incrementAndGet();
+                long bytes = queuedBytes.addAndGet(entry.bytes);
+                if (inbox.entries.size() > config.getMaxPerUser() || total > config.getMaxTotal()
+                        || bytes > config.getMaxTotalBytes()) {
+                    spillFromSeq = spill(inbox);
+                    trimUnpersisted(inbox, config.getMaxPerUser());
+                }
+            }
+        }
+        if (spillFromSeq > 0) {
+            spills.increment();
+            long fromSeq = spillFromSeq;
+            submit(() -> offlineInboxMapper.upsert(userId, fromSeq));
+        }
+        // 判定离线与暂存之间用户可能已上线，此时上线推送可能已经取过收件箱
+        if (sessionRegistry.getChannels(userId).length > 0) {
+            submit(() -> push(userId));
+        }
+    }
+
+    /**
+     * 客户端确认收到 ackSeq 及之前的消息（可在事件循环上调用）
+     */
+    public void acknowledge(long userId, long ackSeq) {
+        Inbox inbox = inboxes.get(userId);
+        if (inbox == null) {
+            return;
+        }
+        acks.increment();
+        boolean fromDatabase;
+        boolean more;
+        synchronized (inbox) {
+            if (inbox.pushedSeq == 0 || ackSeq < inbox.pushedSeq) {
+                // 不是最近一次推送的回执
+                return;
+            }
+            removeUpTo(inbox, ackSeq);
+            fromDatabase = inbox.pushedFromDatabase;
+            more = inbox.pushedMore;
+            inbox.pushedSeq = 0;
+        }
+        submit(() -> {
+            if (fromDatabase) {
+                if (more) {
+                    offlineInboxMapper.advance(userId, ackSeq);
+                } else {
+                    offlineInboxMapper.delete(userId, ackSeq + 1);
+                    synchronized (inbox) {
+                        inbox.spilled = false;
+                    }
+                }
+            }
+            if (more) {
+                push(userId);
+            } else {
+                removeIfEmpty(userId, inbox);
+            }
+        });
+    }
+
+    @Override
+    public void userOnline(long userId) {
+        // 在注册表锁内回调，只投递任务
+        submit(() -> push(userId));
+    }
+
+    @Override
+    public void userOffline(long userId) {
+    }
+
+    /**
+     * 合并内存与数据库中的未投递消息，按序号去重后推送给用户的所有设备（在收件箱线程上执行）
+     */
+    private void push(long userId) {
+        Channel[] channels = sessionRegistry.getChannels(userId);
+        if (channels.length == 0) {
+            return;
+        }
+        NettyProperties.OfflineInbox config = nettyProperties.getOfflineInbox();
+        int limit = config.getPushLimit();
+        List<ChatMessage> messages = new ArrayList<>();
+        Long fromSeq = offlineInboxMapper.selectFromSeq(userId);
+        boolean more = false;
+        if (fromSeq != null) {
+            if (!awaitPersisted(config.getFlushWaitMs())) {
+                // 写入队列中可能还有发给该用户的消息，读库会漏掉它们而确认水位又会越过它们，稍后重试
+                flushWaits.increment();
+                schedule(() -> push(userId), config.getFlushWaitMs());
+                return;
+            }
+            List<Message> rows = messageMapper.selectToUserFromSeq(userId, fromSeq, limit + 1);
+            more = rows.size() > limit;
+            messages.addAll(messageReplayBuffer.toProtos(more ? rows.subList(0, limit) : rows));
+        }
+        Inbox inbox = inboxes.get(userId);
+        if (inbox != null) {
+            synchronized (inbox) {
+                for (Entry entry : inbox.entries) {
+                    messages.add(entry.message);
+                }
+            }
+        }
+        if (messages.isEmpty()) {
+            if (fromSeq != null) {
+                // 水位之后已没有消息（例如溢出前已逐条投递）
+                offlineInboxMapper.delete(userId, fromSeq);
+            }
+            if (inbox != null) {
+                synchronized (inbox) {
+                    inbox.spilled = false;
+                }
+                removeIfEmpty(userId, inbox);
+            }
+            return;
+        }
+        messages.sort(Comparator.comparingLong(ChatMessage::getSeq));
+        List<ChatMessage> frames = new ArrayList<>(Math.min(messages.size(), limit) + 1);
+        long lastSeq = 0;
+        for (ChatMessage message : messages) {
+            if (frames.size() == limit) {
+                more = true;
+                break;
+            }
+            if (message.getSeq() != lastSeq) {
+                frames.add(message);
+                lastSeq = message.getSeq();
+            }
+        }
+        inbox = inboxes.computeIfAbsent(userId, k -> new Inbox());
+        synchronized (inbox) {
+            inbox.pushedSeq = lastSeq;
+            inbox.pushedMore = more;
+            inbox.pushedFromDatabase = fromSeq != null;
+        }
+        pushes.increment();
+        pushedMessages.add(frames.size());
+        frames.add(ChatMessage.newBuilder()
+                .setKind(MessageKind.INBOX)
+                .setSeq(lastSeq)
+                .setType(more ? MessageReplayBuffer.RESUME_MORE : MessageReplayBuffer.RESUME_DONE)
+                .build());
+        NettyProperties.Replay replay = nettyProperties.getReplay();
+        for (Channel channel : channels) {
+            channel.eventLoop().execute(() -> {
+                ChatBatchWriter.write(channel, frames, replay.getBatchMaxMessages(), replay.getBatchMaxBytes());
+                channel.flush();
+            });
+        }
+    }
+
+    /**
+     * 用户在其它节点上线：把本节点内存中暂存的消息转发过去（溢出部分由那个节点从数据库取回）
+     */
+    private void forwardToRemote(long userId) {
+        Inbox inbox = inboxes.remove(userId);
+        if (inbox == null) {
+            return;
+        }
+        List<ChatMessage> messages = new ArrayList<>();
+        synchronized (inbox) {
+            for (Entry entry : inbox.entries) {
+                messages.add(entry.message);
+                release(entry);
+            }
+            inbox.entries.clear();
+        }
+        for (ChatMessage message : messages) {
+            clusterRouter.relayPrivate(message, userId);
+        }
+        forwarded.add(messages.size());
+    }
+
+    /**
+     * 把已交给写入队列的消息移出内存，返回其中最小的序号（没有时返回 0）；调用方持有收件箱锁
+     */
+    private long spill(Inbox inbox) {
+        long fromSeq = Long.MAX_VALUE;
+        int count = 0;
+        Iterator<Entry> it = inbox.entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.persisted) {
+                fromSeq = Math.min(fromSeq, entry.message.getSeq());
+                release(entry);
+                it.remove();
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        spilledMessages.add(count);
+        inbox.spilled = true;
+        return fromSeq;
+    }
+
+    /**
+     * 溢出后仍超出单用户上限的只剩未能落库的消息，丢弃最早的并计数；调用方持有收件箱锁
+     */
+    private void trimUnpersisted(Inbox inbox, int maxPerUser) {
+        while (inbox.entries.size() > maxPerUser) {
+            release(inbox.entries.pollFirst());
+            lost.increment();
+        }
+    }
+
+    private void release(Entry entry) {
+        queuedMessages.decrementAndGet();
+        queuedBytes.addAndGet(-entry.bytes);
+    }
+
+    private void removeUpTo(Inbox inbox, long ackSeq) {
+        Iterator<Entry> it = inbox.entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.message.getSeq() <= ackSeq) {
+                release(entry);
+                it.remove();
+            }
+        }
+    }
+
+    private void removeIfEmpty(long userId, Inbox inbox) {
+        synchronized (inbox) {
+            if (inbox.entries.isEmpty() && !inbox.spilled && inbox.pushedSeq == 0) {
+                inboxes.remove(userId, inbox);
+            }
+        }
+    }
+
+    private boolean awaitPersisted(long timeoutMs) {
+        try {
+            return messageWriteBehindQueue.awaitPersisted(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void submit(Runnable task) {
+        schedule(task, 0);
+    }
+
+    private void schedule(Runnable task, long delayMs) {
+        try {
+            executor.schedule(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("离线收件箱处理失败: {}", e.getMessage());
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("离线收件箱线程已关闭");
+        }
+    }
+
+    /**
+     * 获取离线收件箱统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("users", inboxes.size());
+        metrics.put("queuedMessages", queuedMessages.get());
+        metrics.put("queuedBytes", queuedBytes.get());
+        metrics.put("offered", offered.sum());
+        metrics.put("spills", spills.sum());
+        metrics.put("spilledMessages", spilledMessages.sum());
+        metrics.put("pushes", pushes.sum());
+        metrics.put("pushedMessages", pushedMessages.sum());
+        metrics.put("acks", acks.sum());
+        metrics.put("forwarded", forwarded.sum());
+        metrics.put("flushWaits", flushWaits.sum());
+        metrics.put("lost", lost.sum());
+        return metrics;
+    }
+
+    /**
+     * 单个用户的收件箱，访问时对自身加锁
+     */
+    private static final class Inbox {
+        /**
+         * 内存中暂存的消息（按到达顺序）
+         */
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        /**
+         * 已溢出到数据库：此后已交给写入队列的消息只靠数据库水位找回
+         */
+        private boolean spilled;
+        /**
+         * 最近一次推送的最大序号，0 表示没有待确认的推送
+         */
+        private long pushedSeq;
+        private boolean pushedMore;
+        private boolean pushedFromDatabase;
+    }
+
+    /**
+     * 暂存的一条消息
+     */
+    private static final class Entry {
+        private final ChatMessage message;
+        /**
+         * 已交给写入队列（可从数据库找回）
+         */
+        private final boolean persisted;
+        private final int bytes;
+
+        private Entry(ChatMessage message, boolean persisted) {
+            this.message = message;
+            this.persisted = persisted;
+            this.bytes = message.getSerializedSize();
+        }
+    }
+}
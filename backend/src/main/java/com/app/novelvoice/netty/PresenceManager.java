@@ -0,0 +1,236 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.mapper.OnlineUserMapper;
+import com.app.novelvoice.netty.cluster.ClusterBus;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 在线状态管理
+ * 由会话注册表的上下线事件驱动，在内存中维护按用户ID有序的在线集合，在线查询与分页直接读内存；
+ * 上下线变更只记录最终状态，由后台线程定期合并为批量 SQL 写回 online_users 表，
+ * 事件循环线程不访问数据库。
+ */
+@Slf4j
+@Component
+public class PresenceManager implements SessionRegistry.Listener {
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private ClusterBus clusterBus;
+
+    @Autowired
+    private OnlineUserMapper onlineUserMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    /**
+     * 本节点在线用户（有序，支持按用户ID游标分页）
+     */
+    private final NavigableSet<Long> localOnline = new ConcurrentSkipListSet<>();
+
+    /**
+     * 待写回的状态变更：用户ID -> 是否在线（同一用户多次变更只保留最后一次）
+     */
+    private final Map<Long, Boolean> pendingChanges = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService writer;
+
+    private final LongAdder flushedOnline = new LongAdder();
+    private final LongAdder flushedOffline = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        NettyProperties.Presence config = nettyProperties.getPresence();
+        if (config.getStaleSeconds() <= config.getTouchIntervalSeconds()) {
+            throw new IllegalStateException("netty.websocket.presence.stale-seconds 必须大于 touch-interval-seconds，否则会清掉在线节点的记录");
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "presence-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        // 清理上次运行的残留记录后再开始接收上下线事件：未配置节点ID时每次启动生成新ID，
+        // 按节点ID删不到上次（异常退出）的记录，因此同时按活跃时间清理超过 stale-seconds 未刷新的记录
+        writer.execute(() -> {
+            try {
+                onlineUserMapper.deleteByNode(clusterBus.getNodeId());
+                onlineUserMapper.deleteStale(config.getStaleSeconds());
+            } catch (Exception e) {
+                log.warn("清理残留在线记录失败: {}", e.getMessage());
+            }
+        });
+        sessionRegistry.addListener(this);
+        writer.scheduleWithFixedDelay(this::flush, config.getFlushIntervalMs(), config.getFlushIntervalMs(),
+                TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::touch, config.getTouchIntervalSeconds(), config.getTouchIntervalSeconds(),
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            pendingChanges.clear();
+            onlineUserMapper.deleteByNode(clusterBus.getNodeId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("停机清理在线记录失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void userOnline(long userId) {
+        localOnline.add(userId);
+        pendingChanges.put(userId, Boolean.TRUE);
+    }
+
+    @Override
+    public void userOffline(long userId) {
+        localOnline.remove(userId);
+        pendingChanges.put(userId, Boolean.FALSE);
+    }
+
+    /**
+     * 用户是否在线（本节点或集群内其它节点）
+     */
+    public boolean isOnline(long userId) {
+        return localOnline.contains(userId) || clusterRouter.isOnlineRemotely(userId);
+    }
+
+    /**
+     * 按用户ID升序分页获取在线用户ID（合并本节点与其它节点）
+     *
+     * @param afterId 上一页最后一个用户ID，首页传 0
+     * @param limit   每页数量
+     */
+    public List<Long> getOnlineUserIds(long afterId, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        Iterator<Long> local = localOnline.tailSet(afterId, false).iterator();
+        Iterator<Long> remote = clusterRouter.getRemoteOnlineUserIds().tailSet(afterId, false).iterator();
+        Long nextLocal = local.hasNext() ? local.next() : null;
+        Long nextRemote = remote.hasNext() ? remote.next() : null;
+        while (page.size() < limit && (nextLocal != null || nextRemote != null)) {
+            long next;
+            if (nextRemote == null || (nextLocal != null && nextLocal <= nextRemote)) {
+                next = nextLocal;
+            } else {
+                next = nextRemote;
+            }
+            page.add(next);
+            if (nextLocal != null && nextLocal == next) {
+                nextLocal = local.hasNext() ? local.next() : null;
+            }
+            if (nextRemote != null && nextRemote == next) {
+                nextRemote = remote.hasNext() ? remote.next() : null;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 本节点在线用户数
+     */
+    public int getLocalOnlineCount() {
+        return sessionRegistry.getOnlineUserCount();
+    }
+
+    /**
+     * 把积压的上下线变更合并为批量 upsert / delete
+     */
+    private void flush() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        int batchSize = nettyProperties.getPresence().getBatchSize();
+        List<Long> online = new ArrayList<>();
+        List<Long> offline = new ArrayList<>();
+        for (Long userId : pendingChanges.keySet()) {
+            Boolean state = pendingChanges.remove(userId);
+            if (state == null) {
+                continue;
+            }
+            (state ? online : offline).add(userId);
+        }
+        String nodeId = clusterBus.getNodeId();
+        try {
+            for (int from = 0; from < online.size(); from += batchSize) {
+                onlineUserMapper.upsertBatch(online.subList(from, Math.min(from + batchSize, online.size())), nodeId);
+            }
+            flushedOnline.add(online.size());
+            for (int from = 0; from < offline.size(); from += batchSize) {
+                onlineUserMapper.deleteBatch(offline.subList(from, Math.min(from + batchSize, offline.size())), nodeId);
+            }
+            flushedOffline.add(offline.size());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.warn("在线状态写回失败，{} 条上线 / {} 条下线变更将在下次重试: {}", online.size(), offline.size(), e.getMessage());
+            requeue(online, Boolean.TRUE);
+            requeue(offline, Boolean.FALSE);
+        }
+    }
+
+    /**
+     * 失败的变更放回待写集合，期间已有更新状态的用户以新状态为准
+     */
+    private void requeue(List<Long> userIds, Boolean state) {
+        for (Long userId : userIds) {
+            pendingChanges.putIfAbsent(userId, state);
+        }
+    }
+
+    /**
+     * 刷新本节点在线记录的活跃时间，并清理宕机节点的残留记录
+     */
+    private void touch() {
+        try {
+            onlineUserMapper.touchByNode(clusterBus.getNodeId());
+            onlineUserMapper.deleteStale(nettyProperties.getPresence().getStaleSeconds());
+        } catch (Exception e) {
+            log.warn("刷新在线记录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取在线状态统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("localOnlineUsers", sessionRegistry.getOnlineUserCount());
+        metrics.put("pendingChanges", pendingChanges.size());
+        metrics.put("flushedOnline", flushedOnline.sum());
+        metrics.put("flushedOffline", flushedOffline.sum());
+        metrics.put("flushFailures", flushFailures.sum());
+        return metrics;
+    }
+}
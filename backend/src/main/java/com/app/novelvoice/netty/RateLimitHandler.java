@@ -0,0 +1,140 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入站消息限流处理器（每个连接一个实例，仅在所属事件循环内访问）
+ * 位于协议解码之前，按数据帧计量，超限的帧不再解码。
+ * REJECT 策略下丢弃超限帧并回送 RATE_LIMITED 通知；DELAY 策略下放行当前帧并暂停读取，
+ * 令牌补足后恢复，由 TCP 窗口把背压传导给客户端。
+ */
+public class RateLimitHandler extends ChannelInboundHandlerAdapter {
+
+    private static final String NOTICE_CONTENT = "发送过于频繁，请稍后再试";
+
+    private final RateLimiter rateLimiter;
+
+    private final RateLimiter.Buckets connectionBuckets;
+
+    private final long noticeIntervalNanos;
+
+    /**
+     * 用户共享的令牌桶，连接绑定用户后首次收到消息时取得
+     */
+    private RateLimiter.Buckets userBuckets;
+
+    private boolean noticeSent;
+
+    private long lastNoticeAt;
+
+    private ScheduledFuture<?> resumeTask;
+
+    private long resumeAt;
+
+    RateLimitHandler(RateLimiter rateLimiter, RateLimiter.Buckets connectionBuckets, long noticeIntervalNanos) {
+        this.rateLimiter = rateLimiter;
+        this.connectionBuckets = connectionBuckets;
+        this.noticeIntervalNanos = noticeIntervalNanos;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof WebSocketFrame) || msg instanceof PingWebSocketFrame
+                || msg instanceof PongWebSocketFrame || msg instanceof CloseWebSocketFrame) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+        WebSocketFrame frame = (WebSocketFrame) msg;
+        if (userBuckets == null) {
+            Long userId = SessionRegistry.getUserId(ctx.channel());
+            if (userId != null) {
+                userBuckets = rateLimiter.userBuckets(userId);
+            }
+        }
+        long wait = rateLimiter.acquire(connectionBuckets, userBuckets, frame.content().readableBytes());
+        if (wait < 0) {
+            frame.release();
+            sendNotice(ctx, -wait);
+            return;
+        }
+        if (wait > 0) {
+            delayReading(ctx, wait);
+        }
+        ctx.fireChannelRead(frame);
+    }
+
+    /**
+     * 回送限流通知，同一连接在通知间隔内只发一次
+     */
+    private void sendNotice(ChannelHandlerContext ctx, long retryAfterNanos) {
+        long now = System.nanoTime();
+        if (noticeSent && now - lastNoticeAt < noticeIntervalNanos) {
+            return;
+        }
+        noticeSent = true;
+        lastNoticeAt = now;
+        ChatMessage notice = ChatMessage.newBuilder()
+                .setKind(MessageKind.RATE_LIMITED)
+                .setContent(NOTICE_CONTENT)
+                .setTimestamp(String.valueOf(System.currentTimeMillis()))
+                .setRetryAfterMs(Math.max(1, TimeUnit.NANOSECONDS.toMillis(retryAfterNanos)))
+                .build();
+        // 从管道尾部写出，经过协议编码器
+        ctx.channel().writeAndFlush(notice, ctx.channel().voidPromise());
+        rateLimiter.noticeSent();
+    }
+
+    /**
+     * 暂停读取直到令牌补足；暂停期间已读入缓冲区的帧算出的等待更长时顺延恢复时间
+     */
+    private void delayReading(ChannelHandlerContext ctx, long waitNanos) {
+        long deadline = System.nanoTime() + waitNanos;
+        if (resumeTask != null) {
+            if (deadline - resumeAt > 0) {
+                resumeAt = deadline;
+            }
+            return;
+        }
+        resumeAt = deadline;
+        ctx.channel().config().setAutoRead(false);
+        resumeTask = ctx.executor().schedule(() -> resume(ctx), waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void resume(ChannelHandlerContext ctx) {
+        long remaining = resumeAt - System.nanoTime();
+        if (remaining > 0) {
+            resumeTask = ctx.executor().schedule(() -> resume(ctx), remaining, TimeUnit.NANOSECONDS);
+            return;
+        }
+        resumeTask = null;
+        ctx.channel().config().setAutoRead(true);
+    }
+
+    private void cancelResumeTask() {
+        if (resumeTask != null) {
+            resumeTask.cancel(false);
+            resumeTask = null;
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        cancelResumeTask();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        cancelResumeTask();
+    }
+}
@@ -0,0 +1,160 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 入站消息限流
+ * 每个连接一组令牌桶（由 {@link RateLimitHandler} 持有），每个在线用户再共享一组令牌桶，
+ * 多设备同时发送时合计受限。两组桶都按消息数和字节数计量，任一不足即整体拒绝并退回已扣的令牌。
+ * 用户最后一个设备下线时回收该用户的令牌桶。
+ */
+@Component
+public class RateLimiter implements SessionRegistry.Listener {
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    private final Map<Long, Buckets> userBuckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejectedByConnection = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder notices = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        sessionRegistry.addListener(this);
+    }
+
+    /**
+     * 为新连接创建限流处理器，未开启限流时返回 null
+     */
+    public RateLimitHandler newHandler() {
+        NettyProperties.RateLimit config = nettyProperties.getRateLimit();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        Buckets connection = new Buckets(
+                new TokenBucket(config.getConnectionMessagesPerSecond(), config.getConnectionMessageBurst()),
+                new TokenBucket(config.getConnectionBytesPerSecond(), config.getConnectionByteBurst()));
+        return new RateLimitHandler(this, connection, TimeUnit.MILLISECONDS.toNanos(config.getNoticeIntervalMs()));
+    }
+
+    /**
+     * 获取用户共享的令牌桶（用户在线期间保留）
+     */
+    Buckets userBuckets(long userId) {
+        return userBuckets.computeIfAbsent(userId, id -> {
+            NettyProperties.RateLimit config = nettyProperties.getRateLimit();
+            return new Buckets(
+                    new TokenBucket(config.getUserMessagesPerSecond(), config.getUserMessageBurst()),
+                    new TokenBucket(config.getUserBytesPerSecond(), config.getUserByteBurst()));
+        });
+    }
+
+    /**
+     * 为一条消息扣减令牌
+     *
+     * @param user 用户令牌桶，连接尚未绑定用户时为 null
+     * @return 不小于 0 表示放行，值为应暂停读取的纳秒数；小于 0 表示拒绝，绝对值为建议的重试等待纳秒数
+     */
+    long acquire(Buckets connection, Buckets user, int bytes) {
+        NettyProperties.RateLimit config = nettyProperties.getRateLimit();
+        long maxDelay = config.getPolicy() == NettyProperties.RateLimitPolicy.DELAY
+                ? TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMs()) : 0;
+        long now = System.nanoTime();
+        long wait = connection.acquire(bytes, now, maxDelay);
+        if (wait < 0) {
+            rejectedByConnection.increment();
+            return wait;
+        }
+        if (user != null) {
+            long userWait = user.acquire(bytes, now, maxDelay);
+            if (userWait < 0) {
+                connection.refund(bytes);
+                rejectedByUser.increment();
+                return userWait;
+            }
+            wait = Math.max(wait, userWait);
+        }
+        if (wait > 0) {
+            delayed.increment();
+        } else {
+            allowed.increment();
+        }
+        return wait;
+    }
+
+    void noticeSent() {
+        notices.increment();
+    }
+
+    @Override
+    public void userOnline(long userId) {
+    }
+
+    @Override
+    public void userOffline(long userId) {
+        userBuckets.remove(userId);
+    }
+
+    /**
+     * 获取限流统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", nettyProperties.getRateLimit().isEnabled());
+        metrics.put("policy", nettyProperties.getRateLimit().getPolicy().name());
+        metrics.put("trackedUsers", userBuckets.size());
+        metrics.put("allowed", allowed.sum());
+        metrics.put("delayed", delayed.sum());
+        metrics.put("rejectedByConnection", rejectedByConnection.sum());
+        metrics.put("rejectedByUser", rejectedByUser.sum());
+        metrics.put("notices", notices.sum());
+        return metrics;
+    }
+
+    /**
+     * 一组按消息数和字节数计量的令牌桶
+     */
+    static final class Buckets {
+        private final TokenBucket messages;
+        private final TokenBucket bytes;
+
+        Buckets(TokenBucket messages, TokenBucket bytes) {
+            this.messages = messages;
+            this.bytes = bytes;
+        }
+
+        private long acquire(int size, long now, long maxDelay) {
+            long messageWait = messages.acquire(1, now, maxDelay);
+            if (messageWait < 0) {
+                return messageWait;
+            }
+            long byteWait = bytes.acquire(size, now, maxDelay);
+            if (byteWait < 0) {
+                messages.refund(1);
+                return byteWait;
+            }
+            return Math.max(messageWait, byteWait);
+        }
+
+        private void refund(int size) {
+            messages.refund(1);
+            bytes.refund(size);
+        }
+    }
+}
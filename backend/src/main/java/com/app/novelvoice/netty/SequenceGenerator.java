@@ -0,0 +1,95 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.ClusterProperties;
+import com.app.novelvoice.netty.cluster.ClusterBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 消息序号生成器
+ * 序号 = 毫秒时间戳(41位) | 毫秒内计数(7位) | 节点序号(5位)，共 53 位，
+ * 在 JavaScript Number 的安全整数范围内，客户端可直接按数值比较。
+ * 同一节点严格递增；不同节点之间大致按时间有序，节点序号互不相同时不会重复。
+ * 收到其它节点转发的消息时调用 {@link #observe(long)}，本节点之后分配的序号都大于它（因果在后的消息序号更大）；
+ * 并发的消息之间没有全序保证，时钟偏差内可能出现序号更小的消息晚到，补发时按 {@link #span(long)} 回看一段窗口兜底。
+ * 配置了集群对端节点时必须显式配置 netty.cluster.node-index（0-31），否则启动失败；
+ * 节点间链路收到序号相同的对端时拒绝该链路（见 TcpPeerClusterBus）。单节点部署可不配置，由节点ID哈希得出。
+ * 单毫秒内超过 128 条时向后借用时间戳，时钟回拨时沿用上次的值继续递增，都不会破坏单调性。
+ */
+@Component
+public class SequenceGenerator {
+
+    /**
+     * 时间戳起点：2024-01-01 00:00:00 UTC
+     */
+    private static final long EPOCH = 1704067200000L;
+
+    private static final int COUNTER_BITS = 7;
+
+    private static final int NODE_BITS = 5;
+
+    @Autowired
+    private ClusterProperties clusterProperties;
+
+    @Autowired
+    private ClusterBus clusterBus;
+
+    /**
+     * 上一次分配的 时间戳|计数 部分
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    private long nodeIndex;
+
+    @PostConstruct
+    public void init() {
+        int index = clusterProperties.getNodeIndex();
+        int maxIndex = (1 << NODE_BITS) - 1;
+        if (index > maxIndex) {
+            throw new IllegalStateException("netty.cluster.node-index 超出范围 0-" + maxIndex + ": " + index);
+        }
+        if (index < 0) {
+            if (!clusterProperties.getPeers().isEmpty()) {
+                throw new IllegalStateException("配置了 netty.cluster.peers 时必须为每个节点配置互不相同的 netty.cluster.node-index（0-"
+                        + maxIndex + "）");
+            }
+            index = clusterBus.getNodeId().hashCode() & maxIndex;
+        }
+        nodeIndex = index;
+    }
+
+    /**
+     * 毫秒时长对应的序号跨度（序号的时间戳部分在高位）
+     */
+    public static long span(long millis) {
+        return millis << (COUNTER_BITS + NODE_BITS);
+    }
+
+    /**
+     * 记录其它节点分配的序号，本节点之后分配的序号都大于它
+     */
+    public void observe(long seq) {
+        long base = seq >>> NODE_BITS;
+        long prev;
+        while ((prev = last.get()) < base && !last.compareAndSet(prev, base)) {
+            // 并发更新，重试
+        }
+    }
+
+    /**
+     * 分配下一个序号
+     */
+    public long next() {
+        long floor = (System.currentTimeMillis() - EPOCH) << COUNTER_BITS;
+        long prev;
+        long base;
+        do {
+            prev = last.get();
+            base = Math.max(prev + 1, floor);
+        } while (!last.compareAndSet(prev, base));
+        return (base << NODE_BITS) | nodeIndex;
+    }
+}
@@ -0,0 +1,202 @@
+package com.app.novelvoice.netty;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在线会话注册表
+ * 用户ID -> 该用户所有设备的 Channel（支持多端同时在线）。
+ * 绑定的用户ID同时保存在 Channel 属性上，断开时可 O(1) 定位并移除，无需遍历。
+ * 采用分段的原始 long 键哈希表，避免 Long 装箱，十万级连接下依然紧凑。
+ */
+@Component
+public class SessionRegistry {
+
+    /**
+     * Channel 上绑定的用户ID
+     */
+    public static final AttributeKey<Long> USER_ID = AttributeKey.valueOf("chat.userId");
+
+    private static final Channel[] EMPTY = new Channel[0];
+
+    /**
+     * 分段数（必须为 2 的幂）
+     */
+    private static final int STRIPES = 64;
+
+    private final LongObjectHashMap<Channel[]>[] segments;
+
+    private final AtomicInteger onlineUserCount = new AtomicInteger();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    public SessionRegistry() {
+        segments = new LongObjectHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            segments[i] = new LongObjectHashMap<>();
+        }
+    }
+
+    /**
+     * 注册用户上下线监听（用户第一个设备连上 / 最后一个设备断开时回调）
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 将 Channel 绑定到用户
+     */
+    public void bind(long userId, Channel channel) {
+        channel.attr(USER_ID).set(userId);
+        LongObjectHashMap<Channel[]> segment = segmentFor(userId);
+        synchronized (segment) {
+            Channel[] current = segment.get(userId);
+            if (current == null) {
+                segment.put(userId, new Channel[]{channel});
+                onlineUserCount.incrementAndGet();
+                for (Listener listener : listeners) {
+                    listener.userOnline(userId);
+                }
+                return;
+            }
+            for (Channel c : current) {
+                if (c == channel) {
+                    return;
+                }
+            }
+            Channel[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = channel;
+            segment.put(userId, updated);
+        }
+    }
+
+    /**
+     * 解除 Channel 的用户绑定（根据 Channel 属性直接定位）
+     *
+     * @return 解绑前绑定的用户ID，未绑定时返回 null
+     */
+    public Long unbind(Channel channel) {
+        Long userId = channel.attr(USER_ID).getAndSet(null);
+        if (userId == null) {
+            return null;
+        }
+        LongObjectHashMap<Channel[]> segment = segmentFor(userId);
+        synchronized (segment) {
+            Channel[] current = segment.get(userId);
+            if (current == null) {
+                return userId;
+            }
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == channel) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return userId;
+            }
+            if (current.length == 1) {
+                segment.remove(userId);
+                onlineUserCount.decrementAndGet();
+                for (Listener listener : listeners) {
+                    listener.userOffline(userId);
+                }
+                return userId;
+            }
+            Channel[] updated = new Channel[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            segment.put(userId, updated);
+        }
+        return userId;
+    }
+
+    /**
+     * 获取用户的所有在线 Channel（返回的数组只读）
+     */
+    public Channel[] getChannels(long userId) {
+        LongObjectHashMap<Channel[]> segment = segmentFor(userId);
+        synchronized (segment) {
+            Channel[] channels = segment.get(userId);
+            return channels != null ? channels : EMPTY;
+        }
+    }
+
+    /**
+     * 获取 Channel 绑定的用户ID，未绑定时返回 null
+     */
+    public static Long getUserId(Channel channel) {
+        return channel.attr(USER_ID).get();
+    }
+
+    /**
+     * 检查用户是否至少有一个活跃连接
+     */
+    public boolean isOnline(long userId) {
+        for (Channel channel : getChannels(userId)) {
+            if (channel.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在线用户数（按用户去重）
+     */
+    public int getOnlineUserCount() {
+        return onlineUserCount.get();
+    }
+
+    /**
+     * 当前所有在线用户ID
+     */
+    public long[] getOnlineUserIds() {
+        long[] ids = new long[Math.max(onlineUserCount.get(), 16)];
+        int count = 0;
+        for (LongObjectHashMap<Channel[]> segment : segments) {
+            synchronized (segment) {
+                for (LongObjectMap.PrimitiveEntry<Channel[]> entry : segment.entries()) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, ids.length * 2);
+                    }
+                    ids[count++] = entry.key();
+                }
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private LongObjectHashMap<Channel[]> segmentFor(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return segments[(int) (h >>> 58) & (STRIPES - 1)];
+    }
+
+    /**
+     * 用户上下线监听
+     * 回调在注册表分段锁内执行以保证上下线事件有序，实现必须快速且不阻塞。
+     */
+    public interface Listener {
+
+        /**
+         * 用户第一个设备连上
+         */
+        void userOnline(long userId);
+
+        /**
+         * 用户最后一个设备断开
+         */
+        void userOffline(long userId);
+    }
+}
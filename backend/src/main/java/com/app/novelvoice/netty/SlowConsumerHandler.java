@@ -0,0 +1,249 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 慢消费者背压处理器（每个连接一个实例，仅在所属事件循环内访问）
+ * 写缓冲区超过高水位后 Channel 变为不可写，此时低优先级消息（群聊广播）
+ * 按配置策略丢弃、进入有界积压队列或在持续不可写超时后断开连接，防止堆内存被慢连接耗尽。
+ * 不可丢失的消息（私聊、补发、离线推送，见 {@link #writeReliable(Channel, Object)}）不受策略影响，
+ * 不可写时总是进入同一个积压队列以保持顺序；队列已满时断开连接，客户端重连后经 RESUME 和离线收件箱补齐。
+ */
+@Slf4j
+public class SlowConsumerHandler extends ChannelInboundHandlerAdapter {
+
+    private static final AttributeKey<SlowConsumerHandler> HANDLER = AttributeKey.valueOf("chat.slowConsumer");
+
+    /**
+     * 全局统计指标
+     */
+    private static final LongAdder unwritableEvents = new LongAdder();
+    private static final LongAdder droppedCount = new LongAdder();
+    private static final LongAdder backloggedCount = new LongAdder();
+    private static final LongAdder backlogOverflowCount = new LongAdder();
+    private static final LongAdder backlogDrainedCount = new LongAdder();
+    private static final LongAdder disconnectedCount = new LongAdder();
+    private static final LongAdder reliableBackloggedCount = new LongAdder();
+    private static final LongAdder reliableOverflowCount = new LongAdder();
+
+    private final NettyProperties.SlowConsumer config;
+
+    private final ArrayDeque<Pending> backlog = new ArrayDeque<>();
+
+    private ChannelHandlerContext ctx;
+
+    private ScheduledFuture<?> disconnectTask;
+
+    public SlowConsumerHandler(NettyProperties.SlowConsumer config) {
+        this.config = config;
+    }
+
+    /**
+     * 写入一条低优先级消息（必须在 Channel 所属事件循环内调用，调用方负责 flush）
+     * 未安装本处理器的 Channel 直接写入。
+     */
+    public static void writeLowPriority(Channel channel, BinaryWebSocketFrame frame) {
+        SlowConsumerHandler handler = channel.attr(HANDLER).get();
+        if (handler == null) {
+            channel.write(frame, channel.voidPromise());
+            return;
+        }
+        handler.offer(frame);
+    }
+
+    /**
+     * 写入一条不可丢失的消息（ChatMessage 或已编码的帧，必须在 Channel 所属事件循环内调用，调用方负责 flush）
+     * 未安装本处理器的 Channel 直接写入。
+     */
+    public static void writeReliable(Channel channel, Object message) {
+        SlowConsumerHandler handler = channel.attr(HANDLER).get();
+        if (handler == null) {
+            channel.write(message, channel.voidPromise());
+            return;
+        }
+        handler.offerReliable(message);
+    }
+
+    private void offer(BinaryWebSocketFrame frame) {
+        Channel channel = ctx.channel();
+        if (channel.isWritable() && backlog.isEmpty()) {
+            channel.write(frame, channel.voidPromise());
+            return;
+        }
+        if (config.getPolicy() == NettyProperties.SlowConsumerPolicy.BACKLOG) {
+            if (backlog.size() >= config.getBacklogSize()) {
+                if (!dropOldestLowPriority()) {
+                    // 积压的全是不可丢失的消息，丢弃新来的广播
+                    frame.release();
+                    backlogOverflowCount.increment();
+                    return;
+                }
+                backlogOverflowCount.increment();
+            }
+            backlog.addLast(new Pending(frame, false));
+            backloggedCount.increment();
+        } else {
+            frame.release();
+            droppedCount.increment();
+        }
+    }
+
+    private void offerReliable(Object message) {
+        Channel channel = ctx.channel();
+        if (channel.isWritable() && backlog.isEmpty()) {
+            channel.write(message, channel.voidPromise());
+            return;
+        }
+        if (backlog.size() >= config.getBacklogSize() && !dropOldestLowPriority()) {
+            // 积压已满且无广播可让位：断开连接，由客户端重连后补发，避免无界占用内存
+            ReferenceCountUtil.release(message);
+            reliableOverflowCount.increment();
+            log.warn("连接积压已满（{} 条），断开慢消费者: {}", backlog.size(), channel.id().asShortText());
+            channel.close();
+            return;
+        }
+        backlog.addLast(new Pending(message, true));
+        reliableBackloggedCount.increment();
+    }
+
+    /**
+     * 丢弃积压队列中最旧的一条低优先级消息
+     *
+     * @return 队列中没有低优先级消息时返回 false
+     */
+    private boolean dropOldestLowPriority() {
+        Iterator<Pending> it = backlog.iterator();
+        while (it.hasNext()) {
+            Pending pending = it.next();
+            if (!pending.reliable) {
+                it.remove();
+                ReferenceCountUtil.release(pending.message);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+        ctx.channel().attr(HANDLER).set(this);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        Channel channel = ctx.channel();
+        if (channel.isWritable()) {
+            cancelDisconnectTask();
+            drainBacklog(channel);
+        } else {
+            unwritableEvents.increment();
+            scheduleDisconnect(channel);
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * 恢复可写后按序补发积压消息，直到再次不可写
+     */
+    private void drainBacklog(Channel channel) {
+        if (backlog.isEmpty()) {
+            return;
+        }
+        while (channel.isWritable()) {
+            Pending pending = backlog.pollFirst();
+            if (pending == null) {
+                break;
+            }
+            channel.write(pending.message, channel.voidPromise());
+            backlogDrainedCount.increment();
+        }
+        channel.flush();
+    }
+
+    private void scheduleDisconnect(Channel channel) {
+        if (config.getPolicy() != NettyProperties.SlowConsumerPolicy.DISCONNECT || disconnectTask != null) {
+            return;
+        }
+        disconnectTask = channel.eventLoop().schedule(() -> {
+            disconnectTask = null;
+            if (!channel.isWritable()) {
+                disconnectedCount.increment();
+                log.warn("连接持续不可写超过 {}ms，断开慢消费者: {}",
+                        config.getUnwritableTimeoutMs(), channel.id().asShortText());
+                channel.close();
+            }
+        }, config.getUnwritableTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelDisconnectTask() {
+        if (disconnectTask != null) {
+            disconnectTask.cancel(false);
+            disconnectTask = null;
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        cancelDisconnectTask();
+        releaseBacklog();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        cancelDisconnectTask();
+        releaseBacklog();
+    }
+
+    private void releaseBacklog() {
+        Pending pending;
+        while ((pending = backlog.pollFirst()) != null) {
+            ReferenceCountUtil.release(pending.message);
+        }
+    }
+
+    /**
+     * 获取慢消费者策略触发统计
+     */
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("unwritableEvents", unwritableEvents.sum());
+        metrics.put("dropped", droppedCount.sum());
+        metrics.put("backlogged", backloggedCount.sum());
+        metrics.put("backlogOverflow", backlogOverflowCount.sum());
+        metrics.put("backlogDrained", backlogDrainedCount.sum());
+        metrics.put("disconnected", disconnectedCount.sum());
+        metrics.put("reliableBacklogged", reliableBackloggedCount.sum());
+        metrics.put("reliableOverflow", reliableOverflowCount.sum());
+        return metrics;
+    }
+
+    /**
+     * 积压中的消息，reliable 为 true 的不可被丢弃
+     */
+    private static final class Pending {
+        private final Object message;
+        private final boolean reliable;
+
+        private Pending(Object message, boolean reliable) {
+            this.message = message;
+            this.reliable = reliable;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.novelvoice.netty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ * 按 GCRA（通用信元速率算法）实现：只保存一个"理论到达时间"，取令牌即用 CAS 把它向后推，
+ * 同一用户的多个连接分属不同事件循环时也无需加锁。速率为 0 表示不限。
+ */
+public final class TokenBucket {
+
+    /**
+     * 每个令牌对应的时间（纳秒）
+     */
+    private final long nanosPerToken;
+
+    /**
+     * 桶容量对应的时间（纳秒），理论到达时间最多可领先当前时间这么多
+     */
+    private final long burstNanos;
+
+    private final boolean unlimited;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long tokensPerSecond, long burst) {
+        this.unlimited = tokensPerSecond <= 0;
+        this.nanosPerToken = unlimited ? 0 : Math.max(1, TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = nanosPerToken * Math.max(1, burst);
+        // 初始为满桶
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 取出 tokens 个令牌
+     *
+     * @param now          当前时间（System.nanoTime()）
+     * @param maxDelayNanos 允许透支的时长，0 表示令牌不足即拒绝
+     * @return 不小于 0 表示已取出，值为调用方应等待的纳秒数（0 表示无需等待）；
+     *         小于 0 表示拒绝且未扣减，绝对值为令牌补足所需的纳秒数
+     */
+    public long acquire(long tokens, long now, long maxDelayNanos) {
+        if (unlimited) {
+            return 0;
+        }
+        long cost = tokens * nanosPerToken;
+        for (;;) {
+            long current = theoreticalArrival.get();
+            long next = (current - now > 0 ? current : now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > maxDelayNanos) {
+                return -wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * 退回已取出的令牌（同一消息的其它桶拒绝时调用）
+     */
+    public void refund(long tokens) {
+        if (!unlimited) {
+            theoreticalArrival.addAndGet(-tokens * nanosPerToken);
+        }
+    }
+}
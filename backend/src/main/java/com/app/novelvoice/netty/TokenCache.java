@@ -0,0 +1,110 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.User;
+import com.app.novelvoice.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录 token -> 用户ID 缓存
+ * 只在 WebSocket 握手时查询一次，按访问顺序淘汰并带有效期；未命中时由调用方在独立线程上查库。
+ * 用户重新登录或登出后 token 失效，需调用 {@link #invalidateUser(long)} 清掉旧 token。
+ */
+@Component
+public class TokenCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 只查缓存，未命中或已过期返回 null（可在事件循环上调用）
+     */
+    public Long getIfPresent(String token) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(token);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.userId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查库并写入缓存，token 无效时返回 null（阻塞，不能在事件循环上调用）
+     */
+    public Long load(String token) {
+        misses.increment();
+        User user = userMapper.selectByToken(token);
+        if (user == null) {
+            rejected.increment();
+            return null;
+        }
+        // 握手时顺带预热资料缓存，连接上的第一条消息即可命中
+        userProfileCache.put(user);
+        NettyProperties.Auth auth = nettyProperties.getAuth();
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(auth.getCacheTtlSeconds());
+        synchronized (entries) {
+            entries.put(token, new Entry(user.getId(), expiresAt));
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > auth.getCacheSize() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return user.getId();
+    }
+
+    /**
+     * 清除某个用户的全部缓存 token（登录换发新 token、登出时调用）
+     */
+    public void invalidateUser(long userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.userId == userId);
+        }
+    }
+
+    /**
+     * 获取缓存统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (entries) {
+            metrics.put("cachedTokens", entries.size());
+        }
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    private static final class Entry {
+        private final long userId;
+        private final long expiresAt;
+
+        private Entry(long userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
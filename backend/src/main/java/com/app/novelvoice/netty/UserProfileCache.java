@@ -0,0 +1,259 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.User;
+import com.app.novelvoice.mapper.UserMapper;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户资料（昵称、头像）缓存
+ * 转发聊天消息时由服务端填写发送者资料，客户端无需再逐个查询发送者。
+ * 读取无锁，可在事件循环上调用：未命中或已过期时立即返回（过期时返回旧值），由后台线程查库刷新。
+ * HTTP 请求线程可用 {@link #getAll(Collection)} 批量读取，未命中的用户合并为一次 IN 查询同步加载。
+ * 资料写入数据库后调用 {@link #put(User)} 就地刷新。
+ * 按用户ID分段，每段一个按访问顺序排列的 LinkedHashMap，超出容量时淘汰该段最久未访问的用户；
+ * 段内操作很短，直接对段加锁，不同段之间互不阻塞。
+ */
+@Slf4j
+@Component
+public class UserProfileCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    /**
+     * 分段数（2 的幂）
+     */
+    private static final int SEGMENTS = 16;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    private Segment[] segments;
+
+    /**
+     * 正在后台加载的用户，避免同一用户重复排队
+     */
+    private final Set<Long> loading = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private ExecutorService loader;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batchLoads = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        int capacity = Math.max(1, nettyProperties.getProfileCache().getMaxSize() / SEGMENTS);
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity);
+        }
+        loader = Executors.newSingleThreadExecutor(new DefaultThreadFactory("profile-loader", true));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+    }
+
+    /**
+     * 非阻塞读取：未命中返回 null 并在后台加载；已过期返回旧值并在后台刷新
+     */
+    public Profile getIfPresent(long userId) {
+        Profile profile = segmentFor(userId).lookup(userId);
+        if (profile == null) {
+            misses.increment();
+            loadAsync(userId);
+            return null;
+        }
+        hits.increment();
+        if (profile.expiresAt < System.currentTimeMillis()) {
+            loadAsync(userId);
+        }
+        return profile;
+    }
+
+    /**
+     * 批量读取（会查库，不能在事件循环上调用）：未命中的用户用一次 IN 查询加载并写入缓存，
+     * 已过期的先返回旧值并在后台刷新。不存在的用户不在结果中。
+     */
+    public Map<Long, Profile> getAll(Collection<Long> userIds) {
+        Map<Long, Profile> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        for (Long userId : userIds) {
+            if (userId == null || result.containsKey(userId) || missing.contains(userId)) {
+                continue;
+            }
+            Profile profile = segmentFor(userId).lookup(userId);
+            if (profile == null) {
+                misses.increment();
+                missing.add(userId);
+                continue;
+            }
+            hits.increment();
+            if (profile.expiresAt < now) {
+                loadAsync(userId);
+            }
+            result.put(userId, profile);
+        }
+        if (!missing.isEmpty()) {
+            batchLoads.increment();
+            for (User user : userMapper.selectByIds(new ArrayList<>(missing))) {
+                result.put(user.getId(), put(user));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 资料写入数据库后刷新缓存（登录、注册、修改资料时调用）
+     */
+    public Profile put(User user) {
+        if (user == null || user.getId() == null) {
+            return null;
+        }
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(nettyProperties.getProfileCache().getTtlSeconds());
+        Profile profile = new Profile(user.getId(), user.getNickname(), user.getAvatar(), expiresAt);
+        segmentFor(user.getId()).store(profile);
+        return profile;
+    }
+
+    /**
+     * 使某个用户的缓存失效
+     */
+    public void invalidate(long userId) {
+        segmentFor(userId).discard(userId);
+    }
+
+    private Segment segmentFor(long userId) {
+        int hash = Long.hashCode(userId);
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private void loadAsync(long userId) {
+        if (!loading.add(userId)) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    loads.increment();
+                    User user = userMapper.selectById(userId);
+                    if (user != null) {
+                        put(user);
+                    }
+                } catch (Exception e) {
+                    log.warn("加载用户资料失败: {} {}", userId, e.getMessage());
+                } finally {
+                    loading.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(userId);
+        }
+    }
+
+    /**
+     * 获取缓存统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        metrics.put("size", size);
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("loads", loads.sum());
+        metrics.put("batchLoads", batchLoads.sum());
+        return metrics;
+    }
+
+    /**
+     * 缓存分段：按访问顺序排列，超出容量时淘汰最久未访问的一项，访问时对自身加锁
+     */
+    private static final class Segment extends LinkedHashMap<Long, Profile> {
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        private synchronized Profile lookup(long userId) {
+            return get(userId);
+        }
+
+        private synchronized void store(Profile profile) {
+            put(profile.userId, profile);
+        }
+
+        private synchronized void discard(long userId) {
+            remove(userId);
+        }
+
+        private synchronized int count() {
+            return size();
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Profile> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * 用户资料快照（不可变）
+     */
+    public static final class Profile {
+        private final long userId;
+        private final String nickname;
+        private final String avatar;
+        private final long expiresAt;
+
+        private Profile(long userId, String nickname, String avatar, long expiresAt) {
+            this.userId = userId;
+            this.nickname = nickname != null ? nickname : "";
+            this.avatar = avatar != null ? avatar : "";
+            this.expiresAt = expiresAt;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public String getAvatar() {
+            return avatar;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * WebSocket 握手鉴权
+ * 从握手请求的查询参数（默认 token）或 Authorization: Bearer 请求头取出登录 token，解析出用户ID后放到 Channel 属性上，
+ * 握手完成时由 {@link ChatHandler} 绑定会话。token 缓存命中时直接在事件循环上放行；
+ * 未命中时暂停读取，在独立线程上查库，结果回到事件循环再放行或返回 401。
+ * 鉴权通过后本处理器即从管道移除，之后的每一帧都不再经过这里。
+ */
+@Slf4j
+@Component
+@ChannelHandler.Sharable
+public class WebSocketAuthHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * 握手鉴权得到的用户ID（握手完成后才绑定到会话注册表）
+     */
+    public static final AttributeKey<Long> AUTH_USER_ID = AttributeKey.valueOf("chat.authUserId");
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    private ExecutorService lookupExecutor;
+
+    @PostConstruct
+    public void start() {
+        lookupExecutor = Executors.newFixedThreadPool(nettyProperties.getAuth().getLookupThreads(),
+                new DefaultThreadFactory("chat-auth", true));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof FullHttpRequest)) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+        FullHttpRequest request = (FullHttpRequest) msg;
+        String token = extractToken(request);
+        if (token == null) {
+            reject(ctx, request);
+            return;
+        }
+        Long userId = tokenCache.getIfPresent(token);
+        if (userId != null) {
+            accept(ctx, request, userId);
+            return;
+        }
+        // 查库期间暂停读取，握手请求之后不会再有其它数据
+        ctx.channel().config().setAutoRead(false);
+        try {
+            lookupExecutor.execute(() -> {
+                Long loaded = null;
+                try {
+                    loaded = tokenCache.load(token);
+                } catch (Exception e) {
+                    log.warn("token 查询失败: {}", e.getMessage());
+                }
+                Long resolved = loaded;
+                ctx.executor().execute(() -> {
+                    if (!ctx.channel().isActive()) {
+                        // 查库期间客户端已断开
+                        request.release();
+                        return;
+                    }
+                    ctx.channel().config().setAutoRead(true);
+                    if (resolved != null) {
+                        accept(ctx, request, resolved);
+                    } else {
+                        reject(ctx, request);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            reject(ctx, request);
+        }
+    }
+
+    private String extractToken(FullHttpRequest request) {
+        List<String> values = new QueryStringDecoder(request.uri()).parameters()
+                .get(nettyProperties.getAuth().getTokenParam());
+        if (values != null && !values.isEmpty() && !values.get(0).isEmpty()) {
+            return values.get(0);
+        }
+        String header = request.headers().get(HttpHeaderNames.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX) && header.length() > BEARER_PREFIX.length()) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    private void accept(ChannelHandlerContext ctx, FullHttpRequest request, long userId) {
+        ctx.channel().attr(AUTH_USER_ID).set(userId);
+        ctx.pipeline().remove(this);
+        ctx.fireChannelRead(request);
+    }
+
+    private void reject(ChannelHandlerContext ctx, FullHttpRequest request) {
+        DefaultFullHttpResponse response = new DefaultFullHttpResponse(request.protocolVersion(),
+                HttpResponseStatus.UNAUTHORIZED);
+        request.release();
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+}
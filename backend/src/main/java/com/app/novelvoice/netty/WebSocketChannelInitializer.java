@@ -1,13 +1,22 @@
 package com.app.novelvoice.netty;
 
+import com.app.novelvoice.config.NettyProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolConfig;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
 import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
 
 @Component
 public class WebSocketChannelInitializer extends ChannelInitializer<SocketChannel> {
@@ -15,12 +24,94 @@ public class WebSocketChannelInitializer extends ChannelInitializer<SocketChanne
     @Autowired
     private ChatHandler chatHandler;
 
+    @Autowired
+    private NettyProperties nettyProperties;
+
+    @Autowired
+    private ChatMetrics chatMetrics;
+
+    @Autowired
+    private WebSocketAuthHandler webSocketAuthHandler;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    /**
+     * permessage-deflate 协商器（无状态，所有连接共用），未开启压缩时为 null
+     */
+    private PerMessageDeflateServerExtensionHandshaker deflateHandshaker;
+
+    private WebSocketServerProtocolConfig protocolConfig;
+
+    private WebSocketPathFilter pathFilter;
+
+    @PostConstruct
+    public void init() {
+        // 握手 URL 可带查询参数（?token=...），协议处理器按路径前缀匹配，精确校验由 pathFilter 负责
+        pathFilter = new WebSocketPathFilter(nettyProperties.getPath());
+        protocolConfig = WebSocketServerProtocolConfig.newBuilder()
+                .websocketPath(nettyProperties.getPath())
+                .allowExtensions(true)
+                .maxFramePayloadLength(nettyProperties.getMaxFrameSize())
+                .checkStartsWith(true)
+                .build();
+        NettyProperties.Compression compression = nettyProperties.getCompression();
+        if (!compression.isEnabled()) {
+            return;
+        }
+        int minFrameSize = compression.getMinFrameSize();
+        // 出站帧小于阈值时跳过压缩（帧头 RSV1 不置位），入站帧按客户端标记照常解压
+        WebSocketExtensionFilter skipSmallFrames = frame -> frame.content().readableBytes() < minFrameSize;
+        WebSocketExtensionFilterProvider filterProvider = new WebSocketExtensionFilterProvider() {
+            @Override
+            public WebSocketExtensionFilter encoderFilter() {
+                return skipSmallFrames;
+            }
+
+            @Override
+            public WebSocketExtensionFilter decoderFilter() {
+                return WebSocketExtensionFilter.NEVER_SKIP;
+            }
+        };
+        deflateHandshaker = new PerMessageDeflateServerExtensionHandshaker(
+                compression.getLevel(),
+                true,
+                PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE,
+                compression.isAllowServerNoContextTakeover(),
+                compression.isClientNoContextTakeover(),
+                filterProvider);
+    }
+
     @Override
     protected void initChannel(SocketChannel ch) throws Exception {
+        // 线路字节数统计放在最前面
+        ch.pipeline().addLast("byte-counter", chatMetrics.byteCounter());
+        int readerIdleSeconds = nettyProperties.getHeartbeat().getReaderIdleSeconds();
+        if (readerIdleSeconds > 0) {
+            // 放在最前面，任何入站数据（包括客户端回复的 Pong）都视为活跃
+            ch.pipeline().addLast("idle-state", new IdleStateHandler(readerIdleSeconds, 0, 0));
+        }
         ch.pipeline().addLast("http-codec", new HttpServerCodec());
-        ch.pipeline().addLast("aggregator", new HttpObjectAggregator(65536));
+        ch.pipeline().addLast("aggregator", new HttpObjectAggregator(nettyProperties.getMaxHttpContentLength()));
         ch.pipeline().addLast("http-chunked", new ChunkedWriteHandler());
-        ch.pipeline().addLast("websocket-handler", new WebSocketServerProtocolHandler("/ws", null, true, 65536));
+        // 路径不符的请求在鉴权之前就拒绝
+        ch.pipeline().addLast("websocket-path", pathFilter);
+        if (nettyProperties.getAuth().isEnabled()) {
+            // 握手请求先鉴权，通过后该处理器自行移除
+            ch.pipeline().addLast("websocket-auth", webSocketAuthHandler);
+        }
+        if (deflateHandshaker != null) {
+            // 必须位于协议处理器之前，以便在握手响应中协商扩展
+            ch.pipeline().addLast("websocket-compression", new WebSocketServerExtensionHandler(deflateHandshaker));
+        }
+        ch.pipeline().addLast("websocket-handler", new WebSocketServerProtocolHandler(protocolConfig));
+        ch.pipeline().addLast("frame-counter", chatMetrics.frameCounter());
+        RateLimitHandler rateLimitHandler = rateLimiter.newHandler();
+        if (rateLimitHandler != null) {
+            // 位于解码之前，超限的帧不再解码
+            ch.pipeline().addLast("rate-limit", rateLimitHandler);
+        }
+        ch.pipeline().addLast("slow-consumer", new SlowConsumerHandler(nettyProperties.getSlowConsumer()));
         ch.pipeline().addLast("proto-codec", new WebSocketProtobufCodec());
         ch.pipeline().addLast("handler", chatHandler);
     }
@@ -0,0 +1,54 @@
+package com.app.novelvoice.netty;
+
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * 握手路径校验
+ * 只接受与配置路径完全相同、或路径后紧跟查询参数（?token=...）的握手请求，其余返回 404 并关闭连接。
+ * 协议处理器按前缀匹配（为了允许查询参数），前缀之后的任意路径都会被当作握手，因此在这里先做精确校验。
+ * 校验通过后本处理器即从管道移除。
+ */
+@ChannelHandler.Sharable
+public class WebSocketPathFilter extends ChannelInboundHandlerAdapter {
+
+    private final String path;
+
+    public WebSocketPathFilter(String path) {
+        this.path = path;
+    }
+
+    /**
+     * 请求 URI 是否为握手路径本身或路径加查询参数
+     */
+    public boolean matches(String uri) {
+        return uri.equals(path) || (uri.startsWith(path) && uri.length() > path.length() && uri.charAt(path.length()) == '?');
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof FullHttpRequest)) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+        FullHttpRequest request = (FullHttpRequest) msg;
+        if (matches(request.uri())) {
+            ctx.pipeline().remove(this);
+            ctx.fireChannelRead(request);
+            return;
+        }
+        DefaultFullHttpResponse response = new DefaultFullHttpResponse(request.protocolVersion(),
+                HttpResponseStatus.NOT_FOUND);
+        request.release();
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+}
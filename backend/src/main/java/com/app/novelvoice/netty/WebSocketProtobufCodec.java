@@ -1,28 +1,66 @@
 package com.app.novelvoice.netty;
 
 import com.app.novelvoice.netty.proto.ChatMessage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
 import io.netty.handler.codec.MessageToMessageCodec;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
 import java.util.List;
 
+/**
+ * WebSocket 二进制帧与 Protobuf 消息互转
+ * 解码直接基于 ByteBuf 的 nio 视图解析，编码按 getSerializedSize() 申请池化直接内存，
+ * 全程不产生中间 byte[] 拷贝。
+ */
 public class WebSocketProtobufCodec extends MessageToMessageCodec<BinaryWebSocketFrame, ChatMessage> {
 
     @Override
     protected void encode(ChannelHandlerContext ctx, ChatMessage msg, List<Object> out) throws Exception {
-        byte[] bytes = msg.toByteArray();
-        ByteBuf buf = Unpooled.wrappedBuffer(bytes);
-        out.add(new BinaryWebSocketFrame(buf));
+        out.add(encodeFrame(ctx.alloc(), msg));
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, BinaryWebSocketFrame frame, List<Object> out) throws Exception {
-        ByteBuf content = frame.content();
-        byte[] bytes = new byte[content.readableBytes()];
-        content.readBytes(bytes);
-        ChatMessage chatMessage = ChatMessage.parseFrom(bytes);
-        out.add(chatMessage);
+        out.add(parse(frame.content()));
+    }
+
+    /**
+     * 直接从 ByteBuf 解析消息：堆内存走底层数组，单段直接内存走 nio 视图，复合缓冲区走流视图
+     */
+    public static ChatMessage parse(ByteBuf content) throws IOException {
+        int length = content.readableBytes();
+        if (content.hasArray()) {
+            return ChatMessage.parseFrom(CodedInputStream.newInstance(
+                    content.array(), content.arrayOffset() + content.readerIndex(), length));
+        }
+        if (content.nioBufferCount() == 1) {
+            return ChatMessage.parseFrom(content.nioBuffer(content.readerIndex(), length));
+        }
+        return ChatMessage.parseFrom(new ByteBufInputStream(content));
+    }
+
+    /**
+     * 将消息编码为使用池化直接内存的二进制帧，群发时可只序列化一次后复用
+     */
+    public static BinaryWebSocketFrame encodeFrame(ByteBufAllocator alloc, ChatMessage msg) {
+        int size = msg.getSerializedSize();
+        ByteBuf buf = alloc.directBuffer(size, size);
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(buf.nioBuffer(buf.writerIndex(), size));
+            msg.writeTo(output);
+            output.checkNoSpaceLeft();
+            buf.writerIndex(buf.writerIndex() + size);
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw new EncoderException(e);
+        }
+        return new BinaryWebSocketFrame(buf);
     }
 }
@@ -0,0 +1,69 @@
+package com.app.novelvoice.netty.cluster;
+
+import com.app.novelvoice.netty.proto.RelayEnvelope;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 集群总线：节点之间转发聊天消息和在线状态
+ * 实现需保证发送方法不阻塞调用线程（可能在 Netty 事件循环或会话注册表锁内调用）。
+ */
+public interface ClusterBus {
+
+    /**
+     * 当前节点ID
+     */
+    String getNodeId();
+
+    /**
+     * 启动总线，收到的转发和节点事件回调给 listener
+     */
+    void start(Listener listener);
+
+    /**
+     * 停止总线并释放资源
+     */
+    void stop();
+
+    /**
+     * 是否存在其它节点（单节点部署时可跳过所有转发）
+     */
+    boolean hasPeers();
+
+    /**
+     * 发送给指定节点
+     */
+    void send(String nodeId, RelayEnvelope envelope);
+
+    /**
+     * 发送给所有其它节点
+     */
+    void broadcast(RelayEnvelope envelope);
+
+    /**
+     * 获取统计指标快照
+     */
+    Map<String, Object> getMetrics();
+
+    /**
+     * 总线事件回调
+     */
+    interface Listener {
+
+        /**
+         * 收到其它节点的一批转发
+         */
+        void onEnvelopes(String originNode, List<RelayEnvelope> envelopes);
+
+        /**
+         * 到某节点的链路已建立（可向其同步在线用户快照）
+         */
+        void onPeerConnected(String nodeId);
+
+        /**
+         * 某节点不可达（需清除其在线用户记录）
+         */
+        void onNodeDown(String nodeId);
+    }
+}
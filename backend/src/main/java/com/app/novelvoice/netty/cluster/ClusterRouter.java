@@ -0,0 +1,283 @@
+package com.app.novelvoice.netty.cluster;
+
+import com.app.novelvoice.netty.SessionRegistry;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.RelayEnvelope;
+import com.app.novelvoice.netty.proto.RelayType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 集群路由
+ * 维护在线目录（用户在哪些其它节点上有连接），把本节点收到的私聊、大厅、聊天室消息
+ * 通过 {@link ClusterBus} 转发给其它节点，并把其它节点转来的消息投递给本地连接。
+ * 各节点只转发自己接收的原始消息，收到的转发只做本地投递，不再二次转发。
+ */
+@Slf4j
+@Component
+public class ClusterRouter implements ClusterBus.Listener, SessionRegistry.Listener {
+
+    @Autowired
+    private ClusterBus clusterBus;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    /**
+     * 在线目录：用户ID -> 该用户有连接的其它节点ID（按用户ID有序，便于在线列表分页）
+     */
+    private final ConcurrentNavigableMap<Long, Set<String>> remoteUserNodes = new ConcurrentSkipListMap<>();
+
+    private volatile LocalDelivery localDelivery;
+
+    private final List<SessionRegistry.Listener> remotePresenceListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        sessionRegistry.addListener(this);
+        clusterBus.start(this);
+    }
+
+    /**
+     * 注册其它节点上的用户上下线监听（用户在第一个其它节点上线 / 在最后一个其它节点下线时回调，
+     * 在集群收发线程上执行，实现必须快速且不阻塞）
+     */
+    public void addRemotePresenceListener(SessionRegistry.Listener listener) {
+        remotePresenceListeners.add(listener);
+    }
+
+    /**
+     * 注册本地投递实现（由 ChatHandler 提供）
+     */
+    public void setLocalDelivery(LocalDelivery localDelivery) {
+        this.localDelivery = localDelivery;
+    }
+
+    // ==================== 本节点发出 ====================
+
+    /**
+     * 把私聊消息转发给目标用户所在的其它节点（按节点合并目标用户）
+     */
+    public void relayPrivate(ChatMessage message, long... userIds) {
+        if (!clusterBus.hasPeers()) {
+            return;
+        }
+        Map<String, List<Long>> targetsByNode = new HashMap<>();
+        for (long userId : userIds) {
+            Set<String> nodes = remoteUserNodes.get(userId);
+            if (nodes == null) {
+                continue;
+            }
+            for (String node : nodes) {
+                List<Long> targets = targetsByNode.computeIfAbsent(node, k -> new ArrayList<>(2));
+                if (!targets.contains(userId)) {
+                    targets.add(userId);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Long>> entry : targetsByNode.entrySet()) {
+            clusterBus.send(entry.getKey(), RelayEnvelope.newBuilder()
+                    .setType(RelayType.RELAY_PRIVATE)
+                    .addAllUserIds(entry.getValue())
+                    .setMessage(message)
+                    .build());
+        }
+    }
+
+    /**
+     * 把大厅消息转发给所有其它节点
+     */
+    public void relayLobby(ChatMessage message) {
+        if (clusterBus.hasPeers()) {
+            clusterBus.broadcast(RelayEnvelope.newBuilder()
+                    .setType(RelayType.RELAY_LOBBY)
+                    .setMessage(message)
+                    .build());
+        }
+    }
+
+    /**
+     * 把聊天室消息转发给所有其它节点
+     */
+    public void relayRoom(ChatMessage message) {
+        if (clusterBus.hasPeers()) {
+            clusterBus.broadcast(RelayEnvelope.newBuilder()
+                    .setType(RelayType.RELAY_ROOM)
+                    .setMessage(message)
+                    .build());
+        }
+    }
+
+    /**
+     * 用户是否在其它节点在线
+     */
+    public boolean isOnlineRemotely(long userId) {
+        Set<String> nodes = remoteUserNodes.get(userId);
+        return nodes != null && !nodes.isEmpty();
+    }
+
+    /**
+     * 在其它节点在线的用户ID（只读视图，按用户ID升序）
+     */
+    public NavigableSet<Long> getRemoteOnlineUserIds() {
+        return remoteUserNodes.navigableKeySet();
+    }
+
+    @Override
+    public void userOnline(long userId) {
+        if (clusterBus.hasPeers()) {
+            clusterBus.broadcast(presence(RelayType.PRESENCE_ONLINE, userId));
+        }
+    }
+
+    @Override
+    public void userOffline(long userId) {
+        if (clusterBus.hasPeers()) {
+            clusterBus.broadcast(presence(RelayType.PRESENCE_OFFLINE, userId));
+        }
+    }
+
+    private static RelayEnvelope presence(RelayType type, long userId) {
+        return RelayEnvelope.newBuilder().setType(type).addUserIds(userId).build();
+    }
+
+    // ==================== 其它节点转入 ====================
+
+    @Override
+    public void onEnvelopes(String originNode, List<RelayEnvelope> envelopes) {
+        LocalDelivery delivery = localDelivery;
+        for (RelayEnvelope envelope : envelopes) {
+            switch (envelope.getType()) {
+                case RELAY_PRIVATE:
+                    if (delivery != null) {
+                        long[] userIds = new long[envelope.getUserIdsCount()];
+                        for (int i = 0; i < userIds.length; i++) {
+                            userIds[i] = envelope.getUserIds(i);
+                        }
+                        delivery.deliverToUsers(envelope.getMessage(), userIds);
+                    }
+                    break;
+                case RELAY_LOBBY:
+                    if (delivery != null) {
+                        delivery.deliverToLobby(envelope.getMessage());
+                    }
+                    break;
+                case RELAY_ROOM:
+                    if (delivery != null) {
+                        delivery.deliverToRoom(envelope.getMessage().getRoomId(), envelope.getMessage());
+                    }
+                    break;
+                case PRESENCE_ONLINE:
+                    for (long userId : envelope.getUserIdsList()) {
+                        addNode(userId, originNode);
+                    }
+                    break;
+                case PRESENCE_OFFLINE:
+                    for (long userId : envelope.getUserIdsList()) {
+                        removeNode(userId, originNode);
+                    }
+                    break;
+                case PRESENCE_SNAPSHOT:
+                    onNodeDown(originNode);
+                    for (long userId : envelope.getUserIdsList()) {
+                        addNode(userId, originNode);
+                    }
+                    break;
+                default:
+                    log.warn("未知的集群转发类型: {}", envelope.getType());
+            }
+        }
+    }
+
+    @Override
+    public void onPeerConnected(String nodeId) {
+        // 链路建立后同步本节点全部在线用户，对端据此重建目录
+        RelayEnvelope.Builder snapshot = RelayEnvelope.newBuilder().setType(RelayType.PRESENCE_SNAPSHOT);
+        for (long userId : sessionRegistry.getOnlineUserIds()) {
+            snapshot.addUserIds(userId);
+        }
+        clusterBus.send(nodeId, snapshot.build());
+    }
+
+    @Override
+    public void onNodeDown(String nodeId) {
+        // 节点下线属于低频事件，遍历清理即可
+        for (Long userId : remoteUserNodes.keySet()) {
+            removeNode(userId, nodeId);
+        }
+    }
+
+    private void addNode(long userId, String nodeId) {
+        boolean[] firstNode = {false};
+        remoteUserNodes.compute(userId, (k, nodes) -> {
+            if (nodes == null) {
+                nodes = ConcurrentHashMap.newKeySet();
+            }
+            firstNode[0] = nodes.add(nodeId) && nodes.size() == 1;
+            return nodes;
+        });
+        if (firstNode[0]) {
+            for (SessionRegistry.Listener listener : remotePresenceListeners) {
+                listener.userOnline(userId);
+            }
+        }
+    }
+
+    private void removeNode(long userId, String nodeId) {
+        boolean[] lastNode = {false};
+        remoteUserNodes.computeIfPresent(userId, (k, nodes) -> {
+            nodes.remove(nodeId);
+            lastNode[0] = nodes.isEmpty();
+            return lastNode[0] ? null : nodes;
+        });
+        if (lastNode[0]) {
+            for (SessionRegistry.Listener listener : remotePresenceListeners) {
+                listener.userOffline(userId);
+            }
+        }
+    }
+
+    /**
+     * 获取集群统计指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(clusterBus.getMetrics());
+        metrics.put("remoteOnlineUsers", remoteUserNodes.size());
+        return metrics;
+    }
+
+    /**
+     * 本地投递：把其它节点转来的消息写给本节点的连接
+     */
+    public interface LocalDelivery {
+
+        /**
+         * 投递给指定用户在本节点的所有设备
+         */
+        void deliverToUsers(ChatMessage message, long... userIds);
+
+        /**
+         * 投递给本节点大厅内的所有连接
+         */
+        void deliverToLobby(ChatMessage message);
+
+        /**
+         * 投递给本节点上该聊天室的成员
+         */
+        void deliverToRoom(long roomId, ChatMessage message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.app.novelvoice.netty.cluster;
+
+import com.app.novelvoice.netty.proto.RelayEnvelope;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内集群总线
+ * 同一 JVM 内的多个节点实例通过静态注册表互相投递，单节点部署时没有对端，所有转发直接跳过。
+ * 每个节点有一个投递线程：发送方只入队，投递线程一次取走全部积压并按来源节点成批回调。
+ */
+@Slf4j
+public class LoopbackClusterBus implements ClusterBus {
+
+    private static final Map<String, LoopbackClusterBus> NODES = new ConcurrentHashMap<>();
+
+    private final String nodeId;
+
+    private final Queue<Pending> inbox = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    private ExecutorService deliveryExecutor;
+
+    private volatile Listener listener;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder receivedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    public LoopbackClusterBus(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        this.listener = listener;
+        this.deliveryExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "cluster-loopback-" + nodeId);
+            t.setDaemon(true);
+            return t;
+        });
+        if (NODES.putIfAbsent(nodeId, this) != null) {
+            throw new IllegalStateException("重复的集群节点ID: " + nodeId);
+        }
+        // 互相通知链路建立，以便同步在线用户快照
+        for (LoopbackClusterBus peer : NODES.values()) {
+            if (peer != this) {
+                peer.listener.onPeerConnected(nodeId);
+                listener.onPeerConnected(peer.nodeId);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (NODES.remove(nodeId, this)) {
+            for (LoopbackClusterBus peer : NODES.values()) {
+                peer.listener.onNodeDown(nodeId);
+            }
+        }
+        if (deliveryExecutor != null) {
+            deliveryExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean hasPeers() {
+        return NODES.size() > 1;
+    }
+
+    @Override
+    public void send(String targetNodeId, RelayEnvelope envelope) {
+        LoopbackClusterBus target = NODES.get(targetNodeId);
+        if (target != null && target != this) {
+            target.enqueue(nodeId, envelope);
+            sentCount.increment();
+        }
+    }
+
+    @Override
+    public void broadcast(RelayEnvelope envelope) {
+        for (LoopbackClusterBus target : NODES.values()) {
+            if (target != this) {
+                target.enqueue(nodeId, envelope);
+                sentCount.increment();
+            }
+        }
+    }
+
+    private void enqueue(String originNode, RelayEnvelope envelope) {
+        inbox.offer(new Pending(originNode, envelope));
+        if (drainScheduled.compareAndSet(false, true)) {
+            deliveryExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * 取走当前全部积压，连续来自同一节点的消息合并为一批回调
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        List<RelayEnvelope> batch = new ArrayList<>();
+        String batchOrigin = null;
+        Pending pending;
+        while ((pending = inbox.poll()) != null) {
+            if (batchOrigin != null && !batchOrigin.equals(pending.originNode)) {
+                deliver(batchOrigin, batch);
+                batch = new ArrayList<>();
+            }
+            batchOrigin = pending.originNode;
+            batch.add(pending.envelope);
+        }
+        if (!batch.isEmpty()) {
+            deliver(batchOrigin, batch);
+        }
+    }
+
+    private void deliver(String originNode, List<RelayEnvelope> batch) {
+        receivedCount.add(batch.size());
+        batchCount.increment();
+        try {
+            listener.onEnvelopes(originNode, batch);
+        } catch (Exception e) {
+            log.error("处理来自节点 {} 的转发失败", originNode, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", "loopback");
+        metrics.put("nodeId", nodeId);
+        metrics.put("peers", NODES.size() - 1);
+        metrics.put("sent", sentCount.sum());
+        metrics.put("received", receivedCount.sum());
+        metrics.put("receivedBatches", batchCount.sum());
+        metrics.put("pending", inbox.size());
+        return metrics;
+    }
+
+    private static final class Pending {
+        private final String originNode;
+        private final RelayEnvelope envelope;
+
+        private Pending(String originNode, RelayEnvelope envelope) {
+            this.originNode = originNode;
+            this.envelope = envelope;
+        }
+    }
+}
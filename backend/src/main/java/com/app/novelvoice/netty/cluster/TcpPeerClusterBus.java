@@ -0,0 +1,373 @@
+package com.app.novelvoice.netty.cluster;
+
+import com.app.novelvoice.config.ClusterProperties;
+import com.app.novelvoice.netty.proto.RelayBatch;
+import com.app.novelvoice.netty.proto.RelayEnvelope;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 TCP 直连网格的集群总线
+ * 每个节点监听 bindPort 接收其它节点的转发，并主动连接 peers 中的每个节点用于发送。
+ * 发送只入队：每条链路在自己的事件循环上按"满一批或时间窗口到期"把积压消息合并为一个
+ * RelayBatch 帧写出，链路断开后自动重连，并在重连成功时触发在线用户快照同步。
+ */
+@Slf4j
+public class TcpPeerClusterBus implements ClusterBus {
+
+    private static final AttributeKey<String> ORIGIN_NODE = AttributeKey.valueOf("cluster.originNode");
+
+    /**
+     * 单帧最大长度
+     */
+    private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private final String nodeId;
+
+    private final ClusterProperties properties;
+
+    private final Map<String, PeerLink> links = new LinkedHashMap<>();
+
+    private EventLoopGroup group;
+
+    private Channel serverChannel;
+
+    private volatile Listener listener;
+
+    private volatile boolean running;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder sentBatchCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder receivedCount = new LongAdder();
+    private final LongAdder receivedBatchCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public TcpPeerClusterBus(String nodeId, ClusterProperties properties) {
+        this.nodeId = nodeId;
+        this.properties = properties;
+        for (String peer : properties.getPeers()) {
+            PeerLink link = PeerLink.parse(this, peer);
+            if (!link.peerNodeId.equals(nodeId)) {
+                links.put(link.peerNodeId, link);
+            }
+        }
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        this.listener = listener;
+        this.running = true;
+        group = new NioEventLoopGroup(Math.max(1, Math.min(links.size(), 4)), new DefaultThreadFactory("cluster-bus"));
+
+        ServerBootstrap server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        initCodec(ch.pipeline());
+                        ch.pipeline().addLast(new InboundHandler());
+                    }
+                });
+        serverChannel = server.bind(properties.getBindPort()).syncUninterruptibly().channel();
+        log.info("集群节点 {} 监听端口 {}，对端节点 {}", nodeId, properties.getBindPort(), links.keySet());
+
+        for (PeerLink link : links.values()) {
+            link.connect();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (PeerLink link : links.values()) {
+            link.close();
+        }
+        if (serverChannel != null) {
+            serverChannel.close();
+        }
+        if (group != null) {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Override
+    public boolean hasPeers() {
+        return !links.isEmpty();
+    }
+
+    @Override
+    public void send(String targetNodeId, RelayEnvelope envelope) {
+        PeerLink link = links.get(targetNodeId);
+        if (link != null) {
+            link.enqueue(envelope);
+        }
+    }
+
+    @Override
+    public void broadcast(RelayEnvelope envelope) {
+        for (PeerLink link : links.values()) {
+            link.enqueue(envelope);
+        }
+    }
+
+    private static void initCodec(ChannelPipeline pipeline) {
+        pipeline.addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, 4, 0, 4));
+        pipeline.addLast(new LengthFieldPrepender(4));
+        pipeline.addLast(new ProtobufDecoder(RelayBatch.getDefaultInstance()));
+        pipeline.addLast(new ProtobufEncoder());
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", "tcp");
+        metrics.put("nodeId", nodeId);
+        Map<String, Object> peers = new LinkedHashMap<>();
+        for (PeerLink link : links.values()) {
+            Map<String, Object> peer = new LinkedHashMap<>();
+            peer.put("address", link.host + ":" + link.port);
+            peer.put("connected", link.channel != null && link.channel.isActive());
+            peer.put("pending", link.pendingCount.get());
+            peers.put(link.peerNodeId, peer);
+        }
+        metrics.put("peers", peers);
+        metrics.put("sent", sentCount.sum());
+        metrics.put("sentBatches", sentBatchCount.sum());
+        metrics.put("dropped", droppedCount.sum());
+        metrics.put("received", receivedCount.sum());
+        metrics.put("receivedBatches", receivedBatchCount.sum());
+        metrics.put("rejected", rejectedCount.sum());
+        return metrics;
+    }
+
+    /**
+     * 接收其它节点发来的批量转发
+     */
+    private class InboundHandler extends SimpleChannelInboundHandler<RelayBatch> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, RelayBatch batch) {
+            if (batch.hasOriginIndex() && batch.getOriginIndex() == properties.getNodeIndex()
+                    && !nodeId.equals(batch.getOriginNode())) {
+                // 节点序号相同的两个节点会生成相同的消息序号，拒绝该链路
+                rejectedCount.increment();
+                log.error("集群节点 {} 与本节点 {} 使用了相同的 node-index {}，拒绝其转发，请修正配置",
+                        batch.getOriginNode(), nodeId, batch.getOriginIndex());
+                ctx.close();
+                return;
+            }
+            ctx.channel().attr(ORIGIN_NODE).set(batch.getOriginNode());
+            receivedCount.add(batch.getEnvelopesCount());
+            receivedBatchCount.increment();
+            listener.onEnvelopes(batch.getOriginNode(), batch.getEnvelopesList());
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            String origin = ctx.channel().attr(ORIGIN_NODE).get();
+            if (origin != null && running) {
+                listener.onNodeDown(origin);
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("集群入站链路异常: {}", cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    /**
+     * 到某个对端节点的发送链路
+     */
+    private static final class PeerLink {
+        private final TcpPeerClusterBus bus;
+        private final String peerNodeId;
+        private final String host;
+        private final int port;
+
+        private final Queue<RelayEnvelope> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+        private volatile Channel channel;
+        private EventLoop loop;
+
+        private PeerLink(TcpPeerClusterBus bus, String peerNodeId, String host, int port) {
+            this.bus = bus;
+            this.peerNodeId = peerNodeId;
+            this.host = host;
+            this.port = port;
+        }
+
+        /**
+         * 解析 节点ID@主机:端口
+         */
+        private static PeerLink parse(TcpPeerClusterBus bus, String spec) {
+            int at = spec.indexOf('@');
+            int colon = spec.lastIndexOf(':');
+            if (at <= 0 || colon <= at) {
+                throw new IllegalArgumentException("集群节点配置格式应为 节点ID@主机:端口: " + spec);
+            }
+            return new PeerLink(bus, spec.substring(0, at).trim(), spec.substring(at + 1, colon).trim(),
+                    Integer.parseInt(spec.substring(colon + 1).trim()));
+        }
+
+        private void connect() {
+            if (!bus.running) {
+                return;
+            }
+            if (loop == null) {
+                loop = bus.group.next();
+                long interval = bus.properties.getFlushIntervalMs();
+                loop.scheduleAtFixedRate(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+            }
+            new Bootstrap()
+                    .group(loop)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .option(ChannelOption.SO_KEEPALIVE, true)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            initCodec(ch.pipeline());
+                        }
+                    })
+                    .connect(host, port)
+                    .addListener((ChannelFutureListener) future -> {
+                        if (!future.isSuccess()) {
+                            scheduleReconnect();
+                            return;
+                        }
+                        channel = future.channel();
+                        log.info("已连接集群节点 {} ({}:{})", peerNodeId, host, port);
+                        channel.closeFuture().addListener(f -> {
+                            channel = null;
+                            discardPending();
+                            if (bus.running) {
+                                log.warn("集群节点 {} 链路断开，{}ms 后重连", peerNodeId,
+                                        bus.properties.getReconnectIntervalMs());
+                                bus.listener.onNodeDown(peerNodeId);
+                                scheduleReconnect();
+                            }
+                        });
+                        bus.listener.onPeerConnected(peerNodeId);
+                    });
+        }
+
+        private void scheduleReconnect() {
+            if (bus.running) {
+                loop.schedule(this::connect, bus.properties.getReconnectIntervalMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void enqueue(RelayEnvelope envelope) {
+            if (channel == null || pendingCount.get() >= bus.properties.getMaxPending()) {
+                // 链路不可用时丢弃：重连后由在线用户快照恢复状态
+                bus.droppedCount.increment();
+                return;
+            }
+            pending.offer(envelope);
+            if (pendingCount.incrementAndGet() >= bus.properties.getBatchSize()
+                    && flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+        }
+
+        /**
+         * 在链路事件循环内把积压消息按批次写出，最后统一 flush 一次
+         */
+        private void flush() {
+            flushScheduled.set(false);
+            Channel ch = channel;
+            if (ch == null || pendingCount.get() == 0) {
+                return;
+            }
+            int batchSize = bus.properties.getBatchSize();
+            boolean written = false;
+            while (true) {
+                List<RelayEnvelope> envelopes = new ArrayList<>(Math.min(batchSize, pendingCount.get()));
+                RelayEnvelope envelope;
+                while (envelopes.size() < batchSize && (envelope = pending.poll()) != null) {
+                    envelopes.add(envelope);
+                }
+                if (envelopes.isEmpty()) {
+                    break;
+                }
+                pendingCount.addAndGet(-envelopes.size());
+                RelayBatch.Builder batch = RelayBatch.newBuilder()
+                        .setOriginNode(bus.nodeId)
+                        .addAllEnvelopes(envelopes);
+                if (bus.properties.getNodeIndex() >= 0) {
+                    batch.setOriginIndex(bus.properties.getNodeIndex());
+                }
+                ch.write(batch.build(), ch.voidPromise());
+                bus.sentCount.add(envelopes.size());
+                bus.sentBatchCount.increment();
+                written = true;
+            }
+            if (written) {
+                ch.flush();
+            }
+        }
+
+        /**
+         * 链路断开时丢弃积压，避免重连后在快照之前补发过期消息
+         */
+        private void discardPending() {
+            int discarded = 0;
+            while (pending.poll() != null) {
+                discarded++;
+            }
+            pendingCount.addAndGet(-discarded);
+            bus.droppedCount.add(discarded);
+        }
+
+        private void close() {
+            Channel ch = channel;
+            if (ch != null) {
+                ch.close();
+            }
+        }
+    }
+}
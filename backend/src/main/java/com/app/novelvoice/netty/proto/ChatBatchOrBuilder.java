@@ -0,0 +1,33 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ChatMessage.proto
+
+package com.app.novelvoice.netty.proto;
+
+public interface ChatBatchOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:com.app.novelvoice.netty.proto.ChatBatch)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.ChatMessage messages = 1;</code>
+   */
+  java.util.List<com.app.novelvoice.netty.proto.ChatMessage> 
+      getMessagesList();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.ChatMessage messages = 1;</code>
+   */
+  com.app.novelvoice.netty.proto.ChatMessage getMessages(int index);
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.ChatMessage messages = 1;</code>
+   */
+  int getMessagesCount();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.ChatMessage messages = 1;</code>
+   */
+  java.util.List<? extends com.app.novelvoice.netty.proto.ChatMessageOrBuilder> 
+      getMessagesOrBuilderList();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.ChatMessage messages = 1;</code>
+   */
+  com.app.novelvoice.netty.proto.ChatMessageOrBuilder getMessagesOrBuilder(
+      int index);
+}
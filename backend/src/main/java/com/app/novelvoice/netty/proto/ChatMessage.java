@@ -4,10 +4,15 @@
 package com.app.novelvoice.netty.proto;
 
 /**
+ * <pre>
+ * 聊天消息
+ * </pre>
+ *
  * Protobuf type {@code com.app.novelvoice.netty.proto.ChatMessage}
  */
 public final class ChatMessage extends
     com.google.protobuf.GeneratedMessageV3 implements
+    // @@protoc_insertion_point(message_implements:com.app.novelvoice.netty.proto.ChatMessage)
     ChatMessageOrBuilder {
 private static final long serialVersionUID = 0L;
   // Use ChatMessage.newBuilder() to construct.
@@ -21,6 +26,7 @@ private static final long serialVersionUID = 0L;
     fileName_ = "";
     senderNickname_ = "";
     senderAvatar_ = "";
+    kind_ = 0;
   }
 
   @java.lang.Override
@@ -35,105 +41,26 @@ private static final long serialVersionUID = 0L;
   getUnknownFields() {
     return this.unknownFields;
   }
-  private ChatMessage(
-      com.google.protobuf.CodedInputStream input,
-      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-      throws com.google.protobuf.InvalidProtocolBufferException {
-    this();
-    if (extensionRegistry == null) {
-      throw new java.lang.NullPointerException();
-    }
-    com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-        com.google.protobuf.UnknownFieldSet.newBuilder();
-    try {
-      boolean done = false;
-      while (!done) {
-        int tag = input.readTag();
-        switch (tag) {
-          case 0:
-            done = true;
-            break;
-          case 8: {
-            senderId_ = input.readInt64();
-            break;
-          }
-          case 16: {
-            receiverId_ = input.readInt64();
-            break;
-          }
-          case 26: {
-            java.lang.String s = input.readStringRequireUtf8();
-            content_ = s;
-            break;
-          }
-          case 32: {
-            type_ = input.readInt32();
-            break;
-          }
-          case 42: {
-            java.lang.String s = input.readStringRequireUtf8();
-            timestamp_ = s;
-            break;
-          }
-          case 50: {
-            java.lang.String s = input.readStringRequireUtf8();
-            fileUrl_ = s;
-            break;
-          }
-          case 58: {
-            java.lang.String s = input.readStringRequireUtf8();
-            fileName_ = s;
-            break;
-          }
-          case 64: {
-            fileSize_ = input.readInt64();
-            break;
-          }
-          case 74: {
-            java.lang.String s = input.readStringRequireUtf8();
-            senderNickname_ = s;
-            break;
-          }
-          case 82: {
-            java.lang.String s = input.readStringRequireUtf8();
-            senderAvatar_ = s;
-            break;
-          }
-          default: {
-            if (!parseUnknownField(
-                input, unknownFields, extensionRegistry, tag)) {
-              done = true;
-            }
-            break;
-          }
-        }
-      }
-    } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-      throw e.setUnfinishedMessage(this);
-    } catch (java.io.IOException e) {
-      throw new com.google.protobuf.InvalidProtocolBufferException(
-          e).setUnfinishedMessage(this);
-    } finally {
-      this.unknownFields = unknownFields.build();
-      makeExtensionsImmutable();
-    }
-  }
   public static final com.google.protobuf.Descriptors.Descriptor
       getDescriptor() {
-    return ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
+    return com.app.novelvoice.netty.proto.ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
   }
 
   @java.lang.Override
   protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internalGetFieldAccessorTable() {
-    return ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable
+    return com.app.novelvoice.netty.proto.ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable
         .ensureFieldAccessorsInitialized(
-            ChatMessage.class, ChatMessage.Builder.class);
+            com.app.novelvoice.netty.proto.ChatMessage.class, com.app.novelvoice.netty.proto.ChatMessage.Builder.class);
   }
 
   public static final int SENDER_ID_FIELD_NUMBER = 1;
-  private long senderId_;
+  private long senderId_ = 0L;
   /**
+   * <pre>
+   * 发送者ID
+   * </pre>
+   *
    * <code>int64 sender_id = 1;</code>
    * @return The senderId.
    */
@@ -143,8 +70,12 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int RECEIVER_ID_FIELD_NUMBER = 2;
-  private long receiverId_;
+  private long receiverId_ = 0L;
   /**
+   * <pre>
+   * 接收者ID（0表示群聊）
+   * </pre>
+   *
    * <code>int64 receiver_id = 2;</code>
    * @return The receiverId.
    */
@@ -154,8 +85,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int CONTENT_FIELD_NUMBER = 3;
-  private volatile java.lang.Object content_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object content_ = "";
   /**
+   * <pre>
+   * 消息内容
+   * </pre>
+   *
    * <code>string content = 3;</code>
    * @return The content.
    */
@@ -173,6 +109,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 消息内容
+   * </pre>
+   *
    * <code>string content = 3;</code>
    * @return The bytes for content.
    */
@@ -192,8 +132,12 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int TYPE_FIELD_NUMBER = 4;
-  private int type_;
+  private int type_ = 0;
   /**
+   * <pre>
+   * 消息类型：0-文本, 1-图片, 2-表情, 3-文件
+   * </pre>
+   *
    * <code>int32 type = 4;</code>
    * @return The type.
    */
@@ -203,8 +147,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int TIMESTAMP_FIELD_NUMBER = 5;
-  private volatile java.lang.Object timestamp_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object timestamp_ = "";
   /**
+   * <pre>
+   * 时间戳
+   * </pre>
+   *
    * <code>string timestamp = 5;</code>
    * @return The timestamp.
    */
@@ -222,6 +171,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 时间戳
+   * </pre>
+   *
    * <code>string timestamp = 5;</code>
    * @return The bytes for timestamp.
    */
@@ -241,8 +194,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int FILE_URL_FIELD_NUMBER = 6;
-  private volatile java.lang.Object fileUrl_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object fileUrl_ = "";
   /**
+   * <pre>
+   * 文件URL
+   * </pre>
+   *
    * <code>string file_url = 6;</code>
    * @return The fileUrl.
    */
@@ -260,6 +218,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 文件URL
+   * </pre>
+   *
    * <code>string file_url = 6;</code>
    * @return The bytes for fileUrl.
    */
@@ -279,8 +241,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int FILE_NAME_FIELD_NUMBER = 7;
-  private volatile java.lang.Object fileName_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object fileName_ = "";
   /**
+   * <pre>
+   * 文件名
+   * </pre>
+   *
    * <code>string file_name = 7;</code>
    * @return The fileName.
    */
@@ -298,6 +265,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 文件名
+   * </pre>
+   *
    * <code>string file_name = 7;</code>
    * @return The bytes for fileName.
    */
@@ -317,8 +288,12 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int FILE_SIZE_FIELD_NUMBER = 8;
-  private long fileSize_;
+  private long fileSize_ = 0L;
   /**
+   * <pre>
+   * 文件大小（字节）
+   * </pre>
+   *
    * <code>int64 file_size = 8;</code>
    * @return The fileSize.
    */
@@ -328,8 +303,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int SENDER_NICKNAME_FIELD_NUMBER = 9;
-  private volatile java.lang.Object senderNickname_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object senderNickname_ = "";
   /**
+   * <pre>
+   * 发送者昵称
+   * </pre>
+   *
    * <code>string sender_nickname = 9;</code>
    * @return The senderNickname.
    */
@@ -347,6 +327,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 发送者昵称
+   * </pre>
+   *
    * <code>string sender_nickname = 9;</code>
    * @return The bytes for senderNickname.
    */
@@ -366,8 +350,13 @@ private static final long serialVersionUID = 0L;
   }
 
   public static final int SENDER_AVATAR_FIELD_NUMBER = 10;
-  private volatile java.lang.Object senderAvatar_;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object senderAvatar_ = "";
   /**
+   * <pre>
+   * 发送者头像
+   * </pre>
+   *
    * <code>string sender_avatar = 10;</code>
    * @return The senderAvatar.
    */
@@ -385,6 +374,10 @@ private static final long serialVersionUID = 0L;
     }
   }
   /**
+   * <pre>
+   * 发送者头像
+   * </pre>
+   *
    * <code>string sender_avatar = 10;</code>
    * @return The bytes for senderAvatar.
    */
@@ -403,6 +396,115 @@ private static final long serialVersionUID = 0L;
     }
   }
 
+  public static final int ROOM_ID_FIELD_NUMBER = 11;
+  private long roomId_ = 0L;
+  /**
+   * <pre>
+   * 聊天室ID（0表示大厅，所有连接可见）
+   * </pre>
+   *
+   * <code>int64 room_id = 11;</code>
+   * @return The roomId.
+   */
+  @java.lang.Override
+  public long getRoomId() {
+    return roomId_;
+  }
+
+  public static final int KIND_FIELD_NUMBER = 12;
+  private int kind_ = 0;
+  /**
+   * <pre>
+   * 消息种类
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+   * @return The enum numeric value on the wire for kind.
+   */
+  @java.lang.Override public int getKindValue() {
+    return kind_;
+  }
+  /**
+   * <pre>
+   * 消息种类
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+   * @return The kind.
+   */
+  @java.lang.Override public com.app.novelvoice.netty.proto.MessageKind getKind() {
+    com.app.novelvoice.netty.proto.MessageKind result = com.app.novelvoice.netty.proto.MessageKind.forNumber(kind_);
+    return result == null ? com.app.novelvoice.netty.proto.MessageKind.UNRECOGNIZED : result;
+  }
+
+  public static final int SEQ_FIELD_NUMBER = 13;
+  private long seq_ = 0L;
+  /**
+   * <pre>
+   * 服务端分配的序号（同一会话/聊天室内单调递增）
+   * </pre>
+   *
+   * <code>int64 seq = 13;</code>
+   * @return The seq.
+   */
+  @java.lang.Override
+  public long getSeq() {
+    return seq_;
+  }
+
+  public static final int RETRY_AFTER_MS_FIELD_NUMBER = 14;
+  private long retryAfterMs_ = 0L;
+  /**
+   * <pre>
+   * RATE_LIMITED 通知：建议的重试等待时间（毫秒）
+   * </pre>
+   *
+   * <code>int64 retry_after_ms = 14;</code>
+   * @return The retryAfterMs.
+   */
+  @java.lang.Override
+  public long getRetryAfterMs() {
+    return retryAfterMs_;
+  }
+
+  public static final int BATCH_FIELD_NUMBER = 15;
+  private com.app.novelvoice.netty.proto.ChatBatch batch_;
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   * @return Whether the batch field is set.
+   */
+  @java.lang.Override
+  public boolean hasBatch() {
+    return batch_ != null;
+  }
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   * @return The batch.
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.ChatBatch getBatch() {
+    return batch_ == null ? com.app.novelvoice.netty.proto.ChatBatch.getDefaultInstance() : batch_;
+  }
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.ChatBatchOrBuilder getBatchOrBuilder() {
+    return batch_ == null ? com.app.novelvoice.netty.proto.ChatBatch.getDefaultInstance() : batch_;
+  }
+
   private byte memoizedIsInitialized = -1;
   @java.lang.Override
   public final boolean isInitialized() {
@@ -423,31 +525,46 @@ private static final long serialVersionUID = 0L;
     if (receiverId_ != 0L) {
       output.writeInt64(2, receiverId_);
     }
-    if (!getContentBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(content_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 3, content_);
     }
     if (type_ != 0) {
       output.writeInt32(4, type_);
     }
-    if (!getTimestampBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(timestamp_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 5, timestamp_);
     }
-    if (!getFileUrlBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(fileUrl_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 6, fileUrl_);
     }
-    if (!getFileNameBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(fileName_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 7, fileName_);
     }
     if (fileSize_ != 0L) {
       output.writeInt64(8, fileSize_);
     }
-    if (!getSenderNicknameBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(senderNickname_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 9, senderNickname_);
     }
-    if (!getSenderAvatarBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(senderAvatar_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 10, senderAvatar_);
     }
-    unknownFields.writeTo(output);
+    if (roomId_ != 0L) {
+      output.writeInt64(11, roomId_);
+    }
+    if (kind_ != com.app.novelvoice.netty.proto.MessageKind.CHAT.getNumber()) {
+      output.writeEnum(12, kind_);
+    }
+    if (seq_ != 0L) {
+      output.writeInt64(13, seq_);
+    }
+    if (retryAfterMs_ != 0L) {
+      output.writeInt64(14, retryAfterMs_);
+    }
+    if (batch_ != null) {
+      output.writeMessage(15, getBatch());
+    }
+    getUnknownFields().writeTo(output);
   }
 
   @java.lang.Override
@@ -464,33 +581,53 @@ private static final long serialVersionUID = 0L;
       size += com.google.protobuf.CodedOutputStream
         .computeInt64Size(2, receiverId_);
     }
-    if (!getContentBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(content_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, content_);
     }
     if (type_ != 0) {
       size += com.google.protobuf.CodedOutputStream
         .computeInt32Size(4, type_);
     }
-    if (!getTimestampBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(timestamp_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(5, timestamp_);
     }
-    if (!getFileUrlBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(fileUrl_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, fileUrl_);
     }
-    if (!getFileNameBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(fileName_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(7, fileName_);
     }
     if (fileSize_ != 0L) {
       size += com.google.protobuf.CodedOutputStream
         .computeInt64Size(8, fileSize_);
     }
-    if (!getSenderNicknameBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(senderNickname_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(9, senderNickname_);
     }
-    if (!getSenderAvatarBytes().isEmpty()) {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(senderAvatar_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, senderAvatar_);
     }
-    size += unknownFields.getSerializedSize();
+    if (roomId_ != 0L) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeInt64Size(11, roomId_);
+    }
+    if (kind_ != com.app.novelvoice.netty.proto.MessageKind.CHAT.getNumber()) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeEnumSize(12, kind_);
+    }
+    if (seq_ != 0L) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeInt64Size(13, seq_);
+    }
+    if (retryAfterMs_ != 0L) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeInt64Size(14, retryAfterMs_);
+    }
+    if (batch_ != null) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeMessageSize(15, getBatch());
+    }
+    size += getUnknownFields().getSerializedSize();
     memoizedSize = size;
     return size;
   }
@@ -500,10 +637,10 @@ private static final long serialVersionUID = 0L;
     if (obj == this) {
      return true;
     }
-    if (!(obj instanceof ChatMessage)) {
+    if (!(obj instanceof com.app.novelvoice.netty.proto.ChatMessage)) {
       return super.equals(obj);
     }
-    ChatMessage other = (ChatMessage) obj;
+    com.app.novelvoice.netty.proto.ChatMessage other = (com.app.novelvoice.netty.proto.ChatMessage) obj;
 
     if (getSenderId()
         != other.getSenderId()) return false;
@@ -525,7 +662,19 @@ private static final long serialVersionUID = 0L;
         .equals(other.getSenderNickname())) return false;
     if (!getSenderAvatar()
         .equals(other.getSenderAvatar())) return false;
-    if (!unknownFields.equals(other.unknownFields)) return false;
+    if (getRoomId()
+        != other.getRoomId()) return false;
+    if (kind_ != other.kind_) return false;
+    if (getSeq()
+        != other.getSeq()) return false;
+    if (getRetryAfterMs()
+        != other.getRetryAfterMs()) return false;
+    if (hasBatch() != other.hasBatch()) return false;
+    if (hasBatch()) {
+      if (!getBatch()
+          .equals(other.getBatch())) return false;
+    }
+    if (!getUnknownFields().equals(other.getUnknownFields())) return false;
     return true;
   }
 
@@ -559,74 +708,89 @@ private static final long serialVersionUID = 0L;
     hash = (53 * hash) + getSenderNickname().hashCode();
     hash = (37 * hash) + SENDER_AVATAR_FIELD_NUMBER;
     hash = (53 * hash) + getSenderAvatar().hashCode();
-    hash = (29 * hash) + unknownFields.hashCode();
+    hash = (37 * hash) + ROOM_ID_FIELD_NUMBER;
+    hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+        getRoomId());
+    hash = (37 * hash) + KIND_FIELD_NUMBER;
+    hash = (53 * hash) + kind_;
+    hash = (37 * hash) + SEQ_FIELD_NUMBER;
+    hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+        getSeq());
+    hash = (37 * hash) + RETRY_AFTER_MS_FIELD_NUMBER;
+    hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+        getRetryAfterMs());
+    if (hasBatch()) {
+      hash = (37 * hash) + BATCH_FIELD_NUMBER;
+      hash = (53 * hash) + getBatch().hashCode();
+    }
+    hash = (29 * hash) + getUnknownFields().hashCode();
     memoizedHashCode = hash;
     return hash;
   }
 
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       java.nio.ByteBuffer data)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       java.nio.ByteBuffer data,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data, extensionRegistry);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       com.google.protobuf.ByteString data)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       com.google.protobuf.ByteString data,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data, extensionRegistry);
   }
-  public static ChatMessage parseFrom(byte[] data)
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(byte[] data)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       byte[] data,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws com.google.protobuf.InvalidProtocolBufferException {
     return PARSER.parseFrom(data, extensionRegistry);
   }
-  public static ChatMessage parseFrom(java.io.InputStream input)
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(java.io.InputStream input)
       throws java.io.IOException {
     return com.google.protobuf.GeneratedMessageV3
         .parseWithIOException(PARSER, input);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       java.io.InputStream input,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws java.io.IOException {
     return com.google.protobuf.GeneratedMessageV3
         .parseWithIOException(PARSER, input, extensionRegistry);
   }
-  public static ChatMessage parseDelimitedFrom(java.io.InputStream input)
+  public static com.app.novelvoice.netty.proto.ChatMessage parseDelimitedFrom(java.io.InputStream input)
       throws java.io.IOException {
     return com.google.protobuf.GeneratedMessageV3
         .parseDelimitedWithIOException(PARSER, input);
   }
-  public static ChatMessage parseDelimitedFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseDelimitedFrom(
       java.io.InputStream input,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws java.io.IOException {
     return com.google.protobuf.GeneratedMessageV3
         .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       com.google.protobuf.CodedInputStream input)
       throws java.io.IOException {
     return com.google.protobuf.GeneratedMessageV3
         .parseWithIOException(PARSER, input);
   }
-  public static ChatMessage parseFrom(
+  public static com.app.novelvoice.netty.proto.ChatMessage parseFrom(
       com.google.protobuf.CodedInputStream input,
       com.google.protobuf.ExtensionRegistryLite extensionRegistry)
       throws java.io.IOException {
@@ -639,7 +803,7 @@ private static final long serialVersionUID = 0L;
   public static Builder newBuilder() {
     return DEFAULT_INSTANCE.toBuilder();
   }
-  public static Builder newBuilder(ChatMessage prototype) {
+  public static Builder newBuilder(com.app.novelvoice.netty.proto.ChatMessage prototype) {
     return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
   }
   @java.lang.Override
@@ -655,39 +819,43 @@ private static final long serialVersionUID = 0L;
     return builder;
   }
   /**
+   * <pre>
+   * 聊天消息
+   * </pre>
+   *
    * Protobuf type {@code com.app.novelvoice.netty.proto.ChatMessage}
    */
   public static final class Builder extends
       com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-      ChatMessageOrBuilder {
+      // @@protoc_insertion_point(builder_implements:com.app.novelvoice.netty.proto.ChatMessage)
+      com.app.novelvoice.netty.proto.ChatMessageOrBuilder {
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
+      return com.app.novelvoice.netty.proto.ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
     }
 
     @java.lang.Override
     protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable
+      return com.app.novelvoice.netty.proto.ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              ChatMessage.class, ChatMessage.Builder.class);
+              com.app.novelvoice.netty.proto.ChatMessage.class, com.app.novelvoice.netty.proto.ChatMessage.Builder.class);
     }
 
-    // Construct using ChatMessage.newBuilder()
+    // Construct using com.app.novelvoice.netty.proto.ChatMessage.newBuilder()
     private Builder() {
-      maybeForceBuilderInitialization();
+
     }
 
     private Builder(
         com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
       super(parent);
-      maybeForceBuilderInitialization();
-    }
-    private void maybeForceBuilderInitialization() {
+
     }
     @java.lang.Override
     public Builder clear() {
       super.clear();
+      bitField0_ = 0;
       senderId_ = 0L;
       receiverId_ = 0L;
       content_ = "";
@@ -698,23 +866,32 @@ private static final long serialVersionUID = 0L;
       fileSize_ = 0L;
       senderNickname_ = "";
       senderAvatar_ = "";
+      roomId_ = 0L;
+      kind_ = 0;
+      seq_ = 0L;
+      retryAfterMs_ = 0L;
+      batch_ = null;
+      if (batchBuilder_ != null) {
+        batchBuilder_.dispose();
+        batchBuilder_ = null;
+      }
       return this;
     }
 
     @java.lang.Override
     public com.google.protobuf.Descriptors.Descriptor
         getDescriptorForType() {
-      return ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
+      return com.app.novelvoice.netty.proto.ChatMessageProto.internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor;
     }
 
     @java.lang.Override
-    public ChatMessage getDefaultInstanceForType() {
-      return ChatMessage.getDefaultInstance();
+    public com.app.novelvoice.netty.proto.ChatMessage getDefaultInstanceForType() {
+      return com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance();
     }
 
     @java.lang.Override
-    public ChatMessage build() {
-      ChatMessage result = buildPartial();
+    public com.app.novelvoice.netty.proto.ChatMessage build() {
+      com.app.novelvoice.netty.proto.ChatMessage result = buildPartial();
       if (!result.isInitialized()) {
         throw newUninitializedMessageException(result);
       }
@@ -722,22 +899,64 @@ private static final long serialVersionUID = 0L;
     }
 
     @java.lang.Override
-    public ChatMessage buildPartial() {
-      ChatMessage result = new ChatMessage(this);
-      result.senderId_ = senderId_;
-      result.receiverId_ = receiverId_;
-      result.content_ = content_;
-      result.type_ = type_;
-      result.timestamp_ = timestamp_;
-      result.fileUrl_ = fileUrl_;
-      result.fileName_ = fileName_;
-      result.fileSize_ = fileSize_;
-      result.senderNickname_ = senderNickname_;
-      result.senderAvatar_ = senderAvatar_;
+    public com.app.novelvoice.netty.proto.ChatMessage buildPartial() {
+      com.app.novelvoice.netty.proto.ChatMessage result = new com.app.novelvoice.netty.proto.ChatMessage(this);
+      if (bitField0_ != 0) { buildPartial0(result); }
       onBuilt();
       return result;
     }
 
+    private void buildPartial0(com.app.novelvoice.netty.proto.ChatMessage result) {
+      int from_bitField0_ = bitField0_;
+      if (((from_bitField0_ & 0x00000001) != 0)) {
+        result.senderId_ = senderId_;
+      }
+      if (((from_bitField0_ & 0x00000002) != 0)) {
+        result.receiverId_ = receiverId_;
+      }
+      if (((from_bitField0_ & 0x00000004) != 0)) {
+        result.content_ = content_;
+      }
+      if (((from_bitField0_ & 0x00000008) != 0)) {
+        result.type_ = type_;
+      }
+      if (((from_bitField0_ & 0x00000010) != 0)) {
+        result.timestamp_ = timestamp_;
+      }
+      if (((from_bitField0_ & 0x00000020) != 0)) {
+        result.fileUrl_ = fileUrl_;
+      }
+      if (((from_bitField0_ & 0x00000040) != 0)) {
+        result.fileName_ = fileName_;
+      }
+      if (((from_bitField0_ & 0x00000080) != 0)) {
+        result.fileSize_ = fileSize_;
+      }
+      if (((from_bitField0_ & 0x00000100) != 0)) {
+        result.senderNickname_ = senderNickname_;
+      }
+      if (((from_bitField0_ & 0x00000200) != 0)) {
+        result.senderAvatar_ = senderAvatar_;
+      }
+      if (((from_bitField0_ & 0x00000400) != 0)) {
+        result.roomId_ = roomId_;
+      }
+      if (((from_bitField0_ & 0x00000800) != 0)) {
+        result.kind_ = kind_;
+      }
+      if (((from_bitField0_ & 0x00001000) != 0)) {
+        result.seq_ = seq_;
+      }
+      if (((from_bitField0_ & 0x00002000) != 0)) {
+        result.retryAfterMs_ = retryAfterMs_;
+      }
+      if (((from_bitField0_ & 0x00004000) != 0)) {
+        result.batch_ = batchBuilder_ == null
+            ? batch_
+            : batchBuilder_.build();
+      }
+    }
+
     @java.lang.Override
     public Builder clone() {
       return super.clone();
@@ -772,16 +991,16 @@ private static final long serialVersionUID = 0L;
     }
     @java.lang.Override
     public Builder mergeFrom(com.google.protobuf.Message other) {
-      if (other instanceof ChatMessage) {
-        return mergeFrom((ChatMessage)other);
+      if (other instanceof com.app.novelvoice.netty.proto.ChatMessage) {
+        return mergeFrom((com.app.novelvoice.netty.proto.ChatMessage)other);
       } else {
         super.mergeFrom(other);
         return this;
       }
     }
 
-    public Builder mergeFrom(ChatMessage other) {
-      if (other == ChatMessage.getDefaultInstance()) return this;
+    public Builder mergeFrom(com.app.novelvoice.netty.proto.ChatMessage other) {
+      if (other == com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance()) return this;
       if (other.getSenderId() != 0L) {
         setSenderId(other.getSenderId());
       }
@@ -790,6 +1009,7 @@ private static final long serialVersionUID = 0L;
       }
       if (!other.getContent().isEmpty()) {
         content_ = other.content_;
+        bitField0_ |= 0x00000004;
         onChanged();
       }
       if (other.getType() != 0) {
@@ -797,14 +1017,17 @@ private static final long serialVersionUID = 0L;
       }
       if (!other.getTimestamp().isEmpty()) {
         timestamp_ = other.timestamp_;
+        bitField0_ |= 0x00000010;
         onChanged();
       }
       if (!other.getFileUrl().isEmpty()) {
         fileUrl_ = other.fileUrl_;
+        bitField0_ |= 0x00000020;
         onChanged();
       }
       if (!other.getFileName().isEmpty()) {
         fileName_ = other.fileName_;
+        bitField0_ |= 0x00000040;
         onChanged();
       }
       if (other.getFileSize() != 0L) {
@@ -812,13 +1035,30 @@ private static final long serialVersionUID = 0L;
       }
       if (!other.getSenderNickname().isEmpty()) {
         senderNickname_ = other.senderNickname_;
+        bitField0_ |= 0x00000100;
         onChanged();
       }
       if (!other.getSenderAvatar().isEmpty()) {
         senderAvatar_ = other.senderAvatar_;
+        bitField0_ |= 0x00000200;
         onChanged();
       }
-      this.mergeUnknownFields(other.unknownFields);
+      if (other.getRoomId() != 0L) {
+        setRoomId(other.getRoomId());
+      }
+      if (other.kind_ != 0) {
+        setKindValue(other.getKindValue());
+      }
+      if (other.getSeq() != 0L) {
+        setSeq(other.getSeq());
+      }
+      if (other.getRetryAfterMs() != 0L) {
+        setRetryAfterMs(other.getRetryAfterMs());
+      }
+      if (other.hasBatch()) {
+        mergeBatch(other.getBatch());
+      }
+      this.mergeUnknownFields(other.getUnknownFields());
       onChanged();
       return this;
     }
@@ -833,22 +1073,117 @@ private static final long serialVersionUID = 0L;
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
-      ChatMessage parsedMessage = null;
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
       try {
-        parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              senderId_ = input.readInt64();
+              bitField0_ |= 0x00000001;
+              break;
+            } // case 8
+            case 16: {
+              receiverId_ = input.readInt64();
+              bitField0_ |= 0x00000002;
+              break;
+            } // case 16
+            case 26: {
+              content_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000004;
+              break;
+            } // case 26
+            case 32: {
+              type_ = input.readInt32();
+              bitField0_ |= 0x00000008;
+              break;
+            } // case 32
+            case 42: {
+              timestamp_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000010;
+              break;
+            } // case 42
+            case 50: {
+              fileUrl_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000020;
+              break;
+            } // case 50
+            case 58: {
+              fileName_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000040;
+              break;
+            } // case 58
+            case 64: {
+              fileSize_ = input.readInt64();
+              bitField0_ |= 0x00000080;
+              break;
+            } // case 64
+            case 74: {
+              senderNickname_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000100;
+              break;
+            } // case 74
+            case 82: {
+              senderAvatar_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000200;
+              break;
+            } // case 82
+            case 88: {
+              roomId_ = input.readInt64();
+              bitField0_ |= 0x00000400;
+              break;
+            } // case 88
+            case 96: {
+              kind_ = input.readEnum();
+              bitField0_ |= 0x00000800;
+              break;
+            } // case 96
+            case 104: {
+              seq_ = input.readInt64();
+              bitField0_ |= 0x00001000;
+              break;
+            } // case 104
+            case 112: {
+              retryAfterMs_ = input.readInt64();
+              bitField0_ |= 0x00002000;
+              break;
+            } // case 112
+            case 122: {
+              input.readMessage(
+                  getBatchFieldBuilder().getBuilder(),
+                  extensionRegistry);
+              bitField0_ |= 0x00004000;
+              break;
+            } // case 122
+            default: {
+              if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                done = true; // was an endgroup tag
+              }
+              break;
+            } // default:
+          } // switch (tag)
+        } // while (!done)
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-        parsedMessage = (ChatMessage) e.getUnfinishedMessage();
         throw e.unwrapIOException();
       } finally {
-        if (parsedMessage != null) {
-          mergeFrom(parsedMessage);
-        }
-      }
+        onChanged();
+      } // finally
       return this;
     }
+    private int bitField0_;
 
     private long senderId_ ;
     /**
+     * <pre>
+     * 发送者ID
+     * </pre>
+     *
      * <code>int64 sender_id = 1;</code>
      * @return The senderId.
      */
@@ -857,20 +1192,31 @@ private static final long serialVersionUID = 0L;
       return senderId_;
     }
     /**
+     * <pre>
+     * 发送者ID
+     * </pre>
+     *
      * <code>int64 sender_id = 1;</code>
      * @param value The senderId to set.
      * @return This builder for chaining.
      */
     public Builder setSenderId(long value) {
+      
       senderId_ = value;
+      bitField0_ |= 0x00000001;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 发送者ID
+     * </pre>
+     *
      * <code>int64 sender_id = 1;</code>
      * @return This builder for chaining.
      */
     public Builder clearSenderId() {
+      bitField0_ = (bitField0_ & ~0x00000001);
       senderId_ = 0L;
       onChanged();
       return this;
@@ -878,6 +1224,10 @@ private static final long serialVersionUID = 0L;
 
     private long receiverId_ ;
     /**
+     * <pre>
+     * 接收者ID（0表示群聊）
+     * </pre>
+     *
      * <code>int64 receiver_id = 2;</code>
      * @return The receiverId.
      */
@@ -886,20 +1236,31 @@ private static final long serialVersionUID = 0L;
       return receiverId_;
     }
     /**
+     * <pre>
+     * 接收者ID（0表示群聊）
+     * </pre>
+     *
      * <code>int64 receiver_id = 2;</code>
      * @param value The receiverId to set.
      * @return This builder for chaining.
      */
     public Builder setReceiverId(long value) {
+      
       receiverId_ = value;
+      bitField0_ |= 0x00000002;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 接收者ID（0表示群聊）
+     * </pre>
+     *
      * <code>int64 receiver_id = 2;</code>
      * @return This builder for chaining.
      */
     public Builder clearReceiverId() {
+      bitField0_ = (bitField0_ & ~0x00000002);
       receiverId_ = 0L;
       onChanged();
       return this;
@@ -907,6 +1268,10 @@ private static final long serialVersionUID = 0L;
 
     private java.lang.Object content_ = "";
     /**
+     * <pre>
+     * 消息内容
+     * </pre>
+     *
      * <code>string content = 3;</code>
      * @return The content.
      */
@@ -923,6 +1288,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 消息内容
+     * </pre>
+     *
      * <code>string content = 3;</code>
      * @return The bytes for content.
      */
@@ -940,46 +1309,61 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 消息内容
+     * </pre>
+     *
      * <code>string content = 3;</code>
      * @param value The content to set.
      * @return This builder for chaining.
      */
     public Builder setContent(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       content_ = value;
+      bitField0_ |= 0x00000004;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 消息内容
+     * </pre>
+     *
      * <code>string content = 3;</code>
      * @return This builder for chaining.
      */
     public Builder clearContent() {
       content_ = getDefaultInstance().getContent();
+      bitField0_ = (bitField0_ & ~0x00000004);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 消息内容
+     * </pre>
+     *
      * <code>string content = 3;</code>
      * @param value The bytes for content to set.
      * @return This builder for chaining.
      */
     public Builder setContentBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       content_ = value;
+      bitField0_ |= 0x00000004;
       onChanged();
       return this;
     }
 
     private int type_ ;
     /**
+     * <pre>
+     * 消息类型：0-文本, 1-图片, 2-表情, 3-文件
+     * </pre>
+     *
      * <code>int32 type = 4;</code>
      * @return The type.
      */
@@ -988,20 +1372,31 @@ private static final long serialVersionUID = 0L;
       return type_;
     }
     /**
+     * <pre>
+     * 消息类型：0-文本, 1-图片, 2-表情, 3-文件
+     * </pre>
+     *
      * <code>int32 type = 4;</code>
      * @param value The type to set.
      * @return This builder for chaining.
      */
     public Builder setType(int value) {
+      
       type_ = value;
+      bitField0_ |= 0x00000008;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 消息类型：0-文本, 1-图片, 2-表情, 3-文件
+     * </pre>
+     *
      * <code>int32 type = 4;</code>
      * @return This builder for chaining.
      */
     public Builder clearType() {
+      bitField0_ = (bitField0_ & ~0x00000008);
       type_ = 0;
       onChanged();
       return this;
@@ -1009,6 +1404,10 @@ private static final long serialVersionUID = 0L;
 
     private java.lang.Object timestamp_ = "";
     /**
+     * <pre>
+     * 时间戳
+     * </pre>
+     *
      * <code>string timestamp = 5;</code>
      * @return The timestamp.
      */
@@ -1025,6 +1424,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 时间戳
+     * </pre>
+     *
      * <code>string timestamp = 5;</code>
      * @return The bytes for timestamp.
      */
@@ -1042,46 +1445,61 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 时间戳
+     * </pre>
+     *
      * <code>string timestamp = 5;</code>
      * @param value The timestamp to set.
      * @return This builder for chaining.
      */
     public Builder setTimestamp(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       timestamp_ = value;
+      bitField0_ |= 0x00000010;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 时间戳
+     * </pre>
+     *
      * <code>string timestamp = 5;</code>
      * @return This builder for chaining.
      */
     public Builder clearTimestamp() {
       timestamp_ = getDefaultInstance().getTimestamp();
+      bitField0_ = (bitField0_ & ~0x00000010);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 时间戳
+     * </pre>
+     *
      * <code>string timestamp = 5;</code>
      * @param value The bytes for timestamp to set.
      * @return This builder for chaining.
      */
     public Builder setTimestampBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       timestamp_ = value;
+      bitField0_ |= 0x00000010;
       onChanged();
       return this;
     }
 
     private java.lang.Object fileUrl_ = "";
     /**
+     * <pre>
+     * 文件URL
+     * </pre>
+     *
      * <code>string file_url = 6;</code>
      * @return The fileUrl.
      */
@@ -1098,6 +1516,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 文件URL
+     * </pre>
+     *
      * <code>string file_url = 6;</code>
      * @return The bytes for fileUrl.
      */
@@ -1115,46 +1537,61 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 文件URL
+     * </pre>
+     *
      * <code>string file_url = 6;</code>
      * @param value The fileUrl to set.
      * @return This builder for chaining.
      */
     public Builder setFileUrl(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       fileUrl_ = value;
+      bitField0_ |= 0x00000020;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 文件URL
+     * </pre>
+     *
      * <code>string file_url = 6;</code>
      * @return This builder for chaining.
      */
     public Builder clearFileUrl() {
       fileUrl_ = getDefaultInstance().getFileUrl();
+      bitField0_ = (bitField0_ & ~0x00000020);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 文件URL
+     * </pre>
+     *
      * <code>string file_url = 6;</code>
      * @param value The bytes for fileUrl to set.
      * @return This builder for chaining.
      */
     public Builder setFileUrlBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       fileUrl_ = value;
+      bitField0_ |= 0x00000020;
       onChanged();
       return this;
     }
 
     private java.lang.Object fileName_ = "";
     /**
+     * <pre>
+     * 文件名
+     * </pre>
+     *
      * <code>string file_name = 7;</code>
      * @return The fileName.
      */
@@ -1171,6 +1608,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 文件名
+     * </pre>
+     *
      * <code>string file_name = 7;</code>
      * @return The bytes for fileName.
      */
@@ -1188,46 +1629,61 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 文件名
+     * </pre>
+     *
      * <code>string file_name = 7;</code>
      * @param value The fileName to set.
      * @return This builder for chaining.
      */
     public Builder setFileName(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       fileName_ = value;
+      bitField0_ |= 0x00000040;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 文件名
+     * </pre>
+     *
      * <code>string file_name = 7;</code>
      * @return This builder for chaining.
      */
     public Builder clearFileName() {
       fileName_ = getDefaultInstance().getFileName();
+      bitField0_ = (bitField0_ & ~0x00000040);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 文件名
+     * </pre>
+     *
      * <code>string file_name = 7;</code>
      * @param value The bytes for fileName to set.
      * @return This builder for chaining.
      */
     public Builder setFileNameBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       fileName_ = value;
+      bitField0_ |= 0x00000040;
       onChanged();
       return this;
     }
 
     private long fileSize_ ;
     /**
+     * <pre>
+     * 文件大小（字节）
+     * </pre>
+     *
      * <code>int64 file_size = 8;</code>
      * @return The fileSize.
      */
@@ -1236,20 +1692,31 @@ private static final long serialVersionUID = 0L;
       return fileSize_;
     }
     /**
+     * <pre>
+     * 文件大小（字节）
+     * </pre>
+     *
      * <code>int64 file_size = 8;</code>
      * @param value The fileSize to set.
      * @return This builder for chaining.
      */
     public Builder setFileSize(long value) {
+      
       fileSize_ = value;
+      bitField0_ |= 0x00000080;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 文件大小（字节）
+     * </pre>
+     *
      * <code>int64 file_size = 8;</code>
      * @return This builder for chaining.
      */
     public Builder clearFileSize() {
+      bitField0_ = (bitField0_ & ~0x00000080);
       fileSize_ = 0L;
       onChanged();
       return this;
@@ -1257,6 +1724,10 @@ private static final long serialVersionUID = 0L;
 
     private java.lang.Object senderNickname_ = "";
     /**
+     * <pre>
+     * 发送者昵称
+     * </pre>
+     *
      * <code>string sender_nickname = 9;</code>
      * @return The senderNickname.
      */
@@ -1273,6 +1744,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 发送者昵称
+     * </pre>
+     *
      * <code>string sender_nickname = 9;</code>
      * @return The bytes for senderNickname.
      */
@@ -1290,46 +1765,61 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 发送者昵称
+     * </pre>
+     *
      * <code>string sender_nickname = 9;</code>
      * @param value The senderNickname to set.
      * @return This builder for chaining.
      */
     public Builder setSenderNickname(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       senderNickname_ = value;
+      bitField0_ |= 0x00000100;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 发送者昵称
+     * </pre>
+     *
      * <code>string sender_nickname = 9;</code>
      * @return This builder for chaining.
      */
     public Builder clearSenderNickname() {
       senderNickname_ = getDefaultInstance().getSenderNickname();
+      bitField0_ = (bitField0_ & ~0x00000100);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 发送者昵称
+     * </pre>
+     *
      * <code>string sender_nickname = 9;</code>
      * @param value The bytes for senderNickname to set.
      * @return This builder for chaining.
      */
     public Builder setSenderNicknameBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       senderNickname_ = value;
+      bitField0_ |= 0x00000100;
       onChanged();
       return this;
     }
 
     private java.lang.Object senderAvatar_ = "";
     /**
+     * <pre>
+     * 发送者头像
+     * </pre>
+     *
      * <code>string sender_avatar = 10;</code>
      * @return The senderAvatar.
      */
@@ -1346,6 +1836,10 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 发送者头像
+     * </pre>
+     *
      * <code>string sender_avatar = 10;</code>
      * @return The bytes for senderAvatar.
      */
@@ -1363,43 +1857,414 @@ private static final long serialVersionUID = 0L;
       }
     }
     /**
+     * <pre>
+     * 发送者头像
+     * </pre>
+     *
      * <code>string sender_avatar = 10;</code>
      * @param value The senderAvatar to set.
      * @return This builder for chaining.
      */
     public Builder setSenderAvatar(
         java.lang.String value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
+      if (value == null) { throw new NullPointerException(); }
       senderAvatar_ = value;
+      bitField0_ |= 0x00000200;
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 发送者头像
+     * </pre>
+     *
      * <code>string sender_avatar = 10;</code>
      * @return This builder for chaining.
      */
     public Builder clearSenderAvatar() {
       senderAvatar_ = getDefaultInstance().getSenderAvatar();
+      bitField0_ = (bitField0_ & ~0x00000200);
       onChanged();
       return this;
     }
     /**
+     * <pre>
+     * 发送者头像
+     * </pre>
+     *
      * <code>string sender_avatar = 10;</code>
      * @param value The bytes for senderAvatar to set.
      * @return This builder for chaining.
      */
     public Builder setSenderAvatarBytes(
         com.google.protobuf.ByteString value) {
-      if (value == null) {
-    throw new NullPointerException();
-  }
-  checkByteStringIsUtf8(value);
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
       senderAvatar_ = value;
+      bitField0_ |= 0x00000200;
+      onChanged();
+      return this;
+    }
+
+    private long roomId_ ;
+    /**
+     * <pre>
+     * 聊天室ID（0表示大厅，所有连接可见）
+     * </pre>
+     *
+     * <code>int64 room_id = 11;</code>
+     * @return The roomId.
+     */
+    @java.lang.Override
+    public long getRoomId() {
+      return roomId_;
+    }
+    /**
+     * <pre>
+     * 聊天室ID（0表示大厅，所有连接可见）
+     * </pre>
+     *
+     * <code>int64 room_id = 11;</code>
+     * @param value The roomId to set.
+     * @return This builder for chaining.
+     */
+    public Builder setRoomId(long value) {
+      
+      roomId_ = value;
+      bitField0_ |= 0x00000400;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 聊天室ID（0表示大厅，所有连接可见）
+     * </pre>
+     *
+     * <code>int64 room_id = 11;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearRoomId() {
+      bitField0_ = (bitField0_ & ~0x00000400);
+      roomId_ = 0L;
+      onChanged();
+      return this;
+    }
+
+    private int kind_ = 0;
+    /**
+     * <pre>
+     * 消息种类
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+     * @return The enum numeric value on the wire for kind.
+     */
+    @java.lang.Override public int getKindValue() {
+      return kind_;
+    }
+    /**
+     * <pre>
+     * 消息种类
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+     * @param value The enum numeric value on the wire for kind to set.
+     * @return This builder for chaining.
+     */
+    public Builder setKindValue(int value) {
+      kind_ = value;
+      bitField0_ |= 0x00000800;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 消息种类
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+     * @return The kind.
+     */
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.MessageKind getKind() {
+      com.app.novelvoice.netty.proto.MessageKind result = com.app.novelvoice.netty.proto.MessageKind.forNumber(kind_);
+      return result == null ? com.app.novelvoice.netty.proto.MessageKind.UNRECOGNIZED : result;
+    }
+    /**
+     * <pre>
+     * 消息种类
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+     * @param value The kind to set.
+     * @return This builder for chaining.
+     */
+    public Builder setKind(com.app.novelvoice.netty.proto.MessageKind value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      bitField0_ |= 0x00000800;
+      kind_ = value.getNumber();
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 消息种类
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearKind() {
+      bitField0_ = (bitField0_ & ~0x00000800);
+      kind_ = 0;
+      onChanged();
+      return this;
+    }
+
+    private long seq_ ;
+    /**
+     * <pre>
+     * 服务端分配的序号（同一会话/聊天室内单调递增）
+     * </pre>
+     *
+     * <code>int64 seq = 13;</code>
+     * @return The seq.
+     */
+    @java.lang.Override
+    public long getSeq() {
+      return seq_;
+    }
+    /**
+     * <pre>
+     * 服务端分配的序号（同一会话/聊天室内单调递增）
+     * </pre>
+     *
+     * <code>int64 seq = 13;</code>
+     * @param value The seq to set.
+     * @return This builder for chaining.
+     */
+    public Builder setSeq(long value) {
+      
+      seq_ = value;
+      bitField0_ |= 0x00001000;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 服务端分配的序号（同一会话/聊天室内单调递增）
+     * </pre>
+     *
+     * <code>int64 seq = 13;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearSeq() {
+      bitField0_ = (bitField0_ & ~0x00001000);
+      seq_ = 0L;
+      onChanged();
+      return this;
+    }
+
+    private long retryAfterMs_ ;
+    /**
+     * <pre>
+     * RATE_LIMITED 通知：建议的重试等待时间（毫秒）
+     * </pre>
+     *
+     * <code>int64 retry_after_ms = 14;</code>
+     * @return The retryAfterMs.
+     */
+    @java.lang.Override
+    public long getRetryAfterMs() {
+      return retryAfterMs_;
+    }
+    /**
+     * <pre>
+     * RATE_LIMITED 通知：建议的重试等待时间（毫秒）
+     * </pre>
+     *
+     * <code>int64 retry_after_ms = 14;</code>
+     * @param value The retryAfterMs to set.
+     * @return This builder for chaining.
+     */
+    public Builder setRetryAfterMs(long value) {
+      
+      retryAfterMs_ = value;
+      bitField0_ |= 0x00002000;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * RATE_LIMITED 通知：建议的重试等待时间（毫秒）
+     * </pre>
+     *
+     * <code>int64 retry_after_ms = 14;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearRetryAfterMs() {
+      bitField0_ = (bitField0_ & ~0x00002000);
+      retryAfterMs_ = 0L;
+      onChanged();
+      return this;
+    }
+
+    private com.app.novelvoice.netty.proto.ChatBatch batch_;
+    private com.google.protobuf.SingleFieldBuilderV3<
+        com.app.novelvoice.netty.proto.ChatBatch, com.app.novelvoice.netty.proto.ChatBatch.Builder, com.app.novelvoice.netty.proto.ChatBatchOrBuilder> batchBuilder_;
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     * @return Whether the batch field is set.
+     */
+    public boolean hasBatch() {
+      return ((bitField0_ & 0x00004000) != 0);
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     * @return The batch.
+     */
+    public com.app.novelvoice.netty.proto.ChatBatch getBatch() {
+      if (batchBuilder_ == null) {
+        return batch_ == null ? com.app.novelvoice.netty.proto.ChatBatch.getDefaultInstance() : batch_;
+      } else {
+        return batchBuilder_.getMessage();
+      }
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public Builder setBatch(com.app.novelvoice.netty.proto.ChatBatch value) {
+      if (batchBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        batch_ = value;
+      } else {
+        batchBuilder_.setMessage(value);
+      }
+      bitField0_ |= 0x00004000;
       onChanged();
       return this;
     }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public Builder setBatch(
+        com.app.novelvoice.netty.proto.ChatBatch.Builder builderForValue) {
+      if (batchBuilder_ == null) {
+        batch_ = builderForValue.build();
+      } else {
+        batchBuilder_.setMessage(builderForValue.build());
+      }
+      bitField0_ |= 0x00004000;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public Builder mergeBatch(com.app.novelvoice.netty.proto.ChatBatch value) {
+      if (batchBuilder_ == null) {
+        if (((bitField0_ & 0x00004000) != 0) &&
+          batch_ != null &&
+          batch_ != com.app.novelvoice.netty.proto.ChatBatch.getDefaultInstance()) {
+          getBatchBuilder().mergeFrom(value);
+        } else {
+          batch_ = value;
+        }
+      } else {
+        batchBuilder_.mergeFrom(value);
+      }
+      bitField0_ |= 0x00004000;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public Builder clearBatch() {
+      bitField0_ = (bitField0_ & ~0x00004000);
+      batch_ = null;
+      if (batchBuilder_ != null) {
+        batchBuilder_.dispose();
+        batchBuilder_ = null;
+      }
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public com.app.novelvoice.netty.proto.ChatBatch.Builder getBatchBuilder() {
+      bitField0_ |= 0x00004000;
+      onChanged();
+      return getBatchFieldBuilder().getBuilder();
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    public com.app.novelvoice.netty.proto.ChatBatchOrBuilder getBatchOrBuilder() {
+      if (batchBuilder_ != null) {
+        return batchBuilder_.getMessageOrBuilder();
+      } else {
+        return batch_ == null ?
+            com.app.novelvoice.netty.proto.ChatBatch.getDefaultInstance() : batch_;
+      }
+    }
+    /**
+     * <pre>
+     * BATCH 帧携带的消息
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+     */
+    private com.google.protobuf.SingleFieldBuilderV3<
+        com.app.novelvoice.netty.proto.ChatBatch, com.app.novelvoice.netty.proto.ChatBatch.Builder, com.app.novelvoice.netty.proto.ChatBatchOrBuilder> 
+        getBatchFieldBuilder() {
+      if (batchBuilder_ == null) {
+        batchBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+            com.app.novelvoice.netty.proto.ChatBatch, com.app.novelvoice.netty.proto.ChatBatch.Builder, com.app.novelvoice.netty.proto.ChatBatchOrBuilder>(
+                getBatch(),
+                getParentForChildren(),
+                isClean());
+        batch_ = null;
+      }
+      return batchBuilder_;
+    }
     @java.lang.Override
     public final Builder setUnknownFields(
         final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -1412,14 +2277,17 @@ private static final long serialVersionUID = 0L;
       return super.mergeUnknownFields(unknownFields);
     }
 
+
+    // @@protoc_insertion_point(builder_scope:com.app.novelvoice.netty.proto.ChatMessage)
   }
 
-  private static final ChatMessage DEFAULT_INSTANCE;
+  // @@protoc_insertion_point(class_scope:com.app.novelvoice.netty.proto.ChatMessage)
+  private static final com.app.novelvoice.netty.proto.ChatMessage DEFAULT_INSTANCE;
   static {
-    DEFAULT_INSTANCE = new ChatMessage();
+    DEFAULT_INSTANCE = new com.app.novelvoice.netty.proto.ChatMessage();
   }
 
-  public static ChatMessage getDefaultInstance() {
+  public static com.app.novelvoice.netty.proto.ChatMessage getDefaultInstance() {
     return DEFAULT_INSTANCE;
   }
 
@@ -1430,7 +2298,18 @@ private static final long serialVersionUID = 0L;
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
-      return new ChatMessage(input, extensionRegistry);
+      Builder builder = newBuilder();
+      try {
+        builder.mergeFrom(input, extensionRegistry);
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(builder.buildPartial());
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(e)
+            .setUnfinishedMessage(builder.buildPartial());
+      }
+      return builder.buildPartial();
     }
   };
 
@@ -1444,8 +2323,9 @@ private static final long serialVersionUID = 0L;
   }
 
   @java.lang.Override
-  public ChatMessage getDefaultInstanceForType() {
+  public com.app.novelvoice.netty.proto.ChatMessage getDefaultInstanceForType() {
     return DEFAULT_INSTANCE;
   }
 
 }
+
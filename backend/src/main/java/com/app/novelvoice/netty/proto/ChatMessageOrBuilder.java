@@ -4,95 +4,242 @@
 package com.app.novelvoice.netty.proto;
 
 public interface ChatMessageOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:com.app.novelvoice.netty.proto.ChatMessage)
     com.google.protobuf.MessageOrBuilder {
 
   /**
+   * <pre>
+   * 发送者ID
+   * </pre>
+   *
    * <code>int64 sender_id = 1;</code>
    * @return The senderId.
    */
   long getSenderId();
 
   /**
+   * <pre>
+   * 接收者ID（0表示群聊）
+   * </pre>
+   *
    * <code>int64 receiver_id = 2;</code>
    * @return The receiverId.
    */
   long getReceiverId();
 
   /**
+   * <pre>
+   * 消息内容
+   * </pre>
+   *
    * <code>string content = 3;</code>
    * @return The content.
    */
   java.lang.String getContent();
   /**
+   * <pre>
+   * 消息内容
+   * </pre>
+   *
    * <code>string content = 3;</code>
    * @return The bytes for content.
    */
-  com.google.protobuf.ByteString getContentBytes();
+  com.google.protobuf.ByteString
+      getContentBytes();
 
   /**
+   * <pre>
+   * 消息类型：0-文本, 1-图片, 2-表情, 3-文件
+   * </pre>
+   *
    * <code>int32 type = 4;</code>
    * @return The type.
    */
   int getType();
 
   /**
+   * <pre>
+   * 时间戳
+   * </pre>
+   *
    * <code>string timestamp = 5;</code>
    * @return The timestamp.
    */
   java.lang.String getTimestamp();
   /**
+   * <pre>
+   * 时间戳
+   * </pre>
+   *
    * <code>string timestamp = 5;</code>
    * @return The bytes for timestamp.
    */
-  com.google.protobuf.ByteString getTimestampBytes();
+  com.google.protobuf.ByteString
+      getTimestampBytes();
 
   /**
+   * <pre>
+   * 文件URL
+   * </pre>
+   *
    * <code>string file_url = 6;</code>
    * @return The fileUrl.
    */
   java.lang.String getFileUrl();
   /**
+   * <pre>
+   * 文件URL
+   * </pre>
+   *
    * <code>string file_url = 6;</code>
    * @return The bytes for fileUrl.
    */
-  com.google.protobuf.ByteString getFileUrlBytes();
+  com.google.protobuf.ByteString
+      getFileUrlBytes();
 
   /**
+   * <pre>
+   * 文件名
+   * </pre>
+   *
    * <code>string file_name = 7;</code>
    * @return The fileName.
    */
   java.lang.String getFileName();
   /**
+   * <pre>
+   * 文件名
+   * </pre>
+   *
    * <code>string file_name = 7;</code>
    * @return The bytes for fileName.
    */
-  com.google.protobuf.ByteString getFileNameBytes();
+  com.google.protobuf.ByteString
+      getFileNameBytes();
 
   /**
+   * <pre>
+   * 文件大小（字节）
+   * </pre>
+   *
    * <code>int64 file_size = 8;</code>
    * @return The fileSize.
    */
   long getFileSize();
 
   /**
+   * <pre>
+   * 发送者昵称
+   * </pre>
+   *
    * <code>string sender_nickname = 9;</code>
    * @return The senderNickname.
    */
   java.lang.String getSenderNickname();
   /**
+   * <pre>
+   * 发送者昵称
+   * </pre>
+   *
    * <code>string sender_nickname = 9;</code>
    * @return The bytes for senderNickname.
    */
-  com.google.protobuf.ByteString getSenderNicknameBytes();
+  com.google.protobuf.ByteString
+      getSenderNicknameBytes();
 
   /**
+   * <pre>
+   * 发送者头像
+   * </pre>
+   *
    * <code>string sender_avatar = 10;</code>
    * @return The senderAvatar.
    */
   java.lang.String getSenderAvatar();
   /**
+   * <pre>
+   * 发送者头像
+   * </pre>
+   *
    * <code>string sender_avatar = 10;</code>
    * @return The bytes for senderAvatar.
    */
-  com.google.protobuf.ByteString getSenderAvatarBytes();
+  com.google.protobuf.ByteString
+      getSenderAvatarBytes();
+
+  /**
+   * <pre>
+   * 聊天室ID（0表示大厅，所有连接可见）
+   * </pre>
+   *
+   * <code>int64 room_id = 11;</code>
+   * @return The roomId.
+   */
+  long getRoomId();
+
+  /**
+   * <pre>
+   * 消息种类
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+   * @return The enum numeric value on the wire for kind.
+   */
+  int getKindValue();
+  /**
+   * <pre>
+   * 消息种类
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.MessageKind kind = 12;</code>
+   * @return The kind.
+   */
+  com.app.novelvoice.netty.proto.MessageKind getKind();
+
+  /**
+   * <pre>
+   * 服务端分配的序号（同一会话/聊天室内单调递增）
+   * </pre>
+   *
+   * <code>int64 seq = 13;</code>
+   * @return The seq.
+   */
+  long getSeq();
+
+  /**
+   * <pre>
+   * RATE_LIMITED 通知：建议的重试等待时间（毫秒）
+   * </pre>
+   *
+   * <code>int64 retry_after_ms = 14;</code>
+   * @return The retryAfterMs.
+   */
+  long getRetryAfterMs();
+
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   * @return Whether the batch field is set.
+   */
+  boolean hasBatch();
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   * @return The batch.
+   */
+  com.app.novelvoice.netty.proto.ChatBatch getBatch();
+  /**
+   * <pre>
+   * BATCH 帧携带的消息
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatBatch batch = 15;</code>
+   */
+  com.app.novelvoice.netty.proto.ChatBatchOrBuilder getBatchOrBuilder();
 }
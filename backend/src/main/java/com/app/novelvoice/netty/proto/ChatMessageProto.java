@@ -19,6 +19,11 @@ public final class ChatMessageProto {
   static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_com_app_novelvoice_netty_proto_ChatBatch_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_com_app_novelvoice_netty_proto_ChatBatch_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -29,13 +34,22 @@ public final class ChatMessageProto {
   static {
     java.lang.String[] descriptorData = {
       "\n\021ChatMessage.proto\022\036com.app.novelvoice." +
-      "netty.proto\"\312\001\n\013ChatMessage\022\021\n\tsender_id" +
+      "netty.proto\"\372\002\n\013ChatMessage\022\021\n\tsender_id" +
       "\030\001 \001(\003\022\023\n\013receiver_id\030\002 \001(\003\022\017\n\007content\030\003" +
       " \001(\t\022\014\n\004type\030\004 \001(\005\022\021\n\ttimestamp\030\005 \001(\t\022\020\n" +
       "\010file_url\030\006 \001(\t\022\021\n\tfile_name\030\007 \001(\t\022\021\n\tfi" +
       "le_size\030\010 \001(\003\022\027\n\017sender_nickname\030\t \001(\t\022\025" +
-      "\n\rsender_avatar\030\n \001(\tB2\n\036com.app.novelvo" +
-      "ice.netty.protoB\020ChatMessageProtob\006proto3"
+      "\n\rsender_avatar\030\n \001(\t\022\017\n\007room_id\030\013 \001(\003\0229" +
+      "\n\004kind\030\014 \001(\0162+.com.app.novelvoice.netty." +
+      "proto.MessageKind\022\013\n\003seq\030\r \001(\003\022\026\n\016retry_" +
+      "after_ms\030\016 \001(\003\0228\n\005batch\030\017 \001(\0132).com.app." +
+      "novelvoice.netty.proto.ChatBatch\"J\n\tChat" +
+      "Batch\022=\n\010messages\030\001 \003(\0132+.com.app.novelv" +
+      "oice.netty.proto.ChatMessage*j\n\013MessageK" +
+      "ind\022\010\n\004CHAT\020\000\022\r\n\tJOIN_ROOM\020\001\022\016\n\nLEAVE_RO" +
+      "OM\020\002\022\n\n\006RESUME\020\003\022\020\n\014RATE_LIMITED\020\004\022\t\n\005BA" +
+      "TCH\020\005\022\t\n\005INBOX\020\006B4\n\036com.app.novelvoice.n" +
+      "etty.protoB\020ChatMessageProtoP\001b\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -46,7 +60,14 @@ public final class ChatMessageProto {
     internal_static_com_app_novelvoice_netty_proto_ChatMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_com_app_novelvoice_netty_proto_ChatMessage_descriptor,
-        new java.lang.String[] { "SenderId", "ReceiverId", "Content", "Type", "Timestamp", "FileUrl", "FileName", "FileSize", "SenderNickname", "SenderAvatar", });
+        new java.lang.String[] { "SenderId", "ReceiverId", "Content", "Type", "Timestamp", "FileUrl", "FileName", "FileSize", "SenderNickname", "SenderAvatar", "RoomId", "Kind", "Seq", "RetryAfterMs", "Batch", });
+    internal_static_com_app_novelvoice_netty_proto_ChatBatch_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_com_app_novelvoice_netty_proto_ChatBatch_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_com_app_novelvoice_netty_proto_ChatBatch_descriptor,
+        new java.lang.String[] { "Messages", });
   }
 
+  // @@protoc_insertion_point(outer_class_scope)
 }
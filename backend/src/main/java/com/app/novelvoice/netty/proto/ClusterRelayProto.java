@@ -0,0 +1,73 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+public final class ClusterRelayProto {
+  private ClusterRelayProto() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_com_app_novelvoice_netty_proto_RelayBatch_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\022ClusterRelay.proto\022\036com.app.novelvoice" +
+      ".netty.proto\032\021ChatMessage.proto\"\230\001\n\rRela" +
+      "yEnvelope\0227\n\004type\030\001 \001(\0162).com.app.novelv" +
+      "oice.netty.proto.RelayType\022\020\n\010user_ids\030\002" +
+      " \003(\003\022<\n\007message\030\003 \001(\0132+.com.app.novelvoi" +
+      "ce.netty.proto.ChatMessage\"\217\001\n\nRelayBatc" +
+      "h\022\023\n\013origin_node\030\001 \001(\t\022@\n\tenvelopes\030\002 \003(" +
+      "\0132-.com.app.novelvoice.netty.proto.Relay" +
+      "Envelope\022\031\n\014origin_index\030\003 \001(\005H\000\210\001\001B\017\n\r_" +
+      "origin_index*\201\001\n\tRelayType\022\021\n\rRELAY_PRIV" +
+      "ATE\020\000\022\017\n\013RELAY_LOBBY\020\001\022\016\n\nRELAY_ROOM\020\002\022\023" +
+      "\n\017PRESENCE_ONLINE\020\003\022\024\n\020PRESENCE_OFFLINE\020" +
+      "\004\022\025\n\021PRESENCE_SNAPSHOT\020\005B5\n\036com.app.nove" +
+      "lvoice.netty.protoB\021ClusterRelayProtoP\001b" +
+      "\006proto3"
+    };
+    descriptor = com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+          com.app.novelvoice.netty.proto.ChatMessageProto.getDescriptor(),
+        });
+    internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor,
+        new java.lang.String[] { "Type", "UserIds", "Message", });
+    internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_com_app_novelvoice_netty_proto_RelayBatch_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor,
+        new java.lang.String[] { "OriginNode", "Envelopes", "OriginIndex", "OriginIndex", });
+    com.app.novelvoice.netty.proto.ChatMessageProto.getDescriptor();
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
@@ -0,0 +1,218 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ChatMessage.proto
+
+package com.app.novelvoice.netty.proto;
+
+/**
+ * <pre>
+ * 消息种类
+ * </pre>
+ *
+ * Protobuf enum {@code com.app.novelvoice.netty.proto.MessageKind}
+ */
+public enum MessageKind
+    implements com.google.protobuf.ProtocolMessageEnum {
+  /**
+   * <pre>
+   * 普通聊天消息
+   * </pre>
+   *
+   * <code>CHAT = 0;</code>
+   */
+  CHAT(0),
+  /**
+   * <pre>
+   * 加入聊天室
+   * </pre>
+   *
+   * <code>JOIN_ROOM = 1;</code>
+   */
+  JOIN_ROOM(1),
+  /**
+   * <pre>
+   * 离开聊天室
+   * </pre>
+   *
+   * <code>LEAVE_ROOM = 2;</code>
+   */
+  LEAVE_ROOM(2),
+  /**
+   * <pre>
+   * 断线重连补发：seq 为客户端已收到的最大序号
+   * </pre>
+   *
+   * <code>RESUME = 3;</code>
+   */
+  RESUME(3),
+  /**
+   * <pre>
+   * 服务端通知：发送过快，消息已被丢弃，retry_after_ms 后再发
+   * </pre>
+   *
+   * <code>RATE_LIMITED = 4;</code>
+   */
+  RATE_LIMITED(4),
+  /**
+   * <pre>
+   * 批量帧：batch.messages 中的消息按顺序逐条处理
+   * </pre>
+   *
+   * <code>BATCH = 5;</code>
+   */
+  BATCH(5),
+  /**
+   * <pre>
+   * 离线收件箱：服务端推送后的回执（seq 为已推送的最大序号，type 为 1 表示还有更多），客户端以同样的 seq 回复确认
+   * </pre>
+   *
+   * <code>INBOX = 6;</code>
+   */
+  INBOX(6),
+  UNRECOGNIZED(-1),
+  ;
+
+  /**
+   * <pre>
+   * 普通聊天消息
+   * </pre>
+   *
+   * <code>CHAT = 0;</code>
+   */
+  public static final int CHAT_VALUE = 0;
+  /**
+   * <pre>
+   * 加入聊天室
+   * </pre>
+   *
+   * <code>JOIN_ROOM = 1;</code>
+   */
+  public static final int JOIN_ROOM_VALUE = 1;
+  /**
+   * <pre>
+   * 离开聊天室
+   * </pre>
+   *
+   * <code>LEAVE_ROOM = 2;</code>
+   */
+  public static final int LEAVE_ROOM_VALUE = 2;
+  /**
+   * <pre>
+   * 断线重连补发：seq 为客户端已收到的最大序号
+   * </pre>
+   *
+   * <code>RESUME = 3;</code>
+   */
+  public static final int RESUME_VALUE = 3;
+  /**
+   * <pre>
+   * 服务端通知：发送过快，消息已被丢弃，retry_after_ms 后再发
+   * </pre>
+   *
+   * <code>RATE_LIMITED = 4;</code>
+   */
+  public static final int RATE_LIMITED_VALUE = 4;
+  /**
+   * <pre>
+   * 批量帧：batch.messages 中的消息按顺序逐条处理
+   * </pre>
+   *
+   * <code>BATCH = 5;</code>
+   */
+  public static final int BATCH_VALUE = 5;
+  /**
+   * <pre>
+   * 离线收件箱：服务端推送后的回执（seq 为已推送的最大序号，type 为 1 表示还有更多），客户端以同样的 seq 回复确认
+   * </pre>
+   *
+   * <code>INBOX = 6;</code>
+   */
+  public static final int INBOX_VALUE = 6;
+
+
+  public final int getNumber() {
+    if (this == UNRECOGNIZED) {
+      throw new java.lang.IllegalArgumentException(
+          "Can't get the number of an unknown enum value.");
+    }
+    return value;
+  }
+
+  /**
+   * @param value The numeric wire value of the corresponding enum entry.
+   * @return The enum associated with the given numeric wire value.
+   * @deprecated Use {@link #forNumber(int)} instead.
+   */
+  @java.lang.Deprecated
+  public static MessageKind valueOf(int value) {
+    return forNumber(value);
+  }
+
+  /**
+   * @param value The numeric wire value of the corresponding enum entry.
+   * @return The enum associated with the given numeric wire value.
+   */
+  public static MessageKind forNumber(int value) {
+    switch (value) {
+      case 0: return CHAT;
+      case 1: return JOIN_ROOM;
+      case 2: return LEAVE_ROOM;
+      case 3: return RESUME;
+      case 4: return RATE_LIMITED;
+      case 5: return BATCH;
+      case 6: return INBOX;
+      default: return null;
+    }
+  }
+
+  public static com.google.protobuf.Internal.EnumLiteMap<MessageKind>
+      internalGetValueMap() {
+    return internalValueMap;
+  }
+  private static final com.google.protobuf.Internal.EnumLiteMap<
+      MessageKind> internalValueMap =
+        new com.google.protobuf.Internal.EnumLiteMap<MessageKind>() {
+          public MessageKind findValueByNumber(int number) {
+            return MessageKind.forNumber(number);
+          }
+        };
+
+  public final com.google.protobuf.Descriptors.EnumValueDescriptor
+      getValueDescriptor() {
+    if (this == UNRECOGNIZED) {
+      throw new java.lang.IllegalStateException(
+          "Can't get the descriptor of an unrecognized enum value.");
+    }
+    return getDescriptor().getValues().get(ordinal());
+  }
+  public final com.google.protobuf.Descriptors.EnumDescriptor
+      getDescriptorForType() {
+    return getDescriptor();
+  }
+  public static final com.google.protobuf.Descriptors.EnumDescriptor
+      getDescriptor() {
+    return com.app.novelvoice.netty.proto.ChatMessageProto.getDescriptor().getEnumTypes().get(0);
+  }
+
+  private static final MessageKind[] VALUES = values();
+
+  public static MessageKind valueOf(
+      com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+    if (desc.getType() != getDescriptor()) {
+      throw new java.lang.IllegalArgumentException(
+        "EnumValueDescriptor is not for this type.");
+    }
+    if (desc.getIndex() == -1) {
+      return UNRECOGNIZED;
+    }
+    return VALUES[desc.getIndex()];
+  }
+
+  private final int value;
+
+  private MessageKind(int value) {
+    this.value = value;
+  }
+
+  // @@protoc_insertion_point(enum_scope:com.app.novelvoice.netty.proto.MessageKind)
+}
+
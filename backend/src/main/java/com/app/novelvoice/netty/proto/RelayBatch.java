@@ -0,0 +1,1049 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+/**
+ * <pre>
+ * 批量转发帧（节点间 TCP 连接上的传输单元）
+ * </pre>
+ *
+ * Protobuf type {@code com.app.novelvoice.netty.proto.RelayBatch}
+ */
+public final class RelayBatch extends
+    com.google.protobuf.GeneratedMessageV3 implements
+    // @@protoc_insertion_point(message_implements:com.app.novelvoice.netty.proto.RelayBatch)
+    RelayBatchOrBuilder {
+private static final long serialVersionUID = 0L;
+  // Use RelayBatch.newBuilder() to construct.
+  private RelayBatch(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    super(builder);
+  }
+  private RelayBatch() {
+    originNode_ = "";
+    envelopes_ = java.util.Collections.emptyList();
+  }
+
+  @java.lang.Override
+  @SuppressWarnings({"unused"})
+  protected java.lang.Object newInstance(
+      UnusedPrivateParameter unused) {
+    return new RelayBatch();
+  }
+
+  @java.lang.Override
+  public final com.google.protobuf.UnknownFieldSet
+  getUnknownFields() {
+    return this.unknownFields;
+  }
+  public static final com.google.protobuf.Descriptors.Descriptor
+      getDescriptor() {
+    return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor;
+  }
+
+  @java.lang.Override
+  protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internalGetFieldAccessorTable() {
+    return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayBatch_fieldAccessorTable
+        .ensureFieldAccessorsInitialized(
+            com.app.novelvoice.netty.proto.RelayBatch.class, com.app.novelvoice.netty.proto.RelayBatch.Builder.class);
+  }
+
+  private int bitField0_;
+  public static final int ORIGIN_NODE_FIELD_NUMBER = 1;
+  @SuppressWarnings("serial")
+  private volatile java.lang.Object originNode_ = "";
+  /**
+   * <pre>
+   * 源节点ID
+   * </pre>
+   *
+   * <code>string origin_node = 1;</code>
+   * @return The originNode.
+   */
+  @java.lang.Override
+  public java.lang.String getOriginNode() {
+    java.lang.Object ref = originNode_;
+    if (ref instanceof java.lang.String) {
+      return (java.lang.String) ref;
+    } else {
+      com.google.protobuf.ByteString bs = 
+          (com.google.protobuf.ByteString) ref;
+      java.lang.String s = bs.toStringUtf8();
+      originNode_ = s;
+      return s;
+    }
+  }
+  /**
+   * <pre>
+   * 源节点ID
+   * </pre>
+   *
+   * <code>string origin_node = 1;</code>
+   * @return The bytes for originNode.
+   */
+  @java.lang.Override
+  public com.google.protobuf.ByteString
+      getOriginNodeBytes() {
+    java.lang.Object ref = originNode_;
+    if (ref instanceof java.lang.String) {
+      com.google.protobuf.ByteString b = 
+          com.google.protobuf.ByteString.copyFromUtf8(
+              (java.lang.String) ref);
+      originNode_ = b;
+      return b;
+    } else {
+      return (com.google.protobuf.ByteString) ref;
+    }
+  }
+
+  public static final int ENVELOPES_FIELD_NUMBER = 2;
+  @SuppressWarnings("serial")
+  private java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope> envelopes_;
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  @java.lang.Override
+  public java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope> getEnvelopesList() {
+    return envelopes_;
+  }
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  @java.lang.Override
+  public java.util.List<? extends com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder> 
+      getEnvelopesOrBuilderList() {
+    return envelopes_;
+  }
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  @java.lang.Override
+  public int getEnvelopesCount() {
+    return envelopes_.size();
+  }
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.RelayEnvelope getEnvelopes(int index) {
+    return envelopes_.get(index);
+  }
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder getEnvelopesOrBuilder(
+      int index) {
+    return envelopes_.get(index);
+  }
+
+  public static final int ORIGIN_INDEX_FIELD_NUMBER = 3;
+  private int originIndex_ = 0;
+  /**
+   * <pre>
+   * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+   * </pre>
+   *
+   * <code>optional int32 origin_index = 3;</code>
+   * @return Whether the originIndex field is set.
+   */
+  @java.lang.Override
+  public boolean hasOriginIndex() {
+    return ((bitField0_ & 0x00000001) != 0);
+  }
+  /**
+   * <pre>
+   * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+   * </pre>
+   *
+   * <code>optional int32 origin_index = 3;</code>
+   * @return The originIndex.
+   */
+  @java.lang.Override
+  public int getOriginIndex() {
+    return originIndex_;
+  }
+
+  private byte memoizedIsInitialized = -1;
+  @java.lang.Override
+  public final boolean isInitialized() {
+    byte isInitialized = memoizedIsInitialized;
+    if (isInitialized == 1) return true;
+    if (isInitialized == 0) return false;
+
+    memoizedIsInitialized = 1;
+    return true;
+  }
+
+  @java.lang.Override
+  public void writeTo(com.google.protobuf.CodedOutputStream output)
+                      throws java.io.IOException {
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(originNode_)) {
+      com.google.protobuf.GeneratedMessageV3.writeString(output, 1, originNode_);
+    }
+    for (int i = 0; i < envelopes_.size(); i++) {
+      output.writeMessage(2, envelopes_.get(i));
+    }
+    if (((bitField0_ & 0x00000001) != 0)) {
+      output.writeInt32(3, originIndex_);
+    }
+    getUnknownFields().writeTo(output);
+  }
+
+  @java.lang.Override
+  public int getSerializedSize() {
+    int size = memoizedSize;
+    if (size != -1) return size;
+
+    size = 0;
+    if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(originNode_)) {
+      size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, originNode_);
+    }
+    for (int i = 0; i < envelopes_.size(); i++) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeMessageSize(2, envelopes_.get(i));
+    }
+    if (((bitField0_ & 0x00000001) != 0)) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeInt32Size(3, originIndex_);
+    }
+    size += getUnknownFields().getSerializedSize();
+    memoizedSize = size;
+    return size;
+  }
+
+  @java.lang.Override
+  public boolean equals(final java.lang.Object obj) {
+    if (obj == this) {
+     return true;
+    }
+    if (!(obj instanceof com.app.novelvoice.netty.proto.RelayBatch)) {
+      return super.equals(obj);
+    }
+    com.app.novelvoice.netty.proto.RelayBatch other = (com.app.novelvoice.netty.proto.RelayBatch) obj;
+
+    if (!getOriginNode()
+        .equals(other.getOriginNode())) return false;
+    if (!getEnvelopesList()
+        .equals(other.getEnvelopesList())) return false;
+    if (hasOriginIndex() != other.hasOriginIndex()) return false;
+    if (hasOriginIndex()) {
+      if (getOriginIndex()
+          != other.getOriginIndex()) return false;
+    }
+    if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+    return true;
+  }
+
+  @java.lang.Override
+  public int hashCode() {
+    if (memoizedHashCode != 0) {
+      return memoizedHashCode;
+    }
+    int hash = 41;
+    hash = (19 * hash) + getDescriptor().hashCode();
+    hash = (37 * hash) + ORIGIN_NODE_FIELD_NUMBER;
+    hash = (53 * hash) + getOriginNode().hashCode();
+    if (getEnvelopesCount() > 0) {
+      hash = (37 * hash) + ENVELOPES_FIELD_NUMBER;
+      hash = (53 * hash) + getEnvelopesList().hashCode();
+    }
+    if (hasOriginIndex()) {
+      hash = (37 * hash) + ORIGIN_INDEX_FIELD_NUMBER;
+      hash = (53 * hash) + getOriginIndex();
+    }
+    hash = (29 * hash) + getUnknownFields().hashCode();
+    memoizedHashCode = hash;
+    return hash;
+  }
+
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      java.nio.ByteBuffer data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      java.nio.ByteBuffer data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      com.google.protobuf.ByteString data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      com.google.protobuf.ByteString data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(byte[] data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      byte[] data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseDelimitedFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseDelimitedFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      com.google.protobuf.CodedInputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayBatch parseFrom(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+
+  @java.lang.Override
+  public Builder newBuilderForType() { return newBuilder(); }
+  public static Builder newBuilder() {
+    return DEFAULT_INSTANCE.toBuilder();
+  }
+  public static Builder newBuilder(com.app.novelvoice.netty.proto.RelayBatch prototype) {
+    return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+  }
+  @java.lang.Override
+  public Builder toBuilder() {
+    return this == DEFAULT_INSTANCE
+        ? new Builder() : new Builder().mergeFrom(this);
+  }
+
+  @java.lang.Override
+  protected Builder newBuilderForType(
+      com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+    Builder builder = new Builder(parent);
+    return builder;
+  }
+  /**
+   * <pre>
+   * 批量转发帧（节点间 TCP 连接上的传输单元）
+   * </pre>
+   *
+   * Protobuf type {@code com.app.novelvoice.netty.proto.RelayBatch}
+   */
+  public static final class Builder extends
+      com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+      // @@protoc_insertion_point(builder_implements:com.app.novelvoice.netty.proto.RelayBatch)
+      com.app.novelvoice.netty.proto.RelayBatchOrBuilder {
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayBatch_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.app.novelvoice.netty.proto.RelayBatch.class, com.app.novelvoice.netty.proto.RelayBatch.Builder.class);
+    }
+
+    // Construct using com.app.novelvoice.netty.proto.RelayBatch.newBuilder()
+    private Builder() {
+
+    }
+
+    private Builder(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      super(parent);
+
+    }
+    @java.lang.Override
+    public Builder clear() {
+      super.clear();
+      bitField0_ = 0;
+      originNode_ = "";
+      if (envelopesBuilder_ == null) {
+        envelopes_ = java.util.Collections.emptyList();
+      } else {
+        envelopes_ = null;
+        envelopesBuilder_.clear();
+      }
+      bitField0_ = (bitField0_ & ~0x00000002);
+      originIndex_ = 0;
+      return this;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.Descriptor
+        getDescriptorForType() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayBatch_descriptor;
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayBatch getDefaultInstanceForType() {
+      return com.app.novelvoice.netty.proto.RelayBatch.getDefaultInstance();
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayBatch build() {
+      com.app.novelvoice.netty.proto.RelayBatch result = buildPartial();
+      if (!result.isInitialized()) {
+        throw newUninitializedMessageException(result);
+      }
+      return result;
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayBatch buildPartial() {
+      com.app.novelvoice.netty.proto.RelayBatch result = new com.app.novelvoice.netty.proto.RelayBatch(this);
+      buildPartialRepeatedFields(result);
+      if (bitField0_ != 0) { buildPartial0(result); }
+      onBuilt();
+      return result;
+    }
+
+    private void buildPartialRepeatedFields(com.app.novelvoice.netty.proto.RelayBatch result) {
+      if (envelopesBuilder_ == null) {
+        if (((bitField0_ & 0x00000002) != 0)) {
+          envelopes_ = java.util.Collections.unmodifiableList(envelopes_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.envelopes_ = envelopes_;
+      } else {
+        result.envelopes_ = envelopesBuilder_.build();
+      }
+    }
+
+    private void buildPartial0(com.app.novelvoice.netty.proto.RelayBatch result) {
+      int from_bitField0_ = bitField0_;
+      if (((from_bitField0_ & 0x00000001) != 0)) {
+        result.originNode_ = originNode_;
+      }
+      int to_bitField0_ = 0;
+      if (((from_bitField0_ & 0x00000004) != 0)) {
+        result.originIndex_ = originIndex_;
+        to_bitField0_ |= 0x00000001;
+      }
+      result.bitField0_ |= to_bitField0_;
+    }
+
+    @java.lang.Override
+    public Builder clone() {
+      return super.clone();
+    }
+    @java.lang.Override
+    public Builder setField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.setField(field, value);
+    }
+    @java.lang.Override
+    public Builder clearField(
+        com.google.protobuf.Descriptors.FieldDescriptor field) {
+      return super.clearField(field);
+    }
+    @java.lang.Override
+    public Builder clearOneof(
+        com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+      return super.clearOneof(oneof);
+    }
+    @java.lang.Override
+    public Builder setRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        int index, java.lang.Object value) {
+      return super.setRepeatedField(field, index, value);
+    }
+    @java.lang.Override
+    public Builder addRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.addRepeatedField(field, value);
+    }
+    @java.lang.Override
+    public Builder mergeFrom(com.google.protobuf.Message other) {
+      if (other instanceof com.app.novelvoice.netty.proto.RelayBatch) {
+        return mergeFrom((com.app.novelvoice.netty.proto.RelayBatch)other);
+      } else {
+        super.mergeFrom(other);
+        return this;
+      }
+    }
+
+    public Builder mergeFrom(com.app.novelvoice.netty.proto.RelayBatch other) {
+      if (other == com.app.novelvoice.netty.proto.RelayBatch.getDefaultInstance()) return this;
+      if (!other.getOriginNode().isEmpty()) {
+        originNode_ = other.originNode_;
+        bitField0_ |= 0x00000001;
+        onChanged();
+      }
+      if (envelopesBuilder_ == null) {
+        if (!other.envelopes_.isEmpty()) {
+          if (envelopes_.isEmpty()) {
+            envelopes_ = other.envelopes_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureEnvelopesIsMutable();
+            envelopes_.addAll(other.envelopes_);
+          }
+          onChanged();
+        }
+      } else {
+        if (!other.envelopes_.isEmpty()) {
+          if (envelopesBuilder_.isEmpty()) {
+            envelopesBuilder_.dispose();
+            envelopesBuilder_ = null;
+            envelopes_ = other.envelopes_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+            envelopesBuilder_ = 
+              com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                 getEnvelopesFieldBuilder() : null;
+          } else {
+            envelopesBuilder_.addAllMessages(other.envelopes_);
+          }
+        }
+      }
+      if (other.hasOriginIndex()) {
+        setOriginIndex(other.getOriginIndex());
+      }
+      this.mergeUnknownFields(other.getUnknownFields());
+      onChanged();
+      return this;
+    }
+
+    @java.lang.Override
+    public final boolean isInitialized() {
+      return true;
+    }
+
+    @java.lang.Override
+    public Builder mergeFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              originNode_ = input.readStringRequireUtf8();
+              bitField0_ |= 0x00000001;
+              break;
+            } // case 10
+            case 18: {
+              com.app.novelvoice.netty.proto.RelayEnvelope m =
+                  input.readMessage(
+                      com.app.novelvoice.netty.proto.RelayEnvelope.parser(),
+                      extensionRegistry);
+              if (envelopesBuilder_ == null) {
+                ensureEnvelopesIsMutable();
+                envelopes_.add(m);
+              } else {
+                envelopesBuilder_.addMessage(m);
+              }
+              break;
+            } // case 18
+            case 24: {
+              originIndex_ = input.readInt32();
+              bitField0_ |= 0x00000004;
+              break;
+            } // case 24
+            default: {
+              if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                done = true; // was an endgroup tag
+              }
+              break;
+            } // default:
+          } // switch (tag)
+        } // while (!done)
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.unwrapIOException();
+      } finally {
+        onChanged();
+      } // finally
+      return this;
+    }
+    private int bitField0_;
+
+    private java.lang.Object originNode_ = "";
+    /**
+     * <pre>
+     * 源节点ID
+     * </pre>
+     *
+     * <code>string origin_node = 1;</code>
+     * @return The originNode.
+     */
+    public java.lang.String getOriginNode() {
+      java.lang.Object ref = originNode_;
+      if (!(ref instanceof java.lang.String)) {
+        com.google.protobuf.ByteString bs =
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        originNode_ = s;
+        return s;
+      } else {
+        return (java.lang.String) ref;
+      }
+    }
+    /**
+     * <pre>
+     * 源节点ID
+     * </pre>
+     *
+     * <code>string origin_node = 1;</code>
+     * @return The bytes for originNode.
+     */
+    public com.google.protobuf.ByteString
+        getOriginNodeBytes() {
+      java.lang.Object ref = originNode_;
+      if (ref instanceof String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        originNode_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+    /**
+     * <pre>
+     * 源节点ID
+     * </pre>
+     *
+     * <code>string origin_node = 1;</code>
+     * @param value The originNode to set.
+     * @return This builder for chaining.
+     */
+    public Builder setOriginNode(
+        java.lang.String value) {
+      if (value == null) { throw new NullPointerException(); }
+      originNode_ = value;
+      bitField0_ |= 0x00000001;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 源节点ID
+     * </pre>
+     *
+     * <code>string origin_node = 1;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearOriginNode() {
+      originNode_ = getDefaultInstance().getOriginNode();
+      bitField0_ = (bitField0_ & ~0x00000001);
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 源节点ID
+     * </pre>
+     *
+     * <code>string origin_node = 1;</code>
+     * @param value The bytes for originNode to set.
+     * @return This builder for chaining.
+     */
+    public Builder setOriginNodeBytes(
+        com.google.protobuf.ByteString value) {
+      if (value == null) { throw new NullPointerException(); }
+      checkByteStringIsUtf8(value);
+      originNode_ = value;
+      bitField0_ |= 0x00000001;
+      onChanged();
+      return this;
+    }
+
+    private java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope> envelopes_ =
+      java.util.Collections.emptyList();
+    private void ensureEnvelopesIsMutable() {
+      if (!((bitField0_ & 0x00000002) != 0)) {
+        envelopes_ = new java.util.ArrayList<com.app.novelvoice.netty.proto.RelayEnvelope>(envelopes_);
+        bitField0_ |= 0x00000002;
+       }
+    }
+
+    private com.google.protobuf.RepeatedFieldBuilderV3<
+        com.app.novelvoice.netty.proto.RelayEnvelope, com.app.novelvoice.netty.proto.RelayEnvelope.Builder, com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder> envelopesBuilder_;
+
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope> getEnvelopesList() {
+      if (envelopesBuilder_ == null) {
+        return java.util.Collections.unmodifiableList(envelopes_);
+      } else {
+        return envelopesBuilder_.getMessageList();
+      }
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public int getEnvelopesCount() {
+      if (envelopesBuilder_ == null) {
+        return envelopes_.size();
+      } else {
+        return envelopesBuilder_.getCount();
+      }
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public com.app.novelvoice.netty.proto.RelayEnvelope getEnvelopes(int index) {
+      if (envelopesBuilder_ == null) {
+        return envelopes_.get(index);
+      } else {
+        return envelopesBuilder_.getMessage(index);
+      }
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder setEnvelopes(
+        int index, com.app.novelvoice.netty.proto.RelayEnvelope value) {
+      if (envelopesBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureEnvelopesIsMutable();
+        envelopes_.set(index, value);
+        onChanged();
+      } else {
+        envelopesBuilder_.setMessage(index, value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder setEnvelopes(
+        int index, com.app.novelvoice.netty.proto.RelayEnvelope.Builder builderForValue) {
+      if (envelopesBuilder_ == null) {
+        ensureEnvelopesIsMutable();
+        envelopes_.set(index, builderForValue.build());
+        onChanged();
+      } else {
+        envelopesBuilder_.setMessage(index, builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder addEnvelopes(com.app.novelvoice.netty.proto.RelayEnvelope value) {
+      if (envelopesBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureEnvelopesIsMutable();
+        envelopes_.add(value);
+        onChanged();
+      } else {
+        envelopesBuilder_.addMessage(value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder addEnvelopes(
+        int index, com.app.novelvoice.netty.proto.RelayEnvelope value) {
+      if (envelopesBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureEnvelopesIsMutable();
+        envelopes_.add(index, value);
+        onChanged();
+      } else {
+        envelopesBuilder_.addMessage(index, value);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder addEnvelopes(
+        com.app.novelvoice.netty.proto.RelayEnvelope.Builder builderForValue) {
+      if (envelopesBuilder_ == null) {
+        ensureEnvelopesIsMutable();
+        envelopes_.add(builderForValue.build());
+        onChanged();
+      } else {
+        envelopesBuilder_.addMessage(builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder addEnvelopes(
+        int index, com.app.novelvoice.netty.proto.RelayEnvelope.Builder builderForValue) {
+      if (envelopesBuilder_ == null) {
+        ensureEnvelopesIsMutable();
+        envelopes_.add(index, builderForValue.build());
+        onChanged();
+      } else {
+        envelopesBuilder_.addMessage(index, builderForValue.build());
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder addAllEnvelopes(
+        java.lang.Iterable<? extends com.app.novelvoice.netty.proto.RelayEnvelope> values) {
+      if (envelopesBuilder_ == null) {
+        ensureEnvelopesIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, envelopes_);
+        onChanged();
+      } else {
+        envelopesBuilder_.addAllMessages(values);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder clearEnvelopes() {
+      if (envelopesBuilder_ == null) {
+        envelopes_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+      } else {
+        envelopesBuilder_.clear();
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public Builder removeEnvelopes(int index) {
+      if (envelopesBuilder_ == null) {
+        ensureEnvelopesIsMutable();
+        envelopes_.remove(index);
+        onChanged();
+      } else {
+        envelopesBuilder_.remove(index);
+      }
+      return this;
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public com.app.novelvoice.netty.proto.RelayEnvelope.Builder getEnvelopesBuilder(
+        int index) {
+      return getEnvelopesFieldBuilder().getBuilder(index);
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder getEnvelopesOrBuilder(
+        int index) {
+      if (envelopesBuilder_ == null) {
+        return envelopes_.get(index);  } else {
+        return envelopesBuilder_.getMessageOrBuilder(index);
+      }
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public java.util.List<? extends com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder> 
+         getEnvelopesOrBuilderList() {
+      if (envelopesBuilder_ != null) {
+        return envelopesBuilder_.getMessageOrBuilderList();
+      } else {
+        return java.util.Collections.unmodifiableList(envelopes_);
+      }
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public com.app.novelvoice.netty.proto.RelayEnvelope.Builder addEnvelopesBuilder() {
+      return getEnvelopesFieldBuilder().addBuilder(
+          com.app.novelvoice.netty.proto.RelayEnvelope.getDefaultInstance());
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public com.app.novelvoice.netty.proto.RelayEnvelope.Builder addEnvelopesBuilder(
+        int index) {
+      return getEnvelopesFieldBuilder().addBuilder(
+          index, com.app.novelvoice.netty.proto.RelayEnvelope.getDefaultInstance());
+    }
+    /**
+     * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+     */
+    public java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope.Builder> 
+         getEnvelopesBuilderList() {
+      return getEnvelopesFieldBuilder().getBuilderList();
+    }
+    private com.google.protobuf.RepeatedFieldBuilderV3<
+        com.app.novelvoice.netty.proto.RelayEnvelope, com.app.novelvoice.netty.proto.RelayEnvelope.Builder, com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder> 
+        getEnvelopesFieldBuilder() {
+      if (envelopesBuilder_ == null) {
+        envelopesBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+            com.app.novelvoice.netty.proto.RelayEnvelope, com.app.novelvoice.netty.proto.RelayEnvelope.Builder, com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder>(
+                envelopes_,
+                ((bitField0_ & 0x00000002) != 0),
+                getParentForChildren(),
+                isClean());
+        envelopes_ = null;
+      }
+      return envelopesBuilder_;
+    }
+
+    private int originIndex_ ;
+    /**
+     * <pre>
+     * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+     * </pre>
+     *
+     * <code>optional int32 origin_index = 3;</code>
+     * @return Whether the originIndex field is set.
+     */
+    @java.lang.Override
+    public boolean hasOriginIndex() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+     * </pre>
+     *
+     * <code>optional int32 origin_index = 3;</code>
+     * @return The originIndex.
+     */
+    @java.lang.Override
+    public int getOriginIndex() {
+      return originIndex_;
+    }
+    /**
+     * <pre>
+     * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+     * </pre>
+     *
+     * <code>optional int32 origin_index = 3;</code>
+     * @param value The originIndex to set.
+     * @return This builder for chaining.
+     */
+    public Builder setOriginIndex(int value) {
+      
+      originIndex_ = value;
+      bitField0_ |= 0x00000004;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+     * </pre>
+     *
+     * <code>optional int32 origin_index = 3;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearOriginIndex() {
+      bitField0_ = (bitField0_ & ~0x00000004);
+      originIndex_ = 0;
+      onChanged();
+      return this;
+    }
+    @java.lang.Override
+    public final Builder setUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.setUnknownFields(unknownFields);
+    }
+
+    @java.lang.Override
+    public final Builder mergeUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.mergeUnknownFields(unknownFields);
+    }
+
+
+    // @@protoc_insertion_point(builder_scope:com.app.novelvoice.netty.proto.RelayBatch)
+  }
+
+  // @@protoc_insertion_point(class_scope:com.app.novelvoice.netty.proto.RelayBatch)
+  private static final com.app.novelvoice.netty.proto.RelayBatch DEFAULT_INSTANCE;
+  static {
+    DEFAULT_INSTANCE = new com.app.novelvoice.netty.proto.RelayBatch();
+  }
+
+  public static com.app.novelvoice.netty.proto.RelayBatch getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final com.google.protobuf.Parser<RelayBatch>
+      PARSER = new com.google.protobuf.AbstractParser<RelayBatch>() {
+    @java.lang.Override
+    public RelayBatch parsePartialFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      Builder builder = newBuilder();
+      try {
+        builder.mergeFrom(input, extensionRegistry);
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(builder.buildPartial());
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(e)
+            .setUnfinishedMessage(builder.buildPartial());
+      }
+      return builder.buildPartial();
+    }
+  };
+
+  public static com.google.protobuf.Parser<RelayBatch> parser() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.google.protobuf.Parser<RelayBatch> getParserForType() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.RelayBatch getDefaultInstanceForType() {
+    return DEFAULT_INSTANCE;
+  }
+
+}
+
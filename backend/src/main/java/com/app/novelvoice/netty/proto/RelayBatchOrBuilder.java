@@ -0,0 +1,72 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+public interface RelayBatchOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:com.app.novelvoice.netty.proto.RelayBatch)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <pre>
+   * 源节点ID
+   * </pre>
+   *
+   * <code>string origin_node = 1;</code>
+   * @return The originNode.
+   */
+  java.lang.String getOriginNode();
+  /**
+   * <pre>
+   * 源节点ID
+   * </pre>
+   *
+   * <code>string origin_node = 1;</code>
+   * @return The bytes for originNode.
+   */
+  com.google.protobuf.ByteString
+      getOriginNodeBytes();
+
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  java.util.List<com.app.novelvoice.netty.proto.RelayEnvelope> 
+      getEnvelopesList();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  com.app.novelvoice.netty.proto.RelayEnvelope getEnvelopes(int index);
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  int getEnvelopesCount();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  java.util.List<? extends com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder> 
+      getEnvelopesOrBuilderList();
+  /**
+   * <code>repeated .com.app.novelvoice.netty.proto.RelayEnvelope envelopes = 2;</code>
+   */
+  com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder getEnvelopesOrBuilder(
+      int index);
+
+  /**
+   * <pre>
+   * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+   * </pre>
+   *
+   * <code>optional int32 origin_index = 3;</code>
+   * @return Whether the originIndex field is set.
+   */
+  boolean hasOriginIndex();
+  /**
+   * <pre>
+   * 源节点序号（消息序号中的节点位），接收方据此拒绝序号冲突的节点
+   * </pre>
+   *
+   * <code>optional int32 origin_index = 3;</code>
+   * @return The originIndex.
+   */
+  int getOriginIndex();
+}
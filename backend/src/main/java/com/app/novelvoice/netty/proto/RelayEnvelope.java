@@ -0,0 +1,982 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+/**
+ * <pre>
+ * 单条转发
+ * </pre>
+ *
+ * Protobuf type {@code com.app.novelvoice.netty.proto.RelayEnvelope}
+ */
+public final class RelayEnvelope extends
+    com.google.protobuf.GeneratedMessageV3 implements
+    // @@protoc_insertion_point(message_implements:com.app.novelvoice.netty.proto.RelayEnvelope)
+    RelayEnvelopeOrBuilder {
+private static final long serialVersionUID = 0L;
+  // Use RelayEnvelope.newBuilder() to construct.
+  private RelayEnvelope(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+    super(builder);
+  }
+  private RelayEnvelope() {
+    type_ = 0;
+    userIds_ = emptyLongList();
+  }
+
+  @java.lang.Override
+  @SuppressWarnings({"unused"})
+  protected java.lang.Object newInstance(
+      UnusedPrivateParameter unused) {
+    return new RelayEnvelope();
+  }
+
+  @java.lang.Override
+  public final com.google.protobuf.UnknownFieldSet
+  getUnknownFields() {
+    return this.unknownFields;
+  }
+  public static final com.google.protobuf.Descriptors.Descriptor
+      getDescriptor() {
+    return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor;
+  }
+
+  @java.lang.Override
+  protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internalGetFieldAccessorTable() {
+    return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_fieldAccessorTable
+        .ensureFieldAccessorsInitialized(
+            com.app.novelvoice.netty.proto.RelayEnvelope.class, com.app.novelvoice.netty.proto.RelayEnvelope.Builder.class);
+  }
+
+  public static final int TYPE_FIELD_NUMBER = 1;
+  private int type_ = 0;
+  /**
+   * <pre>
+   * 转发类型
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+   * @return The enum numeric value on the wire for type.
+   */
+  @java.lang.Override public int getTypeValue() {
+    return type_;
+  }
+  /**
+   * <pre>
+   * 转发类型
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+   * @return The type.
+   */
+  @java.lang.Override public com.app.novelvoice.netty.proto.RelayType getType() {
+    com.app.novelvoice.netty.proto.RelayType result = com.app.novelvoice.netty.proto.RelayType.forNumber(type_);
+    return result == null ? com.app.novelvoice.netty.proto.RelayType.UNRECOGNIZED : result;
+  }
+
+  public static final int USER_IDS_FIELD_NUMBER = 2;
+  @SuppressWarnings("serial")
+  private com.google.protobuf.Internal.LongList userIds_;
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @return A list containing the userIds.
+   */
+  @java.lang.Override
+  public java.util.List<java.lang.Long>
+      getUserIdsList() {
+    return userIds_;
+  }
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @return The count of userIds.
+   */
+  public int getUserIdsCount() {
+    return userIds_.size();
+  }
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @param index The index of the element to return.
+   * @return The userIds at the given index.
+   */
+  public long getUserIds(int index) {
+    return userIds_.getLong(index);
+  }
+  private int userIdsMemoizedSerializedSize = -1;
+
+  public static final int MESSAGE_FIELD_NUMBER = 3;
+  private com.app.novelvoice.netty.proto.ChatMessage message_;
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   * @return Whether the message field is set.
+   */
+  @java.lang.Override
+  public boolean hasMessage() {
+    return message_ != null;
+  }
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   * @return The message.
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.ChatMessage getMessage() {
+    return message_ == null ? com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance() : message_;
+  }
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   */
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.ChatMessageOrBuilder getMessageOrBuilder() {
+    return message_ == null ? com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance() : message_;
+  }
+
+  private byte memoizedIsInitialized = -1;
+  @java.lang.Override
+  public final boolean isInitialized() {
+    byte isInitialized = memoizedIsInitialized;
+    if (isInitialized == 1) return true;
+    if (isInitialized == 0) return false;
+
+    memoizedIsInitialized = 1;
+    return true;
+  }
+
+  @java.lang.Override
+  public void writeTo(com.google.protobuf.CodedOutputStream output)
+                      throws java.io.IOException {
+    getSerializedSize();
+    if (type_ != com.app.novelvoice.netty.proto.RelayType.RELAY_PRIVATE.getNumber()) {
+      output.writeEnum(1, type_);
+    }
+    if (getUserIdsList().size() > 0) {
+      output.writeUInt32NoTag(18);
+      output.writeUInt32NoTag(userIdsMemoizedSerializedSize);
+    }
+    for (int i = 0; i < userIds_.size(); i++) {
+      output.writeInt64NoTag(userIds_.getLong(i));
+    }
+    if (message_ != null) {
+      output.writeMessage(3, getMessage());
+    }
+    getUnknownFields().writeTo(output);
+  }
+
+  @java.lang.Override
+  public int getSerializedSize() {
+    int size = memoizedSize;
+    if (size != -1) return size;
+
+    size = 0;
+    if (type_ != com.app.novelvoice.netty.proto.RelayType.RELAY_PRIVATE.getNumber()) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeEnumSize(1, type_);
+    }
+    {
+      int dataSize = 0;
+      for (int i = 0; i < userIds_.size(); i++) {
+        dataSize += com.google.protobuf.CodedOutputStream
+          .computeInt64SizeNoTag(userIds_.getLong(i));
+      }
+      size += dataSize;
+      if (!getUserIdsList().isEmpty()) {
+        size += 1;
+        size += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(dataSize);
+      }
+      userIdsMemoizedSerializedSize = dataSize;
+    }
+    if (message_ != null) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeMessageSize(3, getMessage());
+    }
+    size += getUnknownFields().getSerializedSize();
+    memoizedSize = size;
+    return size;
+  }
+
+  @java.lang.Override
+  public boolean equals(final java.lang.Object obj) {
+    if (obj == this) {
+     return true;
+    }
+    if (!(obj instanceof com.app.novelvoice.netty.proto.RelayEnvelope)) {
+      return super.equals(obj);
+    }
+    com.app.novelvoice.netty.proto.RelayEnvelope other = (com.app.novelvoice.netty.proto.RelayEnvelope) obj;
+
+    if (type_ != other.type_) return false;
+    if (!getUserIdsList()
+        .equals(other.getUserIdsList())) return false;
+    if (hasMessage() != other.hasMessage()) return false;
+    if (hasMessage()) {
+      if (!getMessage()
+          .equals(other.getMessage())) return false;
+    }
+    if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+    return true;
+  }
+
+  @java.lang.Override
+  public int hashCode() {
+    if (memoizedHashCode != 0) {
+      return memoizedHashCode;
+    }
+    int hash = 41;
+    hash = (19 * hash) + getDescriptor().hashCode();
+    hash = (37 * hash) + TYPE_FIELD_NUMBER;
+    hash = (53 * hash) + type_;
+    if (getUserIdsCount() > 0) {
+      hash = (37 * hash) + USER_IDS_FIELD_NUMBER;
+      hash = (53 * hash) + getUserIdsList().hashCode();
+    }
+    if (hasMessage()) {
+      hash = (37 * hash) + MESSAGE_FIELD_NUMBER;
+      hash = (53 * hash) + getMessage().hashCode();
+    }
+    hash = (29 * hash) + getUnknownFields().hashCode();
+    memoizedHashCode = hash;
+    return hash;
+  }
+
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      java.nio.ByteBuffer data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      java.nio.ByteBuffer data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      com.google.protobuf.ByteString data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      com.google.protobuf.ByteString data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(byte[] data)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      byte[] data,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws com.google.protobuf.InvalidProtocolBufferException {
+    return PARSER.parseFrom(data, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseDelimitedFrom(java.io.InputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseDelimitedFrom(
+      java.io.InputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      com.google.protobuf.CodedInputStream input)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input);
+  }
+  public static com.app.novelvoice.netty.proto.RelayEnvelope parseFrom(
+      com.google.protobuf.CodedInputStream input,
+      com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+      throws java.io.IOException {
+    return com.google.protobuf.GeneratedMessageV3
+        .parseWithIOException(PARSER, input, extensionRegistry);
+  }
+
+  @java.lang.Override
+  public Builder newBuilderForType() { return newBuilder(); }
+  public static Builder newBuilder() {
+    return DEFAULT_INSTANCE.toBuilder();
+  }
+  public static Builder newBuilder(com.app.novelvoice.netty.proto.RelayEnvelope prototype) {
+    return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+  }
+  @java.lang.Override
+  public Builder toBuilder() {
+    return this == DEFAULT_INSTANCE
+        ? new Builder() : new Builder().mergeFrom(this);
+  }
+
+  @java.lang.Override
+  protected Builder newBuilderForType(
+      com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+    Builder builder = new Builder(parent);
+    return builder;
+  }
+  /**
+   * <pre>
+   * 单条转发
+   * </pre>
+   *
+   * Protobuf type {@code com.app.novelvoice.netty.proto.RelayEnvelope}
+   */
+  public static final class Builder extends
+      com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+      // @@protoc_insertion_point(builder_implements:com.app.novelvoice.netty.proto.RelayEnvelope)
+      com.app.novelvoice.netty.proto.RelayEnvelopeOrBuilder {
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.app.novelvoice.netty.proto.RelayEnvelope.class, com.app.novelvoice.netty.proto.RelayEnvelope.Builder.class);
+    }
+
+    // Construct using com.app.novelvoice.netty.proto.RelayEnvelope.newBuilder()
+    private Builder() {
+
+    }
+
+    private Builder(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      super(parent);
+
+    }
+    @java.lang.Override
+    public Builder clear() {
+      super.clear();
+      bitField0_ = 0;
+      type_ = 0;
+      userIds_ = emptyLongList();
+      message_ = null;
+      if (messageBuilder_ != null) {
+        messageBuilder_.dispose();
+        messageBuilder_ = null;
+      }
+      return this;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Descriptors.Descriptor
+        getDescriptorForType() {
+      return com.app.novelvoice.netty.proto.ClusterRelayProto.internal_static_com_app_novelvoice_netty_proto_RelayEnvelope_descriptor;
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayEnvelope getDefaultInstanceForType() {
+      return com.app.novelvoice.netty.proto.RelayEnvelope.getDefaultInstance();
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayEnvelope build() {
+      com.app.novelvoice.netty.proto.RelayEnvelope result = buildPartial();
+      if (!result.isInitialized()) {
+        throw newUninitializedMessageException(result);
+      }
+      return result;
+    }
+
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayEnvelope buildPartial() {
+      com.app.novelvoice.netty.proto.RelayEnvelope result = new com.app.novelvoice.netty.proto.RelayEnvelope(this);
+      buildPartialRepeatedFields(result);
+      if (bitField0_ != 0) { buildPartial0(result); }
+      onBuilt();
+      return result;
+    }
+
+    private void buildPartialRepeatedFields(com.app.novelvoice.netty.proto.RelayEnvelope result) {
+      if (((bitField0_ & 0x00000002) != 0)) {
+        userIds_.makeImmutable();
+        bitField0_ = (bitField0_ & ~0x00000002);
+      }
+      result.userIds_ = userIds_;
+    }
+
+    private void buildPartial0(com.app.novelvoice.netty.proto.RelayEnvelope result) {
+      int from_bitField0_ = bitField0_;
+      if (((from_bitField0_ & 0x00000001) != 0)) {
+        result.type_ = type_;
+      }
+      if (((from_bitField0_ & 0x00000004) != 0)) {
+        result.message_ = messageBuilder_ == null
+            ? message_
+            : messageBuilder_.build();
+      }
+    }
+
+    @java.lang.Override
+    public Builder clone() {
+      return super.clone();
+    }
+    @java.lang.Override
+    public Builder setField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.setField(field, value);
+    }
+    @java.lang.Override
+    public Builder clearField(
+        com.google.protobuf.Descriptors.FieldDescriptor field) {
+      return super.clearField(field);
+    }
+    @java.lang.Override
+    public Builder clearOneof(
+        com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+      return super.clearOneof(oneof);
+    }
+    @java.lang.Override
+    public Builder setRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        int index, java.lang.Object value) {
+      return super.setRepeatedField(field, index, value);
+    }
+    @java.lang.Override
+    public Builder addRepeatedField(
+        com.google.protobuf.Descriptors.FieldDescriptor field,
+        java.lang.Object value) {
+      return super.addRepeatedField(field, value);
+    }
+    @java.lang.Override
+    public Builder mergeFrom(com.google.protobuf.Message other) {
+      if (other instanceof com.app.novelvoice.netty.proto.RelayEnvelope) {
+        return mergeFrom((com.app.novelvoice.netty.proto.RelayEnvelope)other);
+      } else {
+        super.mergeFrom(other);
+        return this;
+      }
+    }
+
+    public Builder mergeFrom(com.app.novelvoice.netty.proto.RelayEnvelope other) {
+      if (other == com.app.novelvoice.netty.proto.RelayEnvelope.getDefaultInstance()) return this;
+      if (other.type_ != 0) {
+        setTypeValue(other.getTypeValue());
+      }
+      if (!other.userIds_.isEmpty()) {
+        if (userIds_.isEmpty()) {
+          userIds_ = other.userIds_;
+          bitField0_ = (bitField0_ & ~0x00000002);
+        } else {
+          ensureUserIdsIsMutable();
+          userIds_.addAll(other.userIds_);
+        }
+        onChanged();
+      }
+      if (other.hasMessage()) {
+        mergeMessage(other.getMessage());
+      }
+      this.mergeUnknownFields(other.getUnknownFields());
+      onChanged();
+      return this;
+    }
+
+    @java.lang.Override
+    public final boolean isInitialized() {
+      return true;
+    }
+
+    @java.lang.Override
+    public Builder mergeFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              type_ = input.readEnum();
+              bitField0_ |= 0x00000001;
+              break;
+            } // case 8
+            case 16: {
+              long v = input.readInt64();
+              ensureUserIdsIsMutable();
+              userIds_.addLong(v);
+              break;
+            } // case 16
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              ensureUserIdsIsMutable();
+              while (input.getBytesUntilLimit() > 0) {
+                userIds_.addLong(input.readInt64());
+              }
+              input.popLimit(limit);
+              break;
+            } // case 18
+            case 26: {
+              input.readMessage(
+                  getMessageFieldBuilder().getBuilder(),
+                  extensionRegistry);
+              bitField0_ |= 0x00000004;
+              break;
+            } // case 26
+            default: {
+              if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                done = true; // was an endgroup tag
+              }
+              break;
+            } // default:
+          } // switch (tag)
+        } // while (!done)
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.unwrapIOException();
+      } finally {
+        onChanged();
+      } // finally
+      return this;
+    }
+    private int bitField0_;
+
+    private int type_ = 0;
+    /**
+     * <pre>
+     * 转发类型
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+     * @return The enum numeric value on the wire for type.
+     */
+    @java.lang.Override public int getTypeValue() {
+      return type_;
+    }
+    /**
+     * <pre>
+     * 转发类型
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+     * @param value The enum numeric value on the wire for type to set.
+     * @return This builder for chaining.
+     */
+    public Builder setTypeValue(int value) {
+      type_ = value;
+      bitField0_ |= 0x00000001;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 转发类型
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+     * @return The type.
+     */
+    @java.lang.Override
+    public com.app.novelvoice.netty.proto.RelayType getType() {
+      com.app.novelvoice.netty.proto.RelayType result = com.app.novelvoice.netty.proto.RelayType.forNumber(type_);
+      return result == null ? com.app.novelvoice.netty.proto.RelayType.UNRECOGNIZED : result;
+    }
+    /**
+     * <pre>
+     * 转发类型
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+     * @param value The type to set.
+     * @return This builder for chaining.
+     */
+    public Builder setType(com.app.novelvoice.netty.proto.RelayType value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      bitField0_ |= 0x00000001;
+      type_ = value.getNumber();
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 转发类型
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearType() {
+      bitField0_ = (bitField0_ & ~0x00000001);
+      type_ = 0;
+      onChanged();
+      return this;
+    }
+
+    private com.google.protobuf.Internal.LongList userIds_ = emptyLongList();
+    private void ensureUserIdsIsMutable() {
+      if (!((bitField0_ & 0x00000002) != 0)) {
+        userIds_ = mutableCopy(userIds_);
+        bitField0_ |= 0x00000002;
+      }
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @return A list containing the userIds.
+     */
+    public java.util.List<java.lang.Long>
+        getUserIdsList() {
+      return ((bitField0_ & 0x00000002) != 0) ?
+               java.util.Collections.unmodifiableList(userIds_) : userIds_;
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @return The count of userIds.
+     */
+    public int getUserIdsCount() {
+      return userIds_.size();
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @param index The index of the element to return.
+     * @return The userIds at the given index.
+     */
+    public long getUserIds(int index) {
+      return userIds_.getLong(index);
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @param index The index to set the value at.
+     * @param value The userIds to set.
+     * @return This builder for chaining.
+     */
+    public Builder setUserIds(
+        int index, long value) {
+      
+      ensureUserIdsIsMutable();
+      userIds_.setLong(index, value);
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @param value The userIds to add.
+     * @return This builder for chaining.
+     */
+    public Builder addUserIds(long value) {
+      
+      ensureUserIdsIsMutable();
+      userIds_.addLong(value);
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @param values The userIds to add.
+     * @return This builder for chaining.
+     */
+    public Builder addAllUserIds(
+        java.lang.Iterable<? extends java.lang.Long> values) {
+      ensureUserIdsIsMutable();
+      com.google.protobuf.AbstractMessageLite.Builder.addAll(
+          values, userIds_);
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 目标用户ID / 上下线用户ID
+     * </pre>
+     *
+     * <code>repeated int64 user_ids = 2;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearUserIds() {
+      userIds_ = emptyLongList();
+      bitField0_ = (bitField0_ & ~0x00000002);
+      onChanged();
+      return this;
+    }
+
+    private com.app.novelvoice.netty.proto.ChatMessage message_;
+    private com.google.protobuf.SingleFieldBuilderV3<
+        com.app.novelvoice.netty.proto.ChatMessage, com.app.novelvoice.netty.proto.ChatMessage.Builder, com.app.novelvoice.netty.proto.ChatMessageOrBuilder> messageBuilder_;
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     * @return Whether the message field is set.
+     */
+    public boolean hasMessage() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     * @return The message.
+     */
+    public com.app.novelvoice.netty.proto.ChatMessage getMessage() {
+      if (messageBuilder_ == null) {
+        return message_ == null ? com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance() : message_;
+      } else {
+        return messageBuilder_.getMessage();
+      }
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public Builder setMessage(com.app.novelvoice.netty.proto.ChatMessage value) {
+      if (messageBuilder_ == null) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        message_ = value;
+      } else {
+        messageBuilder_.setMessage(value);
+      }
+      bitField0_ |= 0x00000004;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public Builder setMessage(
+        com.app.novelvoice.netty.proto.ChatMessage.Builder builderForValue) {
+      if (messageBuilder_ == null) {
+        message_ = builderForValue.build();
+      } else {
+        messageBuilder_.setMessage(builderForValue.build());
+      }
+      bitField0_ |= 0x00000004;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public Builder mergeMessage(com.app.novelvoice.netty.proto.ChatMessage value) {
+      if (messageBuilder_ == null) {
+        if (((bitField0_ & 0x00000004) != 0) &&
+          message_ != null &&
+          message_ != com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance()) {
+          getMessageBuilder().mergeFrom(value);
+        } else {
+          message_ = value;
+        }
+      } else {
+        messageBuilder_.mergeFrom(value);
+      }
+      bitField0_ |= 0x00000004;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public Builder clearMessage() {
+      bitField0_ = (bitField0_ & ~0x00000004);
+      message_ = null;
+      if (messageBuilder_ != null) {
+        messageBuilder_.dispose();
+        messageBuilder_ = null;
+      }
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public com.app.novelvoice.netty.proto.ChatMessage.Builder getMessageBuilder() {
+      bitField0_ |= 0x00000004;
+      onChanged();
+      return getMessageFieldBuilder().getBuilder();
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    public com.app.novelvoice.netty.proto.ChatMessageOrBuilder getMessageOrBuilder() {
+      if (messageBuilder_ != null) {
+        return messageBuilder_.getMessageOrBuilder();
+      } else {
+        return message_ == null ?
+            com.app.novelvoice.netty.proto.ChatMessage.getDefaultInstance() : message_;
+      }
+    }
+    /**
+     * <pre>
+     * 聊天消息（在线状态类转发为空）
+     * </pre>
+     *
+     * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+     */
+    private com.google.protobuf.SingleFieldBuilderV3<
+        com.app.novelvoice.netty.proto.ChatMessage, com.app.novelvoice.netty.proto.ChatMessage.Builder, com.app.novelvoice.netty.proto.ChatMessageOrBuilder> 
+        getMessageFieldBuilder() {
+      if (messageBuilder_ == null) {
+        messageBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+            com.app.novelvoice.netty.proto.ChatMessage, com.app.novelvoice.netty.proto.ChatMessage.Builder, com.app.novelvoice.netty.proto.ChatMessageOrBuilder>(
+                getMessage(),
+                getParentForChildren(),
+                isClean());
+        message_ = null;
+      }
+      return messageBuilder_;
+    }
+    @java.lang.Override
+    public final Builder setUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.setUnknownFields(unknownFields);
+    }
+
+    @java.lang.Override
+    public final Builder mergeUnknownFields(
+        final com.google.protobuf.UnknownFieldSet unknownFields) {
+      return super.mergeUnknownFields(unknownFields);
+    }
+
+
+    // @@protoc_insertion_point(builder_scope:com.app.novelvoice.netty.proto.RelayEnvelope)
+  }
+
+  // @@protoc_insertion_point(class_scope:com.app.novelvoice.netty.proto.RelayEnvelope)
+  private static final com.app.novelvoice.netty.proto.RelayEnvelope DEFAULT_INSTANCE;
+  static {
+    DEFAULT_INSTANCE = new com.app.novelvoice.netty.proto.RelayEnvelope();
+  }
+
+  public static com.app.novelvoice.netty.proto.RelayEnvelope getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final com.google.protobuf.Parser<RelayEnvelope>
+      PARSER = new com.google.protobuf.AbstractParser<RelayEnvelope>() {
+    @java.lang.Override
+    public RelayEnvelope parsePartialFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      Builder builder = newBuilder();
+      try {
+        builder.mergeFrom(input, extensionRegistry);
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(builder.buildPartial());
+      } catch (com.google.protobuf.UninitializedMessageException e) {
+        throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(e)
+            .setUnfinishedMessage(builder.buildPartial());
+      }
+      return builder.buildPartial();
+    }
+  };
+
+  public static com.google.protobuf.Parser<RelayEnvelope> parser() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.google.protobuf.Parser<RelayEnvelope> getParserForType() {
+    return PARSER;
+  }
+
+  @java.lang.Override
+  public com.app.novelvoice.netty.proto.RelayEnvelope getDefaultInstanceForType() {
+    return DEFAULT_INSTANCE;
+  }
+
+}
+
@@ -0,0 +1,84 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+public interface RelayEnvelopeOrBuilder extends
+    // @@protoc_insertion_point(interface_extends:com.app.novelvoice.netty.proto.RelayEnvelope)
+    com.google.protobuf.MessageOrBuilder {
+
+  /**
+   * <pre>
+   * 转发类型
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+   * @return The enum numeric value on the wire for type.
+   */
+  int getTypeValue();
+  /**
+   * <pre>
+   * 转发类型
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.RelayType type = 1;</code>
+   * @return The type.
+   */
+  com.app.novelvoice.netty.proto.RelayType getType();
+
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @return A list containing the userIds.
+   */
+  java.util.List<java.lang.Long> getUserIdsList();
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @return The count of userIds.
+   */
+  int getUserIdsCount();
+  /**
+   * <pre>
+   * 目标用户ID / 上下线用户ID
+   * </pre>
+   *
+   * <code>repeated int64 user_ids = 2;</code>
+   * @param index The index of the element to return.
+   * @return The userIds at the given index.
+   */
+  long getUserIds(int index);
+
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   * @return Whether the message field is set.
+   */
+  boolean hasMessage();
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   * @return The message.
+   */
+  com.app.novelvoice.netty.proto.ChatMessage getMessage();
+  /**
+   * <pre>
+   * 聊天消息（在线状态类转发为空）
+   * </pre>
+   *
+   * <code>.com.app.novelvoice.netty.proto.ChatMessage message = 3;</code>
+   */
+  com.app.novelvoice.netty.proto.ChatMessageOrBuilder getMessageOrBuilder();
+}
@@ -0,0 +1,201 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: ClusterRelay.proto
+
+package com.app.novelvoice.netty.proto;
+
+/**
+ * <pre>
+ * 节点间转发类型
+ * </pre>
+ *
+ * Protobuf enum {@code com.app.novelvoice.netty.proto.RelayType}
+ */
+public enum RelayType
+    implements com.google.protobuf.ProtocolMessageEnum {
+  /**
+   * <pre>
+   * 私聊：投递给 user_ids 在目标节点上的连接
+   * </pre>
+   *
+   * <code>RELAY_PRIVATE = 0;</code>
+   */
+  RELAY_PRIVATE(0),
+  /**
+   * <pre>
+   * 大厅广播
+   * </pre>
+   *
+   * <code>RELAY_LOBBY = 1;</code>
+   */
+  RELAY_LOBBY(1),
+  /**
+   * <pre>
+   * 聊天室广播（聊天室ID取自 message.room_id）
+   * </pre>
+   *
+   * <code>RELAY_ROOM = 2;</code>
+   */
+  RELAY_ROOM(2),
+  /**
+   * <pre>
+   * user_ids 在源节点上线
+   * </pre>
+   *
+   * <code>PRESENCE_ONLINE = 3;</code>
+   */
+  PRESENCE_ONLINE(3),
+  /**
+   * <pre>
+   * user_ids 在源节点下线
+   * </pre>
+   *
+   * <code>PRESENCE_OFFLINE = 4;</code>
+   */
+  PRESENCE_OFFLINE(4),
+  /**
+   * <pre>
+   * 源节点当前全部在线用户（替换此前记录）
+   * </pre>
+   *
+   * <code>PRESENCE_SNAPSHOT = 5;</code>
+   */
+  PRESENCE_SNAPSHOT(5),
+  UNRECOGNIZED(-1),
+  ;
+
+  /**
+   * <pre>
+   * 私聊：投递给 user_ids 在目标节点上的连接
+   * </pre>
+   *
+   * <code>RELAY_PRIVATE = 0;</code>
+   */
+  public static final int RELAY_PRIVATE_VALUE = 0;
+  /**
+   * <pre>
+   * 大厅广播
+   * </pre>
+   *
+   * <code>RELAY_LOBBY = 1;</code>
+   */
+  public static final int RELAY_LOBBY_VALUE = 1;
+  /**
+   * <pre>
+   * 聊天室广播（聊天室ID取自 message.room_id）
+   * </pre>
+   *
+   * <code>RELAY_ROOM = 2;</code>
+   */
+  public static final int RELAY_ROOM_VALUE = 2;
+  /**
+   * <pre>
+   * user_ids 在源节点上线
+   * </pre>
+   *
+   * <code>PRESENCE_ONLINE = 3;</code>
+   */
+  public static final int PRESENCE_ONLINE_VALUE = 3;
+  /**
+   * <pre>
+   * user_ids 在源节点下线
+   * </pre>
+   *
+   * <code>PRESENCE_OFFLINE = 4;</code>
+   */
+  public static final int PRESENCE_OFFLINE_VALUE = 4;
+  /**
+   * <pre>
+   * 源节点当前全部在线用户（替换此前记录）
+   * </pre>
+   *
+   * <code>PRESENCE_SNAPSHOT = 5;</code>
+   */
+  public static final int PRESENCE_SNAPSHOT_VALUE = 5;
+
+
+  public final int getNumber() {
+    if (this == UNRECOGNIZED) {
+      throw new java.lang.IllegalArgumentException(
+          "Can't get the number of an unknown enum value.");
+    }
+    return value;
+  }
+
+  /**
+   * @param value The numeric wire value of the corresponding enum entry.
+   * @return The enum associated with the given numeric wire value.
+   * @deprecated Use {@link #forNumber(int)} instead.
+   */
+  @java.lang.Deprecated
+  public static RelayType valueOf(int value) {
+    return forNumber(value);
+  }
+
+  /**
+   * @param value The numeric wire value of the corresponding enum entry.
+   * @return The enum associated with the given numeric wire value.
+   */
+  public static RelayType forNumber(int value) {
+    switch (value) {
+      case 0: return RELAY_PRIVATE;
+      case 1: return RELAY_LOBBY;
+      case 2: return RELAY_ROOM;
+      case 3: return PRESENCE_ONLINE;
+      case 4: return PRESENCE_OFFLINE;
+      case 5: return PRESENCE_SNAPSHOT;
+      default: return null;
+    }
+  }
+
+  public static com.google.protobuf.Internal.EnumLiteMap<RelayType>
+      internalGetValueMap() {
+    return internalValueMap;
+  }
+  private static final com.google.protobuf.Internal.EnumLiteMap<
+      RelayType> internalValueMap =
+        new com.google.protobuf.Internal.EnumLiteMap<RelayType>() {
+          public RelayType findValueByNumber(int number) {
+            return RelayType.forNumber(number);
+          }
+        };
+
+  public final com.google.protobuf.Descriptors.EnumValueDescriptor
+      getValueDescriptor() {
+    if (this == UNRECOGNIZED) {
+      throw new java.lang.IllegalStateException(
+          "Can't get the descriptor of an unrecognized enum value.");
+    }
+    return getDescriptor().getValues().get(ordinal());
+  }
+  public final com.google.protobuf.Descriptors.EnumDescriptor
+      getDescriptorForType() {
+    return getDescriptor();
+  }
+  public static final com.google.protobuf.Descriptors.EnumDescriptor
+      getDescriptor() {
+    return com.app.novelvoice.netty.proto.ClusterRelayProto.getDescriptor().getEnumTypes().get(0);
+  }
+
+  private static final RelayType[] VALUES = values();
+
+  public static RelayType valueOf(
+      com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+    if (desc.getType() != getDescriptor()) {
+      throw new java.lang.IllegalArgumentException(
+        "EnumValueDescriptor is not for this type.");
+    }
+    if (desc.getIndex() == -1) {
+      return UNRECOGNIZED;
+    }
+    return VALUES[desc.getIndex()];
+  }
+
+  private final int value;
+
+  private RelayType(int value) {
+    this.value = value;
+  }
+
+  // @@protoc_insertion_point(enum_scope:com.app.novelvoice.netty.proto.RelayType)
+}
+
@@ -14,24 +14,30 @@ import java.util.List;
 public interface ChatService {
     
     /**
-     * 保存群聊消息
+     * 保存 WebSocket 消息（大厅、聊天室、私聊；异步批量写入，不阻塞调用线程）
+     *
+     * @return false 表示写入队列已满、消息未能持久化（已计数丢弃）
      */
-    void saveMessage(Message message);
+    boolean saveMessage(Message message);
 
     /**
-     * 获取群聊历史消息
+     * 按消息ID游标分页获取群聊历史消息
+     *
+     * @param beforeId 取早于该ID的消息（从新到旧），首页两个游标都不传
+     * @param afterId  取晚于该ID的消息（从旧到新），用于补齐新消息
+     * @param limit    每页数量
      */
-    List<MessageVO> getHistoryMessages();
+    List<MessageVO> getHistoryMessages(Long beforeId, Long afterId, int limit);
     
     /**
-     * 发送私聊消息
+     * 发送私聊消息（同步写入，返回带ID的消息）
      */
     MessageVO sendPrivateMessage(PrivateMessageRequest request);
     
     /**
-     * 获取私聊消息历史
+     * 按消息ID游标分页获取私聊消息历史（游标含义同 {@link #getHistoryMessages(Long, Long, int)}）
      */
-    List<MessageVO> getPrivateMessages(Long userId, Long targetUserId, int limit);
+    List<MessageVO> getPrivateMessages(Long userId, Long targetUserId, Long beforeId, Long afterId, int limit);
     
     /**
      * 获取用户的会话列表
@@ -44,9 +50,17 @@ public interface ChatService {
     void markAsRead(Long userId, Long senderId);
     
     /**
-     * 获取在线用户列表
+     * 获取用户的未读私聊消息总数
      */
-    List<UserVO> getOnlineUsers();
+    int getUnreadCount(Long userId);
+    
+    /**
+     * 分页获取在线用户列表（按用户ID升序，从内存在线集合读取）
+     *
+     * @param afterId 上一页最后一个用户ID，首页传 0
+     * @param limit   每页数量
+     */
+    List<UserVO> getOnlineUsers(long afterId, int limit);
     
     /**
      * 获取所有用户列表（用于私聊选择）
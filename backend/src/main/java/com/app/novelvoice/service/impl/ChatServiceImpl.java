@@ -1,12 +1,17 @@
 package com.app.novelvoice.service.impl;
 
 import com.app.novelvoice.dto.PrivateMessageRequest;
-import com.app.novelvoice.entity.Conversation;
 import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.entity.UnreadCounter;
 import com.app.novelvoice.entity.User;
-import com.app.novelvoice.mapper.ConversationMapper;
 import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.UnreadCounterMapper;
 import com.app.novelvoice.mapper.UserMapper;
+import com.app.novelvoice.netty.ConversationIdCache;
+import com.app.novelvoice.netty.ConversationListCache;
+import com.app.novelvoice.netty.MessageWriteBehindQueue;
+import com.app.novelvoice.netty.PresenceManager;
+import com.app.novelvoice.netty.UserProfileCache;
 import com.app.novelvoice.service.ChatService;
 import com.app.novelvoice.vo.ConversationVO;
 import com.app.novelvoice.vo.MessageVO;
@@ -14,11 +19,15 @@ import com.app.novelvoice.vo.UserVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -30,39 +39,50 @@ public class ChatServiceImpl implements ChatService {
     @Autowired
     private MessageMapper messageMapper;
     
-    @Autowired
-    private ConversationMapper conversationMapper;
-    
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UnreadCounterMapper unreadCounterMapper;
+
+    @Autowired
+    private MessageWriteBehindQueue messageWriteBehindQueue;
+
+    @Autowired
+    private PresenceManager presenceManager;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private ConversationListCache conversationListCache;
+
+    @Autowired
+    private ConversationIdCache conversationIdCache;
+
     @Override
-    public void saveMessage(Message message) {
-        // 群聊消息，receiverId 为空
-        message.setReceiverId(null);
-        message.setConversationId(null);
+    public boolean saveMessage(Message message) {
+        // receiverId / roomId 由调用方按消息种类填写，私聊的会话ID在写线程上解析
         message.setIsRead(false);
-        message.setCreateTime(new Date());
-        messageMapper.insert(message);
+        if (message.getCreateTime() == null) {
+            message.setCreateTime(new Date());
+        }
+        // 交给异步批量写入队列，调用方（Netty 事件循环）不等待数据库
+        return messageWriteBehindQueue.submit(message);
     }
 
     @Override
-    public List<MessageVO> getHistoryMessages() {
-        List<Message> list = messageMapper.selectAll();
-        return list.stream().map(this::convertToVO).collect(Collectors.toList());
+    public List<MessageVO> getHistoryMessages(Long beforeId, Long afterId, int limit) {
+        List<Message> list = messageMapper.selectLobbyPage(beforeId, afterId, limit);
+        return convertToVO(list);
     }
 
     @Override
-    @Transactional
     public MessageVO sendPrivateMessage(PrivateMessageRequest request) {
-        // 获取或创建会话
-        Long conversationId = getOrCreateConversation(request.getSenderId(), request.getReceiverId());
-        
         // 创建消息
         Message message = new Message();
         message.setSenderId(request.getSenderId());
         message.setReceiverId(request.getReceiverId());
-        message.setConversationId(conversationId);
         message.setContent(request.getContent());
         message.setType(request.getType() != null ? request.getType() : 0);
         message.setFileUrl(request.getFileUrl());
@@ -71,71 +91,66 @@ public class ChatServiceImpl implements ChatService {
         message.setIsRead(false);
         message.setCreateTime(new Date());
         
-        messageMapper.insert(message);
-        
-        // 更新会话最后消息
-        Conversation conversation = conversationMapper.selectById(conversationId);
-        conversation.setLastMessageId(message.getId());
-        conversation.setLastMessageTime(new Date());
-        conversation.setUpdateTime(new Date());
-        conversationMapper.update(conversation);
+        // 与 WebSocket 私聊同一写入路径：缓存解析会话ID、插入消息、单条语句前移会话最后消息
+        messageWriteBehindQueue.writeThrough(message);
         
-        return convertToVO(message);
+        return convertToVO(Collections.singletonList(message)).get(0);
     }
 
     @Override
-    public List<MessageVO> getPrivateMessages(Long userId, Long targetUserId, int limit) {
-        List<Message> messages = messageMapper.selectByUsers(userId, targetUserId, limit);
-        return messages.stream().map(this::convertToVO).collect(Collectors.toList());
+    public List<MessageVO> getPrivateMessages(Long userId, Long targetUserId, Long beforeId, Long afterId, int limit) {
+        // 按会话ID分页；两人还没有会话时没有历史，查询不创建会话
+        Long conversationId = conversationIdCache.find(userId, targetUserId);
+        if (conversationId == null) {
+            return new ArrayList<>();
+        }
+        List<Message> messages = messageMapper.selectConversationPage(conversationId, beforeId, afterId, limit);
+        List<MessageVO> voList = convertToVO(messages);
+        applyReadWatermarks(voList, userId, targetUserId);
+        return voList;
     }
 
     @Override
     public List<ConversationVO> getConversations(Long userId) {
-        List<Conversation> conversations = conversationMapper.selectByUserId(userId);
-        List<ConversationVO> voList = new ArrayList<>();
-        
-        for (Conversation conv : conversations) {
-            ConversationVO vo = new ConversationVO();
-            vo.setId(conv.getId());
-            
-            // 确定对方用户ID
-            Long targetUserId = conv.getUser1Id().equals(userId) ? conv.getUser2Id() : conv.getUser1Id();
-            vo.setTargetUserId(targetUserId);
-            
-            // 获取对方用户信息
-            User targetUser = userMapper.selectById(targetUserId);
-            if (targetUser != null) {
-                vo.setTargetNickname(targetUser.getNickname());
-                vo.setTargetAvatar(targetUser.getAvatar());
-            }
-            
-            // 获取最后一条消息
-            if (conv.getLastMessageId() != null) {
-                // 简化处理，直接使用会话的最后消息时间
-                vo.setLastMessageTime(conv.getLastMessageTime());
-            }
-            
-            // 获取未读消息数
-            int unreadCount = messageMapper.countUnreadBySender(userId, targetUserId);
-            vo.setUnreadCount(unreadCount);
-            
-            voList.add(vo);
+        // 会话列表快照：未命中时一条联表查询带出对方资料、最后消息预览和未读数
+        List<ConversationVO> voList = conversationListCache.get(userId);
+        for (ConversationVO vo : voList) {
+            vo.setTargetOnline(presenceManager.isOnline(vo.getTargetUserId()));
         }
-        
         return voList;
     }
 
     @Override
     public void markAsRead(Long userId, Long senderId) {
-        messageMapper.markAsRead(userId, senderId);
+        // 未读计数清零并前移已读水位，不再逐条更新消息
+        unreadCounterMapper.markRead(userId, senderId);
+        conversationListCache.markedAsRead(userId, senderId);
     }
 
     @Override
-    public List<UserVO> getOnlineUsers() {
-        // 简化实现：返回最近活跃的用户
-        // 实际生产环境中应该使用 Redis 或内存缓存维护在线用户列表
-        List<User> users = userMapper.selectAll();
-        return users.stream().map(this::convertUserToVO).collect(Collectors.toList());
+    public int getUnreadCount(Long userId) {
+        return unreadCounterMapper.sumUnread(userId);
+    }
+
+    @Override
+    public List<UserVO> getOnlineUsers(long afterId, int limit) {
+        List<Long> userIds = presenceManager.getOnlineUserIds(afterId, limit);
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 一次 IN 查询补全用户资料，并按在线集合的顺序返回
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userMapper.selectByIds(userIds)) {
+            users.put(user.getId(), user);
+        }
+        List<UserVO> voList = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            if (user != null) {
+                voList.add(convertUserToVO(user));
+            }
+        }
+        return voList;
     }
 
     @Override
@@ -148,44 +163,48 @@ public class ChatServiceImpl implements ChatService {
     }
     
     /**
-     * 获取或创建会话
+     * 将消息实体批量转换为 VO
+     * 发送者资料先收集去重后的用户ID，再从资料缓存批量读取，未命中部分合并为一次 IN 查询，
+     * 查询次数与消息条数无关。
      */
-    private Long getOrCreateConversation(Long user1Id, Long user2Id) {
-        Conversation existing = conversationMapper.selectByUsers(user1Id, user2Id);
-        if (existing != null) {
-            return existing.getId();
+    private List<MessageVO> convertToVO(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        // 创建新会话，确保 user1Id < user2Id 以保证唯一性
-        Conversation conversation = new Conversation();
-        if (user1Id < user2Id) {
-            conversation.setUser1Id(user1Id);
-            conversation.setUser2Id(user2Id);
-        } else {
-            conversation.setUser1Id(user2Id);
-            conversation.setUser2Id(user1Id);
+        Set<Long> senderIds = new HashSet<>();
+        for (Message msg : messages) {
+            senderIds.add(msg.getSenderId());
         }
-        conversation.setCreateTime(new Date());
-        conversationMapper.insert(conversation);
-        
-        return conversation.getId();
+        Map<Long, UserProfileCache.Profile> senders = userProfileCache.getAll(senderIds);
+        List<MessageVO> voList = new ArrayList<>(messages.size());
+        for (Message msg : messages) {
+            MessageVO vo = new MessageVO();
+            BeanUtils.copyProperties(msg, vo);
+            UserProfileCache.Profile sender = senders.get(msg.getSenderId());
+            if (sender != null) {
+                vo.setSenderNickname(sender.getNickname());
+                vo.setSenderAvatar(sender.getAvatar());
+            }
+            voList.add(vo);
+        }
+        return voList;
     }
     
     /**
-     * 将消息实体转换为 VO
+     * 按双方的已读水位填写私聊消息的已读状态（一次查询）
      */
-    private MessageVO convertToVO(Message msg) {
-        MessageVO vo = new MessageVO();
-        BeanUtils.copyProperties(msg, vo);
-        
-        // 获取发送者信息
-        User sender = userMapper.selectById(msg.getSenderId());
-        if (sender != null) {
-            vo.setSenderNickname(sender.getNickname());
-            vo.setSenderAvatar(sender.getAvatar());
+    private void applyReadWatermarks(List<MessageVO> voList, Long user1Id, Long user2Id) {
+        if (voList.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> watermarks = new HashMap<>();
+        for (UnreadCounter counter : unreadCounterMapper.selectPair(user1Id, user2Id)) {
+            watermarks.put(counter.getUserId(), counter.getReadMessageId());
+        }
+        for (MessageVO vo : voList) {
+            Long watermark = vo.getReceiverId() != null ? watermarks.get(vo.getReceiverId()) : null;
+            vo.setIsRead(watermark != null && vo.getId() != null && vo.getId() <= watermark);
         }
-        
-        return vo;
     }
     
     /**
@@ -199,13 +218,7 @@ public class ChatServiceImpl implements ChatService {
         vo.setAvatar(user.getAvatar());
         vo.setLastLoginTime(user.getLastLoginTime());
         vo.setCreateTime(user.getCreateTime());
-        // 简化的在线判断：最近10分钟登录过视为在线
-        if (user.getLastLoginTime() != null) {
-            long diff = System.currentTimeMillis() - user.getLastLoginTime().getTime();
-            vo.setOnline(diff < 10 * 60 * 1000);
-        } else {
-            vo.setOnline(false);
-        }
+        vo.setOnline(presenceManager.isOnline(user.getId()));
         return vo;
     }
 }
@@ -3,6 +3,8 @@ package com.app.novelvoice.service.impl;
 import com.app.novelvoice.common.BusinessException;
 import com.app.novelvoice.entity.User;
 import com.app.novelvoice.mapper.UserMapper;
+import com.app.novelvoice.netty.TokenCache;
+import com.app.novelvoice.netty.UserProfileCache;
 import com.app.novelvoice.service.UserService;
 import com.app.novelvoice.vo.UserVO;
 import com.app.novelvoice.util.PasswordUtil;
@@ -24,6 +26,12 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
     @Override
     public UserVO login(String username, String password) {
         // 参数验证
@@ -49,6 +57,10 @@ public class UserServiceImpl implements UserService {
         user.setLastLoginTime(new Date());
         user.setUpdateTime(new Date());
         userMapper.update(user);
+        // 旧 token 已被覆盖，清掉 WebSocket 握手缓存
+        tokenCache.invalidateUser(user.getId());
+        // update 会写回昵称和头像，同步刷新资料缓存
+        userProfileCache.put(user);
         
         return convertToVO(user);
     }
@@ -79,6 +91,7 @@ public class UserServiceImpl implements UserService {
         user.setNickname(nickname.trim());
         user.setCreateTime(new Date());
         userMapper.insert(user);
+        userProfileCache.put(user);
 
         return convertToVO(user);
     }
@@ -98,6 +111,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void logout(Long userId) {
         userMapper.updateToken(userId, null);
+        tokenCache.invalidateUser(userId);
     }
 
     @Override
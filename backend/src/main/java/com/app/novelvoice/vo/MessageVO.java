@@ -14,6 +14,8 @@ public class MessageVO {
     private String senderAvatar;
     private Long receiverId;
     private Long conversationId;
+    private Long roomId;
+    private Long seq;
     private String content;
     private Integer type;
     private String fileUrl;
@@ -95,6 +95,8 @@ CREATE TABLE `messages` (
   `sender_id` bigint(20) NOT NULL COMMENT '发送者ID',
   `receiver_id` bigint(20) DEFAULT NULL COMMENT '接收者ID（NULL表示群聊）',
   `conversation_id` bigint(20) DEFAULT NULL COMMENT '会话ID（私聊时使用）',
+  `room_id` bigint(20) DEFAULT NULL COMMENT '聊天室ID（房间消息时使用）',
+  `seq` bigint(20) DEFAULT NULL COMMENT '服务端分配的消息序号（断线补发用）',
   `content` text COMMENT '消息内容',
   `type` int(11) DEFAULT 0 COMMENT '消息类型：0-文本, 1-图片, 2-表情, 3-文件',
   `file_url` varchar(500) DEFAULT NULL COMMENT '文件URL（图片/文件类型时使用）',
@@ -107,21 +109,59 @@ CREATE TABLE `messages` (
   `update_by` varchar(50) DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `idx_sender_id` (`sender_id`),
-  KEY `idx_receiver_id` (`receiver_id`),
+  KEY `idx_receiver_room_id` (`receiver_id`, `room_id`, `id`),
   KEY `idx_conversation_id` (`conversation_id`),
+  KEY `idx_room_id` (`room_id`, `id`),
+  KEY `idx_room_seq` (`room_id`, `seq`),
+  KEY `idx_sender_receiver_seq` (`sender_id`, `receiver_id`, `seq`),
+  KEY `idx_receiver_seq` (`receiver_id`, `seq`),
   KEY `idx_create_time` (`create_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='消息表';
 
+-- 后台数据迁移进度：记录游标和完成标记，重启后从断点继续，完成后不再运行
+DROP TABLE IF EXISTS `migration_progress`;
+CREATE TABLE `migration_progress` (
+  `name` varchar(64) NOT NULL COMMENT '迁移任务名',
+  `cursor_key` bigint(20) NOT NULL DEFAULT 0 COMMENT '游标第一列（如接收者ID）',
+  `cursor_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '游标第二列（消息ID）',
+  `finished` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否已完成',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='后台数据迁移进度表';
+
+-- 私聊未读计数：消息写入时按接收者、发送者累加，标记已读时清零并前移已读水位
+DROP TABLE IF EXISTS `unread_counter`;
+CREATE TABLE `unread_counter` (
+  `user_id` bigint(20) NOT NULL COMMENT '接收者ID',
+  `peer_id` bigint(20) NOT NULL COMMENT '发送者ID',
+  `conversation_id` bigint(20) NOT NULL COMMENT '会话ID',
+  `unread_count` int(11) NOT NULL DEFAULT 0 COMMENT '未读消息数',
+  `read_message_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '已读水位：该发送者发来的ID不大于此值的消息均已读',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`, `peer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私聊未读计数表';
+
+-- 离线收件箱溢出水位：用户有序号不小于 from_seq 的私聊消息尚未投递
+DROP TABLE IF EXISTS `offline_inbox`;
+CREATE TABLE `offline_inbox` (
+  `user_id` bigint(20) NOT NULL COMMENT '接收者ID',
+  `from_seq` bigint(20) NOT NULL COMMENT '最早一条未投递消息的序号',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='离线收件箱溢出表';
+
 -- 在线用户表（新增，用于追踪在线状态）
 DROP TABLE IF EXISTS `online_users`;
 CREATE TABLE `online_users` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT,
   `user_id` bigint(20) NOT NULL COMMENT '用户ID',
   `channel_id` varchar(100) DEFAULT NULL COMMENT 'WebSocket通道ID',
+  `node_id` varchar(64) NOT NULL DEFAULT '' COMMENT '连接所在的聊天节点ID',
   `last_active_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '最后活跃时间',
   `create_time` datetime DEFAULT CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`),
-  UNIQUE KEY `uk_user_id` (`user_id`)
+  UNIQUE KEY `uk_user_node` (`user_id`, `node_id`),
+  KEY `idx_node_id` (`node_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='在线用户表';
 
 -- 角色表
@@ -0,0 +1,80 @@
+-- 增量升级脚本：已部署的数据库按顺序执行对应版本的语句
+-- 新建数据库直接执行 schema.sql 即可，无需执行本文件
+
+USE `novel_voice_db`;
+
+-- 聊天室消息：消息表增加聊天室ID
+ALTER TABLE `messages`
+  ADD COLUMN `room_id` bigint(20) DEFAULT NULL COMMENT '聊天室ID（房间消息时使用）' AFTER `conversation_id`,
+  ADD KEY `idx_room_id` (`room_id`, `id`);
+
+-- 在线状态写回：在线用户表记录所在节点，节点重启时按节点清理残留
+ALTER TABLE `online_users`
+  ADD COLUMN `node_id` varchar(64) DEFAULT NULL COMMENT '连接所在的聊天节点ID' AFTER `channel_id`,
+  ADD KEY `idx_node_id` (`node_id`);
+
+-- 断线补发：消息表增加服务端序号及按序号的键集查询索引
+ALTER TABLE `messages`
+  ADD COLUMN `seq` bigint(20) DEFAULT NULL COMMENT '服务端分配的消息序号（断线补发用）' AFTER `room_id`,
+  ADD KEY `idx_room_seq` (`room_id`, `seq`),
+  ADD KEY `idx_sender_receiver_seq` (`sender_id`, `receiver_id`, `seq`);
+
+-- 离线收件箱：内存收件箱溢出时记录水位，上线时按接收者和序号查询未投递的私聊消息
+CREATE TABLE IF NOT EXISTS `offline_inbox` (
+  `user_id` bigint(20) NOT NULL COMMENT '接收者ID',
+  `from_seq` bigint(20) NOT NULL COMMENT '最早一条未投递消息的序号',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='离线收件箱溢出表';
+
+ALTER TABLE `messages`
+  ADD KEY `idx_receiver_seq` (`receiver_id`, `seq`);
+
+-- 会话列表：按发送者聚合某个接收者的未读数
+ALTER TABLE `messages`
+  ADD KEY `idx_receiver_unread` (`receiver_id`, `is_read`, `sender_id`);
+
+-- 私聊未读计数：由消息的 is_read 回填一次，此后只维护计数和已读水位，不再逐行更新 is_read
+CREATE TABLE IF NOT EXISTS `unread_counter` (
+  `user_id` bigint(20) NOT NULL COMMENT '接收者ID',
+  `peer_id` bigint(20) NOT NULL COMMENT '发送者ID',
+  `conversation_id` bigint(20) NOT NULL COMMENT '会话ID',
+  `unread_count` int(11) NOT NULL DEFAULT 0 COMMENT '未读消息数',
+  `read_message_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '已读水位：该发送者发来的ID不大于此值的消息均已读',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`, `peer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私聊未读计数表';
+
+INSERT INTO `unread_counter` (`user_id`, `peer_id`, `conversation_id`, `unread_count`, `read_message_id`)
+SELECT `receiver_id`, `sender_id`, MAX(`conversation_id`), SUM(`is_read` = 0),
+       IFNULL(MAX(CASE WHEN `is_read` = 1 THEN `id` END), 0)
+FROM `messages`
+WHERE `receiver_id` IS NOT NULL AND `conversation_id` IS NOT NULL AND `receiver_id` <> `sender_id`
+GROUP BY `receiver_id`, `sender_id`
+ON DUPLICATE KEY UPDATE `unread_count` = VALUES(`unread_count`), `read_message_id` = VALUES(`read_message_id`);
+
+ALTER TABLE `messages`
+  DROP KEY `idx_receiver_unread`;
+
+-- 历史分页：大厅（receiver_id、room_id 均为空）和私聊单个方向按消息ID键集翻页，替换原 receiver_id 单列索引
+ALTER TABLE `messages`
+  DROP KEY `idx_receiver_id`,
+  ADD KEY `idx_receiver_room_id` (`receiver_id`, `room_id`, `id`);
+
+-- 后台数据迁移进度（私聊消息会话ID补填等一次性任务的断点和完成标记）
+CREATE TABLE IF NOT EXISTS `migration_progress` (
+  `name` varchar(64) NOT NULL COMMENT '迁移任务名',
+  `cursor_key` bigint(20) NOT NULL DEFAULT 0 COMMENT '游标第一列（如接收者ID）',
+  `cursor_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '游标第二列（消息ID）',
+  `finished` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否已完成',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='后台数据迁移进度表';
+
+-- 在线用户按节点登记：同一用户可同时在多个节点在线，每个节点各一行，某个节点下线只删除自己的那一行
+DELETE FROM `online_users` WHERE `node_id` IS NULL;
+
+ALTER TABLE `online_users`
+  MODIFY COLUMN `node_id` varchar(64) NOT NULL DEFAULT '' COMMENT '连接所在的聊天节点ID',
+  DROP KEY `uk_user_id`,
+  ADD UNIQUE KEY `uk_user_node` (`user_id`, `node_id`);
@@ -0,0 +1,175 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.DefaultAttributeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 断线补发：缓冲区缺口判断、时钟偏差窗口与分页
+ */
+class MessageReplayBufferTest {
+
+    private static final long BASE = 1L << 30;
+
+    private final NettyProperties nettyProperties = new NettyProperties();
+
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+
+    private final List<ChatMessage> written = new CopyOnWriteArrayList<>();
+
+    private final DefaultEventLoop eventLoop = new DefaultEventLoop();
+
+    private Channel channel;
+
+    private MessageReplayBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        nettyProperties.getReplay().setClockSkewMs(0);
+
+        UserProfileCache userProfileCache = mock(UserProfileCache.class);
+        when(userProfileCache.getAll(anyCollection())).thenReturn(Collections.emptyMap());
+
+        channel = mock(Channel.class);
+        DefaultAttributeMap attributes = new DefaultAttributeMap();
+        when(channel.attr(any())).thenAnswer(invocation -> attributes.attr(invocation.getArgument(0)));
+        when(channel.eventLoop()).thenReturn(eventLoop);
+        when(channel.isActive()).thenReturn(true);
+        when(channel.isWritable()).thenReturn(true);
+        when(channel.write(any(), any())).thenAnswer(invocation -> {
+            written.add(invocation.getArgument(0));
+            return null;
+        });
+
+        buffer = new MessageReplayBuffer();
+        ReflectionTestUtils.setField(buffer, "messageMapper", messageMapper);
+        ReflectionTestUtils.setField(buffer, "nettyProperties", nettyProperties);
+        ReflectionTestUtils.setField(buffer, "userProfileCache", userProfileCache);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.stop();
+        eventLoop.shutdownGracefully(0, 1, TimeUnit.SECONDS).await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void replaysFromMemoryWhenGapIsInsideRing() throws Exception {
+        nettyProperties.getReplay().setBufferSize(4);
+        append(10, 11, 12, 13, 14, 15);
+
+        // 缓冲区只剩 12..15，11 之后的消息都在内存里
+        assertThat(seqs(replay(11, false))).containsExactly(12L, 13L, 14L, 15L, 15L);
+        List<ChatMessage> frames = replay(12, false);
+        assertThat(seqs(frames)).containsExactly(13L, 14L, 15L, 15L);
+        assertThat(frames.get(frames.size() - 1).getType()).isEqualTo(MessageReplayBuffer.RESUME_DONE);
+        verify(messageMapper, never()).selectAfterSeq(any(), any(), any(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void readsDatabaseForPartOfGapOlderThanRing() throws Exception {
+        nettyProperties.getReplay().setBufferSize(4);
+        append(10, 11, 12, 13, 14, 15);
+        when(messageMapper.selectAfterSeq(isNull(), isNull(), isNull(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(rows(6, 7, 8, 9, 10, 11));
+
+        assertThat(seqs(replay(5, false))).containsExactly(6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 15L);
+        // 只查缓冲区之前的缺口 (5, 11]
+        verify(messageMapper).selectAfterSeq(null, null, null, 5, 11, nettyProperties.getReplay().getMaxReplay());
+    }
+
+    @Test
+    void looksBackClockSkewWindowForLateRelayedMessages() throws Exception {
+        nettyProperties.getReplay().setClockSkewMs(1);
+        append(BASE - 10000, BASE + 100);
+        // 客户端已收到 BASE + 100 后，时钟落后的节点转来一条序号更小的消息
+        append(BASE + 50);
+
+        List<ChatMessage> frames = replay(BASE + 100, false);
+        assertThat(seqs(frames)).containsExactly(BASE + 50, BASE + 100, BASE + 100);
+        assertThat(frames.get(frames.size() - 1).getType()).isEqualTo(MessageReplayBuffer.RESUME_DONE);
+
+        // 续页请求不再回看
+        assertThat(seqs(replay(BASE + 100, true))).containsExactly(BASE + 100);
+    }
+
+    @Test
+    void overlapDoesNotCountTowardsPageLimit() throws Exception {
+        nettyProperties.getReplay().setClockSkewMs(1);
+        nettyProperties.getReplay().setMaxReplay(2);
+        append(BASE - 10000, BASE - 1000, BASE - 500, BASE, BASE + 1, BASE + 2, BASE + 3);
+
+        List<ChatMessage> frames = replay(BASE, false);
+        assertThat(seqs(frames)).containsExactly(BASE - 1000, BASE - 500, BASE, BASE + 1, BASE + 2, BASE + 2);
+        assertThat(frames.get(frames.size() - 1).getType()).isEqualTo(MessageReplayBuffer.RESUME_MORE);
+
+        frames = replay(BASE + 2, true);
+        assertThat(seqs(frames)).containsExactly(BASE + 3, BASE + 3);
+        assertThat(frames.get(frames.size() - 1).getType()).isEqualTo(MessageReplayBuffer.RESUME_DONE);
+    }
+
+    private void append(long... seqs) {
+        for (long seq : seqs) {
+            buffer.appendRoom(0, ChatMessage.newBuilder().setSenderId(1).setSeq(seq).setContent("m" + seq).build());
+        }
+    }
+
+    private static List<Message> rows(long... seqs) {
+        List<Message> rows = new ArrayList<>();
+        for (long seq : seqs) {
+            Message row = new Message();
+            row.setSenderId(1L);
+            row.setSeq(seq);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 发起补发并等到回执写出，返回拆开批量帧后的消息（最后一条为回执）
+     */
+    private List<ChatMessage> replay(long lastSeq, boolean continuation) throws InterruptedException {
+        written.clear();
+        buffer.replayRoom(channel, 0, lastSeq, continuation);
+        OfflineInboxTest.waitUntil(() -> {
+            List<ChatMessage> frames = OfflineInboxTest.unbatch(written);
+            return !frames.isEmpty() && frames.get(frames.size() - 1).getKind() == MessageKind.RESUME;
+        });
+        return OfflineInboxTest.unbatch(written);
+    }
+
+    private static List<Long> seqs(List<ChatMessage> frames) {
+        List<Long> seqs = new ArrayList<>();
+        for (ChatMessage frame : frames) {
+            seqs.add(frame.getSeq());
+        }
+        return seqs;
+    }
+}
@@ -0,0 +1,223 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.entity.UnreadCounter;
+import com.app.novelvoice.mapper.ConversationMapper;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.UnreadCounterMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 消息写入队列：攒批、批量失败降级逐条、队列满时的溢出策略
+ */
+class MessageWriteBehindQueueTest {
+
+    private static final long CONVERSATION_ID = 7;
+
+    private final NettyProperties nettyProperties = new NettyProperties();
+
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+
+    private final ConversationMapper conversationMapper = mock(ConversationMapper.class);
+
+    private final UnreadCounterMapper unreadCounterMapper = mock(UnreadCounterMapper.class);
+
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * 每次 insertBatch 的条数
+     */
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    /**
+     * 逐条 insert 所在的线程名
+     */
+    private final List<String> insertThreads = new CopyOnWriteArrayList<>();
+
+    private MessageWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        nettyProperties.getPersist().setBatchSize(10);
+        nettyProperties.getPersist().setFlushIntervalMs(200);
+        nettyProperties.getPersist().setShutdownTimeoutMs(2000);
+
+        doAnswer(invocation -> {
+            List<Message> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            batch.forEach(message -> message.setId(ids.incrementAndGet()));
+            return batch.size();
+        }).when(messageMapper).insertBatch(anyList());
+        doAnswer(invocation -> {
+            insertThreads.add(Thread.currentThread().getName());
+            Message message = invocation.getArgument(0);
+            message.setId(ids.incrementAndGet());
+            return 1;
+        }).when(messageMapper).insert(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.drainAndStop();
+        }
+    }
+
+    @Test
+    void batchesWithinWindowAndAggregatesConversationAndUnreadUpdates() throws Exception {
+        start();
+        for (int i = 0; i < 25; i++) {
+            assertThat(queue.submit(message(i))).isTrue();
+        }
+        assertThat(queue.awaitPersisted(5000)).isTrue();
+
+        assertThat(batchSizes).containsExactly(10, 10, 5);
+        // 每批每个会话只前移一次最后消息，未读计数按接收者、发送者聚合为一行
+        verify(conversationMapper, times(3)).updateLastMessage(eq(CONVERSATION_ID), anyLong(), any());
+        verify(conversationMapper).updateLastMessage(eq(CONVERSATION_ID), eq(25L), any());
+        verify(unreadCounterMapper, times(3)).incrementBatch(anyList());
+        verify(unreadCounterMapper).incrementBatch(argThat((List<UnreadCounter> counters) -> counters.size() == 1
+                && counters.get(0).getUnreadCount() == 5 && counters.get(0).getUserId() == 2));
+        Map<String, Object> metrics = queue.getMetrics();
+        assertThat(metrics.get("persisted")).isEqualTo(25L);
+        assertThat(metrics.get("batches")).isEqualTo(3L);
+    }
+
+    @Test
+    void fallsBackToSingleInsertsWhenBatchFails() throws Exception {
+        when(messageMapper.insertBatch(anyList())).thenThrow(new IllegalStateException("batch failed"));
+        doAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            if ("bad".equals(message.getContent())) {
+                throw new IllegalStateException("bad row");
+            }
+            message.setId(ids.incrementAndGet());
+            return 1;
+        }).when(messageMapper).insert(any());
+        start();
+
+        queue.submit(message(1));
+        Message bad = message(2);
+        bad.setContent("bad");
+        queue.submit(bad);
+        queue.submit(message(3));
+        assertThat(queue.awaitPersisted(5000)).isTrue();
+
+        // 坏数据只影响自己，其余消息逐条写入成功
+        verify(messageMapper, times(3)).insert(any());
+        Map<String, Object> metrics = queue.getMetrics();
+        assertThat(metrics.get("persisted")).isEqualTo(2L);
+        assertThat(metrics.get("failed")).isEqualTo(1L);
+        assertThat(metrics.get("batches")).isEqualTo(0L);
+    }
+
+    @Test
+    void dropPolicyRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch gate = blockFirstBatch();
+        nettyProperties.getPersist().setQueueCapacity(1);
+        nettyProperties.getPersist().setOverflowPolicy(NettyProperties.OverflowPolicy.DROP);
+        start();
+
+        fillQueue();
+        assertThat(queue.submit(message(3))).isFalse();
+        assertThat(queue.getMetrics().get("dropped")).isEqualTo(1L);
+
+        gate.countDown();
+        assertThat(queue.awaitPersisted(5000)).isTrue();
+        assertThat(queue.getMetrics().get("persisted")).isEqualTo(2L);
+    }
+
+    @Test
+    void handoffPolicyWritesOverflowOffTheCallingThread() throws Exception {
+        CountDownLatch gate = blockFirstBatch();
+        nettyProperties.getPersist().setQueueCapacity(1);
+        nettyProperties.getPersist().setOverflowPolicy(NettyProperties.OverflowPolicy.HANDOFF);
+        start();
+
+        fillQueue();
+        assertThat(queue.submit(message(3))).isTrue();
+        // 溢出写线程不等待批量写入，落库屏障仍要等整批写完
+        OfflineInboxTest.waitUntil(() -> !insertThreads.isEmpty());
+        assertThat(insertThreads).singleElement().asString().startsWith("chat-message-overflow");
+        assertThat(queue.awaitPersisted(200)).isFalse();
+
+        gate.countDown();
+        assertThat(queue.awaitPersisted(5000)).isTrue();
+        Map<String, Object> metrics = queue.getMetrics();
+        assertThat(metrics.get("handedOff")).isEqualTo(1L);
+        assertThat(metrics.get("persisted")).isEqualTo(3L);
+    }
+
+    private void start() {
+        ConversationIdCache conversationIdCache = mock(ConversationIdCache.class);
+        when(conversationIdCache.resolve(anyLong(), anyLong())).thenReturn(CONVERSATION_ID);
+
+        queue = new MessageWriteBehindQueue();
+        ReflectionTestUtils.setField(queue, "messageMapper", messageMapper);
+        ReflectionTestUtils.setField(queue, "conversationMapper", conversationMapper);
+        ReflectionTestUtils.setField(queue, "conversationIdCache", conversationIdCache);
+        ReflectionTestUtils.setField(queue, "conversationListCache", mock(ConversationListCache.class));
+        ReflectionTestUtils.setField(queue, "unreadCounterMapper", unreadCounterMapper);
+        ReflectionTestUtils.setField(queue, "nettyProperties", nettyProperties);
+        ReflectionTestUtils.setField(queue, "transactionManager", mock(PlatformTransactionManager.class));
+        queue.start();
+    }
+
+    /**
+     * 第一批写入卡住，直到返回的闸门打开
+     */
+    private CountDownLatch blockFirstBatch() {
+        CountDownLatch gate = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            gate.await();
+            List<Message> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            batch.forEach(message -> message.setId(ids.incrementAndGet()));
+            return batch.size();
+        }).when(messageMapper).insertBatch(anyList());
+        return gate;
+    }
+
+    /**
+     * 写线程取走第一条并卡在写入上，第二条占满容量为 1 的队列
+     */
+    private void fillQueue() throws InterruptedException {
+        assertThat(queue.submit(message(1))).isTrue();
+        OfflineInboxTest.waitUntil(() -> queue.getQueueDepth() == 0);
+        // 等写线程攒批窗口结束、进入写入
+        Thread.sleep(nettyProperties.getPersist().getFlushIntervalMs() + 100);
+        assertThat(queue.submit(message(2))).isTrue();
+    }
+
+    private static Message message(long seq) {
+        Message message = new Message();
+        message.setSenderId(1L);
+        message.setReceiverId(2L);
+        message.setSeq(seq);
+        message.setContent("m" + seq);
+        return message;
+    }
+}
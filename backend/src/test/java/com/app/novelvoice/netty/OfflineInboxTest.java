@@ -0,0 +1,294 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.Message;
+import com.app.novelvoice.mapper.ConversationMapper;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.OfflineInboxMapper;
+import com.app.novelvoice.mapper.UnreadCounterMapper;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.DefaultAttributeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 离线收件箱：溢出、推送与写入队列落库之间的竞态
+ */
+class OfflineInboxTest {
+
+    private static final long USER_ID = 2;
+
+    private final NettyProperties nettyProperties = new NettyProperties();
+
+    /**
+     * 模拟的消息表
+     */
+    private final List<Message> table = new CopyOnWriteArrayList<>();
+
+    private final FakeOfflineInboxMapper offlineInboxMapper = new FakeOfflineInboxMapper();
+
+    private final CountDownLatch insertGate = new CountDownLatch(1);
+
+    private final List<ChatMessage> written = new CopyOnWriteArrayList<>();
+
+    private final DefaultEventLoop eventLoop = new DefaultEventLoop();
+
+    private final AtomicBoolean online = new AtomicBoolean();
+
+    private MessageWriteBehindQueue writeBehindQueue;
+
+    private OfflineInbox offlineInbox;
+
+    @BeforeEach
+    void setUp() {
+        nettyProperties.getOfflineInbox().setMaxPerUser(1);
+        nettyProperties.getOfflineInbox().setFlushWaitMs(5000);
+        nettyProperties.getPersist().setFlushIntervalMs(5);
+
+        MessageMapper messageMapper = mock(MessageMapper.class);
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            // 第一批写入卡住，模拟数据库落后
+            insertGate.await();
+            List<Message> batch = invocation.getArgument(0);
+            for (Message message : batch) {
+                message.setId(ids.incrementAndGet());
+            }
+            table.addAll(batch);
+            return batch.size();
+        }).when(messageMapper).insertBatch(anyList());
+        when(messageMapper.selectToUserFromSeq(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long userId = invocation.getArgument(0);
+            long fromSeq = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return table.stream()
+                    .filter(m -> m.getReceiverId() == userId && m.getSeq() >= fromSeq)
+                    .sorted((a, b) -> Long.compare(a.getSeq(), b.getSeq()))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+
+        ConversationIdCache conversationIdCache = mock(ConversationIdCache.class);
+        when(conversationIdCache.resolve(anyLong(), anyLong())).thenReturn(1L);
+
+        writeBehindQueue = new MessageWriteBehindQueue();
+        ReflectionTestUtils.setField(writeBehindQueue, "messageMapper", messageMapper);
+        ReflectionTestUtils.setField(writeBehindQueue, "conversationMapper", mock(ConversationMapper.class));
+        ReflectionTestUtils.setField(writeBehindQueue, "conversationIdCache", conversationIdCache);
+        ReflectionTestUtils.setField(writeBehindQueue, "conversationListCache", mock(ConversationListCache.class));
+        ReflectionTestUtils.setField(writeBehindQueue, "unreadCounterMapper", mock(UnreadCounterMapper.class));
+        ReflectionTestUtils.setField(writeBehindQueue, "nettyProperties", nettyProperties);
+        ReflectionTestUtils.setField(writeBehindQueue, "transactionManager", mock(PlatformTransactionManager.class));
+        writeBehindQueue.start();
+
+        Channel channel = mock(Channel.class);
+        when(channel.eventLoop()).thenReturn(eventLoop);
+        when(channel.isActive()).thenReturn(true);
+        when(channel.isWritable()).thenReturn(true);
+        DefaultAttributeMap attributes = new DefaultAttributeMap();
+        when(channel.attr(any())).thenAnswer(invocation -> attributes.attr(invocation.getArgument(0)));
+        when(channel.write(any(), any())).thenAnswer(invocation -> {
+            written.add(invocation.getArgument(0));
+            return null;
+        });
+        SessionRegistry sessionRegistry = mock(SessionRegistry.class);
+        when(sessionRegistry.getChannels(USER_ID)).thenAnswer(invocation ->
+                online.get() ? new Channel[]{channel} : new Channel[0]);
+
+        MessageReplayBuffer messageReplayBuffer = mock(MessageReplayBuffer.class);
+        when(messageReplayBuffer.toProtos(anyList())).thenAnswer(invocation -> {
+            List<Message> rows = invocation.getArgument(0);
+            return rows.stream().map(MessageReplayBuffer::toProto).collect(Collectors.toList());
+        });
+
+        offlineInbox = new OfflineInbox();
+        ReflectionTestUtils.setField(offlineInbox, "nettyProperties", nettyProperties);
+        ReflectionTestUtils.setField(offlineInbox, "sessionRegistry", sessionRegistry);
+        ReflectionTestUtils.setField(offlineInbox, "clusterRouter", mock(ClusterRouter.class));
+        ReflectionTestUtils.setField(offlineInbox, "messageMapper", messageMapper);
+        ReflectionTestUtils.setField(offlineInbox, "offlineInboxMapper", offlineInboxMapper);
+        ReflectionTestUtils.setField(offlineInbox, "messageReplayBuffer", messageReplayBuffer);
+        ReflectionTestUtils.setField(offlineInbox, "messageWriteBehindQueue", writeBehindQueue);
+        offlineInbox.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        insertGate.countDown();
+        offlineInbox.stop();
+        writeBehindQueue.drainAndStop();
+        eventLoop.shutdownGracefully(0, 1, TimeUnit.SECONDS).await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void pushWaitsForWriteBehindBeforeReadingSpilledMessages() throws Exception {
+        send(100);
+        send(101);
+        // 第二条超出单用户上限，收件箱溢出到数据库，而两条消息都还在写入队列里
+        waitUntil(() -> offlineInboxMapper.watermarks.containsKey(USER_ID));
+        assertThat(offlineInboxMapper.watermarks.get(USER_ID)).isEqualTo(100L);
+
+        online.set(true);
+        offlineInbox.userOnline(USER_ID);
+        Thread.sleep(200);
+        assertThat(written).as("落库前不应推送（否则读到空结果会清掉水位）").isEmpty();
+
+        insertGate.countDown();
+        waitUntil(() -> !written.isEmpty());
+        List<ChatMessage> frames = unbatch(written);
+        assertThat(frames).extracting(ChatMessage::getSeq).containsExactly(100L, 101L, 101L);
+        ChatMessage ack = frames.get(frames.size() - 1);
+        assertThat(ack.getKind()).isEqualTo(MessageKind.INBOX);
+        assertThat(ack.getType()).isEqualTo(MessageReplayBuffer.RESUME_DONE);
+
+        offlineInbox.acknowledge(USER_ID, ack.getSeq());
+        waitUntil(() -> !offlineInboxMapper.watermarks.containsKey(USER_ID));
+    }
+
+    @Test
+    void ackAdvancesWatermarkPageByPageAndKeepsUnpersistedMessages() throws Exception {
+        insertGate.countDown();
+        nettyProperties.getOfflineInbox().setPushLimit(2);
+        for (long seq = 100; seq <= 104; seq++) {
+            send(seq);
+        }
+        waitUntil(() -> table.size() == 5);
+        assertThat(offlineInboxMapper.watermarks.get(USER_ID)).isEqualTo(100L);
+        // 溢出后写入队列已满（DROP）的消息未落库，只能留在内存里
+        offlineInbox.offer(USER_ID, MessageReplayBuffer.toProto(message(105)), false);
+
+        online.set(true);
+        offlineInbox.userOnline(USER_ID);
+        assertThat(seqs(nextPush())).containsExactly(100L, 101L, 101L);
+
+        // 过期的回执不推进水位
+        offlineInbox.acknowledge(USER_ID, 50);
+        Thread.sleep(100);
+        assertThat(written).isEmpty();
+        assertThat(offlineInboxMapper.watermarks.get(USER_ID)).isEqualTo(100L);
+
+        offlineInbox.acknowledge(USER_ID, 101);
+        assertThat(seqs(nextPush())).containsExactly(102L, 103L, 103L);
+        assertThat(offlineInboxMapper.watermarks.get(USER_ID)).isEqualTo(102L);
+
+        offlineInbox.acknowledge(USER_ID, 103);
+        List<ChatMessage> frames = nextPush();
+        assertThat(seqs(frames)).containsExactly(104L, 105L, 105L);
+        assertThat(frames.get(frames.size() - 1).getType()).isEqualTo(MessageReplayBuffer.RESUME_DONE);
+
+        offlineInbox.acknowledge(USER_ID, 105);
+        waitUntil(() -> !offlineInboxMapper.watermarks.containsKey(USER_ID));
+        waitUntil(() -> ((Number) offlineInbox.getMetrics().get("queuedMessages")).longValue() == 0);
+    }
+
+    /**
+     * 等到下一次推送的回执写出，返回拆开批量帧后的消息并清空已写记录
+     */
+    private List<ChatMessage> nextPush() throws InterruptedException {
+        waitUntil(() -> {
+            List<ChatMessage> frames = unbatch(written);
+            return !frames.isEmpty() && frames.get(frames.size() - 1).getKind() == MessageKind.INBOX;
+        });
+        List<ChatMessage> frames = unbatch(written);
+        written.clear();
+        return frames;
+    }
+
+    private static List<Long> seqs(List<ChatMessage> frames) {
+        return frames.stream().map(ChatMessage::getSeq).collect(Collectors.toList());
+    }
+
+    private void send(long seq) {
+        Message message = message(seq);
+        boolean persisted = writeBehindQueue.submit(message);
+        offlineInbox.offer(USER_ID, MessageReplayBuffer.toProto(message), persisted);
+    }
+
+    private static Message message(long seq) {
+        Message message = new Message();
+        message.setSenderId(1L);
+        message.setReceiverId(USER_ID);
+        message.setSeq(seq);
+        message.setContent("m" + seq);
+        return message;
+    }
+
+    static List<ChatMessage> unbatch(List<ChatMessage> frames) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (ChatMessage frame : frames) {
+            if (frame.getKind() == MessageKind.BATCH) {
+                messages.addAll(frame.getBatch().getMessagesList());
+            } else {
+                messages.add(frame);
+            }
+        }
+        return messages;
+    }
+
+    static void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.met()) {
+            assertThat(System.currentTimeMillis()).as("等待超时").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    interface Condition {
+        boolean met();
+    }
+
+    /**
+     * 与 OfflineInboxMapper.xml 语义一致的内存实现
+     */
+    static final class FakeOfflineInboxMapper implements OfflineInboxMapper {
+        final Map<Long, Long> watermarks = new ConcurrentHashMap<>();
+
+        @Override
+        public int upsert(long userId, long fromSeq) {
+            watermarks.merge(userId, fromSeq, Math::min);
+            return 1;
+        }
+
+        @Override
+        public Long selectFromSeq(long userId) {
+            return watermarks.get(userId);
+        }
+
+        @Override
+        public int advance(long userId, long ackSeq) {
+            return watermarks.computeIfPresent(userId, (k, v) -> Math.max(v, ackSeq + 1)) != null ? 1 : 0;
+        }
+
+        @Override
+        public int delete(long userId, long maxFromSeq) {
+            return watermarks.computeIfPresent(userId, (k, v) -> v <= maxFromSeq ? null : v) == null ? 1 : 0;
+        }
+    }
+}
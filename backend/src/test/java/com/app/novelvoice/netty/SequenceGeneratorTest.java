@@ -0,0 +1,95 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.ClusterProperties;
+import com.app.novelvoice.netty.cluster.ClusterBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 消息序号的位布局与单调性
+ */
+class SequenceGeneratorTest {
+
+    private static final long EPOCH = 1704067200000L;
+
+    @Test
+    void packsTimestampCounterAndNodeIndex() {
+        SequenceGenerator generator = generator(5);
+        long before = System.currentTimeMillis() - EPOCH;
+        long seq = generator.next();
+        long after = System.currentTimeMillis() - EPOCH;
+
+        assertThat(seq & 31).isEqualTo(5);
+        assertThat(seq >>> 12).isBetween(before, after);
+        // 在 JavaScript 安全整数范围内
+        assertThat(seq).isLessThan(1L << 53);
+    }
+
+    @Test
+    void staysStrictlyIncreasingBeyondCounterCapacity() {
+        SequenceGenerator generator = generator(1);
+        long prev = generator.next();
+        // 远超单毫秒 128 条：向后借用时间戳仍保持严格递增
+        for (int i = 0; i < 10000; i++) {
+            long seq = generator.next();
+            assertThat(seq).isGreaterThan(prev);
+            assertThat(seq & 31).isEqualTo(1);
+            prev = seq;
+        }
+    }
+
+    @Test
+    void observedRemoteSeqOrdersLaterLocalSeqs() {
+        SequenceGenerator local = generator(1);
+        // 其它节点的时钟领先 5 秒
+        long remote = ((System.currentTimeMillis() - EPOCH + 5000) << 12) | 2;
+        assertThat(local.next()).isLessThan(remote);
+
+        local.observe(remote);
+        assertThat(local.next()).isGreaterThan(remote);
+        // 观察到更小的序号不会让时钟倒退
+        long seq = local.next();
+        local.observe(remote - SequenceGenerator.span(10000));
+        assertThat(local.next()).isGreaterThan(seq);
+    }
+
+    @Test
+    void spanConvertsMillisToSeqDistance() {
+        assertThat(SequenceGenerator.span(1)).isEqualTo(1L << 12);
+        long seq = generator(0).next();
+        long millis = seq >>> 12;
+        assertThat((seq - SequenceGenerator.span(2000)) >>> 12).isEqualTo(millis - 2000);
+    }
+
+    @Test
+    void rejectsInvalidNodeIndex() {
+        assertThatThrownBy(() -> generator(32)).isInstanceOf(IllegalStateException.class);
+
+        ClusterProperties properties = new ClusterProperties();
+        properties.setPeers(Collections.singletonList("node-b@127.0.0.1:9102"));
+        assertThatThrownBy(() -> generator(properties)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static SequenceGenerator generator(int nodeIndex) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setNodeIndex(nodeIndex);
+        return generator(properties);
+    }
+
+    private static SequenceGenerator generator(ClusterProperties properties) {
+        ClusterBus clusterBus = mock(ClusterBus.class);
+        when(clusterBus.getNodeId()).thenReturn("node-a");
+        SequenceGenerator generator = new SequenceGenerator();
+        ReflectionTestUtils.setField(generator, "clusterProperties", properties);
+        ReflectionTestUtils.setField(generator, "clusterBus", clusterBus);
+        generator.init();
+        return generator;
+    }
+}
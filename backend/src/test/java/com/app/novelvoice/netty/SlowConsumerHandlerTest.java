@@ -0,0 +1,100 @@
+package com.app.novelvoice.netty;
+
+import com.app.novelvoice.config.NettyProperties;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 慢消费者背压：广播按策略丢弃，私聊等不可丢失的消息总是积压
+ */
+class SlowConsumerHandlerTest {
+
+    private final NettyProperties.SlowConsumer config = new NettyProperties.SlowConsumer();
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        config.setPolicy(NettyProperties.SlowConsumerPolicy.DROP);
+        config.setBacklogSize(2);
+        channel = new EmbeddedChannel(new SlowConsumerHandler(config));
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void reliableMessagesAreBackloggedAndDrainedInOrder() {
+        // 未 flush 的大帧使 Channel 不可写
+        channel.write(frame(1, 32));
+        assertThat(channel.isWritable()).isFalse();
+
+        SlowConsumerHandler.writeLowPriority(channel, frame(2, 1));
+        SlowConsumerHandler.writeReliable(channel, frame(3, 1));
+        SlowConsumerHandler.writeReliable(channel, frame(4, 1));
+
+        channel.flush();
+        assertThat(channel.isWritable()).isTrue();
+        channel.flushOutbound();
+        assertThat(readMarkers()).containsExactly(1, 3, 4);
+        assertThat(channel.isActive()).isTrue();
+    }
+
+    @Test
+    void closesWhenReliableBacklogIsFull() {
+        channel.write(frame(1, 32));
+        SlowConsumerHandler.writeReliable(channel, frame(2, 1));
+        SlowConsumerHandler.writeReliable(channel, frame(3, 1));
+        assertThat(channel.isActive()).isTrue();
+
+        SlowConsumerHandler.writeReliable(channel, frame(4, 1));
+        assertThat(channel.isActive()).isFalse();
+    }
+
+    @Test
+    void backlogPolicyDropsBroadcastsBeforeReliableMessages() {
+        config.setPolicy(NettyProperties.SlowConsumerPolicy.BACKLOG);
+        channel.write(frame(1, 32));
+        SlowConsumerHandler.writeLowPriority(channel, frame(2, 1));
+        SlowConsumerHandler.writeReliable(channel, frame(3, 1));
+        // 积压已满：新的不可丢失消息挤掉最旧的广播，新的广播则被丢弃
+        SlowConsumerHandler.writeReliable(channel, frame(4, 1));
+        SlowConsumerHandler.writeLowPriority(channel, frame(5, 1));
+
+        channel.flush();
+        channel.flushOutbound();
+        assertThat(readMarkers()).containsExactly(1, 3, 4);
+    }
+
+    /**
+     * 首字节为标记的二进制帧
+     */
+    private static BinaryWebSocketFrame frame(int marker, int size) {
+        byte[] bytes = new byte[size];
+        bytes[0] = (byte) marker;
+        return new BinaryWebSocketFrame(Unpooled.wrappedBuffer(bytes));
+    }
+
+    private List<Integer> readMarkers() {
+        List<Integer> markers = new ArrayList<>();
+        BinaryWebSocketFrame frame;
+        while ((frame = channel.readOutbound()) != null) {
+            markers.add((int) frame.content().getByte(0));
+            frame.release();
+        }
+        return markers;
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.novelvoice.netty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 令牌桶（GCRA）的计算
+ */
+class TokenBucketTest {
+
+    private static final long TOKEN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void allowsBurstThenRejectsWithTimeUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.acquire(1, now, 0)).isZero();
+        }
+        assertThat(bucket.acquire(1, now, 0)).isEqualTo(-TOKEN_NANOS);
+        // 拒绝不扣减，再次请求结果相同
+        assertThat(bucket.acquire(1, now, 0)).isEqualTo(-TOKEN_NANOS);
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            bucket.acquire(1, now, 0);
+        }
+        assertThat(bucket.acquire(1, now + TOKEN_NANOS / 2, 0)).isEqualTo(-TOKEN_NANOS / 2);
+        assertThat(bucket.acquire(1, now + TOKEN_NANOS, 0)).isZero();
+        assertThat(bucket.acquire(1, now + TOKEN_NANOS, 0)).isEqualTo(-TOKEN_NANOS);
+        // 空闲再久也只能攒满 burst 个
+        long later = now + TimeUnit.SECONDS.toNanos(10);
+        assertThat(bucket.acquire(3, later, 0)).isZero();
+        assertThat(bucket.acquire(1, later, 0)).isEqualTo(-TOKEN_NANOS);
+    }
+
+    @Test
+    void overdraftWithinMaxDelayReturnsWait() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+        assertThat(bucket.acquire(1, now, 0)).isZero();
+        assertThat(bucket.acquire(1, now, 2 * TOKEN_NANOS)).isEqualTo(TOKEN_NANOS);
+        assertThat(bucket.acquire(1, now, 2 * TOKEN_NANOS)).isEqualTo(2 * TOKEN_NANOS);
+        assertThat(bucket.acquire(1, now, 2 * TOKEN_NANOS)).isEqualTo(-3 * TOKEN_NANOS);
+    }
+
+    @Test
+    void refundReturnsTokens() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = System.nanoTime();
+        assertThat(bucket.acquire(2, now, 0)).isZero();
+        assertThat(bucket.acquire(1, now, 0)).isNegative();
+        bucket.refund(1);
+        assertThat(bucket.acquire(1, now, 0)).isZero();
+    }
+
+    @Test
+    void zeroRateIsUnlimited() {
+        TokenBucket bucket = new TokenBucket(0, 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(bucket.acquire(1, now, 0)).isZero();
+        }
+    }
+}
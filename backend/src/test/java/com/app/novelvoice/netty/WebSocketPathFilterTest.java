@@ -0,0 +1,55 @@
+package com.app.novelvoice.netty;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 握手路径精确匹配
+ */
+class WebSocketPathFilterTest {
+
+    private final WebSocketPathFilter filter = new WebSocketPathFilter("/ws");
+
+    @Test
+    void matchesExactPathOrPathWithQuery() {
+        assertThat(filter.matches("/ws")).isTrue();
+        assertThat(filter.matches("/ws?token=abc")).isTrue();
+        assertThat(filter.matches("/wsanything")).isFalse();
+        assertThat(filter.matches("/ws/other")).isFalse();
+        assertThat(filter.matches("/w")).isFalse();
+    }
+
+    @Test
+    void passesMatchingRequestAndRemovesItself() {
+        EmbeddedChannel channel = new EmbeddedChannel(filter);
+        FullHttpRequest request = request("/ws?token=abc");
+        channel.writeInbound(request);
+        assertThat((Object) channel.readInbound()).isSameAs(request);
+        assertThat(channel.pipeline().get(WebSocketPathFilter.class)).isNull();
+        request.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void rejectsOtherPathsWith404() {
+        EmbeddedChannel channel = new EmbeddedChannel(filter);
+        channel.writeInbound(request("/wsanything"));
+        assertThat((Object) channel.readInbound()).isNull();
+        FullHttpResponse response = channel.readOutbound();
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.NOT_FOUND);
+        response.release();
+        assertThat(channel.isActive()).isFalse();
+    }
+
+    private static FullHttpRequest request(String uri) {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+    }
+}
@@ -0,0 +1,182 @@
+package com.app.novelvoice.benchmark;
+
+import com.app.novelvoice.config.ClusterProperties;
+import com.app.novelvoice.config.NettyProperties;
+import com.app.novelvoice.entity.User;
+import com.app.novelvoice.mapper.MessageMapper;
+import com.app.novelvoice.mapper.OfflineInboxMapper;
+import com.app.novelvoice.mapper.UserMapper;
+import com.app.novelvoice.netty.ChatHandler;
+import com.app.novelvoice.netty.ChatMetrics;
+import com.app.novelvoice.netty.ChatRoomManager;
+import com.app.novelvoice.netty.MessageReplayBuffer;
+import com.app.novelvoice.netty.OfflineInbox;
+import com.app.novelvoice.netty.SequenceGenerator;
+import com.app.novelvoice.netty.SessionRegistry;
+import com.app.novelvoice.netty.SlowConsumerHandler;
+import com.app.novelvoice.netty.UserProfileCache;
+import com.app.novelvoice.netty.cluster.ClusterBus;
+import com.app.novelvoice.netty.cluster.ClusterRouter;
+import com.app.novelvoice.netty.cluster.LoopbackClusterBus;
+import com.app.novelvoice.service.ChatService;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultChannelId;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 脱离 Spring 容器组装的 ChatHandler
+ * 会话注册表、聊天室、序号、补发缓冲和单节点集群路由都是真实实现；
+ * 持久化换成空实现（只测扇出，不测数据库）。
+ * 连接使用 EmbeddedChannel，出站端用 {@link #SINK} 直接释放写出的帧，相当于网络另一端立即读走。
+ */
+public final class ChatHandlerFixture {
+
+    /**
+     * 出站终点：释放写出的消息并标记写成功
+     */
+    private static final ChannelHandler SINK = new Sink();
+
+    private final NettyProperties nettyProperties = new NettyProperties();
+
+    private final ClusterBus clusterBus = new LoopbackClusterBus("bench-" + UUID.randomUUID());
+
+    private final SessionRegistry sessionRegistry = new SessionRegistry();
+
+    private final ChatRoomManager chatRoomManager = new ChatRoomManager();
+
+    private final MessageReplayBuffer messageReplayBuffer = new MessageReplayBuffer();
+
+    private final UserProfileCache userProfileCache = new UserProfileCache();
+
+    private final OfflineInbox offlineInbox = new OfflineInbox();
+
+    private final ChatHandler chatHandler = new ChatHandler();
+
+    public ChatHandlerFixture() {
+        ChatService chatService = (ChatService) Proxy.newProxyInstance(ChatService.class.getClassLoader(),
+                new Class<?>[]{ChatService.class},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? Boolean.TRUE : null);
+        UserMapper userMapper = (UserMapper) Proxy.newProxyInstance(UserMapper.class.getClassLoader(),
+                new Class<?>[]{UserMapper.class}, (proxy, method, args) -> null);
+        MessageMapper messageMapper = (MessageMapper) Proxy.newProxyInstance(MessageMapper.class.getClassLoader(),
+                new Class<?>[]{MessageMapper.class},
+                (proxy, method, args) -> method.getReturnType() == List.class ? Collections.emptyList() : null);
+
+        ClusterRouter clusterRouter = new ClusterRouter();
+        inject(clusterRouter, "clusterBus", clusterBus);
+        inject(clusterRouter, "sessionRegistry", sessionRegistry);
+        clusterRouter.init();
+
+        SequenceGenerator sequenceGenerator = new SequenceGenerator();
+        inject(sequenceGenerator, "clusterProperties", new ClusterProperties());
+        inject(sequenceGenerator, "clusterBus", clusterBus);
+        sequenceGenerator.init();
+
+        inject(messageReplayBuffer, "nettyProperties", nettyProperties);
+        inject(messageReplayBuffer, "messageMapper", messageMapper);
+        inject(messageReplayBuffer, "userProfileCache", userProfileCache);
+        messageReplayBuffer.start();
+
+        inject(offlineInbox, "nettyProperties", nettyProperties);
+        inject(offlineInbox, "sessionRegistry", sessionRegistry);
+        inject(offlineInbox, "clusterRouter", clusterRouter);
+        inject(offlineInbox, "messageMapper", messageMapper);
+        inject(offlineInbox, "messageReplayBuffer", messageReplayBuffer);
+        inject(offlineInbox, "offlineInboxMapper", Proxy.newProxyInstance(OfflineInboxMapper.class.getClassLoader(),
+                new Class<?>[]{OfflineInboxMapper.class},
+                (proxy, method, args) -> method.getReturnType() == int.class ? 0 : null));
+        offlineInbox.start();
+
+        inject(userProfileCache, "userMapper", userMapper);
+        inject(userProfileCache, "nettyProperties", nettyProperties);
+        userProfileCache.start();
+
+        inject(chatHandler, "chatService", chatService);
+        inject(chatHandler, "sessionRegistry", sessionRegistry);
+        inject(chatHandler, "chatRoomManager", chatRoomManager);
+        inject(chatHandler, "clusterRouter", clusterRouter);
+        inject(chatHandler, "sequenceGenerator", sequenceGenerator);
+        inject(chatHandler, "messageReplayBuffer", messageReplayBuffer);
+        inject(chatHandler, "chatMetrics", new ChatMetrics());
+        // 连接不经过握手，沿用首条消息 senderId 绑定的方式
+        nettyProperties.getAuth().setEnabled(false);
+        inject(chatHandler, "nettyProperties", nettyProperties);
+        inject(chatHandler, "userProfileCache", userProfileCache);
+        inject(chatHandler, "offlineInbox", offlineInbox);
+        chatHandler.init();
+    }
+
+    /**
+     * 新建一个已完成握手的连接，管道与线上一致：慢连接处理器在 ChatHandler 之前。
+     * EmbeddedChannel 默认共用同一个 ChannelId，放进 ChannelGroup 会互相覆盖，这里为每个连接分配独立ID
+     */
+    public EmbeddedChannel connect() {
+        return new EmbeddedChannel(DefaultChannelId.newInstance(), SINK,
+                new SlowConsumerHandler(nettyProperties.getSlowConsumer()), chatHandler);
+    }
+
+    /**
+     * 新建连接并绑定用户，同时写入该用户的资料缓存（与握手鉴权时预热的效果相同）
+     */
+    public EmbeddedChannel connect(long userId) {
+        EmbeddedChannel channel = connect();
+        sessionRegistry.bind(userId, channel);
+        User user = new User();
+        user.setId(userId);
+        user.setNickname("读者" + userId);
+        user.setAvatar("https://cdn.example.com/avatar/" + userId + ".png");
+        userProfileCache.put(user);
+        return channel;
+    }
+
+    /**
+     * 连接加入聊天室
+     */
+    public void join(long roomId, EmbeddedChannel channel) {
+        chatRoomManager.join(roomId, channel);
+        channel.runPendingTasks();
+    }
+
+    /**
+     * 关闭全部连接后停止后台线程
+     */
+    public void close(Iterable<EmbeddedChannel> channels) {
+        for (EmbeddedChannel channel : channels) {
+            channel.finishAndReleaseAll();
+        }
+        messageReplayBuffer.stop();
+        userProfileCache.stop();
+        offlineInbox.stop();
+        clusterBus.stop();
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法注入 " + target.getClass().getSimpleName() + "." + fieldName, e);
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class Sink extends ChannelOutboundHandlerAdapter {
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ReferenceCountUtil.release(msg);
+            promise.trySuccess();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.novelvoice.benchmark;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的聊天消息样本
+ * 用固定语料随机拼出中文聊天内容（读者讨论小说情节、引用原文片段），随机种子固定，结果可复现。
+ */
+public final class ChatPayloads {
+
+    /**
+     * 消息规模
+     */
+    public enum Size {
+        /**
+         * 一两句话的日常聊天（约 20-60 字）
+         */
+        SHORT(1, 2),
+        /**
+         * 一段评论（约 200-300 字）
+         */
+        MEDIUM(8, 12),
+        /**
+         * 引用原文的长段落（约 1500 字）
+         */
+        LONG(50, 60);
+
+        private final int minSentences;
+        private final int maxSentences;
+
+        Size(int minSentences, int maxSentences) {
+            this.minSentences = minSentences;
+            this.maxSentences = maxSentences;
+        }
+    }
+
+    private static final String[] SENTENCES = {
+            "这一章的反转真的太精彩了，完全没想到师父竟然是幕后黑手。",
+            "有人知道作者什么时候更新吗？已经等了一个星期了。",
+            "我觉得女主的性格转变有点突兀，前面铺垫不够。",
+            "第三卷开头那段雪夜独行的描写，读了好几遍，画面感太强了。",
+            "哈哈哈哈，男主这波操作我给满分！",
+            "听书模式的配音换了吗？今天听着感觉语速快了一点。",
+            "剧透警告：后面还有一个更大的伏笔，大家慢慢看。",
+            "城门外的风卷着黄沙扑面而来，他握紧了手中的长剑，一步也没有后退。",
+            "她轻轻推开窗，院子里的桂花开得正盛，香气一直飘到了书案上。",
+            "“你终于来了。”老人放下茶盏，目光越过他，望向远处连绵的群山。",
+            "这本书的世界观设定很完整，修炼体系和宗门关系都交代得清清楚楚。",
+            "今晚八点读书会，我们一起讨论第十二章到第十五章，欢迎大家来。",
+            "感觉配角的故事线比主线还好看，求作者出个番外。",
+            "夜色渐深，客栈里只剩下掌柜拨算盘的声音，一下一下，像是在数着什么。",
+            "推荐大家去看一下作者的上一本书，风格很像，但节奏更紧凑。",
+            "刚看完结局，哭得稀里哗啦的，这个结尾我可以！",
+            "他站在山巅，望着脚下翻滚的云海，忽然明白了师父当年那句话的意思。",
+            "有没有人整理过人物关系图？角色太多了有点记不住。",
+            "书评区有人说这本是套路文，我倒觉得套路之中有不少新意。",
+            "雨一直下到天亮，青石板路上积起一洼洼的水，映着灰白色的天光。",
+    };
+
+    private static final String[] NICKNAMES = {"书虫小王", "夜读人", "听风", "墨香", "追更达人", "林间小鹿"};
+
+    private ChatPayloads() {
+    }
+
+    /**
+     * 生成 count 条指定规模的群聊消息
+     */
+    public static List<ChatMessage> messages(Size size, int count, long seed) {
+        Random random = new Random(seed);
+        List<ChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(message(size, random, i));
+        }
+        return messages;
+    }
+
+    /**
+     * 生成一条指定规模的群聊消息
+     */
+    public static ChatMessage message(Size size, Random random, int index) {
+        String content = content(size, random);
+        long senderId = 1000 + random.nextInt(5000);
+        return ChatMessage.newBuilder()
+                .setSenderId(senderId)
+                .setContent(content)
+                .setType(0)
+                .setTimestamp("2024-06-0" + (1 + index % 9) + "T12:" + (10 + index % 50) + ":00.000Z")
+                .setSenderNickname(NICKNAMES[(int) (senderId % NICKNAMES.length)])
+                .setSenderAvatar("https://cdn.example.com/avatar/" + senderId + ".png")
+                .setSeq(1_000_000L + index)
+                .build();
+    }
+
+    /**
+     * 生成一段指定规模的聊天内容
+     */
+    public static String content(Size size, Random random) {
+        int sentences = size.minSentences + random.nextInt(size.maxSentences - size.minSentences + 1);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            content.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.app.novelvoice.benchmark;
+
+import com.app.novelvoice.netty.WebSocketProtobufCodec;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocketProtobufCodec 编解码吞吐量与分配率
+ * encode / decodeDirect / decodeHeap 为当前实现（池化直接内存、直接从 ByteBuf 解析）；
+ * legacyEncode / legacyDecode 复现改造前的实现（toByteArray 后包装成帧、拷贝到新 byte[] 再 parseFrom），
+ * 配合 -prof gc 比较 gc.alloc.rate.norm 即可看到每条消息少分配的字节数。
+ * 运行：java -jar target/benchmarks.jar CodecBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private static final int MESSAGE_POOL = 64;
+
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public ChatPayloads.Size size;
+
+    private final ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+
+    private ChatMessage[] messages;
+
+    private ByteBuf[] directFrames;
+
+    private ByteBuf[] heapFrames;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<ChatMessage> list = ChatPayloads.messages(size, MESSAGE_POOL, 42);
+        messages = list.toArray(new ChatMessage[0]);
+        directFrames = new ByteBuf[MESSAGE_POOL];
+        heapFrames = new ByteBuf[MESSAGE_POOL];
+        for (int i = 0; i < MESSAGE_POOL; i++) {
+            byte[] bytes = messages[i].toByteArray();
+            directFrames[i] = alloc.directBuffer(bytes.length).writeBytes(bytes);
+            heapFrames[i] = alloc.heapBuffer(bytes.length).writeBytes(bytes);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = 0; i < MESSAGE_POOL; i++) {
+            directFrames[i].release();
+            heapFrames[i].release();
+        }
+    }
+
+    private int nextIndex() {
+        return next++ & (MESSAGE_POOL - 1);
+    }
+
+    @Benchmark
+    public int encode() {
+        BinaryWebSocketFrame frame = WebSocketProtobufCodec.encodeFrame(alloc, messages[nextIndex()]);
+        int length = frame.content().readableBytes();
+        frame.release();
+        return length;
+    }
+
+    @Benchmark
+    public int legacyEncode() {
+        BinaryWebSocketFrame frame = new BinaryWebSocketFrame(Unpooled.wrappedBuffer(messages[nextIndex()].toByteArray()));
+        int length = frame.content().readableBytes();
+        frame.release();
+        return length;
+    }
+
+    /**
+     * 入站帧通常是池化直接内存
+     */
+    @Benchmark
+    public ChatMessage decodeDirect() throws IOException {
+        return WebSocketProtobufCodec.parse(directFrames[nextIndex()]);
+    }
+
+    @Benchmark
+    public ChatMessage decodeHeap() throws IOException {
+        return WebSocketProtobufCodec.parse(heapFrames[nextIndex()]);
+    }
+
+    @Benchmark
+    public ChatMessage legacyDecode() throws IOException {
+        ByteBuf content = directFrames[nextIndex()];
+        byte[] bytes = new byte[content.readableBytes()];
+        // 原实现用 readBytes，这里用 getBytes 保持读索引不变，拷贝量相同
+        content.getBytes(content.readerIndex(), bytes);
+        return ChatMessage.parseFrom(bytes);
+    }
+}
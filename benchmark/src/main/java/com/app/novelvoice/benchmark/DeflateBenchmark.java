@@ -0,0 +1,122 @@
+package com.app.novelvoice.benchmark;
+
+import com.app.novelvoice.netty.WebSocketProtobufCodec;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * permessage-deflate 字节数与 CPU 开销的权衡
+ * 对不同规模的中文聊天消息，比较不同压缩级别、是否保留压缩上下文时每帧的压缩耗时，
+ * 同时通过辅助计数器输出原始字节数（rawBytes）和线路字节数（wireBytes），两者之比即压缩率。
+ * 运行：java -jar target/benchmarks.jar DeflateBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeflateBenchmark {
+
+    /**
+     * 轮换使用的消息数，避免保留上下文时反复压缩同一条消息导致压缩率虚高
+     */
+    private static final int MESSAGE_POOL = 64;
+
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public ChatPayloads.Size size;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    @Param({"true", "false"})
+    public boolean contextTakeover;
+
+    private ByteBuf[] payloads;
+
+    private EmbeddedChannel deflateChannel;
+
+    private int next;
+
+    /**
+     * 每次迭代累计的字节数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes {
+        public long rawBytes;
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rawBytes = 0;
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        List<ChatMessage> messages = ChatPayloads.messages(size, MESSAGE_POOL, 42);
+        payloads = new ByteBuf[MESSAGE_POOL];
+        for (int i = 0; i < MESSAGE_POOL; i++) {
+            BinaryWebSocketFrame frame = WebSocketProtobufCodec.encodeFrame(UnpooledByteBufAllocator.DEFAULT, messages.get(i));
+            payloads[i] = frame.content();
+        }
+
+        PerMessageDeflateServerExtensionHandshaker handshaker = new PerMessageDeflateServerExtensionHandshaker(
+                level, true, PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE, true, false);
+        // 客户端请求 server_no_context_takeover 时，服务端每条消息都重新开始压缩
+        WebSocketExtensionData request = new WebSocketExtensionData("permessage-deflate",
+                contextTakeover ? Collections.<String, String>emptyMap()
+                        : Collections.<String, String>singletonMap("server_no_context_takeover", null));
+        WebSocketServerExtension extension = handshaker.handshakeExtension(request);
+        deflateChannel = new EmbeddedChannel(extension.newExtensionEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        deflateChannel.finishAndReleaseAll();
+        for (ByteBuf payload : payloads) {
+            payload.release();
+        }
+    }
+
+    /**
+     * 压缩一帧并统计前后字节数
+     */
+    @Benchmark
+    public int deflate(Bytes bytes) {
+        ByteBuf payload = payloads[next++ & (MESSAGE_POOL - 1)];
+        bytes.rawBytes += payload.readableBytes();
+        deflateChannel.writeOutbound(new BinaryWebSocketFrame(payload.retainedDuplicate()));
+        BinaryWebSocketFrame out = deflateChannel.readOutbound();
+        int wire = out.content().readableBytes();
+        bytes.wireBytes += wire;
+        out.release();
+        return wire;
+    }
+}
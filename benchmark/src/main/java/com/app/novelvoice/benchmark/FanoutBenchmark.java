@@ -0,0 +1,112 @@
+package com.app.novelvoice.benchmark;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChatHandler 入站消息到扇出完成的吞吐量
+ * 发送方连接收到一条消息后走完整的 channelRead0：分配序号、写补发缓冲、查会话注册表、编码一次并写给每个接收方。
+ * privateMessage：recipients 个在线用户中随机选一个私聊，衡量注册表规模对定向投递的影响；
+ * roomMessage / lobbyMessage：recipients 个连接同在一个聊天室 / 大厅，衡量群发扇出。
+ * 注意每个 EmbeddedChannel 有独立的事件循环，按事件循环分组退化为每个连接一组，群发结果是分组开销的上界。
+ * 运行：java -jar target/benchmarks.jar FanoutBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FanoutBenchmark {
+
+    private static final long SENDER_ID = 1;
+
+    private static final long ROOM_ID = 1;
+
+    private static final int MESSAGE_POOL = 64;
+
+    @Param({"10", "1000", "10000"})
+    public int recipients;
+
+    @Param({"SHORT", "MEDIUM"})
+    public ChatPayloads.Size size;
+
+    private ChatHandlerFixture fixture;
+
+    private final List<EmbeddedChannel> connections = new ArrayList<>();
+
+    private EmbeddedChannel sender;
+
+    private ChatMessage[] privateMessages;
+
+    private ChatMessage[] roomMessages;
+
+    private ChatMessage[] lobbyMessages;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        fixture = new ChatHandlerFixture();
+        sender = fixture.connect(SENDER_ID);
+        connections.add(sender);
+        fixture.join(ROOM_ID, sender);
+        for (int i = 0; i < recipients; i++) {
+            EmbeddedChannel channel = fixture.connect(SENDER_ID + 1 + i);
+            fixture.join(ROOM_ID, channel);
+            connections.add(channel);
+        }
+
+        Random random = new Random(42);
+        privateMessages = new ChatMessage[MESSAGE_POOL];
+        roomMessages = new ChatMessage[MESSAGE_POOL];
+        lobbyMessages = new ChatMessage[MESSAGE_POOL];
+        for (int i = 0; i < MESSAGE_POOL; i++) {
+            ChatMessage base = ChatPayloads.message(size, random, i).toBuilder()
+                    .setSenderId(SENDER_ID)
+                    .clearSeq()
+                    .build();
+            privateMessages[i] = base.toBuilder().setReceiverId(SENDER_ID + 1 + random.nextInt(recipients)).build();
+            roomMessages[i] = base.toBuilder().setRoomId(ROOM_ID).build();
+            lobbyMessages[i] = base;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close(connections);
+        connections.clear();
+    }
+
+    @Benchmark
+    public void privateMessage() {
+        sender.writeInbound(privateMessages[next++ & (MESSAGE_POOL - 1)]);
+    }
+
+    @Benchmark
+    public void roomMessage() {
+        sender.writeInbound(roomMessages[next++ & (MESSAGE_POOL - 1)]);
+    }
+
+    @Benchmark
+    public void lobbyMessage() {
+        sender.writeInbound(lobbyMessages[next++ & (MESSAGE_POOL - 1)]);
+    }
+}
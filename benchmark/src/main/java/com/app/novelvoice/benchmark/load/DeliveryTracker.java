@@ -0,0 +1,136 @@
+package com.app.novelvoice.benchmark.load;
+
+import com.app.novelvoice.netty.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 投递跟踪
+ * 每条发出的消息记录计划发送时间和应收到的份数；每收到一份就按计划发送时间计算端到端延迟，
+ * 用计划时间而不是实际写出时间，发送端被拖慢时排队的耗时也会计入（避免协调遗漏）。
+ * 收齐后移除记录，压测结束时仍未收齐的份数即为丢失。
+ */
+class DeliveryTracker {
+
+    private final long lateNanos;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder sentPrivate = new LongAdder();
+    private final LongAdder sentGroup = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder expected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder unexpected = new LongAdder();
+
+    DeliveryTracker(long lateMillis) {
+        this.lateNanos = lateMillis * 1_000_000L;
+    }
+
+    /**
+     * 登记一条即将发送的消息
+     *
+     * @param measured 是否计入统计（预热期间的消息只用于剔除重复，不计入）
+     */
+    void sent(long messageId, long intendedNanos, int copies, boolean privateMessage, boolean measured) {
+        pending.put(messageId, new Pending(intendedNanos, copies, measured));
+        if (!measured) {
+            return;
+        }
+        (privateMessage ? sentPrivate : sentGroup).increment();
+        expected.add(copies);
+    }
+
+    /**
+     * 消息未能写出（连接已断开），撤销登记
+     */
+    void sendFailed(long messageId) {
+        Pending record = pending.remove(messageId);
+        if (record != null && record.measured) {
+            sendFailures.increment();
+            expected.add(-record.remaining.get());
+        }
+    }
+
+    /**
+     * 收到一份投递
+     */
+    void received(long messageId, long nowNanos) {
+        Pending record = pending.get(messageId);
+        if (record == null) {
+            unexpected.increment();
+            return;
+        }
+        int remaining = record.remaining.decrementAndGet();
+        if (remaining <= 0) {
+            pending.remove(messageId, record);
+            if (remaining < 0) {
+                // 超出应收份数（重复投递）
+                unexpected.increment();
+                return;
+            }
+        }
+        if (!record.measured) {
+            return;
+        }
+        long elapsed = nowNanos - record.intendedNanos;
+        latency.recordNanos(elapsed);
+        delivered.increment();
+        if (elapsed > lateNanos) {
+            late.increment();
+        }
+    }
+
+    long inFlight() {
+        return expected.sum() - delivered.sum();
+    }
+
+    /**
+     * 投递统计，压测结束（等待在途消息之后）调用
+     */
+    Map<String, Object> snapshot(double measuredSeconds) {
+        long dropped = 0;
+        for (Pending record : pending.values()) {
+            if (record.measured) {
+                dropped += Math.max(0, record.remaining.get());
+            }
+        }
+        long sent = sentPrivate.sum() + sentGroup.sum();
+        Map<String, Object> messages = new LinkedHashMap<>();
+        messages.put("sent", sent);
+        messages.put("sentPrivate", sentPrivate.sum());
+        messages.put("sentGroup", sentGroup.sum());
+        messages.put("sendFailures", sendFailures.sum());
+        messages.put("sendRatePerSecond", Math.round(sent / measuredSeconds));
+        messages.put("expectedDeliveries", expected.sum());
+        messages.put("delivered", delivered.sum());
+        messages.put("deliveryRatePerSecond", Math.round(delivered.sum() / measuredSeconds));
+        messages.put("late", late.sum());
+        messages.put("dropped", dropped);
+        messages.put("unexpected", unexpected.sum());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("messages", messages);
+        snapshot.put("latency", latency.snapshot());
+        return snapshot;
+    }
+
+    private static final class Pending {
+        private final long intendedNanos;
+        private final AtomicInteger remaining;
+        private final boolean measured;
+
+        private Pending(long intendedNanos, int copies, boolean measured) {
+            this.intendedNanos = intendedNanos;
+            this.remaining = new AtomicInteger(copies);
+            this.measured = measured;
+        }
+    }
+}
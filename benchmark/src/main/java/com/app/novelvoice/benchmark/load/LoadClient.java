@@ -0,0 +1,87 @@
+package com.app.novelvoice.benchmark.load;
+
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.app.novelvoice.netty.proto.MessageKind;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+
+/**
+ * 一个模拟用户的连接
+ * 握手完成后立即加入所属聊天室，收到加入回执即视为就绪；之后收到的聊天消息交给 {@link DeliveryTracker} 计算延迟。
+ * 压测消息的内容以 "#消息编号|" 开头，据此找到发送记录。
+ */
+class LoadClient extends SimpleChannelInboundHandler<ChatMessage> {
+
+    static final char ID_PREFIX = '#';
+
+    static final char ID_SUFFIX = '|';
+
+    final long userId;
+
+    final long roomId;
+
+    private final LoadGenerator generator;
+
+    private final DeliveryTracker tracker;
+
+    volatile Channel channel;
+
+    volatile boolean ready;
+
+    LoadClient(long userId, long roomId, LoadGenerator generator, DeliveryTracker tracker) {
+        this.userId = userId;
+        this.roomId = roomId;
+        this.generator = generator;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_COMPLETE) {
+            channel = ctx.channel();
+            ctx.writeAndFlush(ChatMessage.newBuilder()
+                    .setSenderId(userId)
+                    .setRoomId(roomId)
+                    .setKind(MessageKind.JOIN_ROOM)
+                    .build());
+        } else if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_TIMEOUT) {
+            generator.connectFailed(this);
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ChatMessage message) {
+        long now = System.nanoTime();
+        if (message.getKind() == MessageKind.JOIN_ROOM) {
+            if (!ready) {
+                ready = true;
+                generator.clientReady(this);
+            }
+            return;
+        }
+        if (message.getKind() != MessageKind.CHAT) {
+            return;
+        }
+        String content = message.getContent();
+        int end = content.indexOf(ID_SUFFIX);
+        if (content.isEmpty() || content.charAt(0) != ID_PREFIX || end < 0) {
+            // 不是压测发出的消息（例如真实用户在同一个聊天室发言）
+            return;
+        }
+        tracker.received(Long.parseLong(content.substring(1, end)), now);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        generator.clientClosed(this);
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        ctx.close();
+    }
+}
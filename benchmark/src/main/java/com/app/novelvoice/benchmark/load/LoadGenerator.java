@@ -0,0 +1,315 @@
+package com.app.novelvoice.benchmark.load;
+
+import com.app.novelvoice.benchmark.ChatPayloads;
+import com.app.novelvoice.netty.WebSocketProtobufCodec;
+import com.app.novelvoice.netty.proto.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketClientCompressionHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WebSocket 压测工具
+ * 建立 clients 个连接（每个连接模拟一个用户并加入一个聊天室），按固定速率发送私聊与聊天室消息，
+ * 统计端到端投递延迟（p50/p99/p999）、迟到与丢失的投递数，结果写入 JSON 报告便于多次运行对比。
+ * 注意：压测消息会经服务端正常持久化，请勿对生产库运行。
+ * 运行：java -cp target/benchmarks.jar com.app.novelvoice.benchmark.load.LoadGenerator --clients=2000 --rate=500
+ */
+public class LoadGenerator {
+
+    /**
+     * 最后一个连接发起后，等待其余连接就绪的最长时间
+     */
+    private static final long READY_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 预生成的消息内容数量
+     */
+    private static final int CONTENT_POOL = 256;
+
+    private final LoadOptions options;
+
+    private final DeliveryTracker tracker;
+
+    private final LoadClient[] clients;
+
+    /**
+     * 各聊天室已就绪的成员数（下标为聊天室ID）
+     */
+    private final AtomicIntegerArray roomMembers;
+
+    private final LongAdder readyCount = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder closedDuringRun = new LongAdder();
+
+    private volatile boolean running;
+
+    LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.tracker = new DeliveryTracker(options.lateMillis);
+        this.clients = new LoadClient[options.clients];
+        this.roomMembers = new AtomicIntegerArray(options.rooms + 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        Map<String, Object> report = new LoadGenerator(options).run();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.report), report);
+        System.out.println("报告已写入 " + options.report);
+    }
+
+    Map<String, Object> run() throws InterruptedException, IOException {
+        EventLoopGroup group = new NioEventLoopGroup(options.threads, new DefaultThreadFactory("load-client"));
+        String startedAt = Instant.now().toString();
+        try {
+            connectAll(group);
+            System.out.printf("已就绪连接 %d/%d，建连失败 %d%n", readyCount.sum(), options.clients, connectFailures.sum());
+            if (readyCount.sum() < 2) {
+                throw new IllegalStateException("就绪连接不足，无法压测");
+            }
+            running = true;
+            sendAll();
+            drain();
+            running = false;
+
+            Map<String, Object> connections = new LinkedHashMap<>();
+            connections.put("requested", options.clients);
+            connections.put("ready", readyCount.sum());
+            connections.put("failed", connectFailures.sum());
+            connections.put("closedDuringRun", closedDuringRun.sum());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", startedAt);
+            report.put("options", options.toMap());
+            report.put("connections", connections);
+            report.putAll(tracker.snapshot(Math.max(1, options.durationSeconds - options.warmupSeconds)));
+            System.out.println("投递统计: " + report.get("messages"));
+            System.out.println("延迟(微秒): " + report.get("latency"));
+            return report;
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    /**
+     * 按 connectRate 匀速建连，等待全部连接加入聊天室
+     */
+    private void connectAll(EventLoopGroup group) throws InterruptedException, IOException {
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000);
+        List<String[]> tokens = options.tokens != null ? readTokens(options.tokens) : null;
+        long start = System.nanoTime();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.connectRate;
+        for (int i = 0; i < options.clients; i++) {
+            long userId = tokens != null ? Long.parseLong(tokens.get(i)[0]) : options.userIdBase + i;
+            URI uri = tokens != null ? withToken(options.url, tokens.get(i)[1]) : options.url;
+            LoadClient client = new LoadClient(userId, i % options.rooms + 1, this, tracker);
+            clients[i] = client;
+            ChannelFuture future = bootstrap.clone().handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline().addLast(new HttpClientCodec());
+                    ch.pipeline().addLast(new HttpObjectAggregator(65536));
+                    if (options.compression) {
+                        ch.pipeline().addLast(WebSocketClientCompressionHandler.INSTANCE);
+                    }
+                    ch.pipeline().addLast(new WebSocketClientProtocolHandler(
+                            WebSocketClientHandshakerFactory.newHandshaker(uri, WebSocketVersion.V13,
+                                    null, options.compression, EmptyHttpHeaders.INSTANCE, 65536)));
+                    ch.pipeline().addLast(new WebSocketProtobufCodec());
+                    ch.pipeline().addLast(client);
+                }
+            }).connect(options.url.getHost(), port(options));
+            future.addListener(f -> {
+                if (!f.isSuccess()) {
+                    connectFailed(client);
+                }
+            });
+            LockSupport.parkNanos(start + (i + 1) * intervalNanos - System.nanoTime());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READY_TIMEOUT_SECONDS);
+        while (readyCount.sum() + connectFailures.sum() < options.clients && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * 读取 token 文件，行数不能少于连接数
+     */
+    private List<String[]> readTokens(String path) throws IOException {
+        List<String[]> tokens = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("[,\\s]+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("token 文件格式应为 用户ID,token: " + line);
+            }
+            tokens.add(parts);
+        }
+        if (tokens.size() < options.clients) {
+            throw new IllegalArgumentException("token 文件只有 " + tokens.size() + " 行，少于连接数 " + options.clients);
+        }
+        return tokens;
+    }
+
+    private static URI withToken(URI url, String token) throws UnsupportedEncodingException {
+        String query = "token=" + URLEncoder.encode(token, "UTF-8");
+        return URI.create(url + (url.getRawQuery() == null ? "?" : "&") + query);
+    }
+
+    /**
+     * 按计划时间匀速发送；发送线程落后时会连续补发，延迟从计划时间算起
+     */
+    private void sendAll() {
+        Random random = new Random(42);
+        String[] contents = new String[CONTENT_POOL];
+        for (int i = 0; i < CONTENT_POOL; i++) {
+            contents[i] = ChatPayloads.content(options.size, random);
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = start + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        double intervalNanos = (double) TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long messageId = 0;
+        while (true) {
+            long intended = start + (long) (messageId * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (intended > now) {
+                LockSupport.parkNanos(Math.min(intended - now, TimeUnit.MILLISECONDS.toNanos(1)));
+                continue;
+            }
+            send(random, messageId, intended, intended >= measureFrom, contents[random.nextInt(CONTENT_POOL)]);
+            messageId++;
+        }
+    }
+
+    private void send(Random random, long messageId, long intended, boolean measured, String content) {
+        LoadClient sender = randomReadyClient(random, null);
+        if (sender == null) {
+            return;
+        }
+        ChatMessage.Builder builder = ChatMessage.newBuilder()
+                .setSenderId(sender.userId)
+                .setContent(LoadClient.ID_PREFIX + Long.toString(messageId) + LoadClient.ID_SUFFIX + content)
+                .setTimestamp(Instant.now().toString());
+        boolean privateMessage = random.nextDouble() < options.privateRatio;
+        int copies;
+        if (privateMessage) {
+            LoadClient receiver = randomReadyClient(random, sender);
+            if (receiver == null) {
+                return;
+            }
+            builder.setReceiverId(receiver.userId);
+            // 发送方和接收方各一份
+            copies = 2;
+        } else {
+            builder.setRoomId(sender.roomId);
+            copies = roomMembers.get((int) sender.roomId);
+        }
+        tracker.sent(messageId, intended, copies, privateMessage, measured);
+        Channel channel = sender.channel;
+        channel.writeAndFlush(builder.build()).addListener(f -> {
+            if (!f.isSuccess()) {
+                tracker.sendFailed(messageId);
+            }
+        });
+    }
+
+    /**
+     * 随机选一个已就绪的连接，连接大量断开时可能返回 null
+     */
+    private LoadClient randomReadyClient(Random random, LoadClient exclude) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            LoadClient client = clients[random.nextInt(clients.length)];
+            if (client.ready && client != exclude) {
+                return client;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 停止发送后等待在途消息，最多 drainSeconds 秒
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds);
+        while (tracker.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    void clientReady(LoadClient client) {
+        roomMembers.incrementAndGet((int) client.roomId);
+        readyCount.increment();
+    }
+
+    void connectFailed(LoadClient client) {
+        connectFailures.increment();
+    }
+
+    void clientClosed(LoadClient client) {
+        if (client.ready) {
+            client.ready = false;
+            roomMembers.decrementAndGet((int) client.roomId);
+            readyCount.decrement();
+            if (running) {
+                closedDuringRun.increment();
+            }
+        }
+    }
+
+    private static int port(LoadOptions options) {
+        int port = options.url.getPort();
+        return port > 0 ? port : 80;
+    }
+}
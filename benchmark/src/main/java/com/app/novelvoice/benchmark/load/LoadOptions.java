@@ -0,0 +1,185 @@
+package com.app.novelvoice.benchmark.load;
+
+import com.app.novelvoice.benchmark.ChatPayloads;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行格式为 --名称=值，未指定的使用默认值
+ */
+class LoadOptions {
+
+    /**
+     * WebSocket 地址
+     */
+    URI url = URI.create("ws://127.0.0.1:8081/ws");
+
+    /**
+     * 并发连接数，每个连接模拟一个用户
+     */
+    int clients = 1000;
+
+    /**
+     * 每秒新建连接数，避免瞬间建连压垮握手
+     */
+    int connectRate = 500;
+
+    /**
+     * 每秒发送的消息总数（所有连接合计）
+     */
+    int rate = 200;
+
+    /**
+     * 私聊消息占比，其余为聊天室消息
+     */
+    double privateRatio = 0.5;
+
+    /**
+     * 聊天室数量，第 i 个连接加入 i % rooms + 1 号聊天室
+     */
+    int rooms = 10;
+
+    /**
+     * 消息规模
+     */
+    ChatPayloads.Size size = ChatPayloads.Size.SHORT;
+
+    /**
+     * 发送时长（秒）
+     */
+    int durationSeconds = 60;
+
+    /**
+     * 预热时长（秒），期间发送的消息不计入统计
+     */
+    int warmupSeconds = 5;
+
+    /**
+     * 停止发送后等待在途消息送达的时间（秒），之后仍未送达的计为丢失
+     */
+    int drainSeconds = 5;
+
+    /**
+     * 端到端延迟超过该值的投递计为迟到（毫秒）
+     */
+    long lateMillis = 1000;
+
+    /**
+     * 模拟用户ID起始值，应避开真实用户
+     */
+    long userIdBase = 1_000_000L;
+
+    /**
+     * 登录 token 文件，每行 "用户ID,token"，第 i 个连接使用第 i 行并在握手 URL 上携带 token。
+     * 不指定时不带 token、用户ID从 userIdBase 起编号，服务端需关闭握手鉴权（netty.websocket.auth.enabled=false）
+     */
+    String tokens;
+
+    /**
+     * 客户端 I/O 线程数，0 表示 Netty 默认值
+     */
+    int threads = 0;
+
+    /**
+     * 是否协商 permessage-deflate
+     */
+    boolean compression = false;
+
+    /**
+     * 报告输出路径（JSON）
+     */
+    String report = "load-report.json";
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --名称=值: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "url":
+                    options.url = URI.create(value);
+                    break;
+                case "clients":
+                    options.clients = Integer.parseInt(value);
+                    break;
+                case "connect-rate":
+                    options.connectRate = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    options.rate = Integer.parseInt(value);
+                    break;
+                case "private-ratio":
+                    options.privateRatio = Double.parseDouble(value);
+                    break;
+                case "rooms":
+                    options.rooms = Integer.parseInt(value);
+                    break;
+                case "size":
+                    options.size = ChatPayloads.Size.valueOf(value.toUpperCase());
+                    break;
+                case "duration":
+                    options.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    options.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "drain":
+                    options.drainSeconds = Integer.parseInt(value);
+                    break;
+                case "late-ms":
+                    options.lateMillis = Long.parseLong(value);
+                    break;
+                case "user-id-base":
+                    options.userIdBase = Long.parseLong(value);
+                    break;
+                case "tokens":
+                    options.tokens = value;
+                    break;
+                case "threads":
+                    options.threads = Integer.parseInt(value);
+                    break;
+                case "compression":
+                    options.compression = Boolean.parseBoolean(value);
+                    break;
+                case "report":
+                    options.report = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知参数: --" + name);
+            }
+        }
+        if (!"ws".equalsIgnoreCase(options.url.getScheme())) {
+            throw new IllegalArgumentException("仅支持 ws:// 地址: " + options.url);
+        }
+        if (options.clients < 2 || options.rooms < 1 || options.rate < 1 || options.connectRate < 1) {
+            throw new IllegalArgumentException("clients 至少为 2，rooms、rate、connect-rate 至少为 1");
+        }
+        if (options.privateRatio < 0 || options.privateRatio > 1) {
+            throw new IllegalArgumentException("private-ratio 应在 0 到 1 之间");
+        }
+        return options;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("url", url.toString());
+        map.put("clients", clients);
+        map.put("connectRate", connectRate);
+        map.put("rate", rate);
+        map.put("privateRatio", privateRatio);
+        map.put("rooms", rooms);
+        map.put("size", size.name());
+        map.put("durationSeconds", durationSeconds);
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("drainSeconds", drainSeconds);
+        map.put("lateMillis", lateMillis);
+        map.put("compression", compression);
+        map.put("authenticated", tokens != null);
+        return map;
+    }
+}
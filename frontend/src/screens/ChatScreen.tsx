@@ -35,10 +35,33 @@ const protoRoot = protobuf.Root.fromJSON({
                 fileSize: { type: 'int64', id: 8 },
                 senderNickname: { type: 'string', id: 9 },
                 senderAvatar: { type: 'string', id: 10 },
+                kind: { type: 'int32', id: 12 },
+                seq: { type: 'int64', id: 13 },
+                retryAfterMs: { type: 'int64', id: 14 },
+                batch: { type: 'ChatBatch', id: 15 },
+            },
+        },
+        // 批量帧：历史推送、断线补发时一帧携带多条消息
+        ChatBatch: {
+            fields: {
+                messages: { rule: 'repeated', type: 'ChatMessage', id: 1 },
             },
         },
     },
 });
+
+// 消息种类（与服务端 MessageKind 一致）
+const KIND_CHAT = 0;
+const KIND_RATE_LIMITED = 4;
+const KIND_BATCH = 5;
+const KIND_INBOX = 6;
+
+type IncomingMessage = Message & {
+    kind?: number;
+    seq?: string;
+    retryAfterMs?: string;
+    batch?: { messages?: IncomingMessage[] };
+};
 const ChatMessageProto = protoRoot.lookupType('ChatMessage');
 
 interface Props {
@@ -66,6 +89,8 @@ const ChatScreen: React.FC<Props> = ({ route, navigation }) => {
     
     // WebSocket 引用
     const ws = useRef<WebSocket | null>(null);
+    // 已显示消息的服务端序号：重连后服务端会再次推送最近消息，按序号去重
+    const seenSeqs = useRef<Set<string>>(new Set());
     const flatListRef = useRef<FlatList>(null);
 
     useEffect(() => {
@@ -82,7 +107,12 @@ const ChatScreen: React.FC<Props> = ({ route, navigation }) => {
             ),
         });
 
-        fetchHistory();
+        seenSeqs.current.clear();
+        setMessages([]);
+        // 群聊历史由服务端在握手后以批量帧推送，私聊仍通过接口获取
+        if (isPrivateChat) {
+            fetchHistory();
+        }
         connectWebSocket();
 
         return () => {
@@ -92,7 +122,8 @@ const ChatScreen: React.FC<Props> = ({ route, navigation }) => {
 
     // 连接 WebSocket
     const connectWebSocket = () => {
-        ws.current = new WebSocket(WS_URL);
+        // 握手时携带登录 token，服务端据此识别发送者
+        ws.current = new WebSocket(`${WS_URL}?token=${encodeURIComponent(user.token || '')}`);
         ws.current.binaryType = 'arraybuffer';
 
         ws.current.onopen = () => {
@@ -103,30 +134,19 @@ const ChatScreen: React.FC<Props> = ({ route, navigation }) => {
             try {
                 const uint8Array = new Uint8Array(e.data);
                 const decoded = ChatMessageProto.decode(uint8Array);
-                const msg = ChatMessageProto.toObject(decoded, {
+                const frame = ChatMessageProto.toObject(decoded, {
                     longs: String,
                     enums: String,
                     bytes: String,
-                }) as Message;
-                
-                // 根据是否私聊过滤消息
-                if (isPrivateChat) {
-                    // 私聊模式：只接收与目标用户之间的消息
-                    const senderId = Number(msg.senderId);
-                    const receiverId = Number(msg.receiverId);
-                    const userId = Number(user.id);
-                    const targetId = Number(targetUser?.id);
-                    
-                    if ((senderId === userId && receiverId === targetId) ||
-                        (senderId === targetId && receiverId === userId)) {
-                        setMessages((prev) => [...prev, msg]);
-                    }
-                } else {
-                    // 群聊模式：只接收群聊消息（receiverId 为 0 或 undefined）
-                    if (!msg.receiverId || Number(msg.receiverId) === 0) {
-                        setMessages((prev) => [...prev, msg]);
-                    }
+                }) as IncomingMessage;
+
+                // 批量帧中的消息按顺序逐条处理，一次性追加到列表
+                const incoming = frame.kind === KIND_BATCH ? (frame.batch?.messages || []) : [frame];
+                const accepted = incoming.filter(acceptMessage);
+                if (accepted.length === 0) {
+                    return;
                 }
+                setMessages((prev) => [...prev, ...accepted]);
                 
                 // 滚动到底部
                 setTimeout(() => {
@@ -152,18 +172,61 @@ const ChatScreen: React.FC<Props> = ({ route, navigation }) => {
         };
     };
 
+    // 判断一条推送的消息是否应显示在当前聊天中
+    const acceptMessage = (msg: IncomingMessage): boolean => {
+        const kind = msg.kind || KIND_CHAT;
+        // 服务端限流通知：提示稍后再发，不作为聊天消息显示
+        if (kind === KIND_RATE_LIMITED) {
+            const seconds = Math.max(1, Math.ceil(Number(msg.retryAfterMs || 0) / 1000));
+            Alert.alert('提示', `发送过于频繁，请 ${seconds} 秒后再试`);
+            return false;
+        }
+        // 离线收件箱回执：原样回复 seq 确认已收到，服务端据此清除已投递的离线消息
+        if (kind === KIND_INBOX) {
+            if (ws.current && ws.current.readyState === WebSocket.OPEN) {
+                const ack = ChatMessageProto.create({ kind: KIND_INBOX, seq: msg.seq });
+                ws.current.send(ChatMessageProto.encode(ack).finish());
+            }
+            return false;
+        }
+        // 补发回执、聊天室回执等控制消息不显示
+        if (kind !== KIND_CHAT) {
+            return false;
+        }
+        if (msg.seq && msg.seq !== '0') {
+            if (seenSeqs.current.has(msg.seq)) {
+                return false;
+            }
+            seenSeqs.current.add(msg.seq);
+        }
+
+        // 根据是否私聊过滤消息
+        if (isPrivateChat) {
+            // 私聊模式：只接收与目标用户之间的消息
+            const senderId = Number(msg.senderId);
+            const receiverId = Number(msg.receiverId);
+            const userId = Number(user.id);
+            const targetId = Number(targetUser?.id);
+            return (senderId === userId && receiverId === targetId) ||
+                (senderId === targetId && receiverId === userId);
+        }
+        // 群聊模式：只接收大厅消息（receiverId 为 0 或 undefined）
+        return !msg.receiverId || Number(msg.receiverId) === 0;
+    };
+
     // 获取历史消息
     const fetchHistory = async () => {
         try {
             let data;
             if (isPrivateChat && targetUser) {
                 // 获取私聊历史
-                data = await api.get(`/chat/private/${user.id}/${targetUser.id}?limit=100`);
+                data = await api.get(`/chat/private/${user.id}/${targetUser.id}?limit=50`);
             } else {
                 // 获取群聊历史
                 data = await api.get('/chat/history');
             }
-            setMessages(data || []);
+            // 接口返回最新一页、从新到旧，按时间顺序显示
+            setMessages((data || []).slice().reverse());
             
             // 滚动到底部
             setTimeout(() => {